@@ -5,16 +5,23 @@
 package org.hibernate.cfg;
 
 
+import java.io.File;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.hibernate.DuplicateMappingException;
 import org.hibernate.FetchMode;
@@ -27,18 +34,23 @@ import org.hibernate.boot.spi.MetadataImplementor;
 import org.hibernate.cfg.binder.BinderUtils;
 import org.hibernate.cfg.binder.PrimaryKeyInfo;
 import org.hibernate.cfg.binder.PropertyBinder;
+import org.hibernate.cfg.reveng.AssociationGraph;
 import org.hibernate.cfg.reveng.AssociationInfo;
 import org.hibernate.cfg.reveng.DatabaseCollector;
 import org.hibernate.cfg.reveng.JDBCReader;
 import org.hibernate.cfg.reveng.JDBCToHibernateTypeHelper;
 import org.hibernate.cfg.reveng.MappingsDatabaseCollector;
 import org.hibernate.cfg.reveng.RevEngUtils;
+import org.hibernate.cfg.reveng.ReverseEngineeringMetrics;
+import org.hibernate.cfg.reveng.ReverseEngineeringMetrics.Phase;
 import org.hibernate.cfg.reveng.ReverseEngineeringStrategy;
+import org.hibernate.cfg.reveng.TableFingerprints;
 import org.hibernate.cfg.reveng.TableIdentifier;
 import org.hibernate.engine.OptimisticLockStyle;
 import org.hibernate.engine.jdbc.spi.JdbcServices;
 import org.hibernate.engine.spi.Mapping;
 import org.hibernate.internal.util.StringHelper;
+import org.hibernate.internal.util.config.ConfigurationHelper;
 import org.hibernate.mapping.Collection;
 import org.hibernate.mapping.Column;
 import org.hibernate.mapping.Component;
@@ -55,6 +67,7 @@ import org.hibernate.mapping.RootClass;
 import org.hibernate.mapping.SimpleValue;
 import org.hibernate.mapping.Table;
 import org.hibernate.mapping.ToOne;
+import org.hibernate.mapping.Value;
 import org.hibernate.service.ServiceRegistry;
 import org.hibernate.tool.util.TableNameQualifier;
 import org.hibernate.type.ForeignKeyDirection;
@@ -69,6 +82,22 @@ import org.slf4j.LoggerFactory;
  */
 public class JDBCBinder {
 
+	/**
+	 * File to keep table fingerprints in. When set only the entities of tables that changed since the
+	 * fingerprints were last stored, or are associated with such a table, are reported as dirty.
+	 * Exporters do not go by the dirty entities but keep the fingerprints per generated file in their
+	 * {@link org.hibernate.tool.hbm2x.OutputManifest}, so each of them exports what changed since it last ran.
+	 * @see TableFingerprints
+	 */
+	public static final String INCREMENTAL = "hibernatetool.reveng.incremental";
+
+	/**
+	 * Number of threads to bind the entities of the tables with. Defaults to 1, i.e. serial binding.
+	 * With more threads the entities and their own properties are bound concurrently, so the reverse
+	 * engineering strategy must allow being called by several threads at the same time.
+	 */
+	public static final String BINDER_THREADS = "hibernatetool.reveng.binder.threads";
+
 	private Properties properties;
 	private static final Logger log = LoggerFactory.getLogger(JDBCBinder.class);
 
@@ -84,6 +113,14 @@ public class JDBCBinder {
 	private final ServiceRegistry serviceRegistry;
 	private final String defaultCatalog;
 	private final String defaultSchema;
+	
+	private TableFingerprints tableFingerprints;
+	private Set<String> dirtyEntityNames;
+	private Map<String, String> entityFingerprints;
+	private ReverseEngineeringMetrics metrics;
+	private AssociationGraph associations;
+	// the entities bound but not yet registered, while binding with several threads
+	private Map<Table, EntityBinding> pendingBindings;
 
 	/**
 	 * @param mappings
@@ -133,9 +170,48 @@ public class JDBCBinder {
 	     JDBCReader reader = JDBCReaderFactory.newJDBCReader(properties,revengStrategy,serviceRegistry);
 	     DatabaseCollector dbs = new MappingsDatabaseCollector(metadataCollector, reader.getMetaDataDialect());
 
-	     reader.readDatabaseSchema(dbs, catalog, schema);
+	     List<Table> tables = reader.readDatabaseSchema(dbs, catalog, schema);
+	     metrics = reader.getMetrics();
+	     String fingerprintFile = properties.getProperty(INCREMENTAL);
+	     if(fingerprintFile!=null) {
+	    	 tableFingerprints = new TableFingerprints(new File(fingerprintFile));
+	    	 tableFingerprints.update(dbs, tables);
+	    	 dirtyEntityNames = new HashSet<String>();
+	    	 entityFingerprints = new HashMap<String, String>();
+	     }
 	     return dbs;
 	}
+	
+	/**
+	 * @return the fingerprints of the tables read, or null when not reading incrementally.
+	 */
+	public TableFingerprints getTableFingerprints() {
+		return tableFingerprints;
+	}
+	
+	/**
+	 * @return names of the entities whose table, or a table associated with it, changed, or null when not reading incrementally.
+	 */
+	public Set<String> getDirtyEntityNames() {
+		return dirtyEntityNames;
+	}
+	
+	/**
+	 * @return the fingerprints of the tables of the entities and the tables associated with them, by entity name, 
+	 * or null when not reading incrementally.
+	 * @see TableFingerprints#getFingerprint(Table)
+	 */
+	public Map<String, String> getEntityFingerprints() {
+		return entityFingerprints;
+	}
+	
+	/**
+	 * @return the metrics of reading the database and creating the persistent classes, or null when not measuring.
+	 * @see JDBCReaderFactory#METRICS
+	 */
+	public ReverseEngineeringMetrics getMetrics() {
+		return metrics;
+	}
 
 
 
@@ -145,32 +221,167 @@ public class JDBCBinder {
 	 */
 	private void createPersistentClasses(DatabaseCollector collector, Mapping mapping) {
 		Map<String, List<ForeignKey>> manyToOneCandidates = collector.getOneToManyCandidates();
-		for (Iterator<Table> iter = metadataCollector.collectTableMappings().iterator(); iter.hasNext();) {
+		associations = AssociationGraph.build(revengStrategy, metadataCollector.collectTableMappings());
+		List<Table> tables = new ArrayList<Table>(metadataCollector.collectTableMappings());
+		int threads = Math.min(ConfigurationHelper.getInt(BINDER_THREADS, properties, 1), tables.size());
+		if(threads>1) {
+			createPersistentClasses(tables, threads, collector, manyToOneCandidates, mapping);
+			return;
+		}
+		for (Iterator<Table> iter = tables.iterator(); iter.hasNext();) {
 			Table table = iter.next();
-			if (table.getCatalog() != null && table.getCatalog().equals(defaultCatalog)) {
-				table.setCatalog(null);
+			long start = System.nanoTime();
+			EntityBinding binding = startBinding(table);
+			if(binding!=null) {
+				bindEntity(binding, collector, mapping);
+				registerEntity(binding, manyToOneCandidates, mapping, start);
+			}
+		}
+	}
+
+	/**
+	 * Bind the entities of the tables in two phases. First each entity and its own properties are bound
+	 * from its table concurrently; then the entities are registered, and their collections bound, serially
+	 * in the order of the tables, so duplicate class names are found and reported as when binding serially.
+	 *
+	 * Binding a collection aligns the types of the foreign key columns in the table of its elements. When that
+	 * table comes later and already had the type of such a column guessed, its entity is bound again at its turn,
+	 * so the types are guessed from the same columns as when binding serially.
+	 */
+	private void createPersistentClasses(List<Table> tables, int threads, final DatabaseCollector collector, Map<String, List<ForeignKey>> manyToOneCandidates, final Mapping mapping) {
+		final List<EntityBinding> bindings = new ArrayList<EntityBinding>();
+		for (Iterator<Table> iter = tables.iterator(); iter.hasNext();) {
+			EntityBinding binding = startBinding(iter.next());
+			if(binding!=null) {
+				bindings.add(binding);
+			}
+		}
+
+		// only read when registering, after the entities are bound
+		pendingBindings = new IdentityHashMap<Table, EntityBinding>();
+		for (Iterator<EntityBinding> iter = bindings.iterator(); iter.hasNext();) {
+			EntityBinding binding = iter.next();
+			pendingBindings.put(binding.table, binding);
+		}
+		try {
+			bindEntities(bindings, threads, collector, mapping);
+			for (Iterator<EntityBinding> iter = bindings.iterator(); iter.hasNext();) {
+				EntityBinding binding = iter.next();
+				long start = System.nanoTime();
+				pendingBindings.remove(binding.table);
+				if(binding.rc==null && binding.failure==null) { // discarded
+					bindEntity(binding, collector, mapping);
+				}
+				else {
+					binding.restoreColumnValues();
+					start -= binding.bindingTime;
+				}
+				registerEntity(binding, manyToOneCandidates, mapping, start);
+			}
+		}
+		finally {
+			pendingBindings = null;
+		}
+	}
+
+	private void bindEntities(final List<EntityBinding> bindings, int threads, final DatabaseCollector collector, final Mapping mapping) {
+		final AtomicInteger nextBinding = new AtomicInteger();
+		log.debug("Binding " + bindings.size() + " entities using " + threads + " threads");
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		List<Future<?>> futures = new ArrayList<Future<?>>(threads);
+		try {
+			for (int i = 0; i < threads; i++) {
+				futures.add(executor.submit(new Runnable() {
+					public void run() {
+						int index;
+						while((index = nextBinding.getAndIncrement()) < bindings.size()) {
+							EntityBinding binding = bindings.get(index);
+							long start = System.nanoTime();
+							bindEntity(binding, collector, mapping);
+							binding.bindingTime = System.nanoTime() - start;
+						}
+					}
+				}));
 			}
-			if (table.getSchema() != null && table.getSchema().equals(defaultSchema)) {
-				table.setSchema(null);
+			for (Iterator<Future<?>> iter = futures.iterator(); iter.hasNext();) {
+				waitFor(iter.next());
 			}
-			if(table.getColumnSpan()==0) {
-				log.warn("Cannot create persistent class for " + table + " as no columns were found.");
-				continue;
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private void waitFor(Future<?> future) {
+		try {
+			future.get();
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new JDBCBinderException("Interrupted while binding entities", e);
+		}
+		catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if(cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
 			}
-			// TODO: this naively just create an entity per table
-			// should have an opt-out option to mark some as helper tables, subclasses etc.
-			/*if(table.getPrimaryKey()==null || table.getPrimaryKey().getColumnSpan()==0) {
-			    log.warn("Cannot create persistent class for " + table + " as no primary key was found.");
-                continue;
-                // TODO: just create one big embedded composite id instead.
-            }*/
-
-			if(revengStrategy.isManyToManyTable(table)) {
-				log.debug( "Ignoring " + table + " as class since rev.eng. says it is a many-to-many" );
-				continue;
+			if(cause instanceof Error) {
+				throw (Error) cause;
 			}
+			throw new JDBCBinderException("Could not bind entities", cause);
+		}
+	}
+
+	/**
+	 * Drop the default catalog and schema from the table and decide whether it gets an entity.
+	 * @return the binding to bind the entity of the table with, or null if the table gets no entity
+	 */
+	private EntityBinding startBinding(Table table) {
+		EntityBinding binding = new EntityBinding(table);
+		binding.catalog = table.getCatalog()==null ? defaultCatalog : table.getCatalog();
+		binding.schema = table.getSchema()==null ? defaultSchema : table.getSchema();
+		binding.dirty = tableFingerprints==null || tableFingerprints.isDirty(table);
+		binding.fingerprint = tableFingerprints==null ? null : tableFingerprints.getFingerprint(table);
+		if (table.getCatalog() != null && table.getCatalog().equals(defaultCatalog)) {
+			table.setCatalog(null);
+		}
+		if (table.getSchema() != null && table.getSchema().equals(defaultSchema)) {
+			table.setSchema(null);
+		}
+		if(table.getColumnSpan()==0) {
+			log.warn("Cannot create persistent class for " + table + " as no columns were found.");
+			return null;
+		}
+		// TODO: this naively just create an entity per table
+		// should have an opt-out option to mark some as helper tables, subclasses etc.
+		/*if(table.getPrimaryKey()==null || table.getPrimaryKey().getColumnSpan()==0) {
+		    log.warn("Cannot create persistent class for " + table + " as no primary key was found.");
+            continue;
+            // TODO: just create one big embedded composite id instead.
+        }*/
+
+		if(associations.isManyToManyTable(table)) {
+			log.debug( "Ignoring " + table + " as class since rev.eng. says it is a many-to-many" );
+			return null;
+		}
+		return binding;
+	}
 
-	    	
+	/**
+	 * Bind the entity and the properties that only depend on its own table. Only changes the entity and the
+	 * columns of the table, so the entities of different tables can be bound at the same time.
+	 * A failure is kept in the binding, to be thrown when the entity is registered.
+	 * What binding changes in the columns is only remembered while other bindings are pending, to restore
+	 * or undo it when binding concurrently.
+	 */
+	private void bindEntity(EntityBinding binding, DatabaseCollector collector, Mapping mapping) {
+		Table table = binding.table;
+		boolean remember = pendingBindings!=null;
+		binding.reset();
+		if(remember) {
+			binding.rememberColumns();
+		}
+		try {
 			RootClass rc = new RootClass(mdbc);
 			TableIdentifier tableIdentifier = TableIdentifier.create(table);
 			String className = revengStrategy.tableToClassName( tableIdentifier );
@@ -192,29 +403,70 @@ public class JDBCBinder {
 
 			rc.setDiscriminatorValue( rc.getEntityName() );
 			rc.setTable(table);
-			try {
-				metadataCollector.addEntityBinding(rc);
-			} catch(DuplicateMappingException dme) {
-				// TODO: detect this and generate a "permutation" of it ?
-				PersistentClass class1 = metadataCollector.getEntityBinding(dme.getName());
-				Table table2 = class1.getTable();
-				throw new JDBCBinderException("Duplicate class name '" + rc.getEntityName() + "' generated for '" + table + "'. Same name where generated for '" + table2 + "'");
-			}
-			metadataCollector.addImport( rc.getEntityName(), rc.getEntityName() );
-
-			Set<Column> processed = new HashSet<Column>();
+			binding.rc = rc;
 
+			binding.pki = bindPrimaryKeyToProperties(table, rc, binding.processed, mapping, collector);
+			bindColumnsToVersioning(table, rc, binding.processed, mapping);
+			bindOutgoingForeignKeys(table, rc, binding.processed);
+			bindColumnsToProperties(table, rc, binding.processed, mapping);
+		}
+		catch (RuntimeException e) {
+			binding.failure = e;
+		}
+		if(remember) {
+			binding.rememberColumnValues();
+		}
+	}
 
-			PrimaryKeyInfo pki = bindPrimaryKeyToProperties(table, rc, processed, mapping, collector);
-			bindColumnsToVersioning(table, rc, processed, mapping);
-			bindOutgoingForeignKeys(table, rc, processed);
-			bindColumnsToProperties(table, rc, processed, mapping);
-			List<ForeignKey> incomingForeignKeys = manyToOneCandidates.get( rc.getEntityName() );
-			bindIncomingForeignKeys(rc, processed, incomingForeignKeys, mapping);
-			updatePrimaryKey(rc, pki);
+	/**
+	 * Register the bound entity and bind its collections.
+	 */
+	private void registerEntity(EntityBinding binding, Map<String, List<ForeignKey>> manyToOneCandidates, Mapping mapping, long start) {
+		RootClass rc = binding.rc;
+		if(rc==null) {
+			throw binding.failure;
+		}
+		Table table = binding.table;
+		if(binding.dirty && dirtyEntityNames!=null) {
+			dirtyEntityNames.add(rc.getEntityName());
+		}
+		if(binding.fingerprint!=null && entityFingerprints!=null) {
+			entityFingerprints.put(rc.getEntityName(), binding.fingerprint);
+		}
+		try {
+			metadataCollector.addEntityBinding(rc);
+		} catch(DuplicateMappingException dme) {
+			// TODO: detect this and generate a "permutation" of it ?
+			PersistentClass class1 = metadataCollector.getEntityBinding(dme.getName());
+			Table table2 = class1.getTable();
+			throw new JDBCBinderException("Duplicate class name '" + rc.getEntityName() + "' generated for '" + table + "'. Same name where generated for '" + table2 + "'");
+		}
+		metadataCollector.addImport( rc.getEntityName(), rc.getEntityName() );
+		if(binding.failure!=null) {
+			throw binding.failure;
+		}
 
+		List<ForeignKey> incomingForeignKeys = manyToOneCandidates.get( rc.getEntityName() );
+		bindIncomingForeignKeys(rc, binding.processed, incomingForeignKeys, mapping);
+		updatePrimaryKey(rc, binding.pki);
+		if(metrics!=null) {
+			metrics.time(Phase.BINDING, binding.catalog, binding.schema, table.getName(), start);
 		}
+	}
 
+	/**
+	 * Discard the binding of the entity of the table of the foreign key if it guessed the type of one
+	 * of the columns of the key, which binding the key as collection may change.
+	 */
+	private void discardPendingBinding(ForeignKey foreignKey) {
+		if(pendingBindings==null) {
+			return;
+		}
+		EntityBinding binding = pendingBindings.get(foreignKey.getTable());
+		if(binding!=null && binding.rc!=null && binding.hasTypedColumn(foreignKey.getColumns())) {
+			log.debug("Binding " + binding.rc.getEntityName() + " again as the types of the columns of " + foreignKey.getName() + " may change");
+			binding.discard();
+		}
 	}
 
 	private void updatePrimaryKey(RootClass rc, PrimaryKeyInfo pki) {
@@ -257,6 +509,7 @@ public class JDBCBinder {
 		if(foreignKeys!=null) {
 			for (Iterator<ForeignKey> iter = foreignKeys.iterator(); iter.hasNext();) {
 				ForeignKey foreignKey = iter.next();
+				discardPendingBinding(foreignKey);
 
 				if(revengStrategy.excludeForeignKeyAsCollection(
 						foreignKey.getName(),
@@ -265,7 +518,7 @@ public class JDBCBinder {
 						TableIdentifier.create(foreignKey.getReferencedTable() ),
 						foreignKey.getReferencedColumns())) {
 					log.debug("Rev.eng excluded one-to-many or one-to-one for foreignkey " + foreignKey.getName());
-				} else if (revengStrategy.isOneToOne(foreignKey)){
+				} else if (associations.isOneToOne(foreignKey)){
 					Property property = bindOneToOne(rc, foreignKey.getTable(), foreignKey, processed, false, true);
 					rc.addProperty(property);
 				} else {
@@ -461,7 +714,7 @@ public class JDBCBinder {
 
 
 
-		boolean manyToMany = revengStrategy.isManyToManyTable( collectionTable );
+		boolean manyToMany = associations.isManyToManyTable( collectionTable );
 		if(manyToMany) {
 			//log.debug("Rev.eng said here is a many-to-many");
 			// TODO: handle "the other side should influence the name"
@@ -607,15 +860,7 @@ public class JDBCBinder {
 
 	/** return true if this foreignkey is the only reference from this table to the same foreign table */
     private boolean isUniqueReference(ForeignKey foreignKey) {
-
-    	Iterator<?> foreignKeyIterator = foreignKey.getTable().getForeignKeyIterator();
-    	while ( foreignKeyIterator.hasNext() ) {
-			ForeignKey element = (ForeignKey) foreignKeyIterator.next();
-			if(element!=foreignKey && element.getReferencedTable().equals(foreignKey.getReferencedTable())) {
-				return false;
-			}
-		}
-		return true;
+    	return associations.isUniqueReference(foreignKey);
 	}
 
 	private PrimaryKeyInfo bindPrimaryKeyToProperties(Table table, RootClass rc, Set<Column> processed, Mapping mapping, DatabaseCollector collector) {
@@ -730,7 +975,7 @@ public class JDBCBinder {
         			foreignKey.getReferencedColumns())) {
             	// TODO: if many-to-one is excluded should the column be marked as processed so it won't show up at all ?
             	log.debug("Rev.eng excluded *-to-one for foreignkey " + foreignKey.getName());
-            } else if (revengStrategy.isOneToOne(foreignKey)){
+            } else if (associations.isOneToOne(foreignKey)){
 				Property property = bindOneToOne(rc, foreignKey.getReferencedTable(), foreignKey, processedColumns, true, false);
 				rc.addProperty(property);
 			} else {
@@ -1076,4 +1321,113 @@ public class JDBCBinder {
         }
     }
 
+	/**
+	 * The entity bound for a table, with what binding it changed in the columns of the table.
+	 */
+	static class EntityBinding {
+
+		final Table table;
+		String catalog;
+		String schema;
+		boolean dirty;
+		String fingerprint;
+		RootClass rc;
+		PrimaryKeyInfo pki;
+		Set<Column> processed;
+		RuntimeException failure;
+		long bindingTime;
+
+		private final Map<Column, Integer> sqlTypeCodes = new IdentityHashMap<Column, Integer>();
+		private final Map<Column, Value> values = new IdentityHashMap<Column, Value>();
+		private final Map<Column, Value> boundValues = new IdentityHashMap<Column, Value>();
+		private final Map<Column, Integer> boundTypeIndexes = new IdentityHashMap<Column, Integer>();
+		private final Set<Column> typedColumns = Collections.newSetFromMap(new IdentityHashMap<Column, Boolean>());
+
+		EntityBinding(Table table) {
+			this.table = table;
+		}
+
+		/** forget what was bound before, to bind the entity (again) */
+		void reset() {
+			rc = null;
+			pki = null;
+			failure = null;
+			processed = new HashSet<Column>();
+		}
+
+		void rememberColumns() {
+			sqlTypeCodes.clear();
+			values.clear();
+			boundValues.clear();
+			boundTypeIndexes.clear();
+			typedColumns.clear();
+			for (Iterator<?> iter = table.getColumnIterator(); iter.hasNext();) {
+				Column column = (Column) iter.next();
+				sqlTypeCodes.put(column, column.getSqlTypeCode());
+				values.put(column, column.getValue());
+			}
+		}
+
+		void rememberColumnValues() {
+			for (Iterator<?> iter = table.getColumnIterator(); iter.hasNext();) {
+				Column column = (Column) iter.next();
+				if(column.getValue()!=values.get(column)) {
+					boundValues.put(column, column.getValue());
+					boundTypeIndexes.put(column, column.getTypeIndex());
+				}
+			}
+			if(rc!=null) {
+				addTypedColumns(rc.getIdentifier());
+				for (Iterator<?> iter = rc.getPropertyIterator(); iter.hasNext();) {
+					addTypedColumns(((Property) iter.next()).getValue());
+				}
+			}
+		}
+
+		// the columns of basic values got their type guessed, and maybe aligned
+		private void addTypedColumns(Value value) {
+			if(value instanceof Component) {
+				for (Iterator<?> iter = ((Component) value).getPropertyIterator(); iter.hasNext();) {
+					addTypedColumns(((Property) iter.next()).getValue());
+				}
+			}
+			else if(value instanceof SimpleValue && !(value instanceof ToOne)) {
+				for (Iterator<?> iter = value.getColumnIterator(); iter.hasNext();) {
+					Object column = iter.next();
+					if(column instanceof Column) {
+						typedColumns.add((Column) column);
+					}
+				}
+			}
+		}
+
+		boolean hasTypedColumn(List<Column> columns) {
+			for (Iterator<Column> iter = columns.iterator(); iter.hasNext();) {
+				if(typedColumns.contains(iter.next())) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		/** make the columns refer to the values bound for the entity again, as if it was bound last */
+		void restoreColumnValues() {
+			for (Iterator<Map.Entry<Column, Value>> iter = boundValues.entrySet().iterator(); iter.hasNext();) {
+				Map.Entry<Column, Value> entry = iter.next();
+				entry.getKey().setValue(entry.getValue());
+				entry.getKey().setTypeIndex(boundTypeIndexes.get(entry.getKey()).intValue());
+			}
+		}
+
+		/** forget the entity and undo the types aligned for it, to bind it again */
+		void discard() {
+			for (Iterator<Column> iter = typedColumns.iterator(); iter.hasNext();) {
+				Column column = iter.next();
+				column.setSqlTypeCode(sqlTypeCodes.get(column));
+			}
+			rc = null;
+			failure = null;
+		}
+	}
+
  }
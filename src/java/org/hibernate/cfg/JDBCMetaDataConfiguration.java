@@ -4,6 +4,9 @@
  */
 package org.hibernate.cfg;
 
+import java.util.Map;
+import java.util.Set;
+
 import org.dom4j.Element;
 import org.hibernate.MappingException;
 import org.hibernate.SessionFactory;
@@ -22,7 +25,9 @@ import org.hibernate.boot.spi.ClassLoaderAccess;
 import org.hibernate.boot.spi.MetadataBuildingContext;
 import org.hibernate.boot.spi.MetadataBuildingOptions;
 import org.hibernate.cfg.reveng.DefaultReverseEngineeringStrategy;
+import org.hibernate.cfg.reveng.ReverseEngineeringMetrics;
 import org.hibernate.cfg.reveng.ReverseEngineeringStrategy;
+import org.hibernate.cfg.reveng.TableFingerprints;
 import org.hibernate.dialect.Dialect;
 import org.hibernate.engine.jdbc.spi.JdbcServices;
 import org.hibernate.engine.spi.Mapping;
@@ -54,6 +59,10 @@ public class JDBCMetaDataConfiguration extends Configuration {
 	private MetadataBuildingOptions metadataBuildingOptions = null;
 	private MetadataBuildingContext metadataBuildingContext = null;
 	private Metadata metadata = null;
+	private TableFingerprints tableFingerprints = null;
+	private Set<String> dirtyEntityNames = null;
+	private Map<String, String> entityFingerprints = null;
+	private ReverseEngineeringMetrics metrics = null;
     
 	public Metadata getMetadata() {
 		if (metadata == null) {
@@ -130,8 +139,46 @@ public class JDBCMetaDataConfiguration extends Configuration {
 				preferBasicCompositeIds());
         
         binder.readFromDatabase(catalog, schema, buildMapping(getMetadata()));
+        tableFingerprints = binder.getTableFingerprints();
+        dirtyEntityNames = binder.getDirtyEntityNames();
+        entityFingerprints = binder.getEntityFingerprints();
+        metrics = binder.getMetrics();
     }
 	
+	/**
+	 * @return names of the entities that need to be generated again when reading incrementally, 
+	 * or null if all entities must be generated.
+	 * @see JDBCBinder#INCREMENTAL
+	 */
+	public Set<String> getDirtyEntityNames() {
+		return dirtyEntityNames;
+	}
+	
+	/**
+	 * @return the fingerprints of the tables each entity is generated from when reading incrementally, by entity name, 
+	 * or null if all entities must be generated. Exporters keep them per generated file, see {@link JDBCBinder#getEntityFingerprints()}.
+	 */
+	public Map<String, String> getEntityFingerprints() {
+		return entityFingerprints;
+	}
+	
+	/**
+	 * @return the metrics of the last read from the database, or null if the {@link JDBCReaderFactory#METRICS} property is not set.
+	 */
+	public ReverseEngineeringMetrics getReverseEngineeringMetrics() {
+		return metrics;
+	}
+	
+	/**
+	 * Store the table fingerprints of the last read so the next incremental read only reports what changed since.
+	 * Call this after generating everything for the dirty entities; does nothing when not reading incrementally.
+	 */
+	public void storeTableFingerprints() {
+		if(tableFingerprints!=null) {
+			tableFingerprints.store();
+		}
+	}
+	
 	@Override 
 	public SessionFactory buildSessionFactory() {
 		return getMetadata().buildSessionFactory();
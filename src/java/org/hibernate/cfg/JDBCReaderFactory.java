@@ -1,27 +1,102 @@
 package org.hibernate.cfg;
 
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Properties;
 
 import org.hibernate.cfg.reveng.JDBCReader;
+import org.hibernate.cfg.reveng.ReverseEngineeringMetrics;
 import org.hibernate.cfg.reveng.ReverseEngineeringStrategy;
+import org.hibernate.cfg.reveng.dialect.CachedMetaDataDialect;
 import org.hibernate.cfg.reveng.dialect.MetaDataDialect;
+import org.hibernate.cfg.reveng.dialect.MetaDataSnapshot;
+import org.hibernate.dialect.Dialect;
 import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
 import org.hibernate.engine.jdbc.spi.JdbcServices;
 import org.hibernate.exception.spi.SQLExceptionConverter;
+import org.hibernate.internal.util.config.ConfigurationHelper;
 import org.hibernate.service.ServiceRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 final public class JDBCReaderFactory {
 
+	private static final Logger log = LoggerFactory.getLogger(JDBCReaderFactory.class);
+
+	/** 
+	 * Number of threads, and thus connections, used for reading the per table meta data. Defaults to 1, i.e. serial reading.
+	 * Ignored when reading through a {@link #METADATA_SNAPSHOT}, which is read and written by one connection.
+	 */
+	public static final String READER_THREADS = "hibernatetool.reveng.threads";
+	
+	/** 
+	 * Number of tables to read the meta data for in one go when reading with multiple threads. Defaults to {@link JDBCReader#DEFAULT_BATCH_SIZE}.
+	 */
+	public static final String READER_BATCH_SIZE = "hibernatetool.reveng.batchsize";
+	
+	/** 
+	 * Read the meta data of a whole schema with one query per kind of meta data instead of per table. Defaults to false.
+	 */
+	public static final String PREFETCH_METADATA = "hibernatetool.reveng.prefetch";
+	
+	/** 
+	 * Directory to keep meta data snapshots in. When set the meta data is read from the snapshot for the 
+	 * connection and schema selection if there is one, and written to it after reading the database otherwise.
+	 */
+	public static final String METADATA_SNAPSHOT = "hibernatetool.reveng.snapshot";
+	
+	/** 
+	 * Ignore an existing meta data snapshot and replace it with what is read from the database. Defaults to false.
+	 */
+	public static final String METADATA_SNAPSHOT_REFRESH = "hibernatetool.reveng.snapshot.refresh";
+	
+	/** 
+	 * Only use the meta data snapshot and never read meta data from the database; fails if there is no snapshot. Defaults to false.
+	 */
+	public static final String METADATA_SNAPSHOT_OFFLINE = "hibernatetool.reveng.snapshot.offline";
+	
+	/** 
+	 * Record timings, meta data dialect calls and rows per phase of reverse engineering. Defaults to false.
+	 * @see ReverseEngineeringMetrics
+	 */
+	public static final String METRICS = "hibernatetool.reveng.metrics";
 	
 	public static JDBCReader newJDBCReader(
 			Properties properties, 
 			ReverseEngineeringStrategy revengStrategy, 
 			ServiceRegistry serviceRegistry) {	
+		Dialect dialect = serviceRegistry.getService(JdbcServices.class).getDialect();
 		MetaDataDialect mdd = MetaDataDialectFactory
 				.createMetaDataDialect(
-						serviceRegistry.getService(JdbcServices.class).getDialect(), 
+						dialect, 
 						properties );
-		return newJDBCReader(properties, revengStrategy, mdd, serviceRegistry);
+		String snapshotDirectory = properties.getProperty(METADATA_SNAPSHOT);
+		if(snapshotDirectory!=null) {
+			if(ConfigurationHelper.getInt(READER_THREADS, properties, 1)>1) {
+				log.info(READER_THREADS + " is ignored since the meta data is read through the snapshot in " + snapshotDirectory);
+			}
+			boolean offline = ConfigurationHelper.getBoolean(METADATA_SNAPSHOT_OFFLINE, properties, false);
+			CachedMetaDataDialect cached = new CachedMetaDataDialect(mdd, offline);
+			JDBCReader reader = newJDBCReader(properties, revengStrategy, cached, serviceRegistry);
+			reader.setMetaDataSnapshot(new MetaDataSnapshot(
+					cached, 
+					new File(snapshotDirectory), 
+					properties.getProperty(AvailableSettings.URL) + " " + properties.getProperty(AvailableSettings.USER), 
+					ConfigurationHelper.getBoolean(METADATA_SNAPSHOT_REFRESH, properties, false), 
+					offline));
+			return reader;
+		}
+		JDBCReader reader = newJDBCReader(properties, revengStrategy, mdd, serviceRegistry);
+		int threads = ConfigurationHelper.getInt(READER_THREADS, properties, 1);
+		if(threads>1) {
+			List<MetaDataDialect> dialects = new ArrayList<MetaDataDialect>(threads);
+			for (int i = 0; i < threads; i++) {
+				dialects.add(MetaDataDialectFactory.createMetaDataDialect(dialect, properties));
+			}
+			reader.setParallelMetaDataDialects(dialects);
+		}
+		return reader;
 	}
 
 	public static JDBCReader newJDBCReader(
@@ -39,13 +114,19 @@ final public class JDBCReaderFactory {
 				.getProperty(AvailableSettings.DEFAULT_CATALOG);
 		String defaultSchemaName = properties
 				.getProperty(AvailableSettings.DEFAULT_SCHEMA);
-		return new JDBCReader(
+		JDBCReader reader = new JDBCReader(
 				mdd, 
 				connectionProvider, 
 				sqlExceptionConverter, 
 				defaultCatalogName, 
 				defaultSchemaName, 
 				revengStrategy );
+		reader.setPrefetchMetaData(ConfigurationHelper.getBoolean(PREFETCH_METADATA, properties, false));
+		reader.setBatchSize(ConfigurationHelper.getInt(READER_BATCH_SIZE, properties, JDBCReader.DEFAULT_BATCH_SIZE));
+		if(ConfigurationHelper.getBoolean(METRICS, properties, false)) {
+			reader.setMetrics(new ReverseEngineeringMetrics());
+		}
+		return reader;
 	}
 
 }
@@ -0,0 +1,90 @@
+package org.hibernate.cfg.reveng;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.hibernate.mapping.ForeignKey;
+import org.hibernate.mapping.Table;
+
+/**
+ * How the tables read from the database are associated, classified once by the reverse engineering
+ * strategy before the persistent classes are bound, so the binder does not ask for the same
+ * table or foreign key again for each association it is part of.
+ *
+ * Holds which tables are many-to-many tables, which foreign keys are one-to-one associations
+ * and which foreign keys are the only reference from their table to the referenced table.
+ * The tables must have been fully read, including their foreign keys, and must not change afterwards.
+ * Tables and foreign keys not known to the graph are classified when asked for, without being remembered.
+ *
+ * Can be read by several threads at the same time.
+ */
+public class AssociationGraph {
+
+	private final ReverseEngineeringStrategy strategy;
+	private final Map<Table, Boolean> manyToManyTables = new IdentityHashMap<Table, Boolean>();
+	private final Map<ForeignKey, Boolean> oneToOnes = new IdentityHashMap<ForeignKey, Boolean>();
+	private final Map<ForeignKey, Boolean> uniqueReferences = new IdentityHashMap<ForeignKey, Boolean>();
+
+	private AssociationGraph(ReverseEngineeringStrategy strategy) {
+		this.strategy = strategy;
+	}
+
+	/**
+	 * Classify the tables and their foreign keys with the strategy.
+	 */
+	public static AssociationGraph build(ReverseEngineeringStrategy strategy, Collection<Table> tables) {
+		AssociationGraph graph = new AssociationGraph(strategy);
+		for (Iterator<Table> iter = tables.iterator(); iter.hasNext();) {
+			Table table = iter.next();
+			graph.manyToManyTables.put(table, Boolean.valueOf(strategy.isManyToManyTable(table)));
+			List<ForeignKey> foreignKeys = new ArrayList<ForeignKey>();
+			Map<Table, Integer> referenceCounts = new HashMap<Table, Integer>();
+			for (Iterator<?> fks = table.getForeignKeyIterator(); fks.hasNext();) {
+				ForeignKey foreignKey = (ForeignKey) fks.next();
+				foreignKeys.add(foreignKey);
+				Integer count = referenceCounts.get(foreignKey.getReferencedTable());
+				referenceCounts.put(foreignKey.getReferencedTable(), count==null ? 1 : count + 1);
+			}
+			for (Iterator<ForeignKey> fks = foreignKeys.iterator(); fks.hasNext();) {
+				ForeignKey foreignKey = fks.next();
+				graph.oneToOnes.put(foreignKey, Boolean.valueOf(strategy.isOneToOne(foreignKey)));
+				graph.uniqueReferences.put(foreignKey, Boolean.valueOf(referenceCounts.get(foreignKey.getReferencedTable()) == 1));
+			}
+		}
+		return graph;
+	}
+
+	/** @return true if the strategy says the table is only the middle table of a many-to-many association */
+	public boolean isManyToManyTable(Table table) {
+		Boolean result = manyToManyTables.get(table);
+		return result==null ? strategy.isManyToManyTable(table) : result.booleanValue();
+	}
+
+	/** @return true if the strategy says the foreign key is a one-to-one association */
+	public boolean isOneToOne(ForeignKey foreignKey) {
+		Boolean result = oneToOnes.get(foreignKey);
+		return result==null ? strategy.isOneToOne(foreignKey) : result.booleanValue();
+	}
+
+	/** @return true if the foreign key is the only reference from its table to the referenced table */
+	public boolean isUniqueReference(ForeignKey foreignKey) {
+		Boolean result = uniqueReferences.get(foreignKey);
+		return result==null ? isOnlyReference(foreignKey) : result.booleanValue();
+	}
+
+	private static boolean isOnlyReference(ForeignKey foreignKey) {
+		Iterator<?> foreignKeyIterator = foreignKey.getTable().getForeignKeyIterator();
+		while ( foreignKeyIterator.hasNext() ) {
+			ForeignKey element = (ForeignKey) foreignKeyIterator.next();
+			if(element!=foreignKey && element.getReferencedTable().equals(foreignKey.getReferencedTable())) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
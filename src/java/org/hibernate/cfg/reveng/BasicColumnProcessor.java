@@ -2,11 +2,12 @@ package org.hibernate.cfg.reveng;
 
 import java.sql.DatabaseMetaData;
 import java.util.Iterator;
-import java.util.Map;
 
 import org.hibernate.JDBCException;
 import org.hibernate.cfg.JDBCBinderException;
 import org.hibernate.cfg.reveng.dialect.MetaDataDialect;
+import org.hibernate.cfg.reveng.dialect.MetaDataRecords;
+import org.hibernate.cfg.reveng.dialect.MetaDataRecords.ColumnRecord;
 import org.hibernate.mapping.Column;
 import org.hibernate.mapping.Table;
 import org.hibernate.tool.util.TableNameQualifier;
@@ -25,22 +26,22 @@ public class BasicColumnProcessor {
 			ProgressListener progress) {
 		
 		String qualify = TableNameQualifier.qualify(table.getCatalog(), table.getSchema(), table.getName() );
-		Iterator<?> columnIterator = null;
+		Iterator<ColumnRecord> columnIterator = null;
 		
 		try {
-			Map<?, ?> columnRs = null;
+			ColumnRecord columnRs = null;
 			log.debug("Finding columns for " + qualify );
 			progress.startSubTask("Finding columns for " + qualify);
-			columnIterator = metaDataDialect.getColumns(getCatalogForDBLookup(table.getCatalog(), defaultCatalog), getSchemaForDBLookup(table.getSchema(), defaultSchema), table.getName(), null);
+			columnIterator = MetaDataRecords.getColumns(metaDataDialect, getCatalogForDBLookup(table.getCatalog(), defaultCatalog), getSchemaForDBLookup(table.getSchema(), defaultSchema), table.getName(), null);
 			//dumpHeader(columnRs);
 			while (columnIterator.hasNext() ) {
 				//dumpRow(columnRs);
-				columnRs = (Map<?, ?>) columnIterator.next();
-				String tableName = (String) columnRs.get("TABLE_NAME");
-				int sqlType = ((Integer)columnRs.get("DATA_TYPE")).intValue();
-				//String sqlTypeName = (String) columnRs.get("TYPE_NAME");
-				String columnName = (String) columnRs.get("COLUMN_NAME");
-				String comment = (String) columnRs.get("REMARKS");
+				columnRs = columnIterator.next();
+				String tableName = columnRs.getTableName();
+				int sqlType = columnRs.getDataType();
+				//String sqlTypeName = columnRs.getTypeName();
+				String columnName = columnRs.getName();
+				String comment = columnRs.getRemarks();
 				
 				TableIdentifier ti = RevEngUtils.createTableIdentifier(table, defaultCatalog, defaultSchema);
 				if(revengStrategy.excludeColumn(ti, columnName)) {
@@ -53,7 +54,7 @@ public class BasicColumnProcessor {
 				}
 				
 				//String columnDefaultValue = columnRs.getString("COLUMN_DEF"); TODO: only read if have a way to avoid issues with clobs/lobs and similar
-				int dbNullability = ((Integer)columnRs.get("NULLABLE")).intValue();
+				int dbNullability = columnRs.getNullable();
 				boolean isNullable = true;
 				switch (dbNullability) {
 				case DatabaseMetaData.columnNullable:
@@ -67,8 +68,8 @@ public class BasicColumnProcessor {
 					isNullable = true;
 				}
 				
-				int size = ((Integer)columnRs.get("COLUMN_SIZE")).intValue();
-				int decimalDigits = ((Integer)columnRs.get("DECIMAL_DIGITS")).intValue();
+				int size = columnRs.getSize();
+				int decimalDigits = columnRs.getDecimalDigits();
 				
 				Column column = new Column();
 				column.setName(quote(columnName, metaDataDialect));
@@ -110,7 +111,7 @@ public class BasicColumnProcessor {
 			
 			if(columnIterator!=null) {
 				try {
-					metaDataDialect.close(columnIterator);
+					MetaDataRecords.close(metaDataDialect, columnIterator);
 				} catch(JDBCException se) {
 					log.warn("Exception while closing iterator for column meta data",se);
 				}
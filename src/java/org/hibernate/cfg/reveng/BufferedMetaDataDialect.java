@@ -0,0 +1,149 @@
+package org.hibernate.cfg.reveng;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.hibernate.HibernateException;
+import org.hibernate.cfg.reveng.dialect.MetaDataDialect;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Serves meta data rows that have been read up front, e.g. concurrently or for a whole schema at once.
+ *
+ * Rows are kept per kind of meta data and per lookup (catalog, schema, table) exactly as the processors
+ * will ask for them. Each buffered result is served once and then released; lookups that were not
+ * buffered are delegated. The lifecycle of the delegate is left to the owner of it.
+ */
+class BufferedMetaDataDialect implements MetaDataDialect {
+
+	private static final Logger log = LoggerFactory.getLogger(BufferedMetaDataDialect.class);
+
+	static final String COLUMNS = "COLUMNS";
+	static final String PRIMARY_KEYS = "PRIMARY_KEYS";
+	static final String PRIMARY_KEY_STRATEGY = "PRIMARY_KEY_STRATEGY";
+	static final String INDEX_INFO = "INDEX_INFO";
+	static final String EXPORTED_KEYS = "EXPORTED_KEYS";
+
+	private final MetaDataDialect delegate;
+	private final Map<List<String>, Rows> rows;
+
+	BufferedMetaDataDialect(MetaDataDialect delegate, Map<List<String>, Rows> rows) {
+		this.delegate = delegate;
+		this.rows = rows;
+	}
+
+	static List<String> key(String kind, String catalog, String schema, String name) {
+		return Arrays.asList(new String[] { kind, catalog, schema, name });
+	}
+
+	/** Buffer all rows of the iterator; a failure is kept and replayed when the buffered rows are exhausted. */
+	static Rows read(MetaDataDialect dialect, Iterator<Map<String, Object>> iterator) {
+		List<Map<String, Object>> rows = new ArrayList<Map<String, Object>>();
+		try {
+			while(iterator.hasNext()) {
+				rows.add(new HashMap<String, Object>(iterator.next())); // need to copy since MetaDataDialect might reuse it.
+			}
+			return new Rows(rows, null);
+		}
+		catch(RuntimeException re) {
+			return new Rows(rows, re);
+		}
+		finally {
+			try {
+				dialect.close(iterator);
+			}
+			catch(HibernateException he) {
+				log.warn("Exception while closing iterator for meta data", he);
+			}
+		}
+	}
+
+	public void configure(ReverseEngineeringRuntimeInfo info) {
+		// already configured by the owner of the delegate
+	}
+
+	public Iterator<Map<String, Object>> getTables(String catalog, String schema, String table) {
+		return delegate.getTables(catalog, schema, table);
+	}
+
+	public void close(Iterator<?> iterator) {
+		if(!(iterator instanceof BufferedIterator)) {
+			delegate.close(iterator);
+		}
+	}
+
+	public Iterator<Map<String, Object>> getIndexInfo(String catalog, String schema, String table) {
+		Rows buffered = rows.remove(key(INDEX_INFO, catalog, schema, table));
+		return buffered==null ? delegate.getIndexInfo(catalog, schema, table) : new BufferedIterator(buffered);
+	}
+
+	public Iterator<Map<String, Object>> getColumns(String catalog, String schema, String table, String column) {
+		Rows buffered = column==null ? rows.remove(key(COLUMNS, catalog, schema, table)) : null;
+		return buffered==null ? delegate.getColumns(catalog, schema, table, column) : new BufferedIterator(buffered);
+	}
+
+	public Iterator<Map<String, Object>> getPrimaryKeys(String catalog, String schema, String name) {
+		Rows buffered = rows.remove(key(PRIMARY_KEYS, catalog, schema, name));
+		return buffered==null ? delegate.getPrimaryKeys(catalog, schema, name) : new BufferedIterator(buffered);
+	}
+
+	public Iterator<Map<String, Object>> getExportedKeys(String catalog, String schema, String table) {
+		Rows buffered = rows.remove(key(EXPORTED_KEYS, catalog, schema, table));
+		return buffered==null ? delegate.getExportedKeys(catalog, schema, table) : new BufferedIterator(buffered);
+	}
+
+	public boolean needQuote(String name) {
+		return delegate.needQuote(name);
+	}
+
+	public void close() {
+		rows.clear();
+	}
+
+	public Iterator<Map<String, Object>> getSuggestedPrimaryKeyStrategyName(String catalog, String schema, String table) {
+		Rows buffered = rows.remove(key(PRIMARY_KEY_STRATEGY, catalog, schema, table));
+		return buffered==null ? delegate.getSuggestedPrimaryKeyStrategyName(catalog, schema, table) : new BufferedIterator(buffered);
+	}
+
+	static class Rows {
+		final List<Map<String, Object>> rows;
+		final RuntimeException failure;
+
+		Rows(List<Map<String, Object>> rows, RuntimeException failure) {
+			this.rows = rows;
+			this.failure = failure;
+		}
+	}
+
+	private static class BufferedIterator implements Iterator<Map<String, Object>> {
+
+		private final Iterator<Map<String, Object>> rows;
+		private final RuntimeException failure;
+
+		BufferedIterator(Rows rows) {
+			this.rows = rows.rows.iterator();
+			this.failure = rows.failure;
+		}
+
+		public boolean hasNext() {
+			if(!rows.hasNext() && failure!=null) {
+				throw failure;
+			}
+			return rows.hasNext();
+		}
+
+		public Map<String, Object> next() {
+			hasNext();
+			return rows.next();
+		}
+
+		public void remove() {
+			throw new UnsupportedOperationException("remove() not possible on buffered meta data");
+		}
+	}
+}
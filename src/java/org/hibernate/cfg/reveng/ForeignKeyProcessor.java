@@ -10,6 +10,8 @@ import org.hibernate.JDBCException;
 import org.hibernate.MappingException;
 import org.hibernate.cfg.JDBCBinderException;
 import org.hibernate.cfg.reveng.dialect.MetaDataDialect;
+import org.hibernate.cfg.reveng.dialect.MetaDataRecords;
+import org.hibernate.cfg.reveng.dialect.MetaDataRecords.ExportedKeyRecord;
 import org.hibernate.mapping.Column;
 import org.hibernate.mapping.ForeignKey;
 import org.hibernate.mapping.Table;
@@ -39,25 +41,25 @@ public class ForeignKeyProcessor {
 		
 		// first get all the relationships dictated by the database schema
 		
-		Iterator<Map<String, Object>> exportedKeyIterator = null;
+		Iterator<ExportedKeyRecord> exportedKeyIterator = null;
 		
         log.debug("Calling getExportedKeys on " + referencedTable);
         progress.startSubTask("Finding exported foreignkeys on " + referencedTable.getName());
         try {
-        	Map<String, Object> exportedKeyRs = null;
-        	exportedKeyIterator = metaDataDialect.getExportedKeys(getCatalogForDBLookup(referencedTable.getCatalog(), defaultCatalog), getSchemaForDBLookup(referencedTable.getSchema(), defaultSchema), referencedTable.getName() );
+        	ExportedKeyRecord exportedKeyRs = null;
+        	exportedKeyIterator = MetaDataRecords.getExportedKeys(metaDataDialect, getCatalogForDBLookup(referencedTable.getCatalog(), defaultCatalog), getSchemaForDBLookup(referencedTable.getSchema(), defaultSchema), referencedTable.getName() );
         try {
 			while (exportedKeyIterator.hasNext() ) {
 				exportedKeyRs = exportedKeyIterator.next();
-				String fkCatalog = getCatalogForModel((String) exportedKeyRs.get("FKTABLE_CAT"), defaultCatalog);
-				String fkSchema = getSchemaForModel((String) exportedKeyRs.get("FKTABLE_SCHEM"), defaultSchema);
-				String fkTableName = (String) exportedKeyRs.get("FKTABLE_NAME");
-				String fkColumnName = (String) exportedKeyRs.get("FKCOLUMN_NAME");
-				String pkColumnName = (String) exportedKeyRs.get("PKCOLUMN_NAME");
-				String fkName = (String) exportedKeyRs.get("FK_NAME");
-				short keySeq = ((Short)exportedKeyRs.get("KEY_SEQ")).shortValue();
+				String fkCatalog = getCatalogForModel(exportedKeyRs.getFkCatalog(), defaultCatalog);
+				String fkSchema = getSchemaForModel(exportedKeyRs.getFkSchema(), defaultSchema);
+				String fkTableName = exportedKeyRs.getFkTableName();
+				String fkColumnName = exportedKeyRs.getFkColumnName();
+				String pkColumnName = exportedKeyRs.getPkColumnName();
+				String fkName = exportedKeyRs.getFkName();
+				short keySeq = exportedKeyRs.getKeySeq();
 								
-				Table fkTable = dbs.getTable((String) exportedKeyRs.get("FKTABLE_SCHEM"), (String) exportedKeyRs.get("FKTABLE_CAT"), fkTableName);
+				Table fkTable = dbs.getTable(exportedKeyRs.getFkSchema(), exportedKeyRs.getFkCatalog(), fkTableName);
 				
 				if (fkTable == null) {
 					fkTable = dbs.getTable(
@@ -124,7 +126,7 @@ public class ForeignKeyProcessor {
         finally {
         	try {
         		if(exportedKeyIterator!=null) {
-        			metaDataDialect.close(exportedKeyIterator);
+        			MetaDataRecords.close(metaDataDialect, exportedKeyIterator);
         		}
         	} catch(JDBCException se) {
         		log.warn("Exception while closing result set for foreign key meta data",se);
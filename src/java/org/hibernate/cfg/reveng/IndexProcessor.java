@@ -11,6 +11,8 @@ import java.util.Map.Entry;
 import org.hibernate.JDBCException;
 import org.hibernate.cfg.JDBCBinderException;
 import org.hibernate.cfg.reveng.dialect.MetaDataDialect;
+import org.hibernate.cfg.reveng.dialect.MetaDataRecords;
+import org.hibernate.cfg.reveng.dialect.MetaDataRecords.IndexRecord;
 import org.hibernate.mapping.Column;
 import org.hibernate.mapping.Index;
 import org.hibernate.mapping.Table;
@@ -33,16 +35,16 @@ public class IndexProcessor {
 		Map<String, UniqueKey> uniquekeys = new HashMap<String, UniqueKey>(); // name (String) -> UniqueKey
 		Map<Column, List<UniqueKey>> uniqueColumns = new HashMap<Column, List<UniqueKey>>(); // Column -> List<Index>
 		
-		Iterator<Map<String, Object>> indexIterator = null;
+		Iterator<IndexRecord> indexIterator = null;
 		try {
-			Map<String,Object> indexRs = null;	
-			indexIterator = metaDataDialect.getIndexInfo(getCatalogForDBLookup(table.getCatalog(), defaultCatalog), getSchemaForDBLookup(table.getSchema(), defaultSchema), table.getName());
+			IndexRecord indexRs = null;	
+			indexIterator = MetaDataRecords.getIndexInfo(metaDataDialect, getCatalogForDBLookup(table.getCatalog(), defaultCatalog), getSchemaForDBLookup(table.getSchema(), defaultSchema), table.getName());
 			
 			while (indexIterator.hasNext() ) {
 				indexRs = indexIterator.next();
-				String indexName = (String) indexRs.get("INDEX_NAME");
-				String columnName = (String) indexRs.get("COLUMN_NAME");
-				boolean unique = !((Boolean)indexRs.get("NON_UNIQUE")).booleanValue();
+				String indexName = indexRs.getName();
+				String columnName = indexRs.getColumnName();
+				boolean unique = !indexRs.isNonUnique();
 				
 				if (columnName != null || indexName != null) { // both can be non-null with statistical indexs which we don't have any use for.
 					
@@ -91,7 +93,7 @@ public class IndexProcessor {
 					
 				} 
 				else {
-					if(DatabaseMetaData.tableIndexStatistic != ((Short)indexRs.get("TYPE")).shortValue() ) {
+					if(DatabaseMetaData.tableIndexStatistic != indexRs.getType() ) {
 						log.warn("Index was not statistical, but no column name was found in " + indexName);
 					}
 						
@@ -106,7 +108,7 @@ public class IndexProcessor {
 		finally {
 			if (indexIterator != null) {
 				try {
-					metaDataDialect.close(indexIterator);
+					MetaDataRecords.close(metaDataDialect, indexIterator);
 				} catch(JDBCException se) {
 					log.warn("Exception while trying to close resultset for index meta data",se);
 				}
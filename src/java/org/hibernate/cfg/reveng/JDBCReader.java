@@ -5,6 +5,7 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -13,7 +14,11 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 
+import org.hibernate.cfg.reveng.BufferedMetaDataDialect.Rows;
+import org.hibernate.cfg.reveng.ReverseEngineeringMetrics.Phase;
 import org.hibernate.cfg.reveng.dialect.MetaDataDialect;
+import org.hibernate.cfg.reveng.dialect.MetaDataSnapshot;
+import org.hibernate.cfg.reveng.dialect.PrefetchingMetaDataDialect;
 import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
 import org.hibernate.exception.spi.SQLExceptionConverter;
 import org.hibernate.mapping.ForeignKey;
@@ -21,6 +26,8 @@ import org.hibernate.mapping.Table;
 
 public class JDBCReader {
 
+	public static final int DEFAULT_BATCH_SIZE = 500;
+	
 	private final ReverseEngineeringStrategy revengStrategy;
 	
 	private MetaDataDialect metadataDialect;
@@ -32,6 +39,18 @@ public class JDBCReader {
 	private final String defaultSchema;
 	private final String defaultCatalog;
 	
+	private List<MetaDataDialect> parallelMetaDataDialects;
+	
+	private boolean prefetchMetaData;
+	
+	private MetaDataSnapshot snapshot;
+	
+	private int batchSize = DEFAULT_BATCH_SIZE;
+	
+	private ReverseEngineeringMetrics metrics;
+	
+	private boolean readKeys = true;
+	
 	public JDBCReader(MetaDataDialect dialect, ConnectionProvider provider, SQLExceptionConverter sec, String defaultCatalog, String defaultSchema, ReverseEngineeringStrategy reveng) {
 		this.metadataDialect = dialect;
 		this.provider = provider;
@@ -53,31 +72,75 @@ public class JDBCReader {
 			Set<Table> hasIndices = new HashSet<Table>();
 			
 			List<SchemaSelection> schemaSelectors = revengStrategy.getSchemaSelections();
-			List<Table> foundTables = new ArrayList<Table>();
 			if(schemaSelectors==null) {
-				foundTables.addAll(TableProcessor.processTables(getMetaDataDialect(), revengStrategy, defaultSchema, defaultCatalog, dbs, new SchemaSelection(catalog, schema), hasIndices, progress));
-			} else {
-				for (Iterator<SchemaSelection> iter = schemaSelectors.iterator(); iter.hasNext();) {
-					SchemaSelection selection = iter.next();
-					foundTables.addAll(TableProcessor.processTables(getMetaDataDialect(), revengStrategy, defaultSchema, defaultCatalog, dbs, selection, hasIndices, progress));
+				schemaSelectors = new ArrayList<SchemaSelection>();
+				schemaSelectors.add(new SchemaSelection(catalog, schema));
+			}
+			boolean fromSnapshot = snapshot!=null && snapshot.load(defaultCatalog, defaultSchema, schemaSelectors);
+			
+			MetaDataDialect metaDataDialect = metrics==null ? getMetaDataDialect() : new MeasuringMetaDataDialect(getMetaDataDialect(), metrics);
+			List<Table> foundTables = new ArrayList<Table>();
+			Map<List<String>, Rows> bufferedRows = new HashMap<List<String>, Rows>();
+			for (Iterator<SchemaSelection> iter = schemaSelectors.iterator(); iter.hasNext();) {
+				SchemaSelection selection = iter.next();
+				String selectionCatalog = selection.getMatchCatalog()==null ? defaultCatalog : selection.getMatchCatalog();
+				String selectionSchema = selection.getMatchSchema()==null ? defaultSchema : selection.getMatchSchema();
+				long started = start();
+				Collection<Table> selectedTables = TableProcessor.processTables(metaDataDialect, revengStrategy, defaultSchema, defaultCatalog, dbs, selection, hasIndices, progress);
+				time(Phase.TABLES, selectionCatalog, selectionSchema, null, started);
+				if(prefetchMetaData && readKeys && getMetaDataDialect() instanceof PrefetchingMetaDataDialect) {
+					progress.startSubTask("Prefetching meta data in " + selection);
+					started = start();
+					new SchemaMetaDataPrefetcher((PrefetchingMetaDataDialect) metaDataDialect, defaultCatalog, defaultSchema)
+							.prefetch(selection, selectedTables, hasIndices, bufferedRows);
+					time(Phase.PREFETCH, selectionCatalog, selectionSchema, null, started);
 				}
+				foundTables.addAll(selectedTables);
 			}
 			
-			Iterator<Table> tables = foundTables.iterator(); // not dbs.iterateTables() to avoid "double-read" of columns etc.
-			while ( tables.hasNext() ) {
-				Table table = tables.next();
-				BasicColumnProcessor.processBasicColumns(getMetaDataDialect(), revengStrategy, defaultSchema, defaultCatalog, table, progress);
-				PrimaryKeyProcessor.processPrimaryKey(getMetaDataDialect(), revengStrategy, defaultSchema, defaultCatalog, dbs, table);
-				if(hasIndices.contains(table)) {
-					IndexProcessor.processIndices(getMetaDataDialect(), defaultSchema, defaultCatalog, table);
+			MetaDataDialect tableMetaDataDialect = bufferedRows.isEmpty() && parallelMetaDataDialects==null ? metaDataDialect : new BufferedMetaDataDialect(metaDataDialect, bufferedRows);
+			List<MetaDataDialect> workerDialects = getParallelMetaDataDialects();
+			
+			// not dbs.iterateTables() to avoid "double-read" of columns etc.
+			// the tables are read in batches so only the rows of one batch are buffered at a time; served rows are dropped 
+			for (int start = 0; start < foundTables.size(); start += batchSize) {
+				List<Table> batch = foundTables.subList(start, Math.min(start + batchSize, foundTables.size()));
+				// the worker dialects bypass the cache, so with a snapshot everything is read through the cached dialect
+				if(parallelMetaDataDialects!=null && snapshot==null && readKeys && batch.size()>1) {
+					progress.startSubTask("Reading meta data for " + batch.size() + " of " + foundTables.size() + " tables");
+					long started = start();
+					new ParallelTableMetaDataReader(workerDialects, defaultCatalog, defaultSchema)
+							.read(info, batch, hasIndices, bufferedRows);
+					time(Phase.PREFETCH, null, null, null, started);
+				}
+				Iterator<Table> tables = batch.iterator();
+				while ( tables.hasNext() ) {
+					Table table = tables.next();
+					long started = start();
+					BasicColumnProcessor.processBasicColumns(tableMetaDataDialect, revengStrategy, defaultSchema, defaultCatalog, table, progress);
+					started = time(Phase.COLUMNS, table, started);
+					if(!readKeys) {
+						continue;
+					}
+					PrimaryKeyProcessor.processPrimaryKey(tableMetaDataDialect, revengStrategy, defaultSchema, defaultCatalog, dbs, table);
+					started = time(Phase.PRIMARY_KEYS, table, started);
+					if(hasIndices.contains(table)) {
+						IndexProcessor.processIndices(tableMetaDataDialect, defaultSchema, defaultCatalog, table);
+						time(Phase.INDEXES, table, started);
+					}
 				}
 			}
 			
-			tables = foundTables.iterator(); //dbs.iterateTables();
-			Map<String, List<ForeignKey>> oneToManyCandidates = resolveForeignKeys( dbs, tables, progress );
+			Map<String, List<ForeignKey>> oneToManyCandidates = readKeys 
+					? resolveForeignKeys( info, tableMetaDataDialect, workerDialects, dbs, foundTables, bufferedRows, progress ) //dbs.iterateTables();
+					: new HashMap<String, List<ForeignKey>>();
 			
 			dbs.setOneToManyCandidates(oneToManyCandidates);
 			
+			if(snapshot!=null && !fromSnapshot) {
+				snapshot.store(defaultCatalog, defaultSchema, schemaSelectors);
+			}
+			
 			return foundTables;
 		} finally {
 			getMetaDataDialect().close();
@@ -87,29 +150,47 @@ public class JDBCReader {
 
 	/**
 	 * Iterates the tables and find all the foreignkeys that refers to something that is available inside the DatabaseCollector.
+	 * With parallel dialects the exported keys of each batch are read concurrently first; the keys are still 
+	 * created in table order so the generated foreign key names do not depend on the reading order.
+	 * @param info
+	 * @param metaDataDialect
+	 * @param workerDialects the dialects to read concurrently with, or null
 	 * @param dbs
+	 * @param foundTables
+	 * @param bufferedRows the rows served by metaDataDialect when it is a {@link BufferedMetaDataDialect}
 	 * @param progress
-	 * @param tables
 	 * @return
 	 */
-	private Map<String, List<ForeignKey>> resolveForeignKeys(DatabaseCollector dbs, Iterator<Table> tables, ProgressListener progress) {
-		List<ForeignKeysInfo> fks = new ArrayList<ForeignKeysInfo>();
-		while ( tables.hasNext() ) {
-			Table table = (Table) tables.next();
-			// Done here after the basic process of collections as we might not have touched 
-			// all referenced tables (this ensure the columns are the same instances througout the basic JDBC derived model.
-			// after this stage it should be "ok" to divert from keeping columns in sync as it can be required if the same 
-			//column is used with different aliases in the ORM mapping.
-			ForeignKeysInfo foreignKeys = ForeignKeyProcessor.processForeignKeys(getMetaDataDialect(), revengStrategy, defaultSchema, defaultCatalog, dbs, table, progress);
-			fks.add( foreignKeys );				  	   
+	private Map<String, List<ForeignKey>> resolveForeignKeys(ReverseEngineeringRuntimeInfo info, MetaDataDialect metaDataDialect, List<MetaDataDialect> workerDialects, DatabaseCollector dbs, List<Table> foundTables, Map<List<String>, Rows> bufferedRows, ProgressListener progress) {
+		Map<String, List<ForeignKey>> oneToManyCandidates = new HashMap<String, List<ForeignKey>>();
+		for (int start = 0; start < foundTables.size(); start += batchSize) {
+			List<Table> batch = foundTables.subList(start, Math.min(start + batchSize, foundTables.size()));
+			if(parallelMetaDataDialects!=null && snapshot==null && batch.size()>1) {
+				progress.startSubTask("Reading exported keys for " + batch.size() + " of " + foundTables.size() + " tables");
+				long started = start();
+				new ParallelTableMetaDataReader(workerDialects, defaultCatalog, defaultSchema)
+						.readExportedKeys(info, batch, bufferedRows);
+				time(Phase.PREFETCH, null, null, null, started);
+			}
+			Iterator<Table> tables = batch.iterator();
+			while ( tables.hasNext() ) {
+				Table table = (Table) tables.next();
+				// Done here after the basic process of collections as we might not have touched 
+				// all referenced tables (this ensure the columns are the same instances througout the basic JDBC derived model.
+				// after this stage it should be "ok" to divert from keeping columns in sync as it can be required if the same 
+				//column is used with different aliases in the ORM mapping.
+				long started = start();
+				ForeignKeysInfo foreignKeys = ForeignKeyProcessor.processForeignKeys(metaDataDialect, revengStrategy, defaultSchema, defaultCatalog, dbs, table, progress);
+				// The keys are created right away instead of after reading the keys of all tables. That is still safe: the columns 
+				// of all tables are read before any key, so each key refers to the same column instances as the rest of the model, 
+				// and creating a key only adds it to its referencing table, which reading the keys of the next table does not look at. 
+				// So no table's keys info is kept around.
+				Map<String, List<ForeignKey>> map = foreignKeys.process( revengStrategy ); // the actual foreignkey is created here.
+				time(Phase.FOREIGN_KEYS, table, started);
+				mergeMultiMap( oneToManyCandidates, map );
+			}
 		}
 		
-		Map<String, List<ForeignKey>> oneToManyCandidates = new HashMap<String, List<ForeignKey>>();			
-		for (Iterator<ForeignKeysInfo> iter = fks.iterator(); iter.hasNext();) {
-			ForeignKeysInfo element = iter.next();
-			Map<String, List<ForeignKey>> map = element.process( revengStrategy ); // the actual foreignkey is created here.
-			mergeMultiMap( oneToManyCandidates, map );
-		}
 		return oneToManyCandidates;
 	}
 	
@@ -117,6 +198,105 @@ public class JDBCReader {
 		return metadataDialect;
 	}
 	
+	/** @return the dialects to read concurrently with, measuring their reads as {@link Phase#PREFETCH} when measuring */
+	private List<MetaDataDialect> getParallelMetaDataDialects() {
+		if(parallelMetaDataDialects==null || metrics==null) {
+			return parallelMetaDataDialects;
+		}
+		List<MetaDataDialect> dialects = new ArrayList<MetaDataDialect>(parallelMetaDataDialects.size());
+		for (Iterator<MetaDataDialect> iter = parallelMetaDataDialects.iterator(); iter.hasNext();) {
+			dialects.add(new MeasuringMetaDataDialect(iter.next(), metrics, Phase.PREFETCH));
+		}
+		return dialects;
+	}
+	
+	/**
+	 * Record the time spent, the meta data dialect calls and the rows read per phase, schema and table.
+	 * Prefetched and concurrently read meta data is counted as {@link Phase#PREFETCH}.
+	 * 
+	 * @param metrics the metrics to add to, or null to not measure.
+	 */
+	public void setMetrics(ReverseEngineeringMetrics metrics) {
+		this.metrics = metrics;
+	}
+	
+	public ReverseEngineeringMetrics getMetrics() {
+		return metrics;
+	}
+	
+	private long start() {
+		return metrics==null ? 0 : System.nanoTime();
+	}
+	
+	private void time(Phase phase, String catalog, String schema, String table, long start) {
+		if(metrics!=null) {
+			metrics.time(phase, catalog, schema, table, start);
+		}
+	}
+	
+	/** @return the start of the next measurement */
+	private long time(Phase phase, Table table, long start) {
+		if(metrics==null) {
+			return 0;
+		}
+		String catalog = table.getCatalog()==null ? defaultCatalog : table.getCatalog();
+		String schema = table.getSchema()==null ? defaultSchema : table.getSchema();
+		metrics.time(phase, catalog, schema, table.getName(), start);
+		return System.nanoTime();
+	}
+	
+	/**
+	 * Whether to read the primary keys, indexes and foreign keys of the tables, defaults to true.
+	 * Callers that only check which tables and columns exist can leave them out; the tables are then 
+	 * read without prefetching or concurrent reading, and a snapshot taken this way lacks the keys.
+	 */
+	public void setReadKeys(boolean readKeys) {
+		this.readKeys = readKeys;
+	}
+	
+	/**
+	 * Read the column, primary key, index and exported key meta data of the found tables concurrently. 
+	 * Each of the dialects is used by one reader thread and thus holds its own connection; 
+	 * the meta data is still applied to the tables in the same order as when read serially.
+	 * 
+	 * @param dialects fresh dialects of the same kind as {@link #getMetaDataDialect()}, or null to read serially. 
+	 */
+	public void setParallelMetaDataDialects(List<MetaDataDialect> dialects) {
+		this.parallelMetaDataDialects = dialects==null || dialects.isEmpty() ? null : dialects;
+	}
+	
+	/**
+	 * Read the column, primary key, index and exported key meta data for each schema selection with 
+	 * one query per kind instead of one per table, for dialects that are a {@link PrefetchingMetaDataDialect}.
+	 * Pays off for schemas with many tables; kinds the dialect cannot prefetch are still read per table.
+	 */
+	public void setPrefetchMetaData(boolean prefetchMetaData) {
+		this.prefetchMetaData = prefetchMetaData;
+	}
+	
+	/**
+	 * Number of tables whose column, primary key and index meta data is read before it is applied to them. 
+	 * Only the rows read concurrently are buffered, so this bounds the memory used for them independent of the 
+	 * number of tables; rows prefetched schema wide are buffered until used regardless.
+	 */
+	public void setBatchSize(int batchSize) {
+		if(batchSize<1) {
+			throw new IllegalArgumentException("Batch size must be at least 1, was " + batchSize);
+		}
+		this.batchSize = batchSize;
+	}
+	
+	/**
+	 * Read the meta data from the snapshot when there is one and store it after reading it from the database otherwise.
+	 * The snapshot must be for {@link #getMetaDataDialect()}.
+	 */
+	public void setMetaDataSnapshot(MetaDataSnapshot snapshot) {
+		if(snapshot!=null && snapshot.getMetaDataDialect()!=getMetaDataDialect()) {
+			throw new IllegalArgumentException("Snapshot must be for the meta data dialect of this reader");
+		}
+		this.snapshot = snapshot;
+	}
+	
 	    private void mergeMultiMap(Map<String, List<ForeignKey>> dest, Map<String, List<ForeignKey>> src) {
 	    	Iterator<Entry<String, List<ForeignKey>>> items = src.entrySet().iterator();
 	    	
@@ -0,0 +1,215 @@
+package org.hibernate.cfg.reveng;
+
+import java.util.Iterator;
+import java.util.Map;
+
+import org.hibernate.cfg.reveng.ReverseEngineeringMetrics.Phase;
+import org.hibernate.cfg.reveng.dialect.MetaDataDialect;
+import org.hibernate.cfg.reveng.dialect.MetaDataRecords;
+import org.hibernate.cfg.reveng.dialect.MetaDataRecords.ColumnRecord;
+import org.hibernate.cfg.reveng.dialect.MetaDataRecords.ExportedKeyRecord;
+import org.hibernate.cfg.reveng.dialect.MetaDataRecords.IndexRecord;
+import org.hibernate.cfg.reveng.dialect.MetaDataRecords.PrimaryKeyRecord;
+import org.hibernate.cfg.reveng.dialect.MetaDataRecords.TableRecord;
+import org.hibernate.cfg.reveng.dialect.PrefetchingMetaDataDialect;
+import org.hibernate.cfg.reveng.dialect.TypedMetaDataDialect;
+
+/**
+ * Counts the calls to a meta data dialect and the rows and bytes it returns in {@link ReverseEngineeringMetrics}.
+ *
+ * The typed and prefetching methods are offered as well, so measuring does not change how the meta data is read:
+ * typed records are read as such when the delegate is a {@link TypedMetaDataDialect}, and the prefetching methods
+ * return null unless the delegate is a {@link PrefetchingMetaDataDialect}. Prefetched rows count for {@link Phase#PREFETCH}.
+ * The lifecycle of the delegate is left to the owner of it.
+ */
+class MeasuringMetaDataDialect implements TypedMetaDataDialect, PrefetchingMetaDataDialect {
+
+	private final MetaDataDialect delegate;
+	private final ReverseEngineeringMetrics metrics;
+	private final Phase phase;
+
+	MeasuringMetaDataDialect(MetaDataDialect delegate, ReverseEngineeringMetrics metrics) {
+		this(delegate, metrics, null);
+	}
+
+	/**
+	 * @param phase the phase to count all reads for, as for reads ahead of the per table phases, or null for the phase of each method
+	 */
+	MeasuringMetaDataDialect(MetaDataDialect delegate, ReverseEngineeringMetrics metrics, Phase phase) {
+		this.delegate = delegate;
+		this.metrics = metrics;
+		this.phase = phase;
+	}
+
+	public void configure(ReverseEngineeringRuntimeInfo info) {
+		delegate.configure(info);
+	}
+
+	public Iterator<Map<String, Object>> getTables(String catalog, String schema, String table) {
+		return measure(Phase.TABLES, catalog, schema, null, delegate.getTables(catalog, schema, table));
+	}
+
+	public Iterator<Map<String, Object>> getIndexInfo(String catalog, String schema, String table) {
+		return measure(Phase.INDEXES, catalog, schema, table, delegate.getIndexInfo(catalog, schema, table));
+	}
+
+	public Iterator<Map<String, Object>> getColumns(String catalog, String schema, String table, String column) {
+		return measure(Phase.COLUMNS, catalog, schema, table, delegate.getColumns(catalog, schema, table, column));
+	}
+
+	public Iterator<Map<String, Object>> getPrimaryKeys(String catalog, String schema, String name) {
+		return measure(Phase.PRIMARY_KEYS, catalog, schema, name, delegate.getPrimaryKeys(catalog, schema, name));
+	}
+
+	public Iterator<Map<String, Object>> getExportedKeys(String catalog, String schema, String table) {
+		return measure(Phase.FOREIGN_KEYS, catalog, schema, table, delegate.getExportedKeys(catalog, schema, table));
+	}
+
+	public Iterator<Map<String, Object>> getSuggestedPrimaryKeyStrategyName(String catalog, String schema, String table) {
+		return measure(Phase.PRIMARY_KEYS, catalog, schema, table, delegate.getSuggestedPrimaryKeyStrategyName(catalog, schema, table));
+	}
+
+	public Iterator<TableRecord> getTableRecords(String catalog, String schema, String table) {
+		return measure(Phase.TABLES, catalog, schema, null, MetaDataRecords.getTables(delegate, catalog, schema, table));
+	}
+
+	public Iterator<ColumnRecord> getColumnRecords(String catalog, String schema, String table, String column) {
+		return measure(Phase.COLUMNS, catalog, schema, table, MetaDataRecords.getColumns(delegate, catalog, schema, table, column));
+	}
+
+	public Iterator<PrimaryKeyRecord> getPrimaryKeyRecords(String catalog, String schema, String table) {
+		return measure(Phase.PRIMARY_KEYS, catalog, schema, table, MetaDataRecords.getPrimaryKeys(delegate, catalog, schema, table));
+	}
+
+	public Iterator<IndexRecord> getIndexRecords(String catalog, String schema, String table) {
+		return measure(Phase.INDEXES, catalog, schema, table, MetaDataRecords.getIndexInfo(delegate, catalog, schema, table));
+	}
+
+	public Iterator<ExportedKeyRecord> getExportedKeyRecords(String catalog, String schema, String table) {
+		return measure(Phase.FOREIGN_KEYS, catalog, schema, table, MetaDataRecords.getExportedKeys(delegate, catalog, schema, table));
+	}
+
+	public Iterator<Map<String, Object>> prefetchColumns(String catalog, String schema, String table) {
+		if(!(delegate instanceof PrefetchingMetaDataDialect)) {
+			return null;
+		}
+		return measure(Phase.PREFETCH, catalog, schema, null, ((PrefetchingMetaDataDialect) delegate).prefetchColumns(catalog, schema, table));
+	}
+
+	public Iterator<Map<String, Object>> prefetchPrimaryKeys(String catalog, String schema, String table) {
+		if(!(delegate instanceof PrefetchingMetaDataDialect)) {
+			return null;
+		}
+		return measure(Phase.PREFETCH, catalog, schema, null, ((PrefetchingMetaDataDialect) delegate).prefetchPrimaryKeys(catalog, schema, table));
+	}
+
+	public Iterator<Map<String, Object>> prefetchIndexInfo(String catalog, String schema, String table) {
+		if(!(delegate instanceof PrefetchingMetaDataDialect)) {
+			return null;
+		}
+		return measure(Phase.PREFETCH, catalog, schema, null, ((PrefetchingMetaDataDialect) delegate).prefetchIndexInfo(catalog, schema, table));
+	}
+
+	public Iterator<Map<String, Object>> prefetchExportedKeys(String catalog, String schema, String table) {
+		if(!(delegate instanceof PrefetchingMetaDataDialect)) {
+			return null;
+		}
+		return measure(Phase.PREFETCH, catalog, schema, null, ((PrefetchingMetaDataDialect) delegate).prefetchExportedKeys(catalog, schema, table));
+	}
+
+	public boolean needQuote(String name) {
+		return delegate.needQuote(name);
+	}
+
+	public void close() {
+		delegate.close();
+	}
+
+	public void close(Iterator<?> iterator) {
+		if(iterator instanceof MeasuringIterator) {
+			iterator = ((MeasuringIterator<?>) iterator).rows;
+		}
+		MetaDataRecords.close(delegate, iterator);
+	}
+
+	private <T> Iterator<T> measure(Phase methodPhase, String catalog, String schema, String table, Iterator<T> rows) {
+		if(rows==null) {
+			return null; // not prefetched
+		}
+		Phase measuredPhase = phase==null ? methodPhase : phase;
+		metrics.call(measuredPhase, catalog, schema, table);
+		return new MeasuringIterator<T>(measuredPhase, catalog, schema, table, rows);
+	}
+
+	/** @return the length of the text of the values in the row, as for a map of the same row */
+	static long bytes(Object row) {
+		if(row instanceof Map) {
+			return length(((Map<?, ?>) row).values().toArray());
+		}
+		if(row instanceof TableRecord) {
+			TableRecord record = (TableRecord) row;
+			return length(record.getCatalog(), record.getSchema(), record.getName(), record.getType(), record.getRemarks());
+		}
+		if(row instanceof ColumnRecord) {
+			ColumnRecord record = (ColumnRecord) row;
+			return length(record.getCatalog(), record.getSchema(), record.getTableName(), record.getName(),
+					record.getDataType(), record.getTypeName(), record.getNullable(), record.getSize(), record.getDecimalDigits(), record.getRemarks());
+		}
+		if(row instanceof PrimaryKeyRecord) {
+			PrimaryKeyRecord record = (PrimaryKeyRecord) row;
+			return length(record.getCatalog(), record.getSchema(), record.getTableName(), record.getColumnName(), record.getKeySeq(), record.getName());
+		}
+		if(row instanceof IndexRecord) {
+			IndexRecord record = (IndexRecord) row;
+			return length(record.getCatalog(), record.getSchema(), record.getTableName(), record.getName(), record.getColumnName(),
+					record.isNonUnique(), record.getType());
+		}
+		if(row instanceof ExportedKeyRecord) {
+			ExportedKeyRecord record = (ExportedKeyRecord) row;
+			return length(record.getPkCatalog(), record.getPkSchema(), record.getPkTableName(), record.getPkColumnName(),
+					record.getFkCatalog(), record.getFkSchema(), record.getFkTableName(), record.getFkColumnName(), record.getFkName(), record.getKeySeq());
+		}
+		return 0;
+	}
+
+	private static long length(Object... values) {
+		long bytes = 0;
+		for (int i = 0; i < values.length; i++) {
+			if(values[i]!=null) {
+				bytes += values[i].toString().length();
+			}
+		}
+		return bytes;
+	}
+
+	private class MeasuringIterator<T> implements Iterator<T> {
+
+		private final Phase phase;
+		private final String catalog;
+		private final String schema;
+		private final String table;
+		private final Iterator<T> rows;
+
+		MeasuringIterator(Phase phase, String catalog, String schema, String table, Iterator<T> rows) {
+			this.phase = phase;
+			this.catalog = catalog;
+			this.schema = schema;
+			this.table = table;
+			this.rows = rows;
+		}
+
+		public boolean hasNext() {
+			return rows.hasNext();
+		}
+
+		public T next() {
+			T row = rows.next();
+			metrics.row(phase, catalog, schema, table, bytes(row));
+			return row;
+		}
+
+		public void remove() {
+			rows.remove();
+		}
+	}
+}
@@ -37,6 +37,8 @@ public class OverrideRepository  {
 
 	final private List<TableFilter> tableFilters;
 
+	private TableFilterIndex tableFilterIndex; // built when first used after a filter was added
+
 	final private List<Table> tables;
 	final private Map<TableIdentifier, List<ForeignKey>> foreignKeys; // key: TableIdentifier element: List of foreignkeys that references the Table
 
@@ -235,7 +237,7 @@ public class OverrideRepository  {
 	}
 
 	protected String getPackageName(TableIdentifier identifier) {
-		Iterator<TableFilter> iterator = tableFilters.iterator();
+		Iterator<TableFilter> iterator = getRelevantTableFilters(identifier).iterator();
 		while(iterator.hasNext() ) {
 			TableFilter tf = iterator.next();
 			String value = tf.getPackage(identifier);
@@ -247,8 +249,8 @@ public class OverrideRepository  {
 	}
 
 	protected boolean excludeTable(TableIdentifier identifier) {
-		Iterator<TableFilter> iterator = tableFilters.iterator();
-		boolean hasInclude = false;
+		Iterator<TableFilter> iterator = getRelevantTableFilters(identifier).iterator();
+		boolean hasInclude = getTableFilterIndex().hasInclude();
 
 		while(iterator.hasNext() ) {
 			TableFilter tf = iterator.next();
@@ -256,9 +258,6 @@ public class OverrideRepository  {
 			if(value!=null) {
 				return value.booleanValue();
 			}
-			if(!tf.getExclude().booleanValue()) {
-				hasInclude = true;
-			}
 		}
 
 		// can probably be simplified - but like this to be very explicit ;)
@@ -269,8 +268,21 @@ public class OverrideRepository  {
 		}
 	}
 
-	public void addTableFilter(TableFilter filter) {
+	public synchronized void addTableFilter(TableFilter filter) {
 		tableFilters.add(filter);
+		tableFilterIndex = null;
+	}
+
+	private synchronized TableFilterIndex getTableFilterIndex() {
+		if(tableFilterIndex==null) {
+			tableFilterIndex = new TableFilterIndex(tableFilters);
+		}
+		return tableFilterIndex;
+	}
+
+	// the filters that match the table, first the one added first
+	private List<TableFilter> getRelevantTableFilters(TableIdentifier identifier) {
+		return getTableFilterIndex().getRelevantFilters(identifier);
 	}
 
 	public ReverseEngineeringStrategy getReverseEngineeringStrategy(ReverseEngineeringStrategy delegate) {
@@ -539,7 +551,7 @@ public class OverrideRepository  {
 	}
 
 	private Map<?,?> findGeneralAttributes(TableIdentifier identifier) {
-		Iterator<TableFilter> iterator = tableFilters.iterator();
+		Iterator<TableFilter> iterator = getRelevantTableFilters(identifier).iterator();
 		while(iterator.hasNext() ) {
 			TableFilter tf = iterator.next();
 			Map<?,?> value = tf.getMetaAttributes(identifier);
@@ -0,0 +1,199 @@
+package org.hibernate.cfg.reveng;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.hibernate.HibernateException;
+import org.hibernate.cfg.JDBCBinderException;
+import org.hibernate.cfg.reveng.BufferedMetaDataDialect.Rows;
+import org.hibernate.cfg.reveng.dialect.MetaDataDialect;
+import org.hibernate.mapping.Table;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Reads the per table column, primary key, index and exported key meta data concurrently.
+ *
+ * Each worker reads through its own {@link MetaDataDialect} and thus its own connection.
+ * The rows are only buffered; a {@link BufferedMetaDataDialect} serves them back to the
+ * processors which are still run serially and in the original table order, so the resulting
+ * model, including the generated foreign key names, is the same as when read serially.
+ */
+class ParallelTableMetaDataReader {
+
+	private static final Logger log = LoggerFactory.getLogger(ParallelTableMetaDataReader.class);
+
+	private final List<MetaDataDialect> workerDialects;
+	private final String defaultSchema;
+	private final String defaultCatalog;
+
+	ParallelTableMetaDataReader(List<MetaDataDialect> workerDialects, String defaultCatalog, String defaultSchema) {
+		this.workerDialects = workerDialects;
+		this.defaultCatalog = defaultCatalog;
+		this.defaultSchema = defaultSchema;
+	}
+
+	/**
+	 * Read the meta data for the tables into <code>rows</code>, skipping the lookups that are already buffered there.
+	 */
+	void read(ReverseEngineeringRuntimeInfo info, List<Table> tables, final Set<Table> hasIndices, final Map<List<String>, Rows> rows) {
+		read(info, tables, rows, new TableRead() {
+			Map<List<String>, Rows> read(MetaDataDialect dialect, Table table) {
+				return readTable(dialect, table, hasIndices.contains(table), rows);
+			}
+		});
+	}
+
+	/**
+	 * Read the exported keys of the tables into <code>rows</code>, skipping the lookups that are already buffered there.
+	 */
+	void readExportedKeys(ReverseEngineeringRuntimeInfo info, List<Table> tables, final Map<List<String>, Rows> rows) {
+		read(info, tables, rows, new TableRead() {
+			Map<List<String>, Rows> read(MetaDataDialect dialect, Table table) {
+				Map<List<String>, Rows> result = new HashMap<List<String>, Rows>();
+				ParallelTableMetaDataReader.this.read(dialect, BufferedMetaDataDialect.EXPORTED_KEYS, new Read() {
+					Iterator<Map<String, Object>> open(MetaDataDialect dialect, String catalog, String schema, String name) {
+						return dialect.getExportedKeys(catalog, schema, name);
+					}
+				}, getCatalog(table), getSchema(table), table.getName(), rows, result);
+				return result;
+			}
+		});
+	}
+
+	private void read(ReverseEngineeringRuntimeInfo info, final List<Table> tables, Map<List<String>, Rows> rows, final TableRead tableRead) {
+		final List<Map<List<String>, Rows>> result = new ArrayList<Map<List<String>, Rows>>(Collections.<Map<List<String>, Rows>>nCopies(tables.size(), null));
+		final AtomicInteger nextTable = new AtomicInteger();
+
+		int threads = Math.min(workerDialects.size(), tables.size());
+		log.debug("Reading meta data for " + tables.size() + " tables using " + threads + " connections");
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		List<Future<?>> futures = new ArrayList<Future<?>>(threads);
+		try {
+			for (int i = 0; i < threads; i++) {
+				final MetaDataDialect dialect = workerDialects.get(i);
+				dialect.configure(info);
+				futures.add(executor.submit(new Runnable() {
+					public void run() {
+						int index;
+						while((index = nextTable.getAndIncrement()) < tables.size()) {
+							Table table = tables.get(index);
+							result.set(index, tableRead.read(dialect, table));
+						}
+					}
+				}));
+			}
+			for (Iterator<Future<?>> iter = futures.iterator(); iter.hasNext();) {
+				waitFor(iter.next());
+			}
+		}
+		finally {
+			executor.shutdownNow();
+			for (int i = 0; i < threads; i++) {
+				try {
+					workerDialects.get(i).close();
+				}
+				catch(HibernateException he) {
+					log.warn("Exception while closing meta data dialect", he);
+				}
+			}
+		}
+
+		for (Iterator<Map<List<String>, Rows>> iter = result.iterator(); iter.hasNext();) {
+			rows.putAll(iter.next());
+		}
+	}
+
+	private void waitFor(Future<?> future) {
+		try {
+			future.get();
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new JDBCBinderException("Interrupted while reading table meta data", e);
+		}
+		catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if(cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if(cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new JDBCBinderException("Could not read table meta data", cause);
+		}
+	}
+
+	private Map<List<String>, Rows> readTable(MetaDataDialect dialect, Table table, boolean readIndices, Map<List<String>, Rows> buffered) {
+		String catalog = getCatalog(table);
+		String schema = getSchema(table);
+		String name = table.getName();
+
+		Map<List<String>, Rows> rows = new HashMap<List<String>, Rows>();
+		read(dialect, BufferedMetaDataDialect.COLUMNS, new Read() {
+			Iterator<Map<String, Object>> open(MetaDataDialect dialect, String catalog, String schema, String name) {
+				return dialect.getColumns(catalog, schema, name, null);
+			}
+		}, catalog, schema, name, buffered, rows);
+		read(dialect, BufferedMetaDataDialect.PRIMARY_KEYS, new Read() {
+			Iterator<Map<String, Object>> open(MetaDataDialect dialect, String catalog, String schema, String name) {
+				return dialect.getPrimaryKeys(catalog, schema, name);
+			}
+		}, catalog, schema, name, buffered, rows);
+		read(dialect, BufferedMetaDataDialect.PRIMARY_KEY_STRATEGY, new Read() {
+			Iterator<Map<String, Object>> open(MetaDataDialect dialect, String catalog, String schema, String name) {
+				return dialect.getSuggestedPrimaryKeyStrategyName(catalog, schema, name);
+			}
+		}, catalog, schema, name, buffered, rows);
+		if(readIndices) {
+			read(dialect, BufferedMetaDataDialect.INDEX_INFO, new Read() {
+				Iterator<Map<String, Object>> open(MetaDataDialect dialect, String catalog, String schema, String name) {
+					return dialect.getIndexInfo(catalog, schema, name);
+				}
+			}, catalog, schema, name, buffered, rows);
+		}
+		return rows;
+	}
+
+	private void read(MetaDataDialect dialect, String kind, Read read, String catalog, String schema, String name, Map<List<String>, Rows> buffered, Map<List<String>, Rows> rows) {
+		List<String> key = BufferedMetaDataDialect.key(kind, catalog, schema, name);
+		if(buffered.containsKey(key)) {
+			return;
+		}
+		Iterator<Map<String, Object>> iterator;
+		try {
+			iterator = read.open(dialect, catalog, schema, name);
+		}
+		catch(RuntimeException re) {
+			rows.put(key, new Rows(new ArrayList<Map<String, Object>>(), re));
+			return;
+		}
+		rows.put(key, BufferedMetaDataDialect.read(dialect, iterator));
+	}
+
+	private String getCatalog(Table table) {
+		return table.getCatalog()==null ? defaultCatalog : table.getCatalog();
+	}
+
+	private String getSchema(Table table) {
+		return table.getSchema()==null ? defaultSchema : table.getSchema();
+	}
+
+	private static abstract class TableRead {
+		abstract Map<List<String>, Rows> read(MetaDataDialect dialect, Table table);
+	}
+
+	private static abstract class Read {
+		abstract Iterator<Map<String, Object>> open(MetaDataDialect dialect, String catalog, String schema, String name);
+	}
+}
@@ -0,0 +1,249 @@
+package org.hibernate.cfg.reveng;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.hibernate.tool.util.TableNameQualifier;
+
+/**
+ * Wall time, meta data dialect calls, rows and bytes of meta data per phase of reverse engineering,
+ * in total, per schema and per table.
+ *
+ * Calls, rows and bytes count what the meta data dialect is asked for while reading the tables one by
+ * one; meta data read ahead schema wide or concurrently counts for the {@link Phase#PREFETCH} phase only,
+ * per schema when read schema wide and per table when read concurrently.
+ * Bytes are approximate, each value counts with the length of its text.
+ */
+public class ReverseEngineeringMetrics {
+
+	public static enum Phase {
+		/** schema wide and concurrent reads ahead of the per table phases */
+		PREFETCH,
+		TABLES,
+		COLUMNS,
+		PRIMARY_KEYS,
+		INDEXES,
+		FOREIGN_KEYS,
+		/** creating the persistent classes from the tables */
+		BINDING
+	}
+
+	public static class Counter {
+
+		private long time;
+		private long calls;
+		private long rows;
+		private long bytes;
+
+		public long getTimeMillis() {
+			return time / 1000000;
+		}
+
+		public long getCalls() {
+			return calls;
+		}
+
+		public long getRows() {
+			return rows;
+		}
+
+		public long getBytes() {
+			return bytes;
+		}
+
+		void add(Counter other) {
+			time += other.time;
+			calls += other.calls;
+			rows += other.rows;
+			bytes += other.bytes;
+		}
+	}
+
+	/** The counters of a schema or table per phase. */
+	public static class Counters {
+
+		private final Map<Phase, Counter> phases = new EnumMap<Phase, Counter>(Phase.class);
+
+		/** @return the counter of the phase, or null if nothing was recorded for it */
+		public Counter get(Phase phase) {
+			return phases.get(phase);
+		}
+
+		public Counter getTotal() {
+			Counter total = new Counter();
+			for (Iterator<Counter> iter = phases.values().iterator(); iter.hasNext();) {
+				total.add(iter.next());
+			}
+			return total;
+		}
+
+		Counter counter(Phase phase) {
+			Counter counter = phases.get(phase);
+			if(counter==null) {
+				counter = new Counter();
+				phases.put(phase, counter);
+			}
+			return counter;
+		}
+	}
+
+	private final Counters total = new Counters();
+	private final Map<String, Counters> schemas = new LinkedHashMap<String, Counters>();
+	private final Map<String, Counters> tables = new LinkedHashMap<String, Counters>();
+
+	/**
+	 * Record the time since <code>start</code>, a {@link System#nanoTime()}, for the phase and table.
+	 * The table name is null for work on a schema as a whole, and catalog and schema are null as well
+	 * for work not on one schema.
+	 */
+	public synchronized void time(Phase phase, String catalog, String schema, String table, long start) {
+		long time = System.nanoTime() - start;
+		for (Iterator<Counter> iter = counters(phase, catalog, schema, table).iterator(); iter.hasNext();) {
+			iter.next().time += time;
+		}
+	}
+
+	/** Record a call to the meta data dialect for the phase and table. */
+	public synchronized void call(Phase phase, String catalog, String schema, String table) {
+		for (Iterator<Counter> iter = counters(phase, catalog, schema, table).iterator(); iter.hasNext();) {
+			iter.next().calls++;
+		}
+	}
+
+	/** Record a row returned by the meta data dialect for the phase and table. */
+	public synchronized void row(Phase phase, String catalog, String schema, String table, long bytes) {
+		for (Iterator<Counter> iter = counters(phase, catalog, schema, table).iterator(); iter.hasNext();) {
+			Counter counter = iter.next();
+			counter.rows++;
+			counter.bytes += bytes;
+		}
+	}
+
+	private List<Counter> counters(Phase phase, String catalog, String schema, String table) {
+		List<Counter> counters = new ArrayList<Counter>(3);
+		counters.add(total.counter(phase));
+		if(catalog!=null || schema!=null || table!=null) {
+			counters.add(counters(schemas, qualify(catalog, schema), phase));
+		}
+		if(table!=null) {
+			counters.add(counters(tables, TableNameQualifier.qualify(catalog, schema, table), phase));
+		}
+		return counters;
+	}
+
+	private String qualify(String catalog, String schema) {
+		if(catalog==null) {
+			return schema==null ? "" : schema;
+		}
+		return schema==null ? catalog : catalog + "." + schema;
+	}
+
+	private Counter counters(Map<String, Counters> map, String key, Phase phase) {
+		Counters counters = map.get(key);
+		if(counters==null) {
+			counters = new Counters();
+			map.put(key, counters);
+		}
+		return counters.counter(phase);
+	}
+
+	public synchronized Counters getTotal() {
+		return total;
+	}
+
+	/** @return counters per schema, keyed by the catalog and schema name separated by a dot */
+	public synchronized Map<String, Counters> getSchemas() {
+		return Collections.unmodifiableMap(schemas);
+	}
+
+	/** @return counters per table, keyed by the qualified table name */
+	public synchronized Map<String, Counters> getTables() {
+		return Collections.unmodifiableMap(tables);
+	}
+
+	/** @return the qualified names of the <code>max</code> tables with the most time spent on them, slowest first */
+	public synchronized List<String> getSlowestTables(int max) {
+		final Map<String, Long> times = new LinkedHashMap<String, Long>();
+		for (Iterator<Entry<String, Counters>> iter = tables.entrySet().iterator(); iter.hasNext();) {
+			Entry<String, Counters> entry = iter.next();
+			times.put(entry.getKey(), Long.valueOf(entry.getValue().getTotal().time));
+		}
+		List<String> names = new ArrayList<String>(times.keySet());
+		Collections.sort(names, new Comparator<String>() {
+			public int compare(String left, String right) {
+				return times.get(right).compareTo(times.get(left));
+			}
+		});
+		return names.subList(0, Math.min(max, names.size()));
+	}
+
+	/**
+	 * Write the totals, the schemas and the <code>maxTables</code> slowest tables as JSON.
+	 */
+	public synchronized void writeJson(Writer writer, int maxTables) throws IOException {
+		writer.write("{\n  \"total\": ");
+		writeJson(writer, total, "  ");
+		writer.write(",\n  \"schemas\": {");
+		writeJson(writer, schemas, schemas.keySet());
+		writer.write("},\n  \"slowestTables\": {");
+		writeJson(writer, tables, getSlowestTables(maxTables));
+		writer.write("}\n}\n");
+		writer.flush();
+	}
+
+	private void writeJson(Writer writer, Map<String, Counters> map, Collection<String> keys) throws IOException {
+		for (Iterator<String> iter = keys.iterator(); iter.hasNext();) {
+			String key = iter.next();
+			writer.write("\n    ");
+			writeJson(writer, key);
+			writer.write(": ");
+			writeJson(writer, map.get(key), "    ");
+			writer.write(iter.hasNext() ? "," : "\n  ");
+		}
+	}
+
+	private void writeJson(Writer writer, Counters counters, String indent) throws IOException {
+		writer.write("{");
+		Iterator<Entry<Phase, Counter>> iter = counters.phases.entrySet().iterator();
+		while (iter.hasNext()) {
+			Entry<Phase, Counter> entry = iter.next();
+			Counter counter = entry.getValue();
+			writer.write("\n" + indent + "  ");
+			writeJson(writer, entry.getKey().name().toLowerCase());
+			writer.write(": { \"timeMillis\": " + counter.getTimeMillis()
+					+ ", \"calls\": " + counter.getCalls()
+					+ ", \"rows\": " + counter.getRows()
+					+ ", \"bytes\": " + counter.getBytes() + " }");
+			writer.write(iter.hasNext() ? "," : "\n" + indent);
+		}
+		writer.write("}");
+	}
+
+	private void writeJson(Writer writer, String value) throws IOException {
+		StringBuffer sb = new StringBuffer(value.length() + 2).append('"');
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if(c=='"' || c=='\\') {
+				sb.append('\\').append(c);
+			}
+			else if(c<' ') {
+				String hex = Integer.toHexString(c);
+				sb.append("\\u").append("0000".substring(hex.length())).append(hex);
+			}
+			else {
+				sb.append(c);
+			}
+		}
+		writer.write(sb.append('"').toString());
+	}
+}
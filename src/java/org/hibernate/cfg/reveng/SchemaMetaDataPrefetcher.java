@@ -0,0 +1,168 @@
+package org.hibernate.cfg.reveng;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.hibernate.HibernateException;
+import org.hibernate.cfg.reveng.BufferedMetaDataDialect.Rows;
+import org.hibernate.cfg.reveng.dialect.PrefetchingMetaDataDialect;
+import org.hibernate.internal.util.StringHelper;
+import org.hibernate.mapping.Table;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Reads the column, primary key, index and exported key meta data for all tables of a
+ * {@link SchemaSelection} with one query per kind of meta data.
+ *
+ * The rows are grouped per found table and buffered under the same lookup the processors
+ * will use, so a {@link BufferedMetaDataDialect} can serve them instead of querying per table.
+ * Kinds the dialect cannot read schema wide, or fails to, are left to be read per table.
+ */
+class SchemaMetaDataPrefetcher {
+
+	private static final Logger log = LoggerFactory.getLogger(SchemaMetaDataPrefetcher.class);
+
+	private final PrefetchingMetaDataDialect dialect;
+	private final String defaultCatalog;
+	private final String defaultSchema;
+
+	SchemaMetaDataPrefetcher(PrefetchingMetaDataDialect dialect, String defaultCatalog, String defaultSchema) {
+		this.dialect = dialect;
+		this.defaultCatalog = defaultCatalog;
+		this.defaultSchema = defaultSchema;
+	}
+
+	void prefetch(SchemaSelection selection, Collection<Table> tables, Set<Table> hasIndices, Map<List<String>, Rows> rows) {
+		if(tables.isEmpty()) {
+			return;
+		}
+		String catalog = StringHelper.replace(selection.getMatchCatalog(), ".*", "%");
+		String schema = StringHelper.replace(selection.getMatchSchema(), ".*", "%");
+		String table = StringHelper.replace(selection.getMatchTable(), ".*", "%");
+
+		Map<String, List<Table>> tablesByName = new HashMap<String, List<Table>>();
+		for (Iterator<Table> iter = tables.iterator(); iter.hasNext();) {
+			Table element = iter.next();
+			List<Table> list = tablesByName.get(element.getName());
+			if(list==null) {
+				list = new ArrayList<Table>(1);
+				tablesByName.put(element.getName(), list);
+			}
+			list.add(element);
+		}
+
+		Iterator<Map<String, Object>> iterator = null;
+		try {
+			iterator = dialect.prefetchColumns(catalog, schema, table);
+		}
+		catch(HibernateException he) {
+			log.warn("Could not prefetch column meta data for " + selection + ", reading it per table instead", he);
+		}
+		group(BufferedMetaDataDialect.COLUMNS, iterator, "TABLE_", tablesByName, tables, rows);
+
+		iterator = null;
+		try {
+			iterator = dialect.prefetchPrimaryKeys(catalog, schema, table);
+		}
+		catch(HibernateException he) {
+			log.warn("Could not prefetch primary key meta data for " + selection + ", reading it per table instead", he);
+		}
+		group(BufferedMetaDataDialect.PRIMARY_KEYS, iterator, "TABLE_", tablesByName, tables, rows);
+
+		iterator = null;
+		List<Table> indexed = new ArrayList<Table>();
+		for (Iterator<Table> iter = tables.iterator(); iter.hasNext();) {
+			Table element = iter.next();
+			if(hasIndices.contains(element)) {
+				indexed.add(element);
+			}
+		}
+		if(!indexed.isEmpty()) {
+			try {
+				iterator = dialect.prefetchIndexInfo(catalog, schema, table);
+			}
+			catch(HibernateException he) {
+				log.warn("Could not prefetch index meta data for " + selection + ", reading it per table instead", he);
+			}
+			group(BufferedMetaDataDialect.INDEX_INFO, iterator, "TABLE_", tablesByName, indexed, rows);
+		}
+
+		iterator = null;
+		try {
+			iterator = dialect.prefetchExportedKeys(catalog, schema, table);
+		}
+		catch(HibernateException he) {
+			log.warn("Could not prefetch exported keys meta data for " + selection + ", reading it per table instead", he);
+		}
+		group(BufferedMetaDataDialect.EXPORTED_KEYS, iterator, "PKTABLE_", tablesByName, tables, rows);
+	}
+
+	/**
+	 * Distribute the rows over the tables they belong to; tables without any rows get an empty result
+	 * since the schema wide read covered them. A failure while reading leaves the kind to be read per table.
+	 */
+	private void group(String kind, Iterator<Map<String, Object>> iterator, String prefix, Map<String, List<Table>> tablesByName, Collection<Table> tables, Map<List<String>, Rows> rows) {
+		if(iterator==null) {
+			return;
+		}
+		Rows read = BufferedMetaDataDialect.read(dialect, iterator);
+		if(read.failure!=null) {
+			log.warn("Could not prefetch " + kind + " meta data, reading it per table instead", read.failure);
+			return;
+		}
+
+		Map<Table, List<Map<String, Object>>> grouped = new HashMap<Table, List<Map<String, Object>>>();
+		for (Iterator<Map<String, Object>> iter = read.rows.iterator(); iter.hasNext();) {
+			Map<String, Object> row = iter.next();
+			Table owner = findTable(tablesByName, (String) row.get(prefix + "CAT"), (String) row.get(prefix + "SCHEM"), (String) row.get(prefix + "NAME"));
+			if(owner!=null) {
+				List<Map<String, Object>> list = grouped.get(owner);
+				if(list==null) {
+					list = new ArrayList<Map<String, Object>>();
+					grouped.put(owner, list);
+				}
+				list.add(row);
+			}
+		}
+
+		for (Iterator<Table> iter = tables.iterator(); iter.hasNext();) {
+			Table element = iter.next();
+			List<Map<String, Object>> list = grouped.get(element);
+			rows.put(BufferedMetaDataDialect.key(kind, getCatalogForDBLookup(element.getCatalog()), getSchemaForDBLookup(element.getSchema()), element.getName()),
+					new Rows(list==null ? new ArrayList<Map<String, Object>>(0) : list, null));
+		}
+	}
+
+	private Table findTable(Map<String, List<Table>> tablesByName, String catalog, String schema, String name) {
+		List<Table> candidates = tablesByName.get(name);
+		if(candidates==null) {
+			return null;
+		}
+		for (Iterator<Table> iter = candidates.iterator(); iter.hasNext();) {
+			Table element = iter.next();
+			if(matches(getCatalogForDBLookup(element.getCatalog()), catalog) && matches(getSchemaForDBLookup(element.getSchema()), schema)) {
+				return element;
+			}
+		}
+		return null;
+	}
+
+	/** Not all databases report catalog and schema, so a missing qualifier on either side matches. */
+	private boolean matches(String expected, String actual) {
+		return expected==null || actual==null || expected.equalsIgnoreCase(actual);
+	}
+
+	private String getCatalogForDBLookup(String catalog) {
+		return catalog==null ? defaultCatalog : catalog;
+	}
+
+	private String getSchemaForDBLookup(String schema) {
+		return schema==null ? defaultSchema : schema;
+	}
+}
@@ -16,11 +16,11 @@ public class TableFilter {
 	// TODO: very basic substring matching. Possibly include regex functionallity ? (jdk 1.4 dep)
 	public static class Matcher {
 		
-		private static final int EQUALS = 1;
-		private static final int ENDSWITH = 2;
-		private static final int STARTSWITH = 3;
-		private static final int SUBSTRING = 4;
-		private static final int ANY = 5;
+		static final int EQUALS = 1;
+		static final int ENDSWITH = 2;
+		static final int STARTSWITH = 3;
+		static final int SUBSTRING = 4;
+		static final int ANY = 5;
 		
 		final int mode;
 		final String value;
@@ -51,6 +51,9 @@ public class TableFilter {
 		}
 		
 		boolean match(String matchEnum) {
+			if(matchEnum==null) {
+				return mode==ANY; // e.g. no catalog
+			}
 			switch (mode) {
 			case ANY: return true;
 			case EQUALS: return this.value.equals(matchEnum);
@@ -112,7 +115,7 @@ public class TableFilter {
 		return isRelevantFor(identifier) ? packageName : null;
 	}
 	
-	private boolean isRelevantFor(TableIdentifier identifier) {
+	boolean isRelevantFor(TableIdentifier identifier) {
 		if(catalogMatcher.match(identifier.getCatalog() ) ) {
 			if(schemaMatcher.match(identifier.getSchema() ) ) {
 				if(nameMatcher.match(identifier.getName() ) ) {
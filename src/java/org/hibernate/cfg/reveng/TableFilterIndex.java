@@ -0,0 +1,141 @@
+package org.hibernate.cfg.reveng;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Finds the table filters relevant for a table without trying every filter. The filters are indexed
+ * by the pattern for the table name: exact names in a hash map, name prefixes and suffixes in tries.
+ * Only the filters found through the index, and those matching any name or a part of the name, are tried,
+ * in the order they were added, so the first relevant filter still wins.
+ *
+ * The relevant filters are remembered per table. The filters must not change once indexed.
+ * Can be used by several threads at the same time.
+ */
+final class TableFilterIndex {
+
+	private final List<TableFilter> filters;
+	private final Map<String, List<Integer>> names = new HashMap<String, List<Integer>>();
+	private final Trie prefixes = new Trie();
+	private final Trie suffixes = new Trie();
+	// the filters matching any name or a part of the name, tried for every table
+	private final List<Integer> unindexed = new ArrayList<Integer>();
+	private final boolean hasInclude;
+	private final Map<TableIdentifier, List<TableFilter>> relevant = new ConcurrentHashMap<TableIdentifier, List<TableFilter>>();
+
+	TableFilterIndex(List<TableFilter> filters) {
+		this.filters = new ArrayList<TableFilter>(filters);
+		boolean include = false;
+		for (int i = 0; i < this.filters.size(); i++) {
+			TableFilter filter = this.filters.get(i);
+			TableFilter.Matcher matcher = new TableFilter.Matcher(filter.getMatchName());
+			switch (matcher.mode) {
+			case TableFilter.Matcher.EQUALS:
+				List<Integer> named = names.get(matcher.value);
+				if(named==null) {
+					named = new ArrayList<Integer>();
+					names.put(matcher.value, named);
+				}
+				named.add(i);
+				break;
+			case TableFilter.Matcher.STARTSWITH:
+				prefixes.add(matcher.value, false, i);
+				break;
+			case TableFilter.Matcher.ENDSWITH:
+				suffixes.add(matcher.value, true, i);
+				break;
+			default:
+				unindexed.add(i);
+			}
+			if(Boolean.FALSE.equals(filter.getExclude())) {
+				include = true;
+			}
+		}
+		hasInclude = include;
+	}
+
+	/** @return true if any of the filters includes tables, which excludes the tables no filter is relevant for */
+	boolean hasInclude() {
+		return hasInclude;
+	}
+
+	/** @return the filters relevant for the table, in the order they were added */
+	List<TableFilter> getRelevantFilters(TableIdentifier identifier) {
+		List<TableFilter> result = relevant.get(identifier);
+		if(result==null) {
+			result = findRelevantFilters(identifier);
+			relevant.put(identifier, result);
+		}
+		return result;
+	}
+
+	private List<TableFilter> findRelevantFilters(TableIdentifier identifier) {
+		String name = identifier.getName();
+		List<Integer> candidates = new ArrayList<Integer>(unindexed);
+		if(name==null) {
+			candidates.clear();
+			for (int i = 0; i < filters.size(); i++) {
+				candidates.add(i);
+			}
+		}
+		else {
+			List<Integer> named = names.get(name);
+			if(named!=null) {
+				candidates.addAll(named);
+			}
+			prefixes.collect(name, false, candidates);
+			suffixes.collect(name, true, candidates);
+			Collections.sort(candidates);
+		}
+		List<TableFilter> result = null;
+		for (Iterator<Integer> iter = candidates.iterator(); iter.hasNext();) {
+			TableFilter filter = filters.get(iter.next());
+			if(filter.isRelevantFor(identifier)) {
+				if(result==null) {
+					result = new ArrayList<TableFilter>();
+				}
+				result.add(filter);
+			}
+		}
+		return result==null ? Collections.<TableFilter>emptyList() : Collections.unmodifiableList(result);
+	}
+
+	// the filters of a pattern are kept at the node its last character leads to
+	private static final class Trie {
+
+		private final Map<Character, Trie> children = new HashMap<Character, Trie>();
+		private final List<Integer> filters = new ArrayList<Integer>();
+
+		void add(String key, boolean reverse, int filter) {
+			Trie node = this;
+			for (int i = 0; i < key.length(); i++) {
+				Character c = Character.valueOf(key.charAt(reverse ? key.length() - 1 - i : i));
+				Trie child = node.children.get(c);
+				if(child==null) {
+					child = new Trie();
+					node.children.put(c, child);
+				}
+				node = child;
+			}
+			node.filters.add(filter);
+		}
+
+		// adds the filters of all keys the string starts with, or ends with when reversed
+		void collect(String s, boolean reverse, List<Integer> result) {
+			Trie node = this;
+			result.addAll(node.filters);
+			for (int i = 0; i < s.length(); i++) {
+				node = node.children.get(Character.valueOf(s.charAt(reverse ? s.length() - 1 - i : i)));
+				if(node==null) {
+					return;
+				}
+				result.addAll(node.filters);
+			}
+		}
+	}
+}
@@ -0,0 +1,264 @@
+package org.hibernate.cfg.reveng;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.hibernate.cfg.JDBCBinderException;
+import org.hibernate.mapping.Column;
+import org.hibernate.mapping.ForeignKey;
+import org.hibernate.mapping.Index;
+import org.hibernate.mapping.Table;
+import org.hibernate.mapping.UniqueKey;
+import org.hibernate.tool.util.TableNameQualifier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Detects which tables changed since the previous run by comparing a fingerprint per table,
+ * a hash of its columns, keys, indexes and suggested identifier strategy as read from the database,
+ * with the fingerprints stored by the previous run.
+ *
+ * Changed and new tables are dirty, and so are the tables they reference or are referenced by
+ * through foreign keys since the associations on both ends are derived from them.
+ * Without stored fingerprints every table is dirty.
+ *
+ * The fingerprint of a table together with the tables associated with it, see {@link #getFingerprint(Table)},
+ * lets the exporters remember per generated file what it was generated from, so a file is generated
+ * again when it is missing or another exporter generates it for the first time.
+ *
+ * The new fingerprints are only written by {@link #store()}, which should be called once
+ * everything derived from the dirty tables has been generated. Changes to the reverse engineering
+ * strategy or templates are not detected; remove the fingerprint file to force a full run.
+ */
+public class TableFingerprints {
+
+	private static final Logger log = LoggerFactory.getLogger(TableFingerprints.class);
+
+	private final File file;
+	private final Properties previous = new Properties();
+	private final Properties current = new Properties();
+	private final Set<TableIdentifier> dirtyTables = new HashSet<TableIdentifier>();
+	private final Map<TableIdentifier, String> associatedFingerprints = new HashMap<TableIdentifier, String>();
+	private boolean hasPrevious;
+
+	public TableFingerprints(File file) {
+		this.file = file;
+		if(file.exists()) {
+			InputStream in = null;
+			try {
+				in = new FileInputStream(file);
+				previous.load(in);
+				hasPrevious = true;
+			}
+			catch (IOException e) {
+				throw new JDBCBinderException("Could not read table fingerprints from " + file, e);
+			}
+			finally {
+				close(in);
+			}
+		}
+	}
+
+	/**
+	 * Fingerprint the tables, which must have been fully read including their foreign keys, and determine the dirty ones.
+	 */
+	public void update(DatabaseCollector dbs, Collection<Table> tables) {
+		Set<Table> changed = new HashSet<Table>();
+		for (Iterator<Table> iter = tables.iterator(); iter.hasNext();) {
+			Table table = iter.next();
+			String key = getKey(table);
+			String fingerprint = fingerprint(dbs, table);
+			current.setProperty(key, fingerprint);
+			if(!fingerprint.equals(previous.getProperty(key))) {
+				changed.add(table);
+			}
+		}
+
+		for (Iterator<Table> iter = tables.iterator(); iter.hasNext();) {
+			Table table = iter.next();
+			if(!hasPrevious || changed.contains(table)) {
+				dirtyTables.add(TableIdentifier.create(table));
+			}
+			for (Iterator<?> fks = table.getForeignKeyIterator(); fks.hasNext();) {
+				ForeignKey fk = (ForeignKey) fks.next();
+				Table referenced = fk.getReferencedTable();
+				if(changed.contains(table) && referenced!=null) {
+					dirtyTables.add(TableIdentifier.create(referenced));
+				}
+				if(referenced!=null && changed.contains(referenced)) {
+					dirtyTables.add(TableIdentifier.create(table));
+				}
+			}
+		}
+
+		Map<Table, Set<String>> associated = new IdentityHashMap<Table, Set<String>>();
+		for (Iterator<Table> iter = tables.iterator(); iter.hasNext();) {
+			Table table = iter.next();
+			getAssociated(associated, table).add("=" + current.getProperty(getKey(table)));
+			for (Iterator<?> fks = table.getForeignKeyIterator(); fks.hasNext();) {
+				Table referenced = ((ForeignKey) fks.next()).getReferencedTable();
+				if(referenced!=null && current.getProperty(getKey(referenced))!=null) {
+					getAssociated(associated, table).add(getKey(referenced) + "=" + current.getProperty(getKey(referenced)));
+					getAssociated(associated, referenced).add(getKey(table) + "=" + current.getProperty(getKey(table)));
+				}
+			}
+		}
+		for (Iterator<Table> iter = tables.iterator(); iter.hasNext();) {
+			Table table = iter.next();
+			associatedFingerprints.put(TableIdentifier.create(table), hash(getAssociated(associated, table).toString()));
+		}
+
+		for (Iterator<Object> iter = previous.keySet().iterator(); iter.hasNext();) {
+			Object key = iter.next();
+			if(!current.containsKey(key)) {
+				log.info("Table " + key + " no longer exists");
+			}
+		}
+		log.info(dirtyTables.size() + " of " + tables.size() + " tables changed or depend on a changed table");
+	}
+
+	public boolean isDirty(Table table) {
+		return dirtyTables.contains(TableIdentifier.create(table));
+	}
+
+	/**
+	 * @return a fingerprint of the table and the tables it references or is referenced by, as read now, 
+	 * or null if the table was not read
+	 */
+	public String getFingerprint(Table table) {
+		return associatedFingerprints.get(TableIdentifier.create(table));
+	}
+
+	private Set<String> getAssociated(Map<Table, Set<String>> associated, Table table) {
+		Set<String> result = associated.get(table);
+		if(result==null) {
+			result = new TreeSet<String>(); // sorted, so the fingerprint does not depend on the order of the keys
+			associated.put(table, result);
+		}
+		return result;
+	}
+
+	public Set<TableIdentifier> getDirtyTables() {
+		return dirtyTables;
+	}
+
+	/**
+	 * Store the fingerprints of the last {@link #update(DatabaseCollector, Collection)} for the next run.
+	 */
+	public void store() {
+		File parent = file.getAbsoluteFile().getParentFile();
+		if(parent!=null) {
+			parent.mkdirs();
+		}
+		OutputStream out = null;
+		try {
+			out = new FileOutputStream(file);
+			current.store(out, "Table fingerprints for incremental reverse engineering");
+		}
+		catch (IOException e) {
+			throw new JDBCBinderException("Could not write table fingerprints to " + file, e);
+		}
+		finally {
+			close(out);
+		}
+	}
+
+	private String getKey(Table table) {
+		return TableNameQualifier.qualify(table.getCatalog(), table.getSchema(), table.getName());
+	}
+
+	private String fingerprint(DatabaseCollector dbs, Table table) {
+		StringBuffer sb = new StringBuffer();
+		sb.append(table.getComment());
+		for (Iterator<?> iter = table.getColumnIterator(); iter.hasNext();) {
+			Column column = (Column) iter.next();
+			sb.append("|c:").append(column.getName())
+				.append(':').append(column.getSqlTypeCode())
+				.append(':').append(column.getSqlType())
+				.append(':').append(column.getLength())
+				.append(':').append(column.getPrecision())
+				.append(':').append(column.getScale())
+				.append(':').append(column.isNullable())
+				.append(':').append(column.isUnique())
+				.append(':').append(column.getComment());
+		}
+		sb.append("|pk:").append(table.getPrimaryKey()==null ? null : table.getPrimaryKey().getName());
+		if(table.getPrimaryKey()!=null) {
+			appendColumns(sb, table.getPrimaryKey().getColumnIterator());
+		}
+		for (Iterator<?> iter = table.getForeignKeyIterator(); iter.hasNext();) {
+			ForeignKey fk = (ForeignKey) iter.next();
+			sb.append("|fk:").append(fk.getName()).append(':').append(getKey(fk.getReferencedTable()));
+			appendColumns(sb, fk.getColumnIterator());
+			if(fk.getReferencedColumns()!=null) {
+				appendColumns(sb, fk.getReferencedColumns().iterator());
+			}
+		}
+		for (Iterator<Index> iter = table.getIndexIterator(); iter.hasNext();) {
+			Index index = iter.next();
+			sb.append("|idx:").append(index.getName());
+			appendColumns(sb, index.getColumnIterator());
+		}
+		for (Iterator<UniqueKey> iter = table.getUniqueKeyIterator(); iter.hasNext();) {
+			UniqueKey key = iter.next();
+			sb.append("|uk:").append(key.getName());
+			appendColumns(sb, key.getColumnIterator());
+		}
+		sb.append("|id:").append(dbs.getSuggestedIdentifierStrategy(table.getCatalog(), table.getSchema(), table.getName()));
+		return hash(sb.toString());
+	}
+
+	private void appendColumns(StringBuffer sb, Iterator<?> columns) {
+		while(columns.hasNext()) {
+			sb.append(':').append(((Column) columns.next()).getName());
+		}
+	}
+
+	private String hash(String value) {
+		try {
+			byte[] digest = MessageDigest.getInstance("MD5").digest(value.getBytes("UTF-8"));
+			StringBuffer sb = new StringBuffer(digest.length * 2);
+			for (int i = 0; i < digest.length; i++) {
+				String hex = Integer.toHexString(digest[i] & 0xff);
+				if(hex.length()==1) {
+					sb.append('0');
+				}
+				sb.append(hex);
+			}
+			return sb.toString();
+		}
+		catch (NoSuchAlgorithmException e) {
+			throw new JDBCBinderException("Could not fingerprint table", e);
+		}
+		catch (UnsupportedEncodingException e) {
+			throw new JDBCBinderException("Could not fingerprint table", e);
+		}
+	}
+
+	private void close(java.io.Closeable closeable) {
+		if(closeable!=null) {
+			try {
+				closeable.close();
+			}
+			catch (IOException e) {
+				log.warn("Could not close " + file, e);
+			}
+		}
+	}
+}
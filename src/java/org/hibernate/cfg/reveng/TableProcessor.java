@@ -2,13 +2,13 @@ package org.hibernate.cfg.reveng;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 
 import org.hibernate.cfg.reveng.dialect.MetaDataDialect;
+import org.hibernate.cfg.reveng.dialect.MetaDataRecords;
+import org.hibernate.cfg.reveng.dialect.MetaDataRecords.TableRecord;
 import org.hibernate.internal.util.StringHelper;
 import org.hibernate.mapping.Table;
 import org.slf4j.Logger;
@@ -27,26 +27,27 @@ public class TableProcessor {
 			SchemaSelection schemaSelection, 
 			Set<Table> hasIndices, 
 			ProgressListener progress) {
-		Map<String,Object> tableRs = null;
-		Iterator<Map<String,Object>> tableIterator = null;
-		List<Map<String,Object>> tables = new ArrayList<Map<String,Object>>();
+		TableRecord tableRs = null;
+		Iterator<TableRecord> tableIterator = null;
+		List<Table> processedTables = new ArrayList<Table>();
 		boolean multiSchema = false; 
 		// TODO: the code below detects if the reveng is multischema'ed, but not used for anything yet. should be used to remove schema/catalog info from output if only one schema/catalog used.
 		
 		  try {			  
 		     progress.startSubTask("Finding tables in " + schemaSelection);
 		     
-		     tableIterator = metaDataDialect.getTables(StringHelper.replace(schemaSelection.getMatchCatalog(),".*", "%"), 
+		     tableIterator = MetaDataRecords.getTables(metaDataDialect, StringHelper.replace(schemaSelection.getMatchCatalog(),".*", "%"), 
 		    		                                        StringHelper.replace(schemaSelection.getMatchSchema(),".*", "%"), 
 		    		                                        StringHelper.replace(schemaSelection.getMatchTable(),".*", "%"));
 		     String[] lastQualifier = null;
 		     String[] foundQualifier = new String[2];
 		     
+		     // tables are added while iterating so no copy of the rows is kept; adding a table does not touch the database
 		     while (tableIterator.hasNext() ) {
 		        tableRs = tableIterator.next();
-		        String tableName = (String) tableRs.get("TABLE_NAME");
-				String schemaName = (String) tableRs.get("TABLE_SCHEM");
-		        String catalogName = (String) tableRs.get("TABLE_CAT");
+		        String tableName = tableRs.getName();
+				String schemaName = tableRs.getSchema();
+		        String catalogName = tableRs.getCatalog();
 		        
 		        TableIdentifier ti = new TableIdentifier(catalogName, schemaName, tableName);		        
 				if(revengStrategy.excludeTable(ti) ) {
@@ -67,70 +68,69 @@ public class TableProcessor {
 					}
 				}
 				
-				tables.add(new HashMap<String,Object>(tableRs));
+				Table table = processTable(revengStrategy, dbs, hasIndices, progress, tableRs, tableName, schemaName, catalogName);
+				if(table!=null) {
+					processedTables.add( table );
+				}
 		     }
 		  } 
 		  finally {
 			  try {
-				  if (tableIterator!=null) metaDataDialect.close(tableIterator);
+				  if (tableIterator!=null) MetaDataRecords.close(metaDataDialect, tableIterator);
 			  } 
 			  catch (Exception ignore) {
 			  }
 		  }
 		  
-		  List<Table> processedTables = new ArrayList<Table>();
-		  tableIterator = tables.iterator();
-		  while (tableIterator.hasNext() ) {
-			  tableRs = tableIterator.next();
-			  String tableName = (String) tableRs.get("TABLE_NAME");
-			  String schemaName = (String) tableRs.get("TABLE_SCHEM");
-			  String catalogName = (String) tableRs.get("TABLE_CAT");
-			  
-			  TableIdentifier ti = new TableIdentifier(catalogName, schemaName, tableName);
-			   if(revengStrategy.excludeTable(ti) ) {
-			   log.debug("Table " + ti + " excluded by strategy");
-			   continue;
-			   }
-			  
-			  String comment = (String) tableRs.get("REMARKS");
-			  String tableType = (String) tableRs.get("TABLE_TYPE");
-			  
-			  if(dbs.getTable
-					  (schemaName, 
-							  catalogName, 
-							  tableName)!=null) {
-				  log.debug("Ignoring " + tableName + " since it has already been processed");
-				  continue;
-			  } else {
-				  if ( ("TABLE".equalsIgnoreCase(tableType) || "VIEW".equalsIgnoreCase(tableType) || "SYNONYM".equals(tableType) ) ) { //||
-					  // ("SYNONYM".equals(tableType) && isOracle() ) ) { // only on oracle ? TODO: HBX-218
-					  // it's a regular table or a synonym
-					  
-					  // ensure schema and catalogname is truly empty (especially mysql returns null schema, "" catalog)
-					  if(schemaName!=null && schemaName.trim().length()==0) {
-						  schemaName = null;
-					  }                     
-					  if(catalogName!=null && catalogName.trim().length()==0) {
-						  catalogName=null;
-					  }
-					  log.debug("Adding table " + tableName + " of type " + tableType);
-					  progress.startSubTask("Found " + tableName);
-					  Table table = dbs.addTable(schemaName, catalogName, tableName);
-					  table.setComment(comment);
-					  if(tableType.equalsIgnoreCase("TABLE")) {
-						  hasIndices.add(table);
-					  }
-					  processedTables.add( table );
-				  }
-				  else {
-					  log.debug("Ignoring table " + tableName + " of type " + tableType);
-				  }
-			  }
-		  }
-		  
 		  return processedTables;
 	}
 	
+	private static Table processTable(
+			ReverseEngineeringStrategy revengStrategy, 
+			DatabaseCollector dbs, 
+			Set<Table> hasIndices, 
+			ProgressListener progress, 
+			TableRecord tableRs, 
+			String tableName, 
+			String schemaName, 
+			String catalogName) {
+		String comment = tableRs.getRemarks();
+		String tableType = tableRs.getType();
+		
+		if(dbs.getTable
+				(schemaName, 
+						catalogName, 
+						tableName)!=null) {
+			log.debug("Ignoring " + tableName + " since it has already been processed");
+			return null;
+		} else {
+			if ( ("TABLE".equalsIgnoreCase(tableType) || "VIEW".equalsIgnoreCase(tableType) || "SYNONYM".equals(tableType) ) ) { //||
+				// ("SYNONYM".equals(tableType) && isOracle() ) ) { // only on oracle ? TODO: HBX-218
+				// it's a regular table or a synonym
+				
+				// ensure schema and catalogname is truly empty (especially mysql returns null schema, "" catalog)
+				if(schemaName!=null && schemaName.trim().length()==0) {
+					schemaName = null;
+				}                     
+				if(catalogName!=null && catalogName.trim().length()==0) {
+					catalogName=null;
+				}
+				log.debug("Adding table " + tableName + " of type " + tableType);
+				progress.startSubTask("Found " + tableName);
+				Table table = dbs.addTable(schemaName, catalogName, tableName);
+				table.setComment(comment);
+				if(tableType.equalsIgnoreCase("TABLE")) {
+					hasIndices.add(table);
+				}
+				return table;
+			}
+			else {
+				log.debug("Ignoring table " + tableName + " of type " + tableType);
+				return null;
+			}
+		}
+	}
+	
 	private static boolean safeEquals(Object value, Object tf) {
 		if(value==tf) return true;
 		if(value==null) return false;
@@ -2,11 +2,13 @@ package org.hibernate.cfg.reveng.dialect;
 
 import java.sql.Connection;
 import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -24,14 +26,22 @@ import org.slf4j.LoggerFactory;
  * @author max
  *
  */
-public abstract class AbstractMetaDataDialect implements MetaDataDialect {
+public abstract class AbstractMetaDataDialect implements PrefetchingMetaDataDialect {
 
+	/** Number of prepared statements kept open per dialect by default. */
+	public static final int DEFAULT_STATEMENT_CACHE_SIZE = 32;
+	
 	protected final Logger log = LoggerFactory.getLogger(this.getClass());
 	
 	private Connection connection;
 	private DatabaseMetaData metaData;
 
 	private ReverseEngineeringRuntimeInfo info;
+	
+	private int statementCacheSize = DEFAULT_STATEMENT_CACHE_SIZE;
+	private final Map<String, PreparedStatement> statements = new LinkedHashMap<String, PreparedStatement>(16, 0.75f, true);
+	private long statementCacheHits;
+	private long statementCacheMisses;
 
 
 	public void configure(ReverseEngineeringRuntimeInfo info) {
@@ -41,6 +51,16 @@ public abstract class AbstractMetaDataDialect implements MetaDataDialect {
 	
 	public void close() {
 		metaData = null;
+		try {
+			closeStatements();
+		}
+		finally {
+			closeConnection();
+		}
+		info = null;		
+	}
+	
+	private void closeConnection() {
 		if(connection != null) {
 			try {
 				info.getConnectionProvider().closeConnection(connection);				
@@ -51,7 +71,76 @@ public abstract class AbstractMetaDataDialect implements MetaDataDialect {
 				connection = null;
 			}
 		}
-		info = null;		
+	}
+	
+	private void closeStatements() {
+		if(!statements.isEmpty()) {
+			log.debug("Closing " + statements.size() + " cached statements, " + statementCacheHits + " hits and " + statementCacheMisses + " misses");
+		}
+		SQLException failure = null;
+		for (Iterator<PreparedStatement> iter = statements.values().iterator(); iter.hasNext();) {
+			try {
+				iter.next().close();
+			}
+			catch (SQLException e) {
+				failure = e;
+			}
+		}
+		statements.clear();
+		if(failure!=null) {
+			throw getSQLExceptionConverter().convert(failure, "Problem while closing prepared statement", null);
+		}
+	}
+	
+	/**
+	 * Prepared statement for <code>sql</code> on the connection of this dialect, reused for every
+	 * lookup with the same sql until the dialect is closed or the statement is evicted as the least
+	 * recently used one. Executing it again closes its previous result set, so callers must
+	 * pass a null statement to the {@link ResultSetIterator} and read the rows before the next
+	 * lookup of the same shape; the parameters should be bound instead of inlined in the sql.
+	 */
+	protected PreparedStatement prepareStatement(String sql) throws SQLException {
+		PreparedStatement statement = statements.get(sql);
+		if(statement!=null) {
+			statementCacheHits++;
+			statement.clearParameters();
+			return statement;
+		}
+		statementCacheMisses++;
+		statement = getConnection().prepareStatement(sql);
+		statements.put(sql, statement);
+		if(statements.size()>statementCacheSize) {
+			Iterator<PreparedStatement> eldest = statements.values().iterator();
+			PreparedStatement evicted = eldest.next();
+			eldest.remove();
+			try {
+				evicted.close();
+			}
+			catch (SQLException e) {
+				log.warn("Problem while closing evicted prepared statement", e);
+			}
+		}
+		return statement;
+	}
+	
+	/**
+	 * Set the number of prepared statements kept open by {@link #prepareStatement(String)}.
+	 */
+	public void setStatementCacheSize(int statementCacheSize) {
+		if(statementCacheSize<1) {
+			throw new IllegalArgumentException("Statement cache size must be at least 1, was " + statementCacheSize);
+		}
+		this.statementCacheSize = statementCacheSize;
+	}
+	
+	/** Number of times {@link #prepareStatement(String)} reused a cached statement. */
+	public long getStatementCacheHits() {
+		return statementCacheHits;
+	}
+	
+	/** Number of times {@link #prepareStatement(String)} had to prepare a new statement. */
+	public long getStatementCacheMisses() {
+		return statementCacheMisses;
 	}
 	
 	protected DatabaseMetaData getMetaData() throws JDBCBinderException {
@@ -128,8 +217,9 @@ public abstract class AbstractMetaDataDialect implements MetaDataDialect {
 	}
 	
 	public void close(Iterator<?> iterator) {
-		if(iterator instanceof ResultSetIterator) {
-			((ResultSetIterator)iterator).close();
+		iterator = MetaDataRecords.unwrap(iterator);
+		if(iterator instanceof TypedResultSetIterator) {
+			((TypedResultSetIterator<?>)iterator).close();
 		}
 	}
 	
@@ -189,4 +279,21 @@ public abstract class AbstractMetaDataDialect implements MetaDataDialect {
 		l.add(m);
 		return l.iterator();
 	}
+
+	/** Columns can be read by table name pattern; dialects that cannot should override and return null. */
+	public Iterator<Map<String, Object>> prefetchColumns(String catalog, String schema, String table) {
+		return getColumns(catalog, schema, table, null);
+	}
+
+	public Iterator<Map<String, Object>> prefetchPrimaryKeys(String catalog, String schema, String table) {
+		return null;
+	}
+
+	public Iterator<Map<String, Object>> prefetchIndexInfo(String catalog, String schema, String table) {
+		return null;
+	}
+
+	public Iterator<Map<String, Object>> prefetchExportedKeys(String catalog, String schema, String table) {
+		return null;
+	}
 }
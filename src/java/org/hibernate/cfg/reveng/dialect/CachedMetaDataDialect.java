@@ -1,16 +1,26 @@
 package org.hibernate.cfg.reveng.dialect;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 
+import org.hibernate.cfg.JDBCBinderException;
 import org.hibernate.cfg.reveng.ReverseEngineeringRuntimeInfo;
+import org.hibernate.exception.GenericJDBCException;
 
 public class CachedMetaDataDialect implements MetaDataDialect {
 	
 	MetaDataDialect delegate;
+	private final boolean offline;
 	private Map<StringKey, List<Map<String, Object>>> cachedTables = new HashMap<StringKey, List<Map<String, Object>>>();
 	private Map<StringKey, List<Map<String, Object>>> cachedColumns = new HashMap<StringKey, List<Map<String, Object>>>();
 	private Map<StringKey, List<Map<String, Object>>> cachedExportedKeys = new HashMap<StringKey, List<Map<String, Object>>>();
@@ -19,7 +29,16 @@ public class CachedMetaDataDialect implements MetaDataDialect {
 	private Map<StringKey, List<Map<String, Object>>> cachedPrimaryKeyStrategyName = new HashMap<StringKey, List<Map<String, Object>>>();
 
 	public CachedMetaDataDialect(MetaDataDialect realMetaData) {
+		this(realMetaData, false);
+	}
+	
+	/**
+	 * @param offline if true only cached meta data is returned and the real dialect is never asked for meta data, 
+	 * e.g. when the cache has been filled from a {@link MetaDataSnapshot}.
+	 */
+	public CachedMetaDataDialect(MetaDataDialect realMetaData, boolean offline) {
 		this.delegate = realMetaData;
+		this.offline = offline;
 	}
 	
 	public void close() {
@@ -48,7 +67,7 @@ public class CachedMetaDataDialect implements MetaDataDialect {
 		List<Map<String, Object>> cached = cachedColumns.get( sk );
 		if(cached==null) {
 			cached = new ArrayList<Map<String, Object>>();
-			return new CachedIterator(this, cachedColumns, sk, cached, delegate.getColumns( catalog, schema, table, column ));
+			return new CachedIterator(this, cachedColumns, sk, cached, delegate(sk).getColumns( catalog, schema, table, column ));
 		} else {
 			return cached.iterator();
 		}		
@@ -59,7 +78,7 @@ public class CachedMetaDataDialect implements MetaDataDialect {
 		List<Map<String, Object>> cached = cachedExportedKeys.get( sk );
 		if(cached==null) {
 			cached = new ArrayList<Map<String, Object>>();
-			return new CachedIterator(this, cachedExportedKeys, sk, cached, delegate.getExportedKeys( catalog, schema, table ));
+			return new CachedIterator(this, cachedExportedKeys, sk, cached, delegate(sk).getExportedKeys( catalog, schema, table ));
 		} else {
 			return cached.iterator();
 		}		
@@ -70,7 +89,7 @@ public class CachedMetaDataDialect implements MetaDataDialect {
 		List<Map<String, Object>> cached = cachedIndexInfo.get( sk );
 		if(cached==null) {
 			cached = new ArrayList<Map<String, Object>>();
-			return new CachedIterator(this, cachedIndexInfo, sk, cached, delegate.getIndexInfo( catalog, schema, table ));
+			return new CachedIterator(this, cachedIndexInfo, sk, cached, delegate(sk).getIndexInfo( catalog, schema, table ));
 		} else {
 			return cached.iterator();
 		}
@@ -81,7 +100,7 @@ public class CachedMetaDataDialect implements MetaDataDialect {
 		List<Map<String, Object>> cached = cachedPrimaryKeys .get( sk );
 		if(cached==null) {
 			cached = new ArrayList<Map<String, Object>>();
-			return new CachedIterator(this, cachedPrimaryKeys, sk, cached, delegate.getPrimaryKeys( catalog, schema, name ));
+			return new CachedIterator(this, cachedPrimaryKeys, sk, cached, delegate(sk).getPrimaryKeys( catalog, schema, name ));
 		} else {
 			return cached.iterator();
 		}
@@ -92,7 +111,7 @@ public class CachedMetaDataDialect implements MetaDataDialect {
 		List<Map<String, Object>> cached = cachedTables.get( sk );
 		if(cached==null) {
 			cached = new ArrayList<Map<String, Object>>();
-			return new CachedIterator(this, cachedTables, sk, cached, delegate.getTables( catalog, schema, table ));
+			return new CachedIterator(this, cachedTables, sk, cached, delegate(sk).getTables( catalog, schema, table ));
 		} else {
 			return cached.iterator();
 		}
@@ -103,7 +122,7 @@ public class CachedMetaDataDialect implements MetaDataDialect {
 		List<Map<String, Object>> cached = cachedPrimaryKeyStrategyName.get( sk );
 		if(cached==null) {
 			cached = new ArrayList<Map<String, Object>>();
-			return new CachedIterator(this, cachedPrimaryKeyStrategyName, sk, cached, delegate.getSuggestedPrimaryKeyStrategyName( catalog, schema, table ));
+			return new CachedIterator(this, cachedPrimaryKeyStrategyName, sk, cached, delegate(sk).getSuggestedPrimaryKeyStrategyName( catalog, schema, table ));
 		} else {
 			return cached.iterator();
 		}
@@ -113,6 +132,153 @@ public class CachedMetaDataDialect implements MetaDataDialect {
 		return delegate.needQuote( name );
 	}
 	
+	private MetaDataDialect delegate(StringKey sk) {
+		if(offline) {
+			// a JDBCException, so the processors that tolerate failing meta data reads tolerate this as well
+			String message = "Meta data for " + sk + " is not cached and the dialect is offline. Refresh the meta data snapshot against the database.";
+			throw new GenericJDBCException(message, new SQLException(message));
+		}
+		return delegate;
+	}
+	
+	/** Write all cached meta data; strings are written once and referenced by index afterwards. */
+	void writeCache(DataOutput out) throws IOException {
+		Map<String, Integer> strings = new HashMap<String, Integer>();
+		Map<StringKey, List<Map<String, Object>>>[] caches = getCaches();
+		for (int i = 0; i < caches.length; i++) {
+			out.writeInt(caches[i].size());
+			for (Iterator<Entry<StringKey, List<Map<String, Object>>>> iter = caches[i].entrySet().iterator(); iter.hasNext();) {
+				Entry<StringKey, List<Map<String, Object>>> entry = iter.next();
+				String[] keys = entry.getKey().keys;
+				out.writeInt(keys.length);
+				for (int j = 0; j < keys.length; j++) {
+					writeString(out, strings, keys[j]);
+				}
+				out.writeInt(entry.getValue().size());
+				for (Iterator<Map<String, Object>> rows = entry.getValue().iterator(); rows.hasNext();) {
+					Map<String, Object> row = rows.next();
+					out.writeInt(row.size());
+					for (Iterator<Entry<String, Object>> columns = row.entrySet().iterator(); columns.hasNext();) {
+						Entry<String, Object> column = columns.next();
+						writeString(out, strings, column.getKey());
+						writeValue(out, strings, column.getValue());
+					}
+				}
+			}
+		}
+	}
+
+	/** Read meta data written by {@link #writeCache(DataOutput)} into the cache. */
+	void readCache(DataInput in) throws IOException {
+		List<String> strings = new ArrayList<String>();
+		Map<StringKey, List<Map<String, Object>>>[] caches = getCaches();
+		for (int i = 0; i < caches.length; i++) {
+			int entries = in.readInt();
+			for (int e = 0; e < entries; e++) {
+				String[] keys = new String[in.readInt()];
+				for (int j = 0; j < keys.length; j++) {
+					keys[j] = readString(in, strings);
+				}
+				int rowCount = in.readInt();
+				List<Map<String, Object>> rows = new ArrayList<Map<String, Object>>(rowCount);
+				for (int r = 0; r < rowCount; r++) {
+					int columnCount = in.readInt();
+					Map<String, Object> row = new HashMap<String, Object>();
+					for (int c = 0; c < columnCount; c++) {
+						String name = readString(in, strings);
+						row.put(name, readValue(in, strings));
+					}
+					rows.add(row);
+				}
+				caches[i].put(new StringKey(keys), rows);
+			}
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private Map<StringKey, List<Map<String, Object>>>[] getCaches() {
+		return new Map[] { cachedTables, cachedColumns, cachedExportedKeys, cachedPrimaryKeys, cachedIndexInfo, cachedPrimaryKeyStrategyName };
+	}
+
+	private static final Charset UTF8 = Charset.forName("UTF-8");
+
+	private static final byte NULL = 0;
+	private static final byte STRING = 1;
+	private static final byte INTEGER = 2;
+	private static final byte SHORT = 3;
+	private static final byte BOOLEAN = 4;
+	private static final byte LONG = 5;
+
+	private void writeValue(DataOutput out, Map<String, Integer> strings, Object value) throws IOException {
+		if(value==null) {
+			out.writeByte(NULL);
+		} else if(value instanceof String) {
+			out.writeByte(STRING);
+			writeString(out, strings, (String) value);
+		} else if(value instanceof Integer) {
+			out.writeByte(INTEGER);
+			out.writeInt(((Integer) value).intValue());
+		} else if(value instanceof Short) {
+			out.writeByte(SHORT);
+			out.writeShort(((Short) value).shortValue());
+		} else if(value instanceof Boolean) {
+			out.writeByte(BOOLEAN);
+			out.writeBoolean(((Boolean) value).booleanValue());
+		} else if(value instanceof Long) {
+			out.writeByte(LONG);
+			out.writeLong(((Long) value).longValue());
+		} else {
+			throw new JDBCBinderException("Cannot store meta data value of type " + value.getClass().getName() + " in snapshot");
+		}
+	}
+
+	private Object readValue(DataInput in, List<String> strings) throws IOException {
+		byte type = in.readByte();
+		switch (type) {
+		case NULL: return null;
+		case STRING: return readString(in, strings);
+		case INTEGER: return Integer.valueOf(in.readInt());
+		case SHORT: return Short.valueOf(in.readShort());
+		case BOOLEAN: return Boolean.valueOf(in.readBoolean());
+		case LONG: return Long.valueOf(in.readLong());
+		default:
+			throw new IOException("Unknown value type " + type + " in meta data snapshot");
+		}
+	}
+
+	private void writeString(DataOutput out, Map<String, Integer> strings, String value) throws IOException {
+		if(value==null) {
+			out.writeInt(-1);
+			return;
+		}
+		Integer index = strings.get(value);
+		if(index==null) {
+			// not writeUTF, which is limited to 64K bytes
+			byte[] bytes = value.getBytes(UTF8);
+			out.writeInt(-2);
+			out.writeInt(bytes.length);
+			out.write(bytes);
+			strings.put(value, Integer.valueOf(strings.size()));
+		} else {
+			out.writeInt(index.intValue());
+		}
+	}
+
+	private String readString(DataInput in, List<String> strings) throws IOException {
+		int index = in.readInt();
+		if(index==-1) {
+			return null;
+		} else if(index==-2) {
+			byte[] bytes = new byte[in.readInt()];
+			in.readFully(bytes);
+			String value = new String(bytes, UTF8);
+			strings.add(value);
+			return value;
+		} else {
+			return strings.get(index);
+		}
+	}
+	
 	private static class StringKey {
 		String[] keys;
 		
@@ -151,6 +317,10 @@ public class CachedMetaDataDialect implements MetaDataDialect {
 			return true;
 		}
 		
+		public String toString() {
+			return Arrays.asList(keys).toString();
+		}
+		
 		private boolean safeEquals(Object obj1, Object obj2) {
 			if ( obj1 == null ) {
 				return obj2 == null;
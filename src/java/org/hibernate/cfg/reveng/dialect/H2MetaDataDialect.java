@@ -3,8 +3,10 @@ package org.hibernate.cfg.reveng.dialect;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 
 import org.hibernate.internal.util.StringHelper;
@@ -65,17 +67,24 @@ public class H2MetaDataDialect extends JDBCMetaDataDialect {
 						"and idx.TABLE_NAME = cols.TABLE_NAME " +
                         "AND idx.PRIMARY_KEY = TRUE " +
                         "AND COLUMN_DEFAULT like '%NEXT VALUE FOR%' ";				
+				List<String> parameters = new ArrayList<String>();
 				if(catalog!=null) {
-					sql += "AND idx.TABLE_CATALOG like '" + catalog + "' ";
+					sql += "AND idx.TABLE_CATALOG like ? ";
+					parameters.add( catalog );
 				}
 				if(schema!=null) { 					
-					sql += "AND idx.TABLE_SCHEMA like '" + schema + "' ";
+					sql += "AND idx.TABLE_SCHEMA like ? ";
+					parameters.add( schema );
 				}
 				if(table!=null) {
-					sql += "AND idx.TABLE_NAME like '" + table + "' ";
+					sql += "AND idx.TABLE_NAME like ? ";
+					parameters.add( table );
 				}
 									
-				PreparedStatement statement = getConnection().prepareStatement( sql );
+				PreparedStatement statement = prepareStatement( sql );
+				for (int i = 0; i < parameters.size(); i++) {
+					statement.setString( i + 1, parameters.get( i ) );
+				}
 				
 				return new ResultSetIterator(statement.executeQuery(), getSQLExceptionConverter()) {
 					
@@ -98,4 +107,28 @@ public class H2MetaDataDialect extends JDBCMetaDataDialect {
 				throw getSQLExceptionConverter().convert(e, "Could not get list of suggested identity strategies from database. Probably a JDBC driver problem.", null);		         
 			} 		
 	}
+
+	/* Same queries on INFORMATION_SCHEMA as the JDBC meta data of H2 uses, just not restricted to one table. */
+
+	public Iterator<Map<String, Object>> prefetchPrimaryKeys(String catalog, String schema, String table) {
+		return queryPrimaryKeys("SELECT TABLE_CATALOG TABLE_CAT, TABLE_SCHEMA TABLE_SCHEM, TABLE_NAME, COLUMN_NAME, ORDINAL_POSITION KEY_SEQ, " +
+				"IFNULL(CONSTRAINT_NAME, INDEX_NAME) PK_NAME FROM INFORMATION_SCHEMA.INDEXES WHERE PRIMARY_KEY = TRUE", 
+				new String[] { "TABLE_CATALOG", "TABLE_SCHEMA", "TABLE_NAME" }, 
+				"TABLE_NAME, COLUMN_NAME", catalog, schema, table);
+	}
+
+	public Iterator<Map<String, Object>> prefetchIndexInfo(String catalog, String schema, String table) {
+		return queryIndexInfo("SELECT TABLE_CATALOG TABLE_CAT, TABLE_SCHEMA TABLE_SCHEM, TABLE_NAME, NON_UNIQUE, INDEX_NAME, " +
+				"INDEX_TYPE TYPE, ORDINAL_POSITION, COLUMN_NAME FROM INFORMATION_SCHEMA.INDEXES", 
+				new String[] { "TABLE_CATALOG", "TABLE_SCHEMA", "TABLE_NAME" }, 
+				"TABLE_NAME, NON_UNIQUE, TYPE, TABLE_SCHEM, INDEX_NAME, ORDINAL_POSITION", catalog, schema, table);
+	}
+
+	public Iterator<Map<String, Object>> prefetchExportedKeys(String catalog, String schema, String table) {
+		return queryExportedKeys("SELECT PKTABLE_CATALOG PKTABLE_CAT, PKTABLE_SCHEMA PKTABLE_SCHEM, PKTABLE_NAME, PKCOLUMN_NAME, " +
+				"FKTABLE_CATALOG FKTABLE_CAT, FKTABLE_SCHEMA FKTABLE_SCHEM, FKTABLE_NAME, FKCOLUMN_NAME, ORDINAL_POSITION KEY_SEQ, FK_NAME " +
+				"FROM INFORMATION_SCHEMA.CROSS_REFERENCES", 
+				new String[] { "PKTABLE_CATALOG", "PKTABLE_SCHEMA", "PKTABLE_NAME" }, 
+				"PKTABLE_NAME, FKTABLE_CAT, FKTABLE_SCHEM, FKTABLE_NAME, FK_NAME, KEY_SEQ", catalog, schema, table);
+	}
 }
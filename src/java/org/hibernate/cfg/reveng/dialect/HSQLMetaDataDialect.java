@@ -98,4 +98,25 @@ public class HSQLMetaDataDialect extends JDBCMetaDataDialect {
 				throw getSQLExceptionConverter().convert(e, "Could not get list of suggested identity strategies from database. Probably a JDBC driver problem. ", sql);		         
 			} 		
 		}
+
+	/* The INFORMATION_SCHEMA.SYSTEM_* views are what the JDBC meta data of HSQLDB reads from and have the same columns.
+	 * The rows are ordered per table as the JDBC meta data orders them. */
+
+	public Iterator<Map<String, Object>> prefetchPrimaryKeys(String catalog, String schema, String table) {
+		return queryPrimaryKeys("SELECT * FROM INFORMATION_SCHEMA.SYSTEM_PRIMARYKEYS", 
+				new String[] { "TABLE_CAT", "TABLE_SCHEM", "TABLE_NAME" }, 
+				"TABLE_CAT, TABLE_SCHEM, TABLE_NAME, COLUMN_NAME", catalog, schema, table);
+	}
+
+	public Iterator<Map<String, Object>> prefetchIndexInfo(String catalog, String schema, String table) {
+		return queryIndexInfo("SELECT * FROM INFORMATION_SCHEMA.SYSTEM_INDEXINFO", 
+				new String[] { "TABLE_CAT", "TABLE_SCHEM", "TABLE_NAME" }, 
+				"TABLE_CAT, TABLE_SCHEM, TABLE_NAME, NON_UNIQUE, TYPE, INDEX_NAME, ORDINAL_POSITION", catalog, schema, table);
+	}
+
+	public Iterator<Map<String, Object>> prefetchExportedKeys(String catalog, String schema, String table) {
+		return queryExportedKeys("SELECT * FROM INFORMATION_SCHEMA.SYSTEM_CROSSREFERENCE", 
+				new String[] { "PKTABLE_CAT", "PKTABLE_SCHEM", "PKTABLE_NAME" }, 
+				"PKTABLE_CAT, PKTABLE_SCHEM, PKTABLE_NAME, FKTABLE_CAT, FKTABLE_SCHEM, FKTABLE_NAME, FK_NAME, KEY_SEQ", catalog, schema, table);
+	}
 }
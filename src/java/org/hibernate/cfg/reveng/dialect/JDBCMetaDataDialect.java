@@ -1,20 +1,31 @@
 package org.hibernate.cfg.reveng.dialect;
 
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 
+import org.hibernate.cfg.reveng.dialect.MetaDataRecords.ColumnRecord;
+import org.hibernate.cfg.reveng.dialect.MetaDataRecords.ExportedKeyRecord;
+import org.hibernate.cfg.reveng.dialect.MetaDataRecords.IndexRecord;
+import org.hibernate.cfg.reveng.dialect.MetaDataRecords.PrimaryKeyRecord;
+import org.hibernate.cfg.reveng.dialect.MetaDataRecords.TableRecord;
 import org.hibernate.tool.util.TableNameQualifier;
 
 /**
  * MetaData dialect that uses standard JDBC for reading metadata.
+ * The typed methods read records straight from the JDBC results without creating a map per row.
  * 
  * @author Max Rydahl Andersen
  *
  */
-public class JDBCMetaDataDialect extends AbstractMetaDataDialect {
+public class JDBCMetaDataDialect extends AbstractMetaDataDialect implements TypedMetaDataDialect {
+	
+	private final Map<String, Boolean> overridden = new HashMap<String, Boolean>();
 	
 	public Iterator<Map<String,Object>> getTables(String xcatalog, String xschema, String xtable) {
 		try {			
@@ -66,11 +77,7 @@ public class JDBCMetaDataDialect extends AbstractMetaDataDialect {
 				Map<String, Object> element = new HashMap<String, Object>();
 				protected Map<String, Object> convertRow(ResultSet rs) throws SQLException {
 					element.clear();
-					putTablePart(element, rs);
-					element.put("INDEX_NAME", rs.getString("INDEX_NAME"));
-					element.put("COLUMN_NAME", rs.getString("COLUMN_NAME"));
-					element.put("NON_UNIQUE", Boolean.valueOf(rs.getBoolean("NON_UNIQUE")));
-					element.put("TYPE", new Short(rs.getShort("TYPE")));					 
+					putIndexInfoPart(element, rs);
 					return element;					
 				}
 				protected Throwable handleSQLException(SQLException e) {
@@ -82,6 +89,14 @@ public class JDBCMetaDataDialect extends AbstractMetaDataDialect {
 		} 		
 	}
 
+	protected void putIndexInfoPart(Map<String, Object> element, ResultSet rs) throws SQLException {
+		putTablePart(element, rs);
+		element.put("INDEX_NAME", rs.getString("INDEX_NAME"));
+		element.put("COLUMN_NAME", rs.getString("COLUMN_NAME"));
+		element.put("NON_UNIQUE", Boolean.valueOf(rs.getBoolean("NON_UNIQUE")));
+		element.put("TYPE", new Short(rs.getShort("TYPE")));					 
+	}
+
 	protected void putTablePart(Map<String, Object> element, ResultSet tableRs) throws SQLException {
 		element.put("TABLE_NAME", tableRs.getString("TABLE_NAME"));
 		element.put("TABLE_SCHEM", tableRs.getString("TABLE_SCHEM"));
@@ -136,10 +151,7 @@ public class JDBCMetaDataDialect extends AbstractMetaDataDialect {
 				Map<String, Object> element = new HashMap<String, Object>();
 				protected Map<String, Object> convertRow(ResultSet rs) throws SQLException {
 					element.clear();
-					putTablePart(element, rs);
-					element.put("COLUMN_NAME", rs.getString("COLUMN_NAME"));
-					element.put("KEY_SEQ", new Short(rs.getShort("KEY_SEQ")));
-					element.put("PK_NAME", rs.getString("PK_NAME"));
+					putPrimaryKeyPart(element, rs);
 					return element;					
 				}
 				protected Throwable handleSQLException(SQLException e) {
@@ -177,6 +189,208 @@ public class JDBCMetaDataDialect extends AbstractMetaDataDialect {
 		}	
 	}
 	
+	public Iterator<TableRecord> getTableRecords(String xcatalog, String xschema, String xtable) {
+		if(isOverridden("getTables", String.class, String.class, String.class) || isPartOverridden("putTablePart")) {
+			return MetaDataRecords.toTableRecords(getTables(xcatalog, xschema, xtable));
+		}
+		try {			
+			final String catalog = caseForSearch( xcatalog );
+			final String schema = caseForSearch( xschema );
+			final String table = caseForSearch( xtable );
+			
+			log.debug("getTableRecords(" + catalog + "." + schema + "." + table + ")");
+			
+			ResultSet tableRs = getMetaData().getTables(catalog , schema , table, new String[] { "TABLE", "VIEW" });
+			
+			return new TypedResultSetIterator<TableRecord>(tableRs, getSQLExceptionConverter()) {
+				protected TableRecord convertRow(ResultSet rs) throws SQLException {
+					return new TableRecord(
+							rs.getString("TABLE_CAT"), 
+							rs.getString("TABLE_SCHEM"), 
+							rs.getString("TABLE_NAME"), 
+							rs.getString("TABLE_TYPE"), 
+							rs.getString("REMARKS"));
+				}
+				protected Throwable handleSQLException(SQLException e) {
+					String databaseStructure = getDatabaseStructure( catalog, schema );
+					throw getSQLExceptionConverter().convert( e,
+							"Could not get list of tables from database. Probably a JDBC driver problem. "
+									+ databaseStructure, null );					
+				}
+			};
+		} catch (SQLException e) {
+			String databaseStructure = getDatabaseStructure(xcatalog,xschema);
+			throw getSQLExceptionConverter().convert(e, "Could not get list of tables from database. Probably a JDBC driver problem. " + databaseStructure, null);		         
+		} 		
+	}
+	
+	public Iterator<ColumnRecord> getColumnRecords(final String xcatalog, final String xschema, final String xtable, String xcolumn) {
+		if(isOverridden("getColumns", String.class, String.class, String.class, String.class) || isPartOverridden("putTablePart")) {
+			return MetaDataRecords.toColumnRecords(getColumns(xcatalog, xschema, xtable, xcolumn));
+		}
+		try {			  
+			final String catalog = caseForSearch( xcatalog );
+			final String schema = caseForSearch( xschema );
+			final String table = caseForSearch( xtable );
+			final String column = caseForSearch( xcolumn );
+			
+			log.debug("getColumnRecords(" + catalog + "." + schema + "." + table + "." + column + ")");
+			ResultSet tableRs = getMetaData().getColumns(catalog, schema, table, column);
+			
+			return new TypedResultSetIterator<ColumnRecord>(tableRs, getSQLExceptionConverter()) {
+				protected ColumnRecord convertRow(ResultSet rs) throws SQLException {
+					return new ColumnRecord(
+							rs.getString("TABLE_CAT"), 
+							rs.getString("TABLE_SCHEM"), 
+							rs.getString("TABLE_NAME"), 
+							rs.getString("COLUMN_NAME"), 
+							rs.getInt("DATA_TYPE"), 
+							rs.getString("TYPE_NAME"), 
+							rs.getInt("NULLABLE"), 
+							rs.getInt("COLUMN_SIZE"), 
+							rs.getInt("DECIMAL_DIGITS"), 
+							rs.getString("REMARKS"));
+				}
+				protected Throwable handleSQLException(SQLException e) {
+					throw getSQLExceptionConverter().convert(e, "Error while reading column meta data for " + TableNameQualifier.qualify(catalog, schema, table), null);
+				}
+			};
+		} catch (SQLException e) {
+			throw getSQLExceptionConverter().convert(e, "Error while reading column meta data for " + TableNameQualifier.qualify(xcatalog, xschema, xtable), null);
+		}	
+	}
+	
+	public Iterator<PrimaryKeyRecord> getPrimaryKeyRecords(final String xcatalog, final String xschema, final String xtable) {
+		if(isOverridden("getPrimaryKeys", String.class, String.class, String.class) || isPartOverridden("putPrimaryKeyPart") || isPartOverridden("putTablePart")) {
+			return MetaDataRecords.toPrimaryKeyRecords(getPrimaryKeys(xcatalog, xschema, xtable));
+		}
+		try {
+			final String catalog = caseForSearch( xcatalog );
+			final String schema = caseForSearch( xschema );
+			final String table = caseForSearch( xtable );
+			
+			log.debug("getPrimaryKeyRecords(" + catalog + "." + schema + "." + table + ")");
+			ResultSet tableRs = getMetaData().getPrimaryKeys(catalog, schema, table);
+			
+			return new TypedResultSetIterator<PrimaryKeyRecord>(tableRs, getSQLExceptionConverter()) {
+				protected PrimaryKeyRecord convertRow(ResultSet rs) throws SQLException {
+					return new PrimaryKeyRecord(
+							rs.getString("TABLE_CAT"), 
+							rs.getString("TABLE_SCHEM"), 
+							rs.getString("TABLE_NAME"), 
+							rs.getString("COLUMN_NAME"), 
+							rs.getShort("KEY_SEQ"), 
+							rs.getString("PK_NAME"));
+				}
+				protected Throwable handleSQLException(SQLException e) {
+					throw getSQLExceptionConverter().convert(e, "Error while reading primary key meta data for " + TableNameQualifier.qualify(catalog, schema, table), null);
+				}
+			};
+		} catch (SQLException e) {
+			throw getSQLExceptionConverter().convert(e, "Error while reading primary key meta data for " + TableNameQualifier.qualify(xcatalog, xschema, xtable), null);
+		}	
+	}
+	
+	public Iterator<IndexRecord> getIndexRecords(final String xcatalog, final String xschema, final String xtable) {
+		if(isOverridden("getIndexInfo", String.class, String.class, String.class) || isPartOverridden("putIndexInfoPart") || isPartOverridden("putTablePart")) {
+			return MetaDataRecords.toIndexRecords(getIndexInfo(xcatalog, xschema, xtable));
+		}
+		try {
+			final String catalog = caseForSearch( xcatalog );
+			final String schema = caseForSearch( xschema );
+			final String table = caseForSearch( xtable );
+			
+			log.debug("getIndexRecords(" + catalog + "." + schema + "." + table + ")");
+			ResultSet tableRs = getMetaData().getIndexInfo(catalog , schema , table, false, true);
+			
+			return new TypedResultSetIterator<IndexRecord>(tableRs, getSQLExceptionConverter()) {
+				protected IndexRecord convertRow(ResultSet rs) throws SQLException {
+					return new IndexRecord(
+							rs.getString("TABLE_CAT"), 
+							rs.getString("TABLE_SCHEM"), 
+							rs.getString("TABLE_NAME"), 
+							rs.getString("INDEX_NAME"), 
+							rs.getString("COLUMN_NAME"), 
+							rs.getBoolean("NON_UNIQUE"), 
+							rs.getShort("TYPE"));
+				}
+				protected Throwable handleSQLException(SQLException e) {
+					throw getSQLExceptionConverter().convert(e, "Exception while getting index info for " + TableNameQualifier.qualify(catalog, schema, table), null);
+				}
+			};
+		} catch (SQLException e) {
+			throw getSQLExceptionConverter().convert(e, "Exception while getting index info for " + TableNameQualifier.qualify(xcatalog, xschema, xtable), null);
+		} 		
+	}
+	
+	public Iterator<ExportedKeyRecord> getExportedKeyRecords(final String xcatalog, final String xschema, final String xtable) {
+		if(isOverridden("getExportedKeys", String.class, String.class, String.class) || isPartOverridden("putExportedKeysPart")) {
+			return MetaDataRecords.toExportedKeyRecords(getExportedKeys(xcatalog, xschema, xtable));
+		}
+		try {
+			final String catalog = caseForSearch( xcatalog );
+			final String schema = caseForSearch( xschema );
+			final String table = caseForSearch( xtable );
+			
+			log.debug("getExportedKeyRecords(" + catalog + "." + schema + "." + table + ")");
+			ResultSet tableRs = getMetaData().getExportedKeys(catalog, schema, table);
+			
+			return new TypedResultSetIterator<ExportedKeyRecord>(tableRs, getSQLExceptionConverter()) {
+				protected ExportedKeyRecord convertRow(ResultSet rs) throws SQLException {
+					return new ExportedKeyRecord(
+							rs.getString("PKTABLE_CAT"), 
+							rs.getString("PKTABLE_SCHEM"), 
+							rs.getString("PKTABLE_NAME"), 
+							rs.getString("PKCOLUMN_NAME"), 
+							rs.getString("FKTABLE_CAT"), 
+							rs.getString("FKTABLE_SCHEM"), 
+							rs.getString("FKTABLE_NAME"), 
+							rs.getString("FKCOLUMN_NAME"), 
+							rs.getString("FK_NAME"), 
+							rs.getShort("KEY_SEQ"));
+				}
+				protected Throwable handleSQLException(SQLException e) {
+					throw getSQLExceptionConverter().convert(e, "Error while reading exported keys meta data for " + TableNameQualifier.qualify(catalog, schema, table), null);
+				}
+			};
+		} catch (SQLException e) {
+			throw getSQLExceptionConverter().convert(e, "Error while reading exported keys meta data for " + TableNameQualifier.qualify(xcatalog, xschema, xtable), null);
+		}	
+	}
+	
+	/**
+	 * A subclass that customizes one of the map based methods, or the parts of the rows they put into the maps, 
+	 * keeps being used through the typed method.
+	 */
+	private boolean isOverridden(String name, Class<?>... parameterTypes) {
+		Boolean result = overridden.get(name);
+		if(result==null) {
+			result = Boolean.FALSE;
+			for (Class<?> clazz = getClass(); clazz!=JDBCMetaDataDialect.class && !result.booleanValue(); clazz = clazz.getSuperclass()) {
+				try {
+					clazz.getDeclaredMethod(name, parameterTypes);
+					result = Boolean.TRUE;
+				}
+				catch (NoSuchMethodException e) {
+					// not declared on this class, look further up
+				}
+			}
+			overridden.put(name, result);
+		}
+		return result.booleanValue();
+	}
+	
+	private boolean isPartOverridden(String name) {
+		return isOverridden(name, Map.class, ResultSet.class);
+	}
+	
+	protected void putPrimaryKeyPart(Map<String, Object> element, ResultSet rs) throws SQLException {
+		putTablePart(element, rs);
+		element.put("COLUMN_NAME", rs.getString("COLUMN_NAME"));
+		element.put("KEY_SEQ", new Short(rs.getShort("KEY_SEQ")));
+		element.put("PK_NAME", rs.getString("PK_NAME"));
+	}
+
 	protected void putExportedKeysPart(Map<String, Object> element, ResultSet rs) throws SQLException {
 		element.put( "PKTABLE_NAME", rs.getString("PKTABLE_NAME"));
 		element.put( "PKTABLE_SCHEM", rs.getString("PKTABLE_SCHEM"));
@@ -189,6 +403,122 @@ public class JDBCMetaDataDialect extends AbstractMetaDataDialect {
 		element.put( "FK_NAME", rs.getString("FK_NAME"));
 		element.put( "KEY_SEQ", new Short(rs.getShort("KEY_SEQ")));
 	}
-	
-	
+
+	/**
+	 * Read primary keys schema wide with a native query that returns the same columns as {@link java.sql.DatabaseMetaData#getPrimaryKeys(String, String, String)}.
+	 * 
+	 * @param sql select without where and order by clause
+	 * @param qualifierColumns the columns to match catalog, schema and table against; a null column is not matched
+	 */
+	protected Iterator<Map<String, Object>> queryPrimaryKeys(String sql, String[] qualifierColumns, String orderBy, String xcatalog, String xschema, String xtable) {
+		try {
+			final String catalog = caseForSearch( xcatalog );
+			final String schema = caseForSearch( xschema );
+			final String table = caseForSearch( xtable );
+			
+			log.debug("queryPrimaryKeys(" + catalog + "." + schema + "." + table + ")");
+			PreparedStatement statement = prepareQuery(sql, qualifierColumns, orderBy, catalog, schema, table);
+			
+			return new ResultSetIterator(statement.executeQuery(), getSQLExceptionConverter()) {
+				
+				Map<String, Object> element = new HashMap<String, Object>();
+				protected Map<String, Object> convertRow(ResultSet rs) throws SQLException {
+					element.clear();
+					putPrimaryKeyPart(element, rs);
+					return element;					
+				}
+				protected Throwable handleSQLException(SQLException e) {
+					throw getSQLExceptionConverter().convert(e, "Error while reading primary key meta data for " + TableNameQualifier.qualify(catalog, schema, table), null);
+				}
+			};
+		} catch (SQLException e) {
+			throw getSQLExceptionConverter().convert(e, "Error while reading primary key meta data for " + TableNameQualifier.qualify(xcatalog, xschema, xtable), sql);
+		}	
+	}
+
+	/**
+	 * Read indexes schema wide with a native query that returns the same columns as {@link java.sql.DatabaseMetaData#getIndexInfo(String, String, String, boolean, boolean)}.
+	 * 
+	 * @param sql select without where and order by clause
+	 * @param qualifierColumns the columns to match catalog, schema and table against; a null column is not matched
+	 */
+	protected Iterator<Map<String, Object>> queryIndexInfo(String sql, String[] qualifierColumns, String orderBy, String xcatalog, String xschema, String xtable) {
+		try {
+			final String catalog = caseForSearch( xcatalog );
+			final String schema = caseForSearch( xschema );
+			final String table = caseForSearch( xtable );
+			
+			log.debug("queryIndexInfo(" + catalog + "." + schema + "." + table + ")");
+			PreparedStatement statement = prepareQuery(sql, qualifierColumns, orderBy, catalog, schema, table);
+			
+			return new ResultSetIterator(statement.executeQuery(), getSQLExceptionConverter()) {
+				
+				Map<String, Object> element = new HashMap<String, Object>();
+				protected Map<String, Object> convertRow(ResultSet rs) throws SQLException {
+					element.clear();
+					putIndexInfoPart(element, rs);
+					return element;					
+				}
+				protected Throwable handleSQLException(SQLException e) {
+					throw getSQLExceptionConverter().convert(e, "Exception while getting index info for " + TableNameQualifier.qualify(catalog, schema, table), null);
+				}
+			};
+		} catch (SQLException e) {
+			throw getSQLExceptionConverter().convert(e, "Exception while getting index info for " + TableNameQualifier.qualify(xcatalog, xschema, xtable), sql);
+		}	
+	}
+
+	/**
+	 * Read exported keys schema wide with a native query that returns the same columns as {@link java.sql.DatabaseMetaData#getExportedKeys(String, String, String)}.
+	 * 
+	 * @param sql select without where and order by clause
+	 * @param qualifierColumns the columns to match the catalog, schema and table of the referenced table against; a null column is not matched
+	 */
+	protected Iterator<Map<String, Object>> queryExportedKeys(String sql, String[] qualifierColumns, String orderBy, String xcatalog, String xschema, String xtable) {
+		try {
+			final String catalog = caseForSearch( xcatalog );
+			final String schema = caseForSearch( xschema );
+			final String table = caseForSearch( xtable );
+			
+			log.debug("queryExportedKeys(" + catalog + "." + schema + "." + table + ")");
+			PreparedStatement statement = prepareQuery(sql, qualifierColumns, orderBy, catalog, schema, table);
+			
+			return new ResultSetIterator(statement.executeQuery(), getSQLExceptionConverter()) {
+				
+				Map<String, Object> element = new HashMap<String, Object>();
+				protected Map<String, Object> convertRow(ResultSet rs) throws SQLException {
+					element.clear();
+					putExportedKeysPart( element, rs );					
+					return element;					
+				}
+				protected Throwable handleSQLException(SQLException e) {
+					throw getSQLExceptionConverter().convert(e, "Error while reading exported keys meta data for " + TableNameQualifier.qualify(catalog, schema, table), null);
+				}
+			};
+		} catch (SQLException e) {
+			throw getSQLExceptionConverter().convert(e, "Error while reading exported keys meta data for " + TableNameQualifier.qualify(xcatalog, xschema, xtable), sql);
+		}	
+	}
+
+	private PreparedStatement prepareQuery(String sql, String[] qualifierColumns, String orderBy, String catalog, String schema, String table) throws SQLException {
+		String[] values = new String[] { catalog, schema, table };
+		List<String> parameters = new ArrayList<String>();
+		StringBuffer query = new StringBuffer(sql);
+		boolean where = sql.toUpperCase().indexOf(" WHERE ")<0;
+		for (int i = 0; i < values.length; i++) {
+			if(values[i]!=null && qualifierColumns[i]!=null) {
+				query.append(where ? " WHERE " : " AND ").append(qualifierColumns[i]).append(" LIKE ?");
+				parameters.add(values[i]);
+				where = false;
+			}
+		}
+		if(orderBy!=null) {
+			query.append(" ORDER BY ").append(orderBy);
+		}
+		PreparedStatement statement = prepareStatement(query.toString());
+		for (int i = 0; i < parameters.size(); i++) {
+			statement.setString(i + 1, parameters.get(i));
+		}
+		return statement;
+	}
 }
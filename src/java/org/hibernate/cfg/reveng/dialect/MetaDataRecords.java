@@ -0,0 +1,439 @@
+package org.hibernate.cfg.reveng.dialect;
+
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Typed rows of meta data as returned by a {@link TypedMetaDataDialect}, and access to them for any {@link MetaDataDialect}.
+ *
+ * The records are immutable and hold the names interned, so the many rows that repeat the same
+ * catalog, schema, table and column names share the strings. For dialects that only offer the map
+ * based API the maps are converted into records as they are iterated.
+ */
+public final class MetaDataRecords {
+
+	private MetaDataRecords() {
+	}
+
+	public static Iterator<TableRecord> getTables(MetaDataDialect dialect, String catalog, String schema, String table) {
+		if(dialect instanceof TypedMetaDataDialect) {
+			return ((TypedMetaDataDialect) dialect).getTableRecords(catalog, schema, table);
+		}
+		return toTableRecords(dialect.getTables(catalog, schema, table));
+	}
+
+	static Iterator<TableRecord> toTableRecords(Iterator<Map<String, Object>> rows) {
+		return new ConvertingIterator<TableRecord>(rows) {
+			TableRecord convert(Map<String, Object> row) {
+				return new TableRecord(
+						(String) row.get("TABLE_CAT"),
+						(String) row.get("TABLE_SCHEM"),
+						(String) row.get("TABLE_NAME"),
+						(String) row.get("TABLE_TYPE"),
+						(String) row.get("REMARKS"));
+			}
+		};
+	}
+
+	public static Iterator<ColumnRecord> getColumns(MetaDataDialect dialect, String catalog, String schema, String table, String column) {
+		if(dialect instanceof TypedMetaDataDialect) {
+			return ((TypedMetaDataDialect) dialect).getColumnRecords(catalog, schema, table, column);
+		}
+		return toColumnRecords(dialect.getColumns(catalog, schema, table, column));
+	}
+
+	static Iterator<ColumnRecord> toColumnRecords(Iterator<Map<String, Object>> rows) {
+		return new ConvertingIterator<ColumnRecord>(rows) {
+			ColumnRecord convert(Map<String, Object> row) {
+				return new ColumnRecord(
+						(String) row.get("TABLE_CAT"),
+						(String) row.get("TABLE_SCHEM"),
+						(String) row.get("TABLE_NAME"),
+						(String) row.get("COLUMN_NAME"),
+						((Integer) row.get("DATA_TYPE")).intValue(),
+						(String) row.get("TYPE_NAME"),
+						((Integer) row.get("NULLABLE")).intValue(),
+						((Integer) row.get("COLUMN_SIZE")).intValue(),
+						((Integer) row.get("DECIMAL_DIGITS")).intValue(),
+						(String) row.get("REMARKS"));
+			}
+		};
+	}
+
+	public static Iterator<PrimaryKeyRecord> getPrimaryKeys(MetaDataDialect dialect, String catalog, String schema, String table) {
+		if(dialect instanceof TypedMetaDataDialect) {
+			return ((TypedMetaDataDialect) dialect).getPrimaryKeyRecords(catalog, schema, table);
+		}
+		return toPrimaryKeyRecords(dialect.getPrimaryKeys(catalog, schema, table));
+	}
+
+	static Iterator<PrimaryKeyRecord> toPrimaryKeyRecords(Iterator<Map<String, Object>> rows) {
+		return new ConvertingIterator<PrimaryKeyRecord>(rows) {
+			PrimaryKeyRecord convert(Map<String, Object> row) {
+				return new PrimaryKeyRecord(
+						(String) row.get("TABLE_CAT"),
+						(String) row.get("TABLE_SCHEM"),
+						(String) row.get("TABLE_NAME"),
+						(String) row.get("COLUMN_NAME"),
+						((Short) row.get("KEY_SEQ")).shortValue(),
+						(String) row.get("PK_NAME"));
+			}
+		};
+	}
+
+	public static Iterator<IndexRecord> getIndexInfo(MetaDataDialect dialect, String catalog, String schema, String table) {
+		if(dialect instanceof TypedMetaDataDialect) {
+			return ((TypedMetaDataDialect) dialect).getIndexRecords(catalog, schema, table);
+		}
+		return toIndexRecords(dialect.getIndexInfo(catalog, schema, table));
+	}
+
+	static Iterator<IndexRecord> toIndexRecords(Iterator<Map<String, Object>> rows) {
+		return new ConvertingIterator<IndexRecord>(rows) {
+			IndexRecord convert(Map<String, Object> row) {
+				return new IndexRecord(
+						(String) row.get("TABLE_CAT"),
+						(String) row.get("TABLE_SCHEM"),
+						(String) row.get("TABLE_NAME"),
+						(String) row.get("INDEX_NAME"),
+						(String) row.get("COLUMN_NAME"),
+						((Boolean) row.get("NON_UNIQUE")).booleanValue(),
+						((Short) row.get("TYPE")).shortValue());
+			}
+		};
+	}
+
+	public static Iterator<ExportedKeyRecord> getExportedKeys(MetaDataDialect dialect, String catalog, String schema, String table) {
+		if(dialect instanceof TypedMetaDataDialect) {
+			return ((TypedMetaDataDialect) dialect).getExportedKeyRecords(catalog, schema, table);
+		}
+		return toExportedKeyRecords(dialect.getExportedKeys(catalog, schema, table));
+	}
+
+	static Iterator<ExportedKeyRecord> toExportedKeyRecords(Iterator<Map<String, Object>> rows) {
+		return new ConvertingIterator<ExportedKeyRecord>(rows) {
+			ExportedKeyRecord convert(Map<String, Object> row) {
+				return new ExportedKeyRecord(
+						(String) row.get("PKTABLE_CAT"),
+						(String) row.get("PKTABLE_SCHEM"),
+						(String) row.get("PKTABLE_NAME"),
+						(String) row.get("PKCOLUMN_NAME"),
+						(String) row.get("FKTABLE_CAT"),
+						(String) row.get("FKTABLE_SCHEM"),
+						(String) row.get("FKTABLE_NAME"),
+						(String) row.get("FKCOLUMN_NAME"),
+						(String) row.get("FK_NAME"),
+						((Short) row.get("KEY_SEQ")).shortValue());
+			}
+		};
+	}
+
+	/**
+	 * Close an iterator returned from one of the methods on this class.
+	 */
+	public static void close(MetaDataDialect dialect, Iterator<?> iterator) {
+		dialect.close(unwrap(iterator));
+	}
+
+	/**
+	 * @return the map based iterator that was converted into records, or the iterator itself
+	 */
+	static Iterator<?> unwrap(Iterator<?> iterator) {
+		return iterator instanceof ConvertingIterator ? ((ConvertingIterator<?>) iterator).rows : iterator;
+	}
+
+	static String intern(String name) {
+		return name==null ? null : name.intern();
+	}
+
+	private static abstract class ConvertingIterator<T> implements Iterator<T> {
+
+		private final Iterator<Map<String, Object>> rows;
+
+		ConvertingIterator(Iterator<Map<String, Object>> rows) {
+			this.rows = rows;
+		}
+
+		abstract T convert(Map<String, Object> row);
+
+		public boolean hasNext() {
+			return rows.hasNext();
+		}
+
+		public T next() {
+			return convert(rows.next());
+		}
+
+		public void remove() {
+			throw new UnsupportedOperationException("remove() not possible on meta data");
+		}
+	}
+
+	/** Row of {@link MetaDataDialect#getTables(String, String, String)} */
+	public static final class TableRecord {
+		private final String catalog;
+		private final String schema;
+		private final String name;
+		private final String type;
+		private final String remarks;
+
+		public TableRecord(String catalog, String schema, String name, String type, String remarks) {
+			this.catalog = intern(catalog);
+			this.schema = intern(schema);
+			this.name = intern(name);
+			this.type = intern(type);
+			this.remarks = remarks;
+		}
+
+		public String getCatalog() {
+			return catalog;
+		}
+
+		public String getSchema() {
+			return schema;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public String getType() {
+			return type;
+		}
+
+		public String getRemarks() {
+			return remarks;
+		}
+	}
+
+	/** Row of {@link MetaDataDialect#getColumns(String, String, String, String)} */
+	public static final class ColumnRecord {
+		private final String catalog;
+		private final String schema;
+		private final String tableName;
+		private final String name;
+		private final int dataType;
+		private final String typeName;
+		private final int nullable;
+		private final int size;
+		private final int decimalDigits;
+		private final String remarks;
+
+		public ColumnRecord(String catalog, String schema, String tableName, String name, int dataType, String typeName, int nullable, int size, int decimalDigits, String remarks) {
+			this.catalog = intern(catalog);
+			this.schema = intern(schema);
+			this.tableName = intern(tableName);
+			this.name = intern(name);
+			this.dataType = dataType;
+			this.typeName = intern(typeName);
+			this.nullable = nullable;
+			this.size = size;
+			this.decimalDigits = decimalDigits;
+			this.remarks = remarks;
+		}
+
+		public String getCatalog() {
+			return catalog;
+		}
+
+		public String getSchema() {
+			return schema;
+		}
+
+		public String getTableName() {
+			return tableName;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		/** @return a {@link java.sql.Types} code */
+		public int getDataType() {
+			return dataType;
+		}
+
+		public String getTypeName() {
+			return typeName;
+		}
+
+		/** @return one of the {@link java.sql.DatabaseMetaData} column nullability constants */
+		public int getNullable() {
+			return nullable;
+		}
+
+		public int getSize() {
+			return size;
+		}
+
+		public int getDecimalDigits() {
+			return decimalDigits;
+		}
+
+		public String getRemarks() {
+			return remarks;
+		}
+	}
+
+	/** Row of {@link MetaDataDialect#getPrimaryKeys(String, String, String)} */
+	public static final class PrimaryKeyRecord {
+		private final String catalog;
+		private final String schema;
+		private final String tableName;
+		private final String columnName;
+		private final short keySeq;
+		private final String name;
+
+		public PrimaryKeyRecord(String catalog, String schema, String tableName, String columnName, short keySeq, String name) {
+			this.catalog = intern(catalog);
+			this.schema = intern(schema);
+			this.tableName = intern(tableName);
+			this.columnName = intern(columnName);
+			this.keySeq = keySeq;
+			this.name = intern(name);
+		}
+
+		public String getCatalog() {
+			return catalog;
+		}
+
+		public String getSchema() {
+			return schema;
+		}
+
+		public String getTableName() {
+			return tableName;
+		}
+
+		public String getColumnName() {
+			return columnName;
+		}
+
+		public short getKeySeq() {
+			return keySeq;
+		}
+
+		/** @return name of the primary key, or null */
+		public String getName() {
+			return name;
+		}
+	}
+
+	/** Row of {@link MetaDataDialect#getIndexInfo(String, String, String)} */
+	public static final class IndexRecord {
+		private final String catalog;
+		private final String schema;
+		private final String tableName;
+		private final String name;
+		private final String columnName;
+		private final boolean nonUnique;
+		private final short type;
+
+		public IndexRecord(String catalog, String schema, String tableName, String name, String columnName, boolean nonUnique, short type) {
+			this.catalog = intern(catalog);
+			this.schema = intern(schema);
+			this.tableName = intern(tableName);
+			this.name = intern(name);
+			this.columnName = intern(columnName);
+			this.nonUnique = nonUnique;
+			this.type = type;
+		}
+
+		public String getCatalog() {
+			return catalog;
+		}
+
+		public String getSchema() {
+			return schema;
+		}
+
+		public String getTableName() {
+			return tableName;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public String getColumnName() {
+			return columnName;
+		}
+
+		public boolean isNonUnique() {
+			return nonUnique;
+		}
+
+		/** @return one of the {@link java.sql.DatabaseMetaData} index type constants */
+		public short getType() {
+			return type;
+		}
+	}
+
+	/** Row of {@link MetaDataDialect#getExportedKeys(String, String, String)} */
+	public static final class ExportedKeyRecord {
+		private final String pkCatalog;
+		private final String pkSchema;
+		private final String pkTableName;
+		private final String pkColumnName;
+		private final String fkCatalog;
+		private final String fkSchema;
+		private final String fkTableName;
+		private final String fkColumnName;
+		private final String fkName;
+		private final short keySeq;
+
+		public ExportedKeyRecord(String pkCatalog, String pkSchema, String pkTableName, String pkColumnName,
+				String fkCatalog, String fkSchema, String fkTableName, String fkColumnName, String fkName, short keySeq) {
+			this.pkCatalog = intern(pkCatalog);
+			this.pkSchema = intern(pkSchema);
+			this.pkTableName = intern(pkTableName);
+			this.pkColumnName = intern(pkColumnName);
+			this.fkCatalog = intern(fkCatalog);
+			this.fkSchema = intern(fkSchema);
+			this.fkTableName = intern(fkTableName);
+			this.fkColumnName = intern(fkColumnName);
+			this.fkName = intern(fkName);
+			this.keySeq = keySeq;
+		}
+
+		public String getPkCatalog() {
+			return pkCatalog;
+		}
+
+		public String getPkSchema() {
+			return pkSchema;
+		}
+
+		public String getPkTableName() {
+			return pkTableName;
+		}
+
+		public String getPkColumnName() {
+			return pkColumnName;
+		}
+
+		public String getFkCatalog() {
+			return fkCatalog;
+		}
+
+		public String getFkSchema() {
+			return fkSchema;
+		}
+
+		public String getFkTableName() {
+			return fkTableName;
+		}
+
+		public String getFkColumnName() {
+			return fkColumnName;
+		}
+
+		public String getFkName() {
+			return fkName;
+		}
+
+		public short getKeySeq() {
+			return keySeq;
+		}
+	}
+}
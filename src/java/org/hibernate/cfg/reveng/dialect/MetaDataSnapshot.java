@@ -0,0 +1,150 @@
+package org.hibernate.cfg.reveng.dialect;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.hibernate.cfg.JDBCBinderException;
+import org.hibernate.cfg.reveng.SchemaSelection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Stores the meta data cached by a {@link CachedMetaDataDialect} in a binary file so a later
+ * run can reverse engineer from it without reading, or even reaching, the database.
+ *
+ * A snapshot is kept per connection and schema selection; the file name is derived from both and
+ * the full key is stored in the file to detect clashes. With refresh the existing snapshot is ignored
+ * and rewritten; an offline dialect requires the snapshot to exist.
+ */
+public class MetaDataSnapshot {
+
+	private static final Logger log = LoggerFactory.getLogger(MetaDataSnapshot.class);
+
+	private static final int MAGIC = 0x48544d44; // HTMD
+	private static final int VERSION = 2;
+
+	private final CachedMetaDataDialect dialect;
+	private final File directory;
+	private final String connectionKey;
+	private final boolean refresh;
+	private final boolean offline;
+
+	public MetaDataSnapshot(CachedMetaDataDialect dialect, File directory, String connectionKey, boolean refresh, boolean offline) {
+		if(refresh && offline) {
+			throw new JDBCBinderException("A meta data snapshot cannot be refreshed offline");
+		}
+		this.dialect = dialect;
+		this.directory = directory;
+		this.connectionKey = connectionKey;
+		this.refresh = refresh;
+		this.offline = offline;
+	}
+
+	public CachedMetaDataDialect getMetaDataDialect() {
+		return dialect;
+	}
+
+	/**
+	 * Fill the cache of the dialect from the snapshot for the schema selections.
+	 * @return true if the snapshot was read, false if the meta data must be read from the database.
+	 */
+	public boolean load(String defaultCatalog, String defaultSchema, List<SchemaSelection> selections) {
+		String key = getKey(defaultCatalog, defaultSchema, selections);
+		File file = getFile(key);
+		if(refresh || !file.exists()) {
+			if(offline) {
+				throw new JDBCBinderException("No meta data snapshot found at " + file + " for " + key);
+			}
+			return false;
+		}
+		DataInputStream in = null;
+		try {
+			in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(new FileInputStream(file))));
+			if(in.readInt()!=MAGIC || in.readInt()!=VERSION || !key.equals(in.readUTF())) {
+				if(offline) {
+					throw new JDBCBinderException("Meta data snapshot " + file + " does not match " + key);
+				}
+				log.info("Meta data snapshot " + file + " does not match " + key + ", reading from database");
+				return false;
+			}
+			dialect.readCache(in);
+			log.info("Read meta data snapshot " + file);
+			return true;
+		}
+		catch (IOException e) {
+			throw new JDBCBinderException("Could not read meta data snapshot " + file, e);
+		}
+		finally {
+			close(in);
+		}
+	}
+
+	/**
+	 * Write everything the dialect has cached as the snapshot for the schema selections.
+	 */
+	public void store(String defaultCatalog, String defaultSchema, List<SchemaSelection> selections) {
+		String key = getKey(defaultCatalog, defaultSchema, selections);
+		File file = getFile(key);
+		directory.mkdirs();
+		File tmp = new File(directory, file.getName() + ".tmp");
+		DataOutputStream out = null;
+		try {
+			out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(new FileOutputStream(tmp))));
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeUTF(key);
+			dialect.writeCache(out);
+			out.close();
+			out = null;
+			if(file.exists() && !file.delete() || !tmp.renameTo(file)) {
+				throw new JDBCBinderException("Could not replace meta data snapshot " + file);
+			}
+			log.info("Wrote meta data snapshot " + file);
+		}
+		catch (IOException e) {
+			throw new JDBCBinderException("Could not write meta data snapshot " + file, e);
+		}
+		finally {
+			close(out);
+			tmp.delete();
+		}
+	}
+
+	private String getKey(String defaultCatalog, String defaultSchema, List<SchemaSelection> selections) {
+		StringBuffer key = new StringBuffer(connectionKey);
+		key.append(" default ").append(defaultCatalog).append('.').append(defaultSchema);
+		for (Iterator<SchemaSelection> iter = selections.iterator(); iter.hasNext();) {
+			SchemaSelection selection = iter.next();
+			key.append(" select ").append(selection.getMatchCatalog())
+				.append('.').append(selection.getMatchSchema())
+				.append('.').append(selection.getMatchTable());
+		}
+		return key.toString();
+	}
+
+	private File getFile(String key) {
+		return new File(directory, "metadata-" + Integer.toHexString(key.hashCode()) + ".snapshot");
+	}
+
+	private void close(Closeable closeable) {
+		if(closeable!=null) {
+			try {
+				closeable.close();
+			}
+			catch (IOException e) {
+				log.warn("Could not close meta data snapshot", e);
+			}
+		}
+	}
+}
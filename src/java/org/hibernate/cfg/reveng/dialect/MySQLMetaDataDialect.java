@@ -22,8 +22,12 @@ public class MySQLMetaDataDialect extends JDBCMetaDataDialect {
 				
 				log.debug("geSuggestedPrimaryKeyStrategyName(" + catalog + "." + schema + "." + table + ")");
 				
-				sql = "show table status " + (catalog==null?"":" from " + catalog + " ") + (table==null?"":" like '" + table + "' ");
-				PreparedStatement statement = getConnection().prepareStatement( sql );
+				// the catalog is an identifier and cannot be bound, but it is the same for all the tables of a schema
+				sql = "show table status " + (catalog==null?"":" from " + catalog + " ") + (table==null?"":" like ? ");
+				PreparedStatement statement = prepareStatement( sql );
+				if(table!=null) {
+					statement.setString( 1, table );
+				}
 				
 				final String sc = schema;
 				final String cat = catalog;
@@ -55,5 +59,33 @@ public class MySQLMetaDataDialect extends JDBCMetaDataDialect {
 				throw getSQLExceptionConverter().convert(e, "Could not get list of suggested identity strategies from database. Probably a JDBC driver problem. ", sql);		         
 			} 		
 		}
+
+	/* 
+	 * Schema wide reads from information_schema (MySQL 5 and newer). 
+	 * MySQL reports databases as catalogs, so TABLE_SCHEMA is matched against the catalog and the schema is ignored. 
+	 */
+
+	public Iterator<Map<String, Object>> prefetchPrimaryKeys(String catalog, String schema, String table) {
+		return queryPrimaryKeys("SELECT TABLE_SCHEMA AS TABLE_CAT, NULL AS TABLE_SCHEM, TABLE_NAME, COLUMN_NAME, ORDINAL_POSITION AS KEY_SEQ, " +
+				"CONSTRAINT_NAME AS PK_NAME FROM information_schema.KEY_COLUMN_USAGE WHERE CONSTRAINT_NAME = 'PRIMARY'", 
+				new String[] { "TABLE_SCHEMA", null, "TABLE_NAME" }, 
+				"TABLE_SCHEMA, TABLE_NAME, ORDINAL_POSITION", catalog, schema, table);
+	}
+
+	public Iterator<Map<String, Object>> prefetchIndexInfo(String catalog, String schema, String table) {
+		return queryIndexInfo("SELECT TABLE_SCHEMA AS TABLE_CAT, NULL AS TABLE_SCHEM, TABLE_NAME, NON_UNIQUE, INDEX_NAME, " +
+				"3 AS TYPE, SEQ_IN_INDEX AS ORDINAL_POSITION, COLUMN_NAME FROM information_schema.STATISTICS", 
+				new String[] { "TABLE_SCHEMA", null, "TABLE_NAME" }, 
+				"TABLE_SCHEMA, TABLE_NAME, NON_UNIQUE, INDEX_NAME, SEQ_IN_INDEX", catalog, schema, table);
+	}
+
+	public Iterator<Map<String, Object>> prefetchExportedKeys(String catalog, String schema, String table) {
+		return queryExportedKeys("SELECT REFERENCED_TABLE_SCHEMA AS PKTABLE_CAT, NULL AS PKTABLE_SCHEM, REFERENCED_TABLE_NAME AS PKTABLE_NAME, " +
+				"REFERENCED_COLUMN_NAME AS PKCOLUMN_NAME, TABLE_SCHEMA AS FKTABLE_CAT, NULL AS FKTABLE_SCHEM, TABLE_NAME AS FKTABLE_NAME, " +
+				"COLUMN_NAME AS FKCOLUMN_NAME, ORDINAL_POSITION AS KEY_SEQ, CONSTRAINT_NAME AS FK_NAME " +
+				"FROM information_schema.KEY_COLUMN_USAGE WHERE REFERENCED_TABLE_NAME IS NOT NULL", 
+				new String[] { "REFERENCED_TABLE_SCHEMA", null, "REFERENCED_TABLE_NAME" }, 
+				"REFERENCED_TABLE_SCHEMA, REFERENCED_TABLE_NAME, TABLE_SCHEMA, TABLE_NAME, CONSTRAINT_NAME, ORDINAL_POSITION", catalog, schema, table);
 	}
+}
 	
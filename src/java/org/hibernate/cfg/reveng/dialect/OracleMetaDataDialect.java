@@ -1,7 +1,6 @@
 
 package org.hibernate.cfg.reveng.dialect;
 
-import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
@@ -49,14 +48,6 @@ public class OracleMetaDataDialect extends AbstractMetaDataDialect {
 			+ "where a.owner like ? and a.table_name like ?" + SQL_TABLE_VIEW
 			+ "where owner like ? and view_name like ?";
 
-	private PreparedStatement prepTableNone;
-
-	private PreparedStatement prepTableSchema;
-
-	private PreparedStatement prepTableTable;
-
-	private PreparedStatement prepTableSchemaAndTable;
-
 	/* ***************************** */
 	/* ******* INDEX QUERIES ******* */
 	/* ***************************** */
@@ -82,14 +73,6 @@ public class OracleMetaDataDialect extends AbstractMetaDataDialect {
 	private static final String SQL_INDEX_SCHEMA_AND_TABLE = SQL_INDEX_BASE
 			+ "where a.table_owner like ? and a.table_name like ? " + SQL_INDEX_ORDER;
 
-	private PreparedStatement prepIndexNone;
-
-	private PreparedStatement prepIndexSchema;
-
-	private PreparedStatement prepIndexTable;
-
-	private PreparedStatement prepIndexSchemaAndTable;
-
 	/* ****** COLUMN QUERIES ******* */	
 	private static final String SQL_COLUMN_BASE = "select a.column_name as COLUMN_NAME, a.owner as TABLE_SCHEM, "
 			+ "decode(a.nullable,'N',0,1) as NULLABLE, "
@@ -134,22 +117,6 @@ public class OracleMetaDataDialect extends AbstractMetaDataDialect {
 			+ "where a.owner like ? and a.table_name like ? and a.column_name like ? "
 			+ SQL_COLUMN_ORDER;
 
-	private PreparedStatement prepColumnNone;
-
-	private PreparedStatement prepColumnSchema;
-
-	private PreparedStatement prepColumnTable;
-
-	private PreparedStatement prepColumnColumn;
-
-	private PreparedStatement prepColumnSchemaAndTable;
-
-	private PreparedStatement prepColumnSchemaAndColumn;
-
-	private PreparedStatement prepColumnTableAndColumn;
-
-	private PreparedStatement prepColumnSchemaAndTableAndColumn;
-
 	/* ***************************** */
 	/* ******** PK QUERIES ********* */
 	/* ***************************** */
@@ -171,14 +138,6 @@ public class OracleMetaDataDialect extends AbstractMetaDataDialect {
 	private static final String SQL_PK_SCHEMA_AND_TABLE = SQL_PK_BASE
 			+ " and c.owner like ? and c.table_name like ? " + SQL_PK_ORDER;
 
-	private PreparedStatement prepPkNone;
-
-	private PreparedStatement prepPkSchema;
-
-	private PreparedStatement prepPkTable;
-
-	private PreparedStatement prepPkSchemaAndTable;
-
 	/* ***************************** */
 	/* ******** FK QUERIES ********* */
 	/* ***************************** */
@@ -204,13 +163,6 @@ public class OracleMetaDataDialect extends AbstractMetaDataDialect {
 	private static final String SQL_FK_SCHEMA_AND_TABLE = SQL_FK_BASE
 			+ " and p.owner like ? and p.table_name like ? " + SQL_FK_ORDER;
 
-	private PreparedStatement prepFkNone;
-
-	private PreparedStatement prepFkSchema;
-
-	private PreparedStatement prepFkTable;
-
-	private PreparedStatement prepFkSchemaAndTable;
 	
 	public Iterator<Map<String,Object>> getTables(final String catalog, final String schema,
 			String table) {
@@ -439,211 +391,146 @@ public class OracleMetaDataDialect extends AbstractMetaDataDialect {
 					"Error while reading exported keys meta data for "
 							+ TableNameQualifier.qualify(catalog, schema, table), null);
 		}
-	}	
-	
-	public void close() {
-		try {
-			prepTableNone = close( prepTableNone );
-			prepTableSchema = close( prepTableSchema );
-			prepTableTable = close( prepTableTable );
-			prepTableSchemaAndTable = close( prepTableSchemaAndTable );
-			prepIndexNone = close( prepIndexNone );
-			prepIndexSchema = close( prepIndexSchema );
-			prepIndexTable = close( prepIndexTable );
-			prepIndexSchemaAndTable = close( prepIndexSchemaAndTable );
-			prepColumnNone = close( prepColumnNone );
-			prepColumnSchema = close( prepColumnSchema );
-			prepColumnTable = close( prepColumnTable );
-			prepColumnColumn = close( prepColumnColumn );
-			prepColumnSchemaAndTable = close( prepColumnSchemaAndTable );
-			prepColumnSchemaAndColumn = close( prepColumnSchemaAndColumn );
-			prepColumnTableAndColumn = close( prepColumnTableAndColumn );
-			prepColumnSchemaAndTableAndColumn = close( prepColumnSchemaAndTableAndColumn );
-			prepPkNone = close( prepPkNone );
-			prepPkSchema = close( prepPkSchema );
-			prepPkTable = close( prepPkTable );
-			prepPkSchemaAndTable = close( prepPkSchemaAndTable );
-			prepFkNone = close( prepFkNone );
-			prepFkSchema = close( prepFkSchema );
-			prepFkTable = close( prepFkTable );
-			prepFkSchemaAndTable = close( prepFkSchemaAndTable );
-		}
-		finally {
-			super.close();
-		}
 	}
 
-	private PreparedStatement close(PreparedStatement ps) {
-		if(ps==null) {
-			return null;
-		} else {
-			try {
-				ps.close();
-			}
-			catch (SQLException e) {
-				throw getSQLExceptionConverter().convert(e,
-						"Problem while closing prepared statement", null);				
-			}
-			return null;
-		}
-		
+	/* The data dictionary queries already take a schema and table pattern, so they can read a whole schema as is. */
+
+	public Iterator<Map<String, Object>> prefetchPrimaryKeys(String catalog, String schema, String table) {
+		return getPrimaryKeys( catalog, schema, table );
+	}
+
+	public Iterator<Map<String, Object>> prefetchIndexInfo(String catalog, String schema, String table) {
+		return getIndexInfo( catalog, schema, table );
+	}
+
+	public Iterator<Map<String, Object>> prefetchExportedKeys(String catalog, String schema, String table) {
+		return getExportedKeys( catalog, schema, table );
 	}
 
 	private ResultSet getPrimaryKeysResultSet(final String schema, final String table) throws SQLException {
-		if(prepPkNone==null) {
-			// Prepare primary key queries
-			log.debug("Preparing primary key queries...");
-			Connection con = getConnection();
-			prepPkNone = con .prepareStatement(SQL_PK_NONE);
-			prepPkSchema = con.prepareStatement(SQL_PK_SCHEMA);
-			prepPkTable = con.prepareStatement(SQL_PK_TABLE);
-			prepPkSchemaAndTable = con
-			.prepareStatement(SQL_PK_SCHEMA_AND_TABLE);
-			log.debug("  primary key queries prepared!");
-		}
 		
 		ResultSet pkeyRs;
 		if (schema == null && table == null) {
-			pkeyRs = prepPkNone.executeQuery();
+			pkeyRs = prepareStatement(SQL_PK_NONE).executeQuery();
 		} else if (schema != null) {
 			if (table == null) {
-				prepPkSchema.setString(1, schema);
-				pkeyRs = prepPkSchema.executeQuery();
+				PreparedStatement statement = prepareStatement(SQL_PK_SCHEMA);
+				statement.setString(1, schema);
+				pkeyRs = statement.executeQuery();
 			} else {
-				prepPkSchemaAndTable.setString(1, schema);
-				prepPkSchemaAndTable.setString(2, table);
-				pkeyRs = prepPkSchemaAndTable.executeQuery();
+				PreparedStatement statement = prepareStatement(SQL_PK_SCHEMA_AND_TABLE);
+				statement.setString(1, schema);
+				statement.setString(2, table);
+				pkeyRs = statement.executeQuery();
 			}
 		} else {
-			prepPkTable.setString(1, table);
-			pkeyRs = prepPkTable.executeQuery();
+			PreparedStatement statement = prepareStatement(SQL_PK_TABLE);
+			statement.setString(1, table);
+			pkeyRs = statement.executeQuery();
 		}
 		return pkeyRs;
 	}
 
 	private ResultSet getIndexInfoResultSet(final String schema, final String table) throws SQLException {
-		if(prepIndexNone==null) {
-			//	Prepare index queries
-			log.debug("Preparing index queries...");
-			Connection con = getConnection();
-			prepIndexNone = con.prepareStatement(SQL_INDEX_NONE);
-			prepIndexSchema = con.prepareStatement(SQL_INDEX_SCHEMA);
-			prepIndexTable = con.prepareStatement(SQL_INDEX_TABLE);
-			prepIndexSchemaAndTable = con.prepareStatement(SQL_INDEX_SCHEMA_AND_TABLE);
-			log.debug("  ...index queries prepared!");			
-		}
 		ResultSet indexRs;
 		if (schema == null && table == null) {
-			indexRs = prepIndexNone.executeQuery();
+			indexRs = prepareStatement(SQL_INDEX_NONE).executeQuery();
 		} else if (schema != null) {
 			if (table == null) {
-				prepIndexSchema.setString(1, schema);
-				indexRs = prepIndexSchema.executeQuery();
+				PreparedStatement statement = prepareStatement(SQL_INDEX_SCHEMA);
+				statement.setString(1, schema);
+				indexRs = statement.executeQuery();
 			} else {
-				prepIndexSchemaAndTable.setString(1, schema);
-				prepIndexSchemaAndTable.setString(2, table);
-				indexRs = prepIndexSchemaAndTable.executeQuery();
+				PreparedStatement statement = prepareStatement(SQL_INDEX_SCHEMA_AND_TABLE);
+				statement.setString(1, schema);
+				statement.setString(2, table);
+				indexRs = statement.executeQuery();
 			}
 		} else {
-			prepIndexTable.setString(1, table);
-			indexRs = prepIndexTable.executeQuery();
+			PreparedStatement statement = prepareStatement(SQL_INDEX_TABLE);
+			statement.setString(1, table);
+			indexRs = statement.executeQuery();
 		}
 		return indexRs;
 	}
 
 	private ResultSet getExportedKeysResultSet(final String schema, final String table) throws SQLException {
-		if(prepFkNone==null) {
-			//	Prepare foreign key queries
-			log.debug("Preparing foreign key queries...");
-			Connection con = getConnection();
-			prepFkNone = con .prepareStatement(SQL_FK_NONE);
-			prepFkSchema = con.prepareStatement(SQL_FK_SCHEMA);
-			prepFkTable = con.prepareStatement(SQL_FK_TABLE);
-			prepFkSchemaAndTable = con
-					.prepareStatement(SQL_FK_SCHEMA_AND_TABLE);
-			log.debug("  foreign key queries prepared!");
-		}
 		
 		ResultSet pExportRs;
 		if (schema == null && table == null) {
-			pExportRs = prepFkNone.executeQuery();
+			pExportRs = prepareStatement(SQL_FK_NONE).executeQuery();
 		} else if (schema != null) {
 			if (table == null) {
-				prepFkSchema.setString(1, schema);
-				pExportRs = prepFkSchema.executeQuery();
+				PreparedStatement statement = prepareStatement(SQL_FK_SCHEMA);
+				statement.setString(1, schema);
+				pExportRs = statement.executeQuery();
 			} else {
-				prepFkSchemaAndTable.setString(1, schema);
-				prepFkSchemaAndTable.setString(2, table);
-				pExportRs = prepFkSchemaAndTable.executeQuery();
+				PreparedStatement statement = prepareStatement(SQL_FK_SCHEMA_AND_TABLE);
+				statement.setString(1, schema);
+				statement.setString(2, table);
+				pExportRs = statement.executeQuery();
 			}
 		} else {
-			prepFkTable.setString(1, table);
-			pExportRs = prepFkTable.executeQuery();
+			PreparedStatement statement = prepareStatement(SQL_FK_TABLE);
+			statement.setString(1, table);
+			pExportRs = statement.executeQuery();
 		}
 		return pExportRs;
 	}
 	private ResultSet getColumnsResultSet(final String schema, final String table, String column) throws SQLException {
 		
-		if(prepColumnNone==null) {			
-			// Prepare column queries
-			log.debug("Preparing column queries...");
-			Connection con = getConnection();
-			prepColumnNone = con.prepareStatement(SQL_COLUMN_NONE);
-			prepColumnSchema = con.prepareStatement(SQL_COLUMN_SCHEMA);
-			prepColumnTable = con.prepareStatement(SQL_COLUMN_TABLE);
-			prepColumnColumn = con.prepareStatement(SQL_COLUMN_COLUMN);
-			prepColumnSchemaAndTable = con.prepareStatement(SQL_COLUMN_SCHEMA_AND_TABLE);
-			prepColumnSchemaAndColumn = con.prepareStatement(SQL_COLUMN_SCHEMA_AND_COLUMN);
-			prepColumnTableAndColumn = con.prepareStatement(SQL_COLUMN_TABLE_AND_COLUMN);
-			prepColumnSchemaAndTableAndColumn = con.prepareStatement(SQL_COLUMN_SCHEMA_AND_TABLE_AND_COLUMN);
-			log.debug("  ...column queries prepared!");
-		}
-		
 		ResultSet columnRs;
 		// No parameters specified
 		if (schema == null && table == null && column == null) {
-			columnRs = prepColumnNone.executeQuery();
+			columnRs = prepareStatement(SQL_COLUMN_NONE).executeQuery();
 		} else if (schema != null) {
 			if (table == null) {
 				if (column == null) {
 					// Schema specified
-					prepColumnSchema.setString(1, schema);
-					columnRs = prepColumnSchema.executeQuery();
+					PreparedStatement statement = prepareStatement(SQL_COLUMN_SCHEMA);
+					statement.setString(1, schema);
+					columnRs = statement.executeQuery();
 				} else {
 					// Schema and column specified
-					prepColumnSchemaAndColumn.setString(1, schema);
-					prepColumnSchemaAndColumn.setString(2, column);
-					columnRs = prepColumnSchemaAndColumn.executeQuery();
+					PreparedStatement statement = prepareStatement(SQL_COLUMN_SCHEMA_AND_COLUMN);
+					statement.setString(1, schema);
+					statement.setString(2, column);
+					columnRs = statement.executeQuery();
 				}
 			} else {
 				if (column == null) {
 					// Schema and table specified
-					prepColumnSchemaAndTable.setString(1, schema);
-					prepColumnSchemaAndTable.setString(2, table);
-					columnRs = prepColumnSchemaAndTable.executeQuery();
+					PreparedStatement statement = prepareStatement(SQL_COLUMN_SCHEMA_AND_TABLE);
+					statement.setString(1, schema);
+					statement.setString(2, table);
+					columnRs = statement.executeQuery();
 				} else {
 					// Schema, table and column specified
-					prepColumnSchemaAndTableAndColumn.setString(1, schema);
-					prepColumnSchemaAndTableAndColumn.setString(2, table);
-					prepColumnSchemaAndTableAndColumn.setString(3, column);
-					columnRs = prepColumnSchemaAndTableAndColumn.executeQuery();
+					PreparedStatement statement = prepareStatement(SQL_COLUMN_SCHEMA_AND_TABLE_AND_COLUMN);
+					statement.setString(1, schema);
+					statement.setString(2, table);
+					statement.setString(3, column);
+					columnRs = statement.executeQuery();
 				}
 			}
 		} else {
 			if (table == null) {
 				// Column specified
-				prepColumnColumn.setString(1, column);
-				columnRs = prepColumnColumn.executeQuery();
+				PreparedStatement statement = prepareStatement(SQL_COLUMN_COLUMN);
+				statement.setString(1, column);
+				columnRs = statement.executeQuery();
 			} else {
 				if (column == null) {
 					// Table specified
-					prepColumnTable.setString(1, table);
-					columnRs = prepColumnTable.executeQuery();
+					PreparedStatement statement = prepareStatement(SQL_COLUMN_TABLE);
+					statement.setString(1, table);
+					columnRs = statement.executeQuery();
 				} else {
 					// Table and column specified
-					prepColumnTableAndColumn.setString(1, table);
-					prepColumnTableAndColumn.setString(2, column);
-					columnRs = prepColumnTableAndColumn.executeQuery();
+					PreparedStatement statement = prepareStatement(SQL_COLUMN_TABLE_AND_COLUMN);
+					statement.setString(1, table);
+					statement.setString(2, column);
+					columnRs = statement.executeQuery();
 	
 				}
 			}
@@ -653,34 +540,27 @@ public class OracleMetaDataDialect extends AbstractMetaDataDialect {
 
 	private ResultSet getTableResultSet(final String schema, String table) throws SQLException {
 		ResultSet tableRs;
-		if(prepTableNone==null) {
-			// Prepare table queries
-			log.debug("Preparing table queries...");
-			Connection connection2 = getConnection();
-			prepTableNone = connection2.prepareStatement(SQL_TABLE_NONE);
-			prepTableSchema = connection2.prepareStatement(SQL_TABLE_SCHEMA);
-			prepTableTable = connection2.prepareStatement(SQL_TABLE_TABLE);
-			prepTableSchemaAndTable = connection2.prepareStatement(SQL_TABLE_SCHEMA_AND_TABLE);
-			log.debug("  ...table queries prepared!");
-		}
 		if (schema == null && table == null) {
-			tableRs = prepTableNone.executeQuery();
+			tableRs = prepareStatement(SQL_TABLE_NONE).executeQuery();
 		} else if (schema != null) {
 			if (table == null) {
-				prepTableSchema.setString(1, schema);
-				prepTableSchema.setString(2, schema);
-				tableRs = prepTableSchema.executeQuery();
+				PreparedStatement statement = prepareStatement(SQL_TABLE_SCHEMA);
+				statement.setString(1, schema);
+				statement.setString(2, schema);
+				tableRs = statement.executeQuery();
 			} else {
-				prepTableSchemaAndTable.setString(1, schema);
-				prepTableSchemaAndTable.setString(2, table);
-				prepTableSchemaAndTable.setString(3, schema);
-				prepTableSchemaAndTable.setString(4, table);
-				tableRs = prepTableSchemaAndTable.executeQuery();
+				PreparedStatement statement = prepareStatement(SQL_TABLE_SCHEMA_AND_TABLE);
+				statement.setString(1, schema);
+				statement.setString(2, table);
+				statement.setString(3, schema);
+				statement.setString(4, table);
+				tableRs = statement.executeQuery();
 			}
 		} else {
-			prepTableTable.setString(1, table);
-			prepTableTable.setString(2, table);
-			tableRs = prepTableTable.executeQuery();
+			PreparedStatement statement = prepareStatement(SQL_TABLE_TABLE);
+			statement.setString(1, table);
+			statement.setString(2, table);
+			tableRs = statement.executeQuery();
 		}
 		return tableRs;
 	}
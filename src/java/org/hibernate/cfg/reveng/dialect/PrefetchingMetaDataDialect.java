@@ -0,0 +1,57 @@
+package org.hibernate.cfg.reveng.dialect;
+
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Optional extension of {@link MetaDataDialect} for dialects that can read the meta data of all
+ * tables in a schema with one query per kind of meta data instead of one query per table.
+ *
+ * The rows have the same keys as the rows of the corresponding per table method; rows for
+ * the same table must come in the same relative order as that method would return them.
+ * A method returns null when the dialect cannot read that kind of meta data schema wide,
+ * in which case it is read per table as usual.
+ */
+public interface PrefetchingMetaDataDialect extends MetaDataDialect {
+
+	/**
+	 * Return iterator over the columns of all tables that matches catalog, schema and table pattern
+	 *
+	 * @param catalog name or null
+	 * @param schema name or null
+	 * @param table name pattern or null
+	 * @return iterator with the same elements as {@link #getColumns(String, String, String, String)} or null if not supported
+	 */
+	Iterator<Map<String, Object>> prefetchColumns(String catalog, String schema, String table);
+
+	/**
+	 * Return iterator over the primary key columns of all tables that matches catalog, schema and table pattern
+	 *
+	 * @param catalog name or null
+	 * @param schema name or null
+	 * @param table name pattern or null
+	 * @return iterator with the same elements as {@link #getPrimaryKeys(String, String, String)} or null if not supported
+	 */
+	Iterator<Map<String, Object>> prefetchPrimaryKeys(String catalog, String schema, String table);
+
+	/**
+	 * Return iterator over the indexes of all tables that matches catalog, schema and table pattern
+	 *
+	 * @param catalog name or null
+	 * @param schema name or null
+	 * @param table name pattern or null
+	 * @return iterator with the same elements as {@link #getIndexInfo(String, String, String)} or null if not supported
+	 */
+	Iterator<Map<String, Object>> prefetchIndexInfo(String catalog, String schema, String table);
+
+	/**
+	 * Return iterator over the foreign keys exported by all tables that matches catalog, schema and table pattern
+	 *
+	 * @param catalog name or null
+	 * @param schema name or null
+	 * @param table name pattern or null
+	 * @return iterator with the same elements as {@link #getExportedKeys(String, String, String)} or null if not supported
+	 */
+	Iterator<Map<String, Object>> prefetchExportedKeys(String catalog, String schema, String table);
+
+}
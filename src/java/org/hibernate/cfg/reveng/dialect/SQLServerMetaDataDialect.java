@@ -27,9 +27,12 @@ public class SQLServerMetaDataDialect extends JDBCMetaDataDialect {
 						"FROM INFORMATION_SCHEMA.KEY_COLUMN_USAGE a " +
 						"INNER JOIN INFORMATION_SCHEMA.TABLE_CONSTRAINTS b on a.CONSTRAINT_NAME = b.CONSTRAINT_NAME " +
 						"INNER JOIN INFORMATION_SCHEMA.Columns c on a.TABLE_CATALOG = c.TABLE_CATALOG AND a.TABLE_SCHEMA = c.TABLE_SCHEMA AND a.TABLE_NAME = c.TABLE_NAME AND a.COLUMN_NAME = c.COLUMN_NAME " +
-						"WHERE a.TABLE_NAME='"+table+"' AND a.TABLE_SCHEMA='"+schema+"' AND a.TABLE_CATALOG='"+catalog+"' AND b.CONSTRAINT_TYPE = 'Primary key'";
+						"WHERE a.TABLE_NAME=? AND a.TABLE_SCHEMA=? AND a.TABLE_CATALOG=? AND b.CONSTRAINT_TYPE = 'Primary key'";
 				
-				PreparedStatement statement = getConnection().prepareStatement( sql );
+				PreparedStatement statement = prepareStatement( sql );
+				statement.setString( 1, table );
+				statement.setString( 2, schema );
+				statement.setString( 3, catalog );
 				
 				final String sc = schema;
 				final String cat = catalog;
@@ -70,5 +73,42 @@ public class SQLServerMetaDataDialect extends JDBCMetaDataDialect {
 			} 		
 		}
 
+	public Iterator<Map<String, Object>> prefetchPrimaryKeys(String catalog, String schema, String table) {
+		return queryPrimaryKeys("SELECT k.TABLE_CATALOG AS TABLE_CAT, k.TABLE_SCHEMA AS TABLE_SCHEM, k.TABLE_NAME, k.COLUMN_NAME, " +
+				"k.ORDINAL_POSITION AS KEY_SEQ, k.CONSTRAINT_NAME AS PK_NAME " +
+				"FROM INFORMATION_SCHEMA.TABLE_CONSTRAINTS c " +
+				"INNER JOIN INFORMATION_SCHEMA.KEY_COLUMN_USAGE k on c.CONSTRAINT_CATALOG = k.CONSTRAINT_CATALOG " +
+				"AND c.CONSTRAINT_SCHEMA = k.CONSTRAINT_SCHEMA AND c.CONSTRAINT_NAME = k.CONSTRAINT_NAME " +
+				"WHERE c.CONSTRAINT_TYPE = 'PRIMARY KEY'", 
+				new String[] { "k.TABLE_CATALOG", "k.TABLE_SCHEMA", "k.TABLE_NAME" }, 
+				"k.TABLE_SCHEMA, k.TABLE_NAME, k.ORDINAL_POSITION", catalog, schema, table);
 	}
-	
+
+	public Iterator<Map<String, Object>> prefetchIndexInfo(String catalog, String schema, String table) {
+		return queryIndexInfo("SELECT DB_NAME() AS TABLE_CAT, s.name AS TABLE_SCHEM, t.name AS TABLE_NAME, " +
+				"CASE WHEN i.is_unique = 1 THEN 0 ELSE 1 END AS NON_UNIQUE, i.name AS INDEX_NAME, " +
+				"CASE WHEN i.type = 1 THEN 1 ELSE 3 END AS TYPE, ic.key_ordinal AS ORDINAL_POSITION, c.name AS COLUMN_NAME " +
+				"FROM sys.indexes i " +
+				"INNER JOIN sys.tables t on i.object_id = t.object_id " +
+				"INNER JOIN sys.schemas s on t.schema_id = s.schema_id " +
+				"INNER JOIN sys.index_columns ic on i.object_id = ic.object_id AND i.index_id = ic.index_id " +
+				"INNER JOIN sys.columns c on ic.object_id = c.object_id AND ic.column_id = c.column_id " +
+				"WHERE i.type > 0 AND ic.key_ordinal > 0", 
+				new String[] { "DB_NAME()", "s.name", "t.name" }, 
+				"s.name, t.name, NON_UNIQUE, TYPE, i.name, ic.key_ordinal", catalog, schema, table);
+	}
+
+	public Iterator<Map<String, Object>> prefetchExportedKeys(String catalog, String schema, String table) {
+		return queryExportedKeys("SELECT p.TABLE_CATALOG AS PKTABLE_CAT, p.TABLE_SCHEMA AS PKTABLE_SCHEM, p.TABLE_NAME AS PKTABLE_NAME, " +
+				"p.COLUMN_NAME AS PKCOLUMN_NAME, f.TABLE_CATALOG AS FKTABLE_CAT, f.TABLE_SCHEMA AS FKTABLE_SCHEM, f.TABLE_NAME AS FKTABLE_NAME, " +
+				"f.COLUMN_NAME AS FKCOLUMN_NAME, f.ORDINAL_POSITION AS KEY_SEQ, r.CONSTRAINT_NAME AS FK_NAME " +
+				"FROM INFORMATION_SCHEMA.REFERENTIAL_CONSTRAINTS r " +
+				"INNER JOIN INFORMATION_SCHEMA.KEY_COLUMN_USAGE f on r.CONSTRAINT_CATALOG = f.CONSTRAINT_CATALOG " +
+				"AND r.CONSTRAINT_SCHEMA = f.CONSTRAINT_SCHEMA AND r.CONSTRAINT_NAME = f.CONSTRAINT_NAME " +
+				"INNER JOIN INFORMATION_SCHEMA.KEY_COLUMN_USAGE p on r.UNIQUE_CONSTRAINT_CATALOG = p.CONSTRAINT_CATALOG " +
+				"AND r.UNIQUE_CONSTRAINT_SCHEMA = p.CONSTRAINT_SCHEMA AND r.UNIQUE_CONSTRAINT_NAME = p.CONSTRAINT_NAME " +
+				"AND f.ORDINAL_POSITION = p.ORDINAL_POSITION", 
+				new String[] { "p.TABLE_CATALOG", "p.TABLE_SCHEMA", "p.TABLE_NAME" }, 
+				"p.TABLE_SCHEMA, p.TABLE_NAME, f.TABLE_SCHEMA, f.TABLE_NAME, r.CONSTRAINT_NAME, f.ORDINAL_POSITION", catalog, schema, table);
+	}
+}
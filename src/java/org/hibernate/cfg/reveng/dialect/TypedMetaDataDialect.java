@@ -0,0 +1,37 @@
+package org.hibernate.cfg.reveng.dialect;
+
+import java.util.Iterator;
+
+import org.hibernate.cfg.reveng.dialect.MetaDataRecords.ColumnRecord;
+import org.hibernate.cfg.reveng.dialect.MetaDataRecords.ExportedKeyRecord;
+import org.hibernate.cfg.reveng.dialect.MetaDataRecords.IndexRecord;
+import org.hibernate.cfg.reveng.dialect.MetaDataRecords.PrimaryKeyRecord;
+import org.hibernate.cfg.reveng.dialect.MetaDataRecords.TableRecord;
+
+/**
+ * Optional extension of {@link MetaDataDialect} for dialects that can return the meta data as
+ * typed records instead of a map per row.
+ *
+ * Each method returns the same rows as its map based counterpart; the iterators are closed with
+ * {@link #close(Iterator)}. Use {@link MetaDataRecords} to read records from any dialect.
+ * Subclasses of a typed dialect that override one of the map based methods must override the
+ * typed method as well.
+ */
+public interface TypedMetaDataDialect extends MetaDataDialect {
+
+	/** @see MetaDataDialect#getTables(String, String, String) */
+	Iterator<TableRecord> getTableRecords(String catalog, String schema, String table);
+
+	/** @see MetaDataDialect#getColumns(String, String, String, String) */
+	Iterator<ColumnRecord> getColumnRecords(String catalog, String schema, String table, String column);
+
+	/** @see MetaDataDialect#getPrimaryKeys(String, String, String) */
+	Iterator<PrimaryKeyRecord> getPrimaryKeyRecords(String catalog, String schema, String table);
+
+	/** @see MetaDataDialect#getIndexInfo(String, String, String) */
+	Iterator<IndexRecord> getIndexRecords(String catalog, String schema, String table);
+
+	/** @see MetaDataDialect#getExportedKeys(String, String, String) */
+	Iterator<ExportedKeyRecord> getExportedKeyRecords(String catalog, String schema, String table);
+
+}
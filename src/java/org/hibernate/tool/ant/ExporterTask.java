@@ -11,6 +11,7 @@ import org.apache.tools.ant.BuildException;
 import org.apache.tools.ant.types.Environment;
 import org.apache.tools.ant.types.Path;
 import org.apache.tools.ant.types.PropertySet;
+import org.hibernate.tool.hbm2x.AbstractExporter;
 import org.hibernate.tool.hbm2x.Exporter;
 
 /**
@@ -95,6 +96,9 @@ public abstract class ExporterTask {
 		exporter.setConfiguration( parent.getConfiguration() );
 		exporter.setOutputDirectory( getDestdir() );
 		exporter.setTemplatePath( getTemplatePath().list() );			
+		if(exporter instanceof AbstractExporter) {
+			((AbstractExporter) exporter).setExporterRun( parent.getExporterRun() );
+		}
 		return exporter;
 	}
 }
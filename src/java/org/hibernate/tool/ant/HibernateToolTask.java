@@ -20,7 +20,9 @@ import org.apache.tools.ant.types.PropertySet;
 import org.hibernate.boot.MappingNotFoundException;
 import org.hibernate.boot.jaxb.Origin;
 import org.hibernate.cfg.Configuration;
+import org.hibernate.cfg.JDBCMetaDataConfiguration;
 import org.hibernate.internal.util.StringHelper;
+import org.hibernate.tool.hbm2x.ExporterRun;
 
 /**
  * @author max
@@ -37,6 +39,7 @@ public class HibernateToolTask extends Task {
 	private Path classPath;
 	private Path templatePath;
 	private Properties properties = new Properties(); 	
+	private ExporterRun run;
 	
 	private void checkConfiguration() {
 		if(configurationTask!=null) {
@@ -181,10 +184,23 @@ public class HibernateToolTask extends Task {
 			loader.setParent(classLoader ); // if this is not set, classes from the taskdef cannot be found - which is crucial for e.g. annotations.
 			loader.setThreadContextLoader();
 			
-			while (iterator.hasNext() ) {				
-				generatorTask = iterator.next();
-				log(count++ + ". task: " + generatorTask.getName() );
-				generatorTask.execute();			
+			// the exporters share the metadata built for the configuration, and their templates if asked to
+			run = new ExporterRun();
+			try {
+				while (iterator.hasNext() ) {				
+					generatorTask = iterator.next();
+					log(count++ + ". task: " + generatorTask.getName() );
+					generatorTask.execute();			
+				}
+			}
+			finally {
+				run.close();
+				run = null;
+			}
+			// only remember what was read once everything derived from it has been generated
+			Configuration configuration = getConfiguration();
+			if(configuration instanceof JDBCMetaDataConfiguration) {
+				((JDBCMetaDataConfiguration) configuration).storeTableFingerprints();
 			}
 		} catch (RuntimeException re) {
 			reportException(re, count, generatorTask);
@@ -295,6 +311,13 @@ public class HibernateToolTask extends Task {
 		return configurationTask.getConfiguration();
 	}
 
+	/**
+	 * @return the run shared by the exporters of this task while it executes, or null
+	 */
+	public ExporterRun getExporterRun() {
+		return run;
+	}
+
 	public void setTemplatePath(Path path) {
 		templatePath = path;
 	}
@@ -5,6 +5,10 @@
 package org.hibernate.tool.ant;
 
 import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.lang.reflect.Constructor;
 
 import org.apache.tools.ant.BuildException;
@@ -12,8 +16,10 @@ import org.apache.tools.ant.Project;
 import org.apache.tools.ant.types.Path;
 import org.hibernate.cfg.Configuration;
 import org.hibernate.cfg.JDBCMetaDataConfiguration;
+import org.hibernate.cfg.JDBCReaderFactory;
 import org.hibernate.cfg.reveng.DefaultReverseEngineeringStrategy;
 import org.hibernate.cfg.reveng.OverrideRepository;
+import org.hibernate.cfg.reveng.ReverseEngineeringMetrics;
 import org.hibernate.cfg.reveng.ReverseEngineeringSettings;
 import org.hibernate.cfg.reveng.ReverseEngineeringStrategy;
 import org.hibernate.tool.util.ReflectHelper;
@@ -34,6 +40,9 @@ public class JDBCConfigurationTask extends ConfigurationTask {
 	private boolean detectOneToOne = true;
 	private boolean detectManyToMany = true;
 	private boolean detectOptimisticLock = true;
+	
+	private File metricsReport;
+	private int metricsTables = 20;
     
 	public JDBCConfigurationTask() {
 		setDescription("JDBC Configuration (for reverse engineering)");
@@ -80,7 +89,33 @@ public class JDBCConfigurationTask extends ConfigurationTask {
 		
         jmdc.setReverseEngineeringStrategy(strategy);
         
+        if(metricsReport!=null) {
+        	jmdc.setProperty(JDBCReaderFactory.METRICS, "true");
+        }
 		jmdc.readFromJDBC(); 
+		if(metricsReport!=null) {
+			writeMetricsReport(jmdc.getReverseEngineeringMetrics());
+		}
+	}
+
+	private void writeMetricsReport(ReverseEngineeringMetrics metrics) {
+		Writer writer = null;
+		try {
+			writer = new OutputStreamWriter(new FileOutputStream(metricsReport), "UTF-8");
+			metrics.writeJson(writer, metricsTables);
+			getProject().log("Wrote reverse engineering metrics to " + metricsReport, Project.MSG_INFO);
+		}
+		catch (IOException e) {
+			throw new BuildException("Problem while writing " + metricsReport, e);
+		}
+		finally {
+			if (writer != null) {
+				try {
+					writer.close();
+				} catch (IOException e) {
+				}
+			}
+		}
 	}
 
     
@@ -112,6 +147,20 @@ public class JDBCConfigurationTask extends ConfigurationTask {
 		detectOptimisticLock = b;
 	}
 	
+	/**
+	 * Write the time spent, the meta data calls and the rows read per phase, schema and slowest tables as JSON to this file.
+	 */
+	public void setMetricsReport(File file) {
+		metricsReport = file;
+	}
+	
+	/**
+	 * Number of slowest tables to include in the metrics report; defaults to 20.
+	 */
+	public void setMetricsTables(int tables) {
+		metricsTables = tables;
+	}
+	
     private ReverseEngineeringStrategy loadreverseEngineeringStrategy(final String className, ReverseEngineeringStrategy delegate) 
     throws BuildException {
         try {
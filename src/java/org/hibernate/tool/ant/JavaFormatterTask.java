@@ -10,6 +10,12 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.tools.ant.BuildException;
 import org.apache.tools.ant.DirectoryScanner;
@@ -24,6 +30,7 @@ public class JavaFormatterTask extends Task {
 	private List<FileSet> fileSets = new ArrayList<FileSet>();
 	private boolean failOnError;
 	private File configurationFile;
+	private int threads = Runtime.getRuntime().availableProcessors();
 	
 	public void addConfiguredFileSet(FileSet fileSet) {
 		fileSets.add(fileSet);
@@ -54,6 +61,13 @@ public class JavaFormatterTask extends Task {
 	}
 
 	
+	/**
+	 * @param threads the number of files formatted at the same time, by default the number of processors
+	 */
+	public void setThreads(int threads) {
+		this.threads = threads;
+	}
+	
 	public void execute() throws BuildException {
 		
 		Map<Object, Object> settings = null;
@@ -69,35 +83,111 @@ public class JavaFormatterTask extends Task {
 		File[] files = getFiles();
 		
 		int failed = 0;
+		long start = System.currentTimeMillis();
 	
 		if(files.length>0) {
 			
-			JavaFormatter formatter = new JavaFormatter(settings);
+			FormatResult[] results = formatFiles(files, settings);
+			// reported in the order of the files, whatever order they were formatted in
 			for (int i = 0; i < files.length; i++) {
-				File file = files[i];			
-				try {
-					boolean ok = formatter.formatFile( file );
-					if(!ok) {
-						failed++;
-						getProject().log(this, "Formatting failed - skipping " + file, Project.MSG_WARN);						
-					} else {
-						getProject().log(this, "Formatted " + file, Project.MSG_VERBOSE);
-					}
-				} catch(ExporterException ee) {
+				File file = files[i];
+				FormatResult result = results[i];
+				if(result==null) {
+					break; // not formatted since formatting stopped at an error
+				}
+				if(result.error!=null) {
 					failed++;
 					if(failOnError) {
-						throw new BuildException("Java formatting failed on " + file, ee);
+						throw new BuildException("Java formatting failed on " + file, result.error);
 					} else {
-						getProject().log(this, "Java formatting failed on " + file + ", " + ee.getLocalizedMessage(), Project.MSG_ERR);
+						getProject().log(this, "Java formatting failed on " + file + ", " + result.error.getLocalizedMessage(), Project.MSG_ERR);
 					}
+				} else if(!result.ok) {
+					failed++;
+					getProject().log(this, "Formatting failed - skipping " + file, Project.MSG_WARN);						
+				} else {
+					getProject().log(this, "Formatted " + file + " in " + result.millis + " ms", Project.MSG_VERBOSE);
 				}
 			}			
 		}
 		
-		getProject().log( this, "Java formatting of " + files.length + " files completed. Skipped " + failed + " file(s).", Project.MSG_INFO );
+		getProject().log( this, "Java formatting of " + files.length + " files completed in " + (System.currentTimeMillis() - start) + " ms. Skipped " + failed + " file(s).", Project.MSG_INFO );
 		
 	}
 
+	/**
+	 * Formats the files on a number of threads taking the next file from a shared index, each with its own formatter 
+	 * since formatters are not thread safe. With failOnError no file is started after one failed.
+	 * 
+	 * @return the result for each file, null for the files not formatted
+	 */
+	private FormatResult[] formatFiles(final File[] files, final Map<Object, Object> settings) {
+		final FormatResult[] results = new FormatResult[files.length];
+		final AtomicInteger nextFile = new AtomicInteger();
+		final AtomicBoolean stopped = new AtomicBoolean();
+		int threadCount = Math.max(1, Math.min(threads, files.length));
+		getProject().log(this, "Formatting " + files.length + " files using " + threadCount + " threads", Project.MSG_VERBOSE);
+		ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+		List<Future<?>> futures = new ArrayList<Future<?>>(threadCount);
+		try {
+			for (int i = 0; i < threadCount; i++) {
+				futures.add(executor.submit(new Runnable() {
+					public void run() {
+						JavaFormatter formatter = new JavaFormatter(settings);
+						int index;
+						while(!stopped.get() && (index = nextFile.getAndIncrement()) < files.length) {
+							FormatResult result = new FormatResult();
+							long start = System.currentTimeMillis();
+							try {
+								result.ok = formatter.formatFile( files[index] );
+							} catch(ExporterException ee) {
+								result.error = ee;
+								if(failOnError) {
+									stopped.set(true);
+								}
+							}
+							result.millis = System.currentTimeMillis() - start;
+							results[index] = result;
+						}
+					}
+				}));
+			}
+			for (Iterator<Future<?>> iter = futures.iterator(); iter.hasNext();) {
+				waitFor(iter.next());
+			}
+		}
+		finally {
+			executor.shutdownNow();
+		}
+		return results;
+	}
+	
+	private void waitFor(Future<?> future) {
+		try {
+			future.get();
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new BuildException("Interrupted while formatting", e);
+		}
+		catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if(cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if(cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new BuildException("Java formatting failed", cause);
+		}
+	}
+	
+	private static class FormatResult {
+		boolean ok;
+		ExporterException error;
+		long millis;
+	}
+
 	private File[] getFiles() {
 
 		List<File> files = new LinkedList<File>();
@@ -3,15 +3,23 @@
  */
 package org.hibernate.tool.hbm2x;
 
+import java.io.BufferedInputStream;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.Iterator;
+import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Properties;
+import java.util.TreeMap;
 
 import org.hibernate.boot.Metadata;
 import org.hibernate.cfg.Configuration;
+import org.hibernate.cfg.JDBCMetaDataConfiguration;
 import org.hibernate.internal.util.ReflectHelper;
 import org.hibernate.internal.util.StringHelper;
+import org.hibernate.tool.Version;
 import org.hibernate.tool.util.MetadataHelper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -32,6 +40,7 @@ public abstract class AbstractExporter implements Exporter {
 	private TemplateHelper vh;
 	private Properties properties = new Properties();
 	private ArtifactCollector collector = new ArtifactCollector();
+	private ExporterRun run;
 
 	private Iterator<Entry<Object, Object>> iterator;
 
@@ -85,19 +94,183 @@ public abstract class AbstractExporter implements Exporter {
 	public Configuration getConfiguration() {
 		return configuration;
 	}
+	
+	/**
+	 * @param run the run to share the metadata, templates and java types with the other exporters of, 
+	 * or null for a run of this exporter only, created and closed by {@link #start()}
+	 */
+	public void setExporterRun(ExporterRun run) {
+		this.run = run;
+	}
+	
+	/** @return the run this exporter takes part in, or null when it is not set and the exporter is not started */
+	public ExporterRun getExporterRun() {
+		return run;
+	}
+	
+	/**
+	 * @return the metadata of the configuration, shared by the run when there is one
+	 */
+	protected Metadata getMetadata() {
+		ExporterRun currentRun = getExporterRun();
+		return currentRun==null ? MetadataHelper.getMetadata(getConfiguration()) : currentRun.getMetadata(getConfiguration());
+	}
 
 	/**
 	 * Builds template context and performs file generation
 	 * Subclasses mostly implement doStart() instead.
 	 */
 	public void start() {
-		setTemplateHelper( new TemplateHelper() );
-		setupTemplates();
-		setupContext();
-		doStart();
-		cleanUpContext();		
-		setTemplateHelper(null);
-		getArtifactCollector().formatFiles();
+		ExporterRun ownRun = null;
+		if(run==null) {
+			ownRun = new ExporterRun(); // the metadata is built at most once per exporter, or per run when given one
+			run = ownRun;
+		}
+		OutputManifest previousManifest = getArtifactCollector().getOutputManifest();
+		String previousXmlFormat = getArtifactCollector().getXmlFormat();
+		boolean previousJavaFormat = getArtifactCollector().isJavaFormat();
+		Map<Object, Object> previousJavaFormatSettings = getArtifactCollector().getJavaFormatSettings();
+		try {
+			if(getProperties()!=null && getProperties().getProperty(ExporterSettings.XML_FORMAT)!=null) {
+				getArtifactCollector().setXmlFormat(getProperties().getProperty(ExporterSettings.XML_FORMAT));
+			}
+			if(getProperties()!=null && getProperties().getProperty(ExporterSettings.JAVA_FORMAT)!=null) {
+				getArtifactCollector().setJavaFormat(isTrue(ExporterSettings.JAVA_FORMAT));
+			}
+			if(getProperties()!=null && getProperties().getProperty(ExporterSettings.JAVA_FORMAT_SETTINGS)!=null) {
+				getArtifactCollector().setJavaFormatSettings(loadJavaFormatSettings(getProperties().getProperty(ExporterSettings.JAVA_FORMAT_SETTINGS)));
+			}
+			OutputManifest manifest = loadOutputManifest();
+			if(manifest!=null) {
+				getArtifactCollector().setOutputManifest(manifest);
+			}
+			getCfg2JavaTool().clearCache(); // the classes of the mappings are shared by the templates of this run only
+			getCfg2JavaTool().setExporterRun(run);
+			setTemplateHelper( new TemplateHelper() );
+			setupTemplates();
+			setupContext();
+			doStart();
+			cleanUpContext();		
+			if(log.isDebugEnabled()) {
+				log.debug(getName() + ": string templates " + getTemplateHelper().getTemplateCacheHits() + " cache hits, " 
+						+ getTemplateHelper().getTemplateCacheMisses() + " misses, " 
+						+ getTemplateHelper().getTemplateCacheEvictions() + " evictions");
+			}
+			setTemplateHelper(null);
+			getArtifactCollector().formatFiles();
+			if(manifest!=null) {
+				storeOutputManifest(manifest);
+			}
+		}
+		finally {
+			getCfg2JavaTool().clearCache();
+			getArtifactCollector().setOutputManifest(previousManifest);
+			getArtifactCollector().setXmlFormat(previousXmlFormat);
+			getArtifactCollector().setJavaFormat(previousJavaFormat);
+			getArtifactCollector().setJavaFormatSettings(previousJavaFormatSettings);
+			getCfg2JavaTool().setExporterRun(null);
+			getArtifactCollector().releaseFormatters();
+			if(ownRun!=null) {
+				run = null;
+				ownRun.close();
+			}
+		}
+	}
+	
+	private Map<Object, Object> loadJavaFormatSettings(String fileName) {
+		File file = new File(fileName);
+		Properties settings = new Properties();
+		InputStream is = null;
+		try {
+			is = new BufferedInputStream(new FileInputStream(file));
+			settings.load(is);
+		}
+		catch (IOException e) {
+			throw new ExporterException("Could not read the java format settings " + file, e);
+		}
+		finally {
+			if(is!=null) {
+				try {
+					is.close();
+				}
+				catch (IOException e) {
+					// the settings were read already
+				}
+			}
+		}
+		return settings;
+	}
+	
+	private OutputManifest loadOutputManifest() {
+		if(getOutputDirectory()==null || !(isTrue(ExporterSettings.WRITE_CHANGED_ONLY) || isTrue(ExporterSettings.SKIP_UNCHANGED_MODELS) || isIncremental())) {
+			return null;
+		}
+		return OutputManifest.load(getOutputDirectory(), getManifestOwner());
+	}
+	
+	// the manifest keeps which tables the files of each exporter were generated from
+	private boolean isIncremental() {
+		return getConfiguration() instanceof JDBCMetaDataConfiguration 
+				&& ((JDBCMetaDataConfiguration) getConfiguration()).getEntityFingerprints()!=null;
+	}
+	
+	private void storeOutputManifest(OutputManifest manifest) {
+		boolean deleteStale = isTrue(ExporterSettings.DELETE_STALE);
+		for (Iterator<File> iter = manifest.getStaleFiles().iterator(); iter.hasNext();) {
+			File file = iter.next();
+			if(deleteStale) {
+				if(file.exists() && !file.delete()) {
+					throw new ExporterException("Could not delete stale file " + file);
+				}
+				manifest.remove(file);
+			}
+			getArtifactCollector().addStaleFile(file);
+		}
+		manifest.store();
+		log.info(getName() + ": " + getArtifactCollector().getWrittenCount() + " files written, " 
+				+ getArtifactCollector().getUnchangedCount() + " unchanged, " 
+				+ getArtifactCollector().getStaleFiles().length + (deleteStale ? " stale deleted" : " stale"));
+	}
+	
+	protected boolean isTrue(String property) {
+		return getProperties()!=null && "true".equals(getProperties().getProperty(property));
+	}
+	
+	/** 
+	 * @return the number of threads to render files with, see {@link ExporterSettings#RENDER_THREADS}
+	 */
+	protected int getRenderThreads() {
+		String threads = getProperties().getProperty(ExporterSettings.RENDER_THREADS);
+		if(StringHelper.isEmpty(threads)) {
+			return 1;
+		}
+		try {
+			return Integer.parseInt(threads.trim());
+		}
+		catch (NumberFormatException e) {
+			throw new ExporterException(ExporterSettings.RENDER_THREADS + " must be a number, not " + threads, e);
+		}
+	}
+	
+	/** 
+	 * @return what the models are rendered with besides the models themselves, for their {@link ModelFingerprint} 
+	 */
+	protected String getModelEnvironment() {
+		StringBuffer environment = new StringBuffer()
+			.append(getClass().getName()).append('|')
+			.append(Version.getDefault().getVersion()).append('|')
+			.append(ModelFingerprint.ofTemplates(getTemplatePaths())).append('|')
+			.append(new TreeMap<Object, Object>(getProperties())).append('|')
+			.append(getArtifactCollector().getFormat("java")).append('|')
+			.append(getArtifactCollector().getFormat("xml"));
+		return environment.toString();
+	}
+	
+	/** 
+	 * @return the name the files of this exporter are kept under in the {@link OutputManifest} of its output directory 
+	 */
+	protected String getManifestOwner() {
+		return getName();
 	}
 	
 	abstract protected void doStart();
@@ -139,7 +312,16 @@ public abstract class AbstractExporter implements Exporter {
 		if(log.isDebugEnabled()) {
 			log.debug(getClass().getName() + " outputdir:" + getOutputDirectory() + " path: " + toString(templatePaths) );
 		}
-		getTemplateHelper().init(getOutputDirectory(), templatePaths);		
+		getTemplateHelper().init(getOutputDirectory(), templatePaths, isTrue(ExporterSettings.SHARE_TEMPLATES) ? getExporterRun() : null);		
+		String cacheSize = getProperties().getProperty(ExporterSettings.TEMPLATE_CACHE_SIZE);
+		if(!StringHelper.isEmpty(cacheSize)) {
+			try {
+				getTemplateHelper().setTemplateCacheSize(Integer.parseInt(cacheSize.trim()));
+			}
+			catch (IllegalArgumentException e) {
+				throw new ExporterException(ExporterSettings.TEMPLATE_CACHE_SIZE + " must be a number of at least 1, not " + cacheSize, e);
+			}
+		}
 	}
 
 	/**
@@ -178,7 +360,7 @@ public abstract class AbstractExporter implements Exporter {
 		}
 		getTemplateHelper().putInContext("artifacts", collector);
         if(getConfiguration()!=null) {
-        	Metadata metadata = MetadataHelper.getMetadata(getConfiguration());
+        	Metadata metadata = getMetadata();
         	getTemplateHelper().putInContext("md", metadata);
         	getTemplateHelper().putInContext("props", getConfiguration().getProperties());
         	getTemplateHelper().putInContext("tables", metadata.collectTableMappings());
@@ -216,7 +398,7 @@ public abstract class AbstractExporter implements Exporter {
 		getTemplateHelper().removeFromContext("exporter", this);
 		getTemplateHelper().removeFromContext("artifacts", collector);
         if(getConfiguration()!=null) {
-        	Metadata metadata = MetadataHelper.getMetadata(getConfiguration());
+        	Metadata metadata = getMetadata();
         	getTemplateHelper().removeFromContext("md", metadata);
         	getTemplateHelper().removeFromContext("props", getConfiguration().getProperties());
         	getTemplateHelper().removeFromContext("tables", metadata.collectTableMappings());
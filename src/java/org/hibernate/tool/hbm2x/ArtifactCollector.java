@@ -4,27 +4,107 @@ import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.eclipse.jface.text.BadLocationException;
+import org.hibernate.tool.ide.formatting.JavaFormatter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.w3c.tidy.Tidy;
 
 /**
  * Callback class that all exporters are given to allow 
  * better feedback and processing of the output afterwards.
+ * Files can be added from several threads at the same time.
  * 
  * @author Max Rydahl Andersen
  *
  */
 public class ArtifactCollector {
 
+	private static final Logger log = LoggerFactory.getLogger(ArtifactCollector.class);
+
 	final protected Map<String, List<File>> files = 
 			new HashMap<String, List<File>>();
 	
+	final protected Set<File> unchangedFiles = new HashSet<File>();
+	
+	final protected List<File> staleFiles = new ArrayList<File>();
+	
+	// xml files added since the last formatFiles() and not formatted when written
+	final protected List<File> unformattedFiles = new ArrayList<File>();
+	
+	private OutputManifest outputManifest;
+	
+	private String xmlFormat = XML_FORMAT_TIDY;
+	
+	private boolean javaFormat = false;
+	
+	// a formatter per thread, since formatters are not thread safe and costly to create
+	// Tidy is not thread safe but can be reused, so the threads formatting xml share the ones not in use until the exporter is done
+	private final Queue<Tidy> pooledTidies = new ConcurrentLinkedQueue<Tidy>();
+	
+	private Map<Object, Object> javaFormatSettings = null;
+	
+	// formatters are not thread safe and costly to create, so they are shared the same way
+	private final Queue<JavaFormatter> pooledJavaFormatters = new ConcurrentLinkedQueue<JavaFormatter>();
+	
+	// the collector formatting the content of the files, when this collects the files of a part of an export
+	private final ArtifactCollector formattingCollector;
+	
+	/** XML is formatted with JTidy, see {@link XMLPrettyPrinter} */
+	public static final String XML_FORMAT_TIDY = "tidy";
+	
+	/** XML is indented by the {@link XMLIndenter}, and formatted with JTidy only if it can not be indented */
+	public static final String XML_FORMAT_INDENT = "indent";
+	
+	/** XML is written as generated */
+	public static final String XML_FORMAT_NONE = "none";
+	
+	private static final Set<String> XML_TYPES = new HashSet<String>();
+	static {
+		XML_TYPES.add( "xml" );
+		XML_TYPES.add( "hbm.xml" );
+		XML_TYPES.add( "cfg.xml" );
+	}
+	
+	public ArtifactCollector() {
+		this(null);
+	}
+	
+	private ArtifactCollector(ArtifactCollector formattingCollector) {
+		this.formattingCollector = formattingCollector;
+	}
+	
+	/**
+	 * @return a collector for the files of a part of an export, such as the files rendered by one thread, to be added 
+	 * to this one with {@link #addAll(ArtifactCollector)}. It writes through the manifest of this one, and formats the 
+	 * content of files as this one does, with its settings and formatters.
+	 */
+	public ArtifactCollector createPartCollector() {
+		ArtifactCollector part = new ArtifactCollector(this);
+		part.setOutputManifest(getOutputManifest());
+		return part;
+	}
+	
 	/** 
 	 * Called to inform that a file has been created by the exporter.
 	 */
-	public void addFile(File file, String type) {		
+	public synchronized void addFile(File file, String type) {		
+		add(file, type);
+		if(XML_TYPES.contains(type)) {
+			unformattedFiles.add(file);
+		}
+	}
+	
+	private void add(File file, String type) {
 		List<File> existing = files.get(type);
 		if(existing==null) {
 			existing = new ArrayList<File>();
@@ -32,14 +112,84 @@ public class ArtifactCollector {
 		}
 		existing.add(file);
 	}
+	
+	/** 
+	 * Called to inform that a file has been generated by the exporter, but was left untouched since its content did not change.
+	 */
+	public synchronized void addUnchangedFile(File file, String type) {
+		add(file, type);
+		unchangedFiles.add(file);
+	}
+	
+	/** 
+	 * Called to inform that a file generated earlier is not generated anymore; deleted already if stale files are deleted.
+	 */
+	public synchronized void addStaleFile(File file) {
+		staleFiles.add(file);
+	}
+	
+	/** 
+	 * Called to inform that a file has been created by the exporter, formatted already by {@link #formatContent(String, String, File)}.
+	 */
+	public synchronized void addFormattedFile(File file, String type) {
+		add(file, type);
+	}
+	
+	/** 
+	 * Add the files of the other collector, after the files of this one. 
+	 */
+	public synchronized void addAll(ArtifactCollector other) {
+		synchronized (other) {
+			for (Iterator<Map.Entry<String, List<File>>> iter = other.files.entrySet().iterator(); iter.hasNext();) {
+				Map.Entry<String, List<File>> entry = iter.next();
+				for (Iterator<File> fileIter = entry.getValue().iterator(); fileIter.hasNext();) {
+					add(fileIter.next(), entry.getKey());
+				}
+			}
+			unchangedFiles.addAll(other.unchangedFiles);
+			unformattedFiles.addAll(other.unformattedFiles);
+			staleFiles.addAll(other.staleFiles);
+		}
+	}
+	
+	public synchronized boolean isUnchanged(File file) {
+		return unchangedFiles.contains(file);
+	}
+	
+	/** @return the number of files written, of all types */
+	public synchronized int getWrittenCount() {
+		int count = 0;
+		for (Iterator<List<File>> iter = files.values().iterator(); iter.hasNext();) {
+			count += iter.next().size();
+		}
+		return count - unchangedFiles.size();
+	}
+	
+	/** @return the number of files not written since their content did not change */
+	public synchronized int getUnchangedCount() {
+		return unchangedFiles.size();
+	}
+	
+	public synchronized File[] getStaleFiles() {
+		return (File[]) staleFiles.toArray(new File[staleFiles.size()]);
+	}
+	
+	/** @return the manifest files are only written through when their content changed, or null to write all */
+	public synchronized OutputManifest getOutputManifest() {
+		return outputManifest;
+	}
+	
+	public synchronized void setOutputManifest(OutputManifest outputManifest) {
+		this.outputManifest = outputManifest;
+	}
 
-	public int getFileCount(String type) {
+	public synchronized int getFileCount(String type) {
 		List<File> existing = files.get(type);
 		
 		return (existing==null) ? 0 : existing.size();
 	}
 
-	public File[] getFiles(String type) {
+	public synchronized File[] getFiles(String type) {
 		List<File> existing = files.get(type);
 		
 		if(existing==null) {
@@ -49,31 +199,192 @@ public class ArtifactCollector {
 		}
 	}
 	
-	public Set<String> getFileTypes() {
+	public synchronized Set<String> getFileTypes() {
 		return files.keySet();
 	}
 
-	public void formatFiles() {
-		
-		formatXml( "xml" );
-		formatXml( "hbm.xml" );
-		formatXml( "cfg.xml" );
-				
+	public String getXmlFormat() {
+		if(formattingCollector!=null) {
+			return formattingCollector.getXmlFormat();
+		}
+		synchronized (this) {
+			return xmlFormat;
+		}
+	}
+	
+	/** 
+	 * @param xmlFormat how to format xml, one of {@link #XML_FORMAT_TIDY} (the default), {@link #XML_FORMAT_INDENT} or {@link #XML_FORMAT_NONE}
+	 */
+	public synchronized void setXmlFormat(String xmlFormat) {
+		if(!XML_FORMAT_TIDY.equals(xmlFormat) && !XML_FORMAT_INDENT.equals(xmlFormat) && !XML_FORMAT_NONE.equals(xmlFormat)) {
+			throw new ExporterException("Unknown xml format " + xmlFormat + ", expected " + XML_FORMAT_TIDY + ", " + XML_FORMAT_INDENT + " or " + XML_FORMAT_NONE);
+		}
+		this.xmlFormat = xmlFormat;
+	}
+	
+	public boolean isJavaFormat() {
+		if(formattingCollector!=null) {
+			return formattingCollector.isJavaFormat();
+		}
+		synchronized (this) {
+			return javaFormat;
+		}
+	}
+	
+	/** 
+	 * @param javaFormat true to format java files with the {@link JavaFormatter} before they are written
+	 */
+	public synchronized void setJavaFormat(boolean javaFormat) {
+		this.javaFormat = javaFormat;
+	}
+	
+	public Map<Object, Object> getJavaFormatSettings() {
+		if(formattingCollector!=null) {
+			return formattingCollector.getJavaFormatSettings();
+		}
+		synchronized (this) {
+			return javaFormatSettings;
+		}
+	}
+	
+	/** 
+	 * @param javaFormatSettings the settings of the {@link JavaFormatter}, or null for its defaults
+	 */
+	public synchronized void setJavaFormatSettings(Map<Object, Object> javaFormatSettings) {
+		this.javaFormatSettings = javaFormatSettings;
+		pooledJavaFormatters.clear();
+	}
+	
+	/** 
+	 * @return true if files of the type are formatted, and thus should be formatted with {@link #formatContent(String, String, File)} before they are written 
+	 */
+	public boolean isFormatted(String type) {
+		if(formattingCollector!=null) {
+			return formattingCollector.isFormatted(type);
+		}
+		return XML_TYPES.contains(type) || ("java".equals(type) && isJavaFormat());
+	}
+	
+	/**
+	 * @return how files of the type are formatted before they are written, so the {@link OutputManifest} writes them
+	 * again when that changes; empty if they are not formatted
+	 */
+	public String getFormat(String type) {
+		if(formattingCollector!=null) {
+			return formattingCollector.getFormat(type);
+		}
+		if(!isFormatted(type)) {
+			return "";
+		}
+		if(!"java".equals(type)) {
+			return getXmlFormat();
+		}
+		Map<Object, Object> settings = getJavaFormatSettings();
+		if(settings==null) {
+			return "java";
+		}
+		// in the order of the names, as the settings are read from a properties file
+		Map<String, String> sorted = new TreeMap<String, String>();
+		for (Iterator<Map.Entry<Object, Object>> iter = settings.entrySet().iterator(); iter.hasNext();) {
+			Map.Entry<Object, Object> entry = iter.next();
+			sorted.put(String.valueOf(entry.getKey()), String.valueOf(entry.getValue()));
+		}
+		return "java " + sorted;
+	}
+	
+	/**
+	 * Format the generated content of a file before it is written, so it is written only once. 
+	 * Called by several threads at the same time when rendering concurrently.
+	 * 
+	 * @return the bytes to write, or null to write the content as it is
+	 */
+	public byte[] formatContent(String content, String type, File file) {
+		if(formattingCollector!=null) {
+			return formattingCollector.formatContent(content, type, file);
+		}
+		if("java".equals(type)) {
+			return isJavaFormat() ? formatJava(content, file) : null;
+		}
+		String format = getXmlFormat();
+		if(!isFormatted(type) || XML_FORMAT_NONE.equals(format)) {
+			return null;
+		}
+		if(XML_FORMAT_INDENT.equals(format)) {
+			String indented = XMLIndenter.indent(content, 4);
+			if(indented!=null) {
+				return indented.getBytes();
+			}
+			log.debug("Could not indent " + file + ", formatting it with Tidy instead");
+		}
+		try {
+			Tidy tidy = pooledTidies.poll();
+			if(tidy==null) {
+				tidy = XMLPrettyPrinter.getDefaultTidy();
+			}
+			try {
+				return XMLPrettyPrinter.prettyPrint(tidy, content.getBytes(), file.toString());
+			}
+			finally {
+				pooledTidies.offer(tidy);
+			}
+		}
+		catch (IOException e) {
+			throw new ExporterException("Could not format XML file: " + file,e);
+		}
 	}
 
-	private void formatXml(String type) throws ExporterException {
-		List<File> list = files.get(type);
-		if(list!=null && !list.isEmpty()) {
-			for (Iterator<File> iter = list.iterator(); iter.hasNext();) {
-				File xmlFile = iter.next();
-				try {					
-					XMLPrettyPrinter.prettyPrintFile(XMLPrettyPrinter.getDefaultTidy(), xmlFile, xmlFile, true);
-				}
-				catch (IOException e) {
-					throw new ExporterException("Could not format XML file: " + xmlFile,e);
+	private byte[] formatJava(String content, File file) {
+		JavaFormatter formatter = pooledJavaFormatters.poll();
+		if(formatter==null) {
+			formatter = new JavaFormatter(getJavaFormatSettings());
+		}
+		try {
+			String formatted = formatter.format(content);
+			if(formatted==null) {
+				log.warn("Formatting failed - skipping " + file);
+				return null;
+			}
+			return formatted.getBytes();
+		}
+		catch (BadLocationException e) {
+			throw new ExporterException("Could not format java file: " + file, e);
+		}
+		finally {
+			pooledJavaFormatters.offer(formatter);
+		}
+	}
+
+	/**
+	 * Format the xml files added without formatting them already.
+	 */
+	public synchronized void formatFiles() {
+		if(XML_FORMAT_NONE.equals(xmlFormat)) {
+			unformattedFiles.clear();
+			return;
+		}
+		Tidy tidy = null;
+		for (Iterator<File> iter = unformattedFiles.iterator(); iter.hasNext();) {
+			File xmlFile = iter.next();
+			try {
+				if(tidy==null) {
+					tidy = XMLPrettyPrinter.getDefaultTidy();
 				}
+				XMLPrettyPrinter.prettyPrintFile(tidy, xmlFile, xmlFile, true);
+			}
+			catch (IOException e) {
+				throw new ExporterException("Could not format XML file: " + xmlFile,e);
 			}
 		}
+		unformattedFiles.clear();
+	}
+	
+	/**
+	 * Forget the formatters kept to format the content of files, see {@link #formatContent(String, String, File)}.
+	 * Exporters call this when they are done.
+	 */
+	public void releaseFormatters() {
+		pooledTidies.clear();
+		pooledJavaFormatters.clear();
 	}
 	
 }
@@ -4,7 +4,9 @@
  */
 package org.hibernate.tool.hbm2x;
 
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -30,10 +32,7 @@ import org.hibernate.tool.hbm2x.pojo.ImportContext;
 import org.hibernate.tool.hbm2x.pojo.NoopImportContext;
 import org.hibernate.tool.hbm2x.pojo.POJOClass;
 import org.hibernate.tool.hbm2x.visitor.JavaTypeFromValueVisitor;
-import org.hibernate.type.BasicTypeRegistry;
-import org.hibernate.type.PrimitiveType;
-import org.hibernate.type.Type;
-import org.hibernate.type.TypeResolver;
+import org.hibernate.tool.util.TypeHelper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -47,17 +46,57 @@ import org.slf4j.LoggerFactory;
 public class Cfg2JavaTool {
 
 	private static final Logger log = LoggerFactory.getLogger( Cfg2JavaTool.class );	
+	
+	// one class per mapping, keeping what it derived from the mapping, until the cache is cleared
+	private final Map<Object, POJOClass> pojoClasses = new IdentityHashMap<Object, POJOClass>();
+	// java types of the values, as found by JavaTypeFromValueVisitor
+	private final Map<Value, String> javaTypeNames = Collections.synchronizedMap( new IdentityHashMap<Value, String>() );
+	// the run of the exporter using this, sharing the java types of type names, or null
+	private volatile ExporterRun run;
 			
 	public Cfg2JavaTool() {
 
 	}
 
 	public POJOClass getPOJOClass(Component comp) {		
-		return new ComponentPOJOClass(comp, this);
+		synchronized (pojoClasses) {
+			POJOClass result = pojoClasses.get( comp );
+			if ( result == null ) {
+				result = new ComponentPOJOClass( comp, this );
+				pojoClasses.put( comp, result );
+			}
+			return result;
+		}
 	}
 	
 	public POJOClass getPOJOClass(PersistentClass comp) {		
-		return new EntityPOJOClass(comp, this);
+		synchronized (pojoClasses) {
+			POJOClass result = pojoClasses.get( comp );
+			if ( result == null ) {
+				result = new EntityPOJOClass( comp, this );
+				pojoClasses.put( comp, result );
+			}
+			return result;
+		}
+	}
+
+	/**
+	 * Forget the classes returned by getPOJOClass and the java types of the values, so they
+	 * are derived again from the mappings. Exporters do this when they start, so the classes
+	 * are shared by all templates rendered in one run but never outlive the mappings they describe.
+	 */
+	public void clearCache() {
+		synchronized (pojoClasses) {
+			pojoClasses.clear();
+		}
+		javaTypeNames.clear();
+	}
+	
+	/**
+	 * @param run the run to share the java types of type names with, or null to resolve them on every call
+	 */
+	public void setExporterRun(ExporterRun run) {
+		this.run = run;
 	}
 	
 	public String unqualify(String name) {
@@ -179,23 +218,8 @@ public class Cfg2JavaTool {
 		}
 	}
 	
-	private static final Map<String,String> PRIMITIVES = 
-			new HashMap<String,String>();
-
-	static {
-		PRIMITIVES.put( "char", "Character" );
-		PRIMITIVES.put( "byte", "Byte" );
-		PRIMITIVES.put( "short", "Short" );
-		PRIMITIVES.put( "int", "Integer" );
-		PRIMITIVES.put( "long", "Long" );
-		PRIMITIVES.put( "boolean", "Boolean" );
-		PRIMITIVES.put( "float", "Float" );
-		PRIMITIVES.put( "double", "Double" );
-	}
-
 	static public boolean isNonPrimitiveTypeName(String typeName) {
-		return (!PRIMITIVES.containsKey( typeName ))
-				&& new BasicTypeRegistry().getRegisteredType(typeName) != null;
+		return TypeHelper.isNonPrimitiveTypeName( typeName );
 	}
 
 	private String getRawTypeName(Property p, boolean useGenerics, boolean preferRawTypeNames, ImportContext importContext) {
@@ -270,7 +294,14 @@ public class Cfg2JavaTool {
 	}
 
 	private String getJavaTypeName(Value value, boolean preferRawTypeNames) {
-		return (String) value.accept( new JavaTypeFromValueVisitor() );
+		String result = javaTypeNames.get( value );
+		if ( result == null ) {
+			result = (String) value.accept( new JavaTypeFromValueVisitor() );
+			if ( result != null ) {
+				javaTypeNames.put( value, result );
+			}
+		}
+		return result;
 	}
 
 	public String asParameterList(Iterator<?> fields, boolean useGenerics, ImportContext ic) {
@@ -340,26 +371,13 @@ public class Cfg2JavaTool {
 		while ( iter.hasNext() ) {
 			Entry<Object,Object> entry = iter.next();
 			String typename = null;
-			Type type = null;
 			if(entry.getValue() instanceof String) {
-				try {
-					type = new TypeResolver().heuristicType((String) entry.getValue());
-				} catch(Throwable t) {
-					type = null;
+				ExporterRun currentRun = run;
+				typename = currentRun==null ? TypeHelper.getJavaTypeName((String) entry.getValue()) : currentRun.getJavaTypeName((String) entry.getValue());
+				if(typename==null) {
 					typename = (String) entry.getValue();
 				}
 			}
-			
-			if(type!=null) {
-				Class<?> typeClass;
-				if ( type instanceof PrimitiveType ) {
-					typeClass = ( (PrimitiveType<?>) type ).getPrimitiveClass();
-				}
-				else {
-					typeClass = type.getReturnedClass();
-				}
-				typename = typeClass.getName();
-			}
 			buf.append( ctx.importType( typename ))
 					.append( " " )
 					.append( entry.getKey() );
@@ -371,7 +389,7 @@ public class Cfg2JavaTool {
 	
 	
 	public boolean isPrimitive(String typeName) {
-		return PRIMITIVES.containsKey(typeName);
+		return TypeHelper.isPrimitive(typeName);
 	}
 	
 	public boolean isComponent(Property property) {
@@ -15,7 +15,6 @@ import org.hibernate.mapping.Collection;
 import org.hibernate.mapping.Component;
 import org.hibernate.mapping.PersistentClass;
 import org.hibernate.mapping.Property;
-import org.hibernate.tool.hbm2x.pojo.ComponentPOJOClass;
 import org.hibernate.tool.hbm2x.pojo.POJOClass;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -107,6 +106,7 @@ public class ConfigurationNavigator {
 		}
 	}
 
+	@SuppressWarnings("unchecked")
 	private static void addComponent(Map<String, Component> components, Component comp) {
 		if(!comp.isDynamic()) {
 			Component existing = (Component) components.put(
@@ -118,9 +118,7 @@ public class ConfigurationNavigator {
 		} else {
 			log.debug("dynamic-component found. Ignoring it as a component, but will collect any embedded components.");
 		}	
-		collectComponents( 
-				components, 
-				new ComponentPOJOClass(comp, new Cfg2JavaTool()).getAllPropertiesIterator());		
+		collectComponents( components, comp.getPropertyIterator() );		
 	}
 	
 	private Metadata getMetadata(Configuration configuration) {
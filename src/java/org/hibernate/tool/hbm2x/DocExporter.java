@@ -3,23 +3,43 @@ package org.hibernate.tool.hbm2x;
 import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileReader;
+import java.io.FileWriter;
 import java.io.IOException;
-import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.hibernate.HibernateException;
 import org.hibernate.boot.Metadata;
 import org.hibernate.cfg.Configuration;
 import org.hibernate.internal.util.StringHelper;
+import org.hibernate.internal.util.config.ConfigurationHelper;
+import org.hibernate.mapping.Collection;
+import org.hibernate.mapping.Column;
+import org.hibernate.mapping.Component;
+import org.hibernate.mapping.IndexedCollection;
+import org.hibernate.mapping.OneToMany;
+import org.hibernate.mapping.PersistentClass;
+import org.hibernate.mapping.Property;
 import org.hibernate.mapping.Table;
+import org.hibernate.mapping.ToOne;
+import org.hibernate.mapping.Value;
 import org.hibernate.tool.hbm2x.doc.DocFile;
 import org.hibernate.tool.hbm2x.doc.DocFileManager;
 import org.hibernate.tool.hbm2x.doc.DocHelper;
 import org.hibernate.tool.hbm2x.pojo.POJOClass;
-import org.hibernate.tool.util.MetadataHelper;
 
 /**
  * Exporter implementation that creates Hibernate Documentation.
@@ -121,6 +141,11 @@ public class DocExporter extends AbstractExporter {
      */
     private static final String FTL_TABLES_TABLE = "doc/tables/table.ftl";
 
+    /**
+     * The formats each graph is rendered in.
+     */
+    private static final String[] DOT_FORMATS = { "png", "svg", "cmap" };
+
     /**
      * Doc helper.
      */
@@ -131,6 +156,16 @@ public class DocExporter extends AbstractExporter {
      */
     private DocFileManager docFileManager;
     
+    /**
+     * Pages queued to be rendered concurrently, null when pages are rendered as they are generated.
+     */
+    private List<Page> pages;
+    
+    /**
+     * What the pages are rendered with besides their model, null unless pages of unchanged models are skipped.
+     */
+    private String modelEnvironment;
+    
     /**
      * Creates a new object.
      * 
@@ -146,27 +181,42 @@ public class DocExporter extends AbstractExporter {
  
 	}
 
+	/**
+	 * Generates the documentation. When {@link ExporterSettings#RENDER_THREADS} is set the pages are queued while
+	 * generating and rendered concurrently afterwards; with {@link ExporterSettings#SKIP_UNCHANGED_MODELS} the
+	 * pages of tables and entities are only rendered when their model, or a model they show, changed.
+	 */
 	public void doStart() throws ExporterException {
-        generateCommmonAndAssets();
-        
-        boolean graphsGenerated = generateDot();
-        generateTablesIndex();
-        generateTablesSummary(graphsGenerated);
-        generateTablesDetails();
-        generateTablesAllSchemasList();
-        generateTablesAllTablesList();
-        generateTablesSchemaTableList();
-        generateTablesSchemaDetailedInfo();
-        
-        generateEntitiesIndex();
-        generatePackageSummary(graphsGenerated);
-        generateEntitiesDetails();
-        generateEntitiesAllPackagesList();
-        generateEntitiesAllEntitiesList();
-        generateEntitiesPackageEntityList();
-        generateEntitiesPackageDetailedInfo();
-        
-        
+		modelEnvironment = isTrue(ExporterSettings.SKIP_UNCHANGED_MODELS) ? getModelEnvironment() : null;
+		int threads = getRenderThreads();
+		pages = threads>1 ? new ArrayList<Page>() : null;
+		try {
+	        generateCommmonAndAssets();
+	        
+	        boolean graphsGenerated = generateDot();
+	        generateTablesIndex();
+	        generateTablesSummary(graphsGenerated);
+	        generateTablesDetails();
+	        generateTablesAllSchemasList();
+	        generateTablesAllTablesList();
+	        generateTablesSchemaTableList();
+	        generateTablesSchemaDetailedInfo();
+	        
+	        generateEntitiesIndex();
+	        generatePackageSummary(graphsGenerated);
+	        generateEntitiesDetails();
+	        generateEntitiesAllPackagesList();
+	        generateEntitiesAllEntitiesList();
+	        generateEntitiesPackageEntityList();
+	        generateEntitiesPackageDetailedInfo();
+	        
+	        if(pages!=null) {
+	        	renderPages(pages, threads);
+	        }
+		}
+		finally {
+			pages = null;
+		}
     }
 
 	private boolean generateDot() {
@@ -188,16 +238,9 @@ public class DocExporter extends AbstractExporter {
 				exporter.setProperties( getProperties() );
 				exporter.start();
 				
-				
-				File entityGraphDot = new File(getOutputDirectory(), "entities/entitygraph.dot");
-				dotToFile( cmd, entityGraphDot.toString(), new File(getOutputDirectory(), "entities/entitygraph.png").toString());
-				dotToFile( cmd, entityGraphDot.toString(), new File(getOutputDirectory(), "entities/entitygraph.svg").toString());
-				dotToFile( cmd, entityGraphDot.toString(), new File(getOutputDirectory(), "entities/entitygraph.cmap").toString());
-				
-				File tableGraphDot = new File(getOutputDirectory(), "tables/tablegraph.dot");
-				dotToFile( cmd, tableGraphDot.toString(), new File(getOutputDirectory(), "tables/tablegraph.png").toString());
-				dotToFile( cmd, tableGraphDot.toString(), new File(getOutputDirectory(), "tables/tablegraph.svg").toString());
-				dotToFile( cmd, tableGraphDot.toString(), new File(getOutputDirectory(), "tables/tablegraph.cmap").toString());
+				renderGraphs( cmd, new File[] { 
+						new File(getOutputDirectory(), "entities/entitygraph.dot"), 
+						new File(getOutputDirectory(), "tables/tablegraph.dot") } );
 			
 				return true;
 
@@ -219,57 +262,202 @@ public class DocExporter extends AbstractExporter {
 	public static final String OS_NAME = System.getProperty("os.name");    
     public static final boolean IS_LINUX = OS_NAME.startsWith("Linux");    
 	
-	private String escape(String fileName){
+	/**
+	 * Renders the graphs at the same time, each in its own dot process.
+	 */
+	private void renderGraphs(final String dotExeFileName, File[] dotFiles) throws IOException {
+		ExecutorService executor = Executors.newFixedThreadPool(dotFiles.length);
+		List<Future<?>> futures = new ArrayList<Future<?>>(dotFiles.length);
+		try {
+			for (int i = 0; i < dotFiles.length; i++) {
+				final File dotFile = dotFiles[i];
+				futures.add(executor.submit(new Callable<Object>() {
+					public Object call() throws IOException {
+						renderGraph(dotExeFileName, dotFile);
+						return null;
+					}
+				}));
+			}
+			for (Iterator<Future<?>> iter = futures.iterator(); iter.hasNext();) {
+				waitFor(iter.next());
+			}
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+	
+	private void waitFor(Future<?> future) throws IOException {
+		try {
+			future.get();
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new ExporterException("Interrupted while rendering", e);
+		}
+		catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if(cause instanceof IOException) {
+				throw (IOException) cause;
+			}
+			if(cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if(cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new ExporterException("Could not render", cause);
+		}
+	}
+	
+	/**
+	 * Renders the graph of a dot file as png, svg and cmap next to it, in one dot run when dot.singlepass is true
+	 * and otherwise in one run per format. With dot.cache the graph is only rendered when the dot file, or the 
+	 * formats, changed since it was rendered last, as remembered in a hash file next to it.
+	 */
+	private void renderGraph(String dotExeFileName, File dotFile) throws IOException {
+		String baseName = dotFile.getName().substring(0, dotFile.getName().lastIndexOf('.'));
+		File[] outFiles = new File[DOT_FORMATS.length];
+		for (int i = 0; i < DOT_FORMATS.length; i++) {
+			outFiles[i] = new File(dotFile.getParentFile(), baseName + "." + DOT_FORMATS[i]);
+		}
 		
-		// Linux does not need " " around file names
-		if (IS_LINUX){
-			return fileName;
+		File hashFile = new File(dotFile.getParentFile(), dotFile.getName() + ".hash");
+		String hash = null;
+		if(Boolean.parseBoolean(getProperties().getProperty("dot.cache", "false"))) {
+			hash = OutputManifest.hash(OutputManifest.read(dotFile) + Arrays.asList(DOT_FORMATS));
+			if(hashFile.exists() && hash.equals(OutputManifest.read(hashFile).trim()) && allExist(outFiles)) {
+				log.info("Skipping rendering of " + dotFile + " since it did not change.");
+				return;
+			}
+			hashFile.delete();
 		}
 		
-		// Windows needs " " around file names; actually we do not 
-		// need it always, only when spaces are present;
-		// but it does not hurt to usem them always
-		return "\"" + fileName + "\"";
+		boolean rendered = true;
+		if(Boolean.parseBoolean(getProperties().getProperty("dot.singlepass", "false"))) {
+			rendered = dotToFiles(dotExeFileName, dotFile, outFiles);
+		} 
+		else {
+			for (int i = 0; i < outFiles.length; i++) {
+				rendered &= dotToFiles(dotExeFileName, dotFile, new File[] { outFiles[i] });
+			}
+		}
 		
+		if(hash!=null && rendered) {
+			Writer writer = new FileWriter(hashFile);
+			try {
+				writer.write(hash);
+			}
+			finally {
+				writer.close();
+			}
+		}
 	}
 	
-	private void dotToFile(String dotExeFileName, String dotFileName, String outFileName) throws IOException {
+	private boolean allExist(File[] files) {
+		for (int i = 0; i < files.length; i++) {
+			if(!files[i].exists()) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	/**
+	 * @return the seconds dot may run, 0 (the default) to wait for it however long it takes
+	 */
+	long getDotTimeout() {
+		try {
+			return ConfigurationHelper.getLong("dot.timeout", getProperties(), 0);
+		}
+		catch (NumberFormatException e) {
+			log.warn("dot.timeout must be a number of seconds, not " + getProperties().getProperty("dot.timeout") + "; waiting for dot however long it takes");
+			return 0;
+		}
+	}
+	
+	/**
+	 * Runs dot once to render the dot file in the format of each of the out files, which is taken from their extension.
+	 * The output of dot is logged at debug level while it runs, and as warning when dot fails; with dot.timeout dot is 
+	 * stopped when it runs longer than that many seconds.
+	 *  
+	 * @return true if dot finished without errors
+	 */
+	private boolean dotToFiles(String dotExeFileName, File dotFile, File[] outFiles) throws IOException {
 
 		//
-		// dot.exe works by taking *.dot file and piping 
-		// results into another file, for example:
-		// d:\graphviz-1.12\bin\dot.exe -Tgif c:\temp\ManualDraw.dot > c:\temp\ManualDraw.gif
-		// so we follow that model here and read stdout until EOF
+		// dot works by taking *.dot file and writing the result of each -T 
+		// to the file of the -o after it, for example:
+		// dot -Tpng -o entitygraph.png -Tsvg -o entitygraph.svg entitygraph.dot
 		// 
-	
-		final String exeCmd = 
-			escape(dotExeFileName) + 
-			" -T" + getFormatForFile(outFileName) + " " + 
-			escape(dotFileName) +
-			" -o " + 
-			escape(outFileName);			
-	
-		Process p = Runtime.getRuntime().exec(exeCmd);
-		//p.getErrorStream().
+		List<String> command = new ArrayList<String>();
+		command.add(dotExeFileName);
+		for (int i = 0; i < outFiles.length; i++) {
+			command.add("-T" + getFormatForFile(outFiles[i].getName()));
+			command.add("-o");
+			command.add(outFiles[i].toString());
+		}
+		command.add(dotFile.toString());
+		final String exeCmd = StringHelper.join(" ", command.iterator());
+		
+		log.debug( "Executing: " + exeCmd );
+		final Process p = new ProcessBuilder(command).redirectErrorStream(true).start();
+		final List<String> output = Collections.synchronizedList(new ArrayList<String>());
+		// read the output while dot runs, so it never blocks on a full pipe
+		Thread outputReader = new Thread("dot output reader") {
+			public void run() {
+				try {
+					BufferedReader in = new BufferedReader(new InputStreamReader(p.getInputStream()));
+					try {
+						String line;
+						while ((line = in.readLine()) != null) {
+							log.debug("dot: " + line);
+							output.add(line);
+						}
+					}
+					finally {
+						in.close();
+					}
+				}
+				catch (IOException e) {
+					log.debug("Could not read the output of: " + exeCmd, e);
+				}
+			}
+		};
+		outputReader.setDaemon(true);
+		outputReader.start();
 		try {
-			log.debug( "Executing: " + exeCmd );
-//			 Get the input stream and read from it
-	        InputStream in = p.getErrorStream();
-	        int c;
-	        while ((c = in.read()) != -1) {
-	            System.out.print((char)c);
-	        }
-	        in.close();
+			long timeout = getDotTimeout();
+			outputReader.join(timeout * 1000);
+			if(outputReader.isAlive()) {
+				p.destroy();
+				warnOutput(output);
+				log.error("Stopped executing after " + timeout + " seconds: " + exeCmd);
+				return false;
+			}
 			int i = p.waitFor( );
 			if(i!=0) {
-				//TODO: dump system.err
-				log.error("Error " + i + " while executing: " + exeCmd);				
+				warnOutput(output);
+				log.error("Error " + i + " while executing: " + exeCmd);
+				return false;
 			}
-		} catch(Exception ie){
-			log.error( "Error while executing: " + exeCmd, ie );
+			return true;
+		} catch(InterruptedException ie){
+			Thread.currentThread().interrupt();
+			p.destroy();
+			log.error( "Interrupted while executing: " + exeCmd, ie );
+			return false;
 		}
 	}		
 
+	private void warnOutput(List<String> output) {
+		synchronized (output) {
+			for (Iterator<String> iter = output.iterator(); iter.hasNext();) {
+				log.warn("dot: " + iter.next());
+			}
+		}
+	}
+
 	private String getFormatForFile(String outFileName){
 		int idx = outFileName.lastIndexOf(".");
 		if (idx == -1 || idx == outFileName.length() - 1){
@@ -284,7 +472,7 @@ public class DocExporter extends AbstractExporter {
 			getProperties().setProperty( "jdk5", "true" );
 		}		
 		super.setupContext();
-		docHelper = new DocHelper( getConfiguration(), getCfg2JavaTool() );
+		docHelper = new DocHelper( getConfiguration(), getMetadata(), getCfg2JavaTool() );
         docFileManager = new DocFileManager(docHelper, getOutputDirectory() );
 
         getTemplateHelper().putInContext("dochelper", docHelper);
@@ -394,7 +582,7 @@ public class DocExporter extends AbstractExporter {
         List<String> list = docHelper.getPackages();
         if (list.size() > 0){
     		//Remove All Classes
-        	list.remove(0);
+        	list = list.subList(1, list.size());
     	}
         parameters.put("packageList", list );
         parameters.put( "graphsGenerated", Boolean.valueOf( graphsGenerated ) );
@@ -412,7 +600,7 @@ public class DocExporter extends AbstractExporter {
      * Generate one file per table with detail information.
      */
     public void generateTablesDetails() {
-    	Metadata metadata = MetadataHelper.getMetadata(getConfiguration());
+    	Metadata metadata = getMetadata();
         Iterator<Table> tables = metadata.collectTableMappings().iterator();
         while (tables.hasNext() ) {
             Table table = tables.next();
@@ -425,7 +613,7 @@ public class DocExporter extends AbstractExporter {
             	parameters.put("docFile", docFile);
             	parameters.put("table", table);
 
-            	processTemplate(parameters, FTL_TABLES_TABLE, file);
+            	processTemplate(parameters, FTL_TABLES_TABLE, file, table);
             }
         }
     }
@@ -446,7 +634,7 @@ public class DocExporter extends AbstractExporter {
     		Map<String, Object> parameters = new HashMap<String, Object>();
     		parameters.put("docFile", docFile);
     		parameters.put("class", pcObj);    		
-    		processTemplate(parameters, FTL_ENTITIES_ENTITY, file);
+    		processTemplate(parameters, FTL_ENTITIES_ENTITY, file, pcObj);
     	}
     }
     
@@ -464,7 +652,7 @@ public class DocExporter extends AbstractExporter {
         List<String> list = docHelper.getPackages();
         if (list.size() > 0){
         	 //Remove All Classes
-            list.remove(0);
+            list = list.subList(1, list.size());
         }
         parameters.put("packageList", list );
 
@@ -520,7 +708,7 @@ public class DocExporter extends AbstractExporter {
     	List<String> packageList = docHelper.getPackages();
     	if (packageList.size() > 0){
     		//Remove All Classes
-    		packageList.remove(0);
+    		packageList = packageList.subList(1, packageList.size());
     	}
         Iterator<String> packages = packageList.iterator();
         
@@ -627,10 +815,172 @@ public class DocExporter extends AbstractExporter {
      */
     protected void processTemplate(Map<String, Object> parameters, String templateName,
             File outputFile) {
+    	processTemplate(parameters, templateName, outputFile, null);
+    }
+    
+    /**
+     * Run templates, right away or when the queued pages are rendered.
+     * 
+     * @param model the table or entity the page documents, null if it is not about one model.
+     */
+    private void processTemplate(Map<String, Object> parameters, String templateName,
+    		File outputFile, Object model) {
+    	Page page = new Page(parameters, templateName, outputFile, model);
+    	if(pages!=null) {
+    		pages.add(page);
+    	}
+    	else {
+    		renderPage(page, getArtifactCollector());
+    	}
+    }
+    
+    private void renderPage(Page page, ArtifactCollector collector) {
+    	if(isModelUnchanged(page, collector)) {
+    		String fileType = page.outputFile.getName();
+    		collector.addUnchangedFile(page.outputFile, fileType.substring(fileType.indexOf('.')+1));
+    		log.debug("Skipping " + page.outputFile + " since its model did not change");
+    		return;
+    	}
+    	TemplateProducer producer = new TemplateProducer(getTemplateHelper(), collector);
+    	producer.produce(page.parameters, page.templateName, page.outputFile, page.templateName);
+    }
+    
+    /**
+     * Renders the pages concurrently, each collecting its file in a part collector of the artifact collector of
+     * the exporter, which formats the files as it does; these are added to it in the order of the pages. The doc helper and
+     * doc file manager are not changed while rendering, so all threads share them.
+     */
+    private void renderPages(final List<Page> pages, int threads) {
+    	threads = Math.min(threads, pages.size());
+		final List<ArtifactCollector> collectors = new ArrayList<ArtifactCollector>(Collections.<ArtifactCollector>nCopies(pages.size(), null));
+		final AtomicInteger nextPage = new AtomicInteger();
+		final ArtifactCollector artifactCollector = getArtifactCollector();
+		log.debug("Rendering " + pages.size() + " pages using " + threads + " threads");
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		List<Future<?>> futures = new ArrayList<Future<?>>(threads);
+		try {
+			for (int i = 0; i < threads; i++) {
+				futures.add(executor.submit(new Runnable() {
+					public void run() {
+						int index;
+						while((index = nextPage.getAndIncrement()) < pages.size()) {
+							ArtifactCollector collector = artifactCollector.createPartCollector();
+							renderPage(pages.get(index), collector);
+							collectors.set(index, collector);
+						}
+					}
+				}));
+			}
+			for (Iterator<Future<?>> iter = futures.iterator(); iter.hasNext();) {
+				try {
+					waitFor(iter.next());
+				}
+				catch (IOException e) {
+					throw new ExporterException("Could not render pages", e);
+				}
+			}
+		}
+		finally {
+			executor.shutdownNow();
+		}
+		
+		for (Iterator<ArtifactCollector> iter = collectors.iterator(); iter.hasNext();) {
+			artifactCollector.addAll(iter.next());
+		}
+    }
+    
+    private boolean isModelUnchanged(Page page, ArtifactCollector collector) {
+    	OutputManifest manifest = collector.getOutputManifest();
+    	if(modelEnvironment==null || page.model==null || manifest==null) {
+    		return false;
+    	}
+    	String fingerprint = page.model instanceof Table ? 
+    			getTableFingerprint((Table) page.model) : getEntityFingerprint((POJOClass) page.model);
+    	return manifest.isModelUnchanged(page.outputFile, fingerprint);
+    }
+    
+    /**
+     * The table page shows its columns with their SQL types and the properties mapped to them.
+     */
+    private String getTableFingerprint(Table table) {
+    	StringBuffer context = new StringBuffer(modelEnvironment)
+    		.append('|').append(docHelper.getQualifiedSchemaName(table));
+    	for (Iterator<?> columns = table.getColumnIterator(); columns.hasNext();) {
+    		Column column = (Column) columns.next();
+    		context.append('|').append(column.getName()).append(' ').append(docHelper.getSQLTypeName(column));
+    		for (Iterator<Property> properties = docHelper.getProperties(table, column).iterator(); properties.hasNext();) {
+    			Property property = properties.next();
+    			context.append(' ')
+    				.append(property.getPersistentClass()==null ? null : property.getPersistentClass().getEntityName())
+    				.append('.').append(property.getName());
+    		}
+    	}
+    	return ModelFingerprint.of(table, context.toString());
+    }
+    
+    /**
+     * The entity page shows the properties it inherits as well, with the types of the entities
+     * and components of the properties.
+     */
+    private String getEntityFingerprint(POJOClass pojoClass) {
+    	Metadata metadata = getMetadata();
+    	StringBuffer context = new StringBuffer(modelEnvironment);
+    	appendPropertyTypes(context, pojoClass, metadata);
+    	for (Iterator<POJOClass> superClasses = docHelper.getInheritanceHierarchy(pojoClass).iterator(); superClasses.hasNext();) {
+    		POJOClass superClass = superClasses.next();
+    		context.append('|').append(ModelFingerprint.of(superClass, "", metadata));
+    		appendPropertyTypes(context, superClass, metadata);
+    	}
+    	return ModelFingerprint.of(pojoClass, context.toString(), metadata);
+    }
+    
+    private void appendPropertyTypes(StringBuffer context, POJOClass pojoClass, Metadata metadata) {
+    	for (Iterator<Property> properties = pojoClass.getAllPropertiesIterator(); properties.hasNext();) {
+    		appendType(context, properties.next().getValue(), metadata);
+    	}
+    }
+    
+    private void appendType(StringBuffer context, Value value, Metadata metadata) {
+    	if(value instanceof Component) {
+    		context.append('|').append(ModelFingerprint.of(getCfg2JavaTool().getPOJOClass((Component) value), "", metadata));
+    	}
+    	else if(value instanceof Collection) {
+    		appendType(context, ((Collection) value).getElement(), metadata);
+    		if(value instanceof IndexedCollection) {
+    			appendType(context, ((IndexedCollection) value).getIndex(), metadata);
+    		}
+    	}
+    	else if(value instanceof ToOne) {
+    		appendEntityType(context, ((ToOne) value).getReferencedEntityName(), metadata);
+    	}
+    	else if(value instanceof OneToMany) {
+    		appendEntityType(context, ((OneToMany) value).getReferencedEntityName(), metadata);
+    	}
+    }
+    
+    private void appendEntityType(StringBuffer context, String entityName, Metadata metadata) {
+    	PersistentClass entity = entityName==null ? null : metadata.getEntityBinding(entityName);
+    	if(entity!=null) {
+    		context.append('|').append(getCfg2JavaTool().getPOJOClass(entity).getQualifiedDeclarationName());
+    	}
+    }
+    
+    /**
+     * A page to render.
+     */
+    private static class Page {
+    	final Map<String, Object> parameters;
+    	final String templateName;
+    	final File outputFile;
+    	final Object model;
     	
-    	TemplateProducer producer = new TemplateProducer(getTemplateHelper(), getArtifactCollector() );
-    	producer.produce(parameters, templateName, outputFile, templateName);
-     }
+    	Page(Map<String, Object> parameters, String templateName, File outputFile, Object model) {
+    		this.parameters = parameters;
+    		this.templateName = templateName;
+    		this.outputFile = outputFile;
+    		this.model = model;
+    	}
+    }
 
     public String getName() {
     	return "hbm2doc";
@@ -0,0 +1,107 @@
+package org.hibernate.tool.hbm2x;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.tool.util.MetadataHelper;
+import org.hibernate.tool.util.TypeHelper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * What the exporters of one run share: the metadata built for each configuration, the template engines
+ * of the exporters that share their templates, and the java types of type names.
+ *
+ * An exporter started on its own creates a run for itself; a task starting several exporters creates one
+ * and passes it to them with {@link AbstractExporter#setExporterRun(ExporterRun)}. Whoever creates a run
+ * closes it, which forgets what was shared and closes the service registries built for the metadata.
+ * The configurations must not be changed during a run.
+ */
+public class ExporterRun {
+
+	private static final Logger log = LoggerFactory.getLogger(ExporterRun.class);
+
+	private final Map<Configuration, Metadata> metadata = new IdentityHashMap<Configuration, Metadata>();
+	private final List<StandardServiceRegistry> registries = new ArrayList<StandardServiceRegistry>();
+	private final Map<List<String>, TemplateHelper.Engine> templateEngines = new HashMap<List<String>, TemplateHelper.Engine>();
+	private final Map<String, String> javaTypeNames = new ConcurrentHashMap<String, String>();
+	private boolean closed;
+
+	/**
+	 * @return the metadata of the configuration, built from its metadata sources at most once in this run;
+	 * without a configuration the metadata of no mappings, also built at most once
+	 */
+	public synchronized Metadata getMetadata(Configuration configuration) {
+		checkOpen();
+		Metadata result = configuration==null ? null : MetadataHelper.getConfiguredMetadata(configuration);
+		if(result==null) {
+			result = metadata.get(configuration);
+			if(result==null) {
+				log.debug("Building metadata for " + configuration + " once for the run");
+				result = configuration==null ? buildEmptyMetadata() : MetadataHelper.buildMetadata(configuration, registries);
+				metadata.put(configuration, result);
+			}
+		}
+		return result;
+	}
+
+	private Metadata buildEmptyMetadata() {
+		StandardServiceRegistry serviceRegistry = new StandardServiceRegistryBuilder().build();
+		registries.add(serviceRegistry);
+		return new MetadataSources(serviceRegistry).buildMetadata();
+	}
+
+	/**
+	 * @return the template engine for the template paths, created at most once in this run
+	 */
+	synchronized TemplateHelper.Engine getTemplateEngine(String[] templatePaths) {
+		checkOpen();
+		List<String> key = templatePaths==null ? new ArrayList<String>() : Arrays.asList(templatePaths);
+		TemplateHelper.Engine result = templateEngines.get(key);
+		if(result==null) {
+			result = TemplateHelper.createEngine(templatePaths);
+			templateEngines.put(key, result);
+		}
+		return result;
+	}
+
+	/**
+	 * @return the java type name of the type name, see {@link TypeHelper#getJavaTypeName(String)}, resolved at most once in this run
+	 */
+	public String getJavaTypeName(String typeName) {
+		return TypeHelper.getJavaTypeName(typeName, javaTypeNames);
+	}
+
+	/** Forget what was shared in this run, and close the service registries built for its metadata. */
+	public synchronized void close() {
+		if(closed) {
+			return;
+		}
+		closed = true;
+		metadata.clear();
+		templateEngines.clear();
+		javaTypeNames.clear();
+		for (Iterator<StandardServiceRegistry> iter = registries.iterator(); iter.hasNext();) {
+			StandardServiceRegistryBuilder.destroy(iter.next());
+		}
+		registries.clear();
+	}
+
+	private void checkOpen() {
+		if(closed) {
+			throw new IllegalStateException("The run is closed");
+		}
+	}
+
+}
@@ -24,6 +24,54 @@ public interface ExporterSettings {
 	 */
 	public final String TEMPLATE_PATH = PREFIX_KEY + "template_path";
 	
+	/** 
+	 * if true files are only written when their generated content changed, tracked in an {@link OutputManifest} 
+	 */
+	public final String WRITE_CHANGED_ONLY = PREFIX_KEY + "write_changed_only";
+	
+	/** 
+	 * if true, together with {@link #WRITE_CHANGED_ONLY}, files generated before but not anymore are deleted 
+	 */
+	public final String DELETE_STALE = PREFIX_KEY + "delete_stale";
+	
+	/** 
+	 * if true, files of entities and components whose model, templates and settings did not change since they were 
+	 * generated last time are not generated again; kept in the {@link OutputManifest} like {@link #WRITE_CHANGED_ONLY} 
+	 */
+	public final String SKIP_UNCHANGED_MODELS = PREFIX_KEY + "skip_unchanged_models";
+	
+	/** 
+	 * number of threads exporters render their files with concurrently, 1 (the default) renders them serially 
+	 */
+	public final String RENDER_THREADS = PREFIX_KEY + "render.threads";
+	
+	/** 
+	 * if true exporters in one run share their template engine with the other exporters using the same template path, see {@link ExporterRun}
+	 */
+	public final String SHARE_TEMPLATES = PREFIX_KEY + "share_templates";
+	
+	/** 
+	 * how xml files are formatted: tidy (the default), indent for the faster {@link XMLIndenter}, or none, see {@link ArtifactCollector#setXmlFormat(String)} 
+	 */
+	public final String XML_FORMAT = PREFIX_KEY + "xml_format";
+	
+	/** 
+	 * if true java files are formatted in memory before they are written, see {@link ArtifactCollector#setJavaFormat(boolean)} 
+	 */
+	public final String JAVA_FORMAT = PREFIX_KEY + "java_format";
+	
+	/** 
+	 * properties file with the settings java files are formatted with, as the configurationfile of the javaformatter task, 
+	 * see {@link ArtifactCollector#setJavaFormatSettings(java.util.Map)} 
+	 */
+	public final String JAVA_FORMAT_SETTINGS = PREFIX_KEY + "java_format.settings";
+	
+	/** 
+	 * number of templates compiled from strings kept by the template engine, {@link TemplateHelper#DEFAULT_TEMPLATE_CACHE_SIZE} by default, 
+	 * see {@link TemplateHelper#setTemplateCacheSize(int)} 
+	 */
+	public final String TEMPLATE_CACHE_SIZE = PREFIX_KEY + "template_cache_size";
+	
 	
 	
 }
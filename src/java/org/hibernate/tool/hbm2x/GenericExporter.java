@@ -2,20 +2,28 @@ package org.hibernate.tool.hbm2x;
 
 import java.io.File;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.StringTokenizer;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.hibernate.boot.Metadata;
 import org.hibernate.boot.MetadataSources;
 import org.hibernate.cfg.Configuration;
+import org.hibernate.cfg.JDBCMetaDataConfiguration;
 import org.hibernate.internal.util.StringHelper;
 import org.hibernate.mapping.Component;
-import org.hibernate.tool.hbm2x.pojo.ComponentPOJOClass;
+import org.hibernate.mapping.PersistentClass;
+import org.hibernate.tool.hbm2x.pojo.BasicPOJOClass;
 import org.hibernate.tool.hbm2x.pojo.POJOClass;
-import org.hibernate.tool.util.MetadataHelper;
 
 
 public class GenericExporter extends AbstractExporter {
@@ -45,11 +53,18 @@ public class GenericExporter extends AbstractExporter {
 				Iterator<?> iterator = 
 						ge.getCfg2JavaTool().getPOJOIterator(
 								ge.getMetadata().getEntityBindings().iterator());
-				Map<String, Object> additionalContext = new HashMap<String, Object>();
+				List<POJOClass> elements = new ArrayList<POJOClass>();
 				while ( iterator.hasNext() ) {					
 					POJOClass element = (POJOClass) iterator.next();
-					ge.exportPersistentClass( additionalContext, element );					
+					if(ge.tablesEnvironment==null || ge.isTablesChanged(element)) {
+						elements.add( element );
+					}
 				}
+				ge.exportAll(elements, new POJOExport() {
+					void export(GenericExporter ge, Map<String, Object> additionalContext, POJOClass element) {
+						ge.exportPersistentClass( additionalContext, element );
+					}
+				});
 			}
 		});
 		modelIterators.put("component", new ModelIterator() {
@@ -60,26 +75,41 @@ public class GenericExporter extends AbstractExporter {
 				Iterator<?> iterator = 
 						ge.getCfg2JavaTool().getPOJOIterator(
 								ge.getMetadata().getEntityBindings().iterator());
-				Map<String, Object> additionalContext = new HashMap<String, Object>();
 				while ( iterator.hasNext() ) {					
 					POJOClass element = (POJOClass) iterator.next();
 					ConfigurationNavigator.collectComponents(components, element);											
 				}
 						
+				List<POJOClass> elements = new ArrayList<POJOClass>();
 				iterator = components.values().iterator();
 				while ( iterator.hasNext() ) {					
 					Component component = (Component) iterator.next();
-					ComponentPOJOClass element = new ComponentPOJOClass(component,ge.getCfg2JavaTool());
-					ge.exportComponent( additionalContext, element );					
+					elements.add( ge.getCfg2JavaTool().getPOJOClass(component) );
 				}
+				ge.exportAll(elements, new POJOExport() {
+					void export(GenericExporter ge, Map<String, Object> additionalContext, POJOClass element) {
+						ge.exportComponent( additionalContext, element );
+					}
+				});
 			}
 		});
 	}
 	
+	static abstract class POJOExport {
+		abstract void export(GenericExporter ge, Map<String, Object> additionalContext, POJOClass element);
+	}
+	
+	/** 
+	 * Number of threads rendering the entities and components concurrently, 1 (the default) renders them serially. 
+	 */
+	public static final String RENDER_THREADS = ExporterSettings.RENDER_THREADS;
+	
 	private String templateName;
 	private String filePattern;
 	private String forEach;
-	private Metadata metadata = null;
+	private String modelEnvironment;
+	private String tablesEnvironment;
+	private final ThreadLocal<ArtifactCollector> renderCollector = new ThreadLocal<ArtifactCollector>();
 	
 	public GenericExporter(Configuration cfg, File outputdir) {
 		super(cfg,outputdir);
@@ -133,6 +163,9 @@ public class GenericExporter extends AbstractExporter {
 			}
 		}
 
+		modelEnvironment = isTrue(ExporterSettings.SKIP_UNCHANGED_MODELS) ? getModelEnvironment() : null;
+		tablesEnvironment = getEntityFingerprints()==null ? null : OutputManifest.hash(getModelEnvironment());
+		
 		Iterator<ModelIterator> it = exporters.iterator();
 		while(it.hasNext()) {
 			ModelIterator mit = it.next();
@@ -140,6 +173,95 @@ public class GenericExporter extends AbstractExporter {
 		}
 	}
 
+	/**
+	 * Export the elements serially or, when {@link #RENDER_THREADS} is set, concurrently.
+	 * 
+	 * Each concurrent export gets its own additional template context layered over the shared one, and
+	 * collects its files in a part collector of the artifact collector of the exporter; these are added to it
+	 * in the order of the elements, so it lists the files the same as after serial rendering.
+	 * XML and java files are formatted by the thread that renders them, with the settings and the pooled
+	 * formatters of the artifact collector of the exporter, see {@link ArtifactCollector#createPartCollector()}.
+	 */
+	private void exportAll(final List<POJOClass> elements, final POJOExport export) {
+		int threads = Math.min(getRenderThreads(), elements.size());
+		if(threads<=1) {
+			Map<String, Object> additionalContext = new HashMap<String, Object>();
+			for (Iterator<POJOClass> iter = elements.iterator(); iter.hasNext();) {
+				export.export(this, additionalContext, iter.next());
+			}
+			return;
+		}
+		
+		final List<ArtifactCollector> collectors = new ArrayList<ArtifactCollector>(Collections.<ArtifactCollector>nCopies(elements.size(), null));
+		final AtomicInteger nextElement = new AtomicInteger();
+		final ArtifactCollector artifactCollector = getArtifactCollector();
+		log.debug("Rendering " + elements.size() + " elements using " + threads + " threads");
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		List<Future<?>> futures = new ArrayList<Future<?>>(threads);
+		try {
+			for (int i = 0; i < threads; i++) {
+				futures.add(executor.submit(new Runnable() {
+					public void run() {
+						int index;
+						while((index = nextElement.getAndIncrement()) < elements.size()) {
+							ArtifactCollector collector = artifactCollector.createPartCollector();
+							renderCollector.set(collector);
+							try {
+								export.export(GenericExporter.this, new HashMap<String, Object>(), elements.get(index));
+							}
+							finally {
+								renderCollector.remove();
+							}
+							collectors.set(index, collector);
+						}
+					}
+				}));
+			}
+			for (Iterator<Future<?>> iter = futures.iterator(); iter.hasNext();) {
+				waitFor(iter.next());
+			}
+		}
+		finally {
+			executor.shutdownNow();
+		}
+		
+		for (Iterator<ArtifactCollector> iter = collectors.iterator(); iter.hasNext();) {
+			artifactCollector.addAll(iter.next());
+		}
+	}
+	
+	private void waitFor(Future<?> future) {
+		try {
+			future.get();
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new ExporterException("Interrupted while rendering " + templateName, e);
+		}
+		catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if(cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if(cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new ExporterException("Could not render " + templateName, cause);
+		}
+	}
+	
+	/**
+	 * @return the collector of the element being rendered by the current thread when rendering concurrently, else the collector of the exporter
+	 */
+	public ArtifactCollector getArtifactCollector() {
+		ArtifactCollector collector = renderCollector.get();
+		return collector==null ? super.getArtifactCollector() : collector;
+	}
+
+	protected String getManifestOwner() {
+		return super.getManifestOwner() + ":" + templateName + ":" + filePattern;
+	}
+
 	protected void exportComponent(Map<String, Object> additionalContext, POJOClass element) {
 		exportPOJO(additionalContext, element);		
 	}
@@ -156,7 +278,53 @@ public class GenericExporter extends AbstractExporter {
 		if(filename.endsWith(".java") && filename.indexOf('$')>=0) {
 			log.warn("Filename for " + getClassNameForFile( element ) + " contains a $. Innerclass generation is not supported.");
 		}
-		producer.produce(additionalContext, getTemplateName(), new File(getOutputDirectory(),filename), templateName, element.toString());
+		File destination = new File(getOutputDirectory(),filename);
+		if(isModelUnchanged(destination, element)) {
+			String fileType = destination.getName();
+			getArtifactCollector().addUnchangedFile(destination, fileType.substring(fileType.indexOf('.')+1));
+			log.debug("Skipping " + element + " since its model did not change");
+			return;
+		}
+		if(element instanceof BasicPOJOClass) {
+			((BasicPOJOClass) element).resetImportContext(); // the class is shared by all templates of the run
+		}
+		producer.produce(additionalContext, getTemplateName(), destination, templateName, element.toString());
+	}
+	
+	/**
+	 * When the configuration was read incrementally an entity is exported unless the file of this exporter for it
+	 * exists and was generated from the same tables, according to the {@link OutputManifest} of the output directory. 
+	 */
+	private boolean isTablesChanged(POJOClass element) {
+		String entityName = ((PersistentClass) element.getDecoratedObject()).getEntityName();
+		String fingerprint = getEntityFingerprints().get(entityName);
+		if(fingerprint==null) {
+			return true;
+		}
+		File destination = new File(getOutputDirectory(), resolveFilename(element));
+		OutputManifest manifest = getArtifactCollector().getOutputManifest();
+		if(manifest==null) {
+			return getDirtyEntityNames().contains(entityName) || !destination.exists();
+		}
+		if(manifest.isTablesUnchanged(destination, fingerprint + '|' + tablesEnvironment)) {
+			String fileType = destination.getName();
+			getArtifactCollector().addUnchangedFile(destination, fileType.substring(fileType.indexOf('.')+1));
+			log.debug("Skipping " + element + " since its tables did not change");
+			return false;
+		}
+		return true;
+	}
+	
+	private boolean isModelUnchanged(File destination, POJOClass element) {
+		OutputManifest manifest = getArtifactCollector().getOutputManifest();
+		if(modelEnvironment==null || manifest==null) {
+			return false;
+		}
+		return manifest.isModelUnchanged(destination, ModelFingerprint.of(element, modelEnvironment, getMetadata()));
+	}
+	
+	protected String getModelEnvironment() {
+		return super.getModelEnvironment() + '|' + templateName + '|' + filePattern;
 	}
 
 	protected String resolveFilename(POJOClass element) {
@@ -185,22 +353,34 @@ public class GenericExporter extends AbstractExporter {
 		return filePattern;
 	}
 	
-	private Metadata getMetadata() {
-		if (metadata == null) {
-			metadata = buildMetadata();
+	/** 
+	 * @return the entities whose tables changed since the fingerprints were stored when the configuration was read incrementally, 
+	 * null to export all 
+	 */
+	private Set<String> getDirtyEntityNames() {
+		Configuration configuration = getConfiguration();
+		if(configuration instanceof JDBCMetaDataConfiguration) {
+			return ((JDBCMetaDataConfiguration) configuration).getDirtyEntityNames();
 		}
-		return metadata;
+		return null;
 	}
 	
-	private Metadata buildMetadata() {
-		Metadata result = null;
+	/** 
+	 * @return the fingerprints of the tables of the entities when the configuration was read incrementally, null to export all 
+	 */
+	private Map<String, String> getEntityFingerprints() {
 		Configuration configuration = getConfiguration();
-		if (configuration != null) {
-			result = MetadataHelper.getMetadata(getConfiguration());
-		} else {
-			result = new MetadataSources().buildMetadata();
+		if(configuration instanceof JDBCMetaDataConfiguration) {
+			return ((JDBCMetaDataConfiguration) configuration).getEntityFingerprints();
+		}
+		return null;
+	}
+	
+	protected Metadata getMetadata() {
+		if (getConfiguration() == null && getExporterRun() == null) {
+			return new MetadataSources().buildMetadata();
 		}
-		return result;
+		return super.getMetadata(); // once per run, also without a configuration
 	}
 	
 }
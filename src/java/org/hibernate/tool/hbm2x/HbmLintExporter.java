@@ -4,7 +4,6 @@ import java.io.File;
 
 import org.hibernate.cfg.Configuration;
 import org.hibernate.tool.hbmlint.HbmLint;
-import org.hibernate.tool.util.MetadataHelper;
 
 public class HbmLintExporter extends GenericExporter {
 
@@ -26,7 +25,7 @@ public class HbmLintExporter extends GenericExporter {
     }
 	protected void setupContext() {
 		HbmLint hbmlint = HbmLint.createInstance();
-		hbmlint.analyze( MetadataHelper.getMetadata(getConfiguration()) );
+		hbmlint.analyze( getMetadata() );
 		getProperties().put("lintissues", hbmlint.getResults());
 		super.setupContext();		
 	}
@@ -22,7 +22,6 @@ import org.hibernate.cfg.Configuration;
 import org.hibernate.cfg.Environment;
 import org.hibernate.mapping.PersistentClass;
 import org.hibernate.mapping.RootClass;
-import org.hibernate.tool.util.MetadataHelper;
 
 /**
  * @author max
@@ -117,7 +116,7 @@ public class HibernateConfigurationExporter extends AbstractExporter {
         }
         
 		if(getConfiguration()!=null) {
-			Metadata md = MetadataHelper.getMetadata(getConfiguration());
+			Metadata md = getMetadata();
 		    Iterator<PersistentClass> classMappings = md.getEntityBindings().iterator();
 		    while (classMappings.hasNext() ) {
 		        PersistentClass element = classMappings.next();
@@ -0,0 +1,393 @@
+package org.hibernate.tool.hbm2x;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+
+import org.hibernate.boot.Metadata;
+import org.hibernate.mapping.Any;
+import org.hibernate.mapping.Collection;
+import org.hibernate.mapping.Column;
+import org.hibernate.mapping.Component;
+import org.hibernate.mapping.Constraint;
+import org.hibernate.mapping.ForeignKey;
+import org.hibernate.mapping.Formula;
+import org.hibernate.mapping.IdentifierCollection;
+import org.hibernate.mapping.Index;
+import org.hibernate.mapping.IndexedCollection;
+import org.hibernate.mapping.Join;
+import org.hibernate.mapping.ManyToOne;
+import org.hibernate.mapping.MetaAttribute;
+import org.hibernate.mapping.OneToMany;
+import org.hibernate.mapping.OneToOne;
+import org.hibernate.mapping.PersistentClass;
+import org.hibernate.mapping.Property;
+import org.hibernate.mapping.Selectable;
+import org.hibernate.mapping.SimpleValue;
+import org.hibernate.mapping.Table;
+import org.hibernate.mapping.ToOne;
+import org.hibernate.mapping.Value;
+import org.hibernate.tool.hbm2x.pojo.POJOClass;
+
+/**
+ * Describes the mapping model of an entity, component or table, as far as templates can see it, as text
+ * that only changes when the model changes, and hashes it.
+ *
+ * Associated entities are described by name, with the key columns and the associations of them that
+ * templates look at to find the inverse side and the referenced columns of an association, such as the
+ * mappedBy and referencedColumnName of annotations. Subclasses and joins are described in full since
+ * mapping files render them with their root.
+ */
+class ModelFingerprint {
+
+	private final StringBuffer sb = new StringBuffer();
+	private final Metadata metadata;
+
+	private ModelFingerprint(Metadata metadata) {
+		this.metadata = metadata;
+	}
+
+	/** 
+	 * @param metadata the metadata to find the associated entities in, or null to describe them by name only
+	 * @return the fingerprint of the model of the element, combined with the given fingerprint of everything else it is rendered with 
+	 */
+	static String of(POJOClass element, String environment, Metadata metadata) {
+		ModelFingerprint fingerprint = new ModelFingerprint(metadata);
+		fingerprint.append("environment", environment);
+		fingerprint.append("declaration", element.getQualifiedDeclarationName());
+		Object model = element.getDecoratedObject();
+		if(model instanceof PersistentClass) {
+			fingerprint.describe((PersistentClass) model);
+		}
+		else {
+			fingerprint.describe((Value) model);
+		}
+		return OutputManifest.hash(fingerprint.sb.toString());
+	}
+
+	/** @return the fingerprint of a table with its columns and keys, combined with the given fingerprint of everything else it is rendered with */
+	static String of(Table table, String environment) {
+		ModelFingerprint fingerprint = new ModelFingerprint(null);
+		fingerprint.append("environment", environment);
+		fingerprint.describe(table);
+		for (Iterator<?> iter = table.getColumnIterator(); iter.hasNext();) {
+			fingerprint.describe((Column) iter.next());
+		}
+		if(table.hasPrimaryKey()) {
+			fingerprint.describeConstraint("primaryKey", table.getPrimaryKey());
+		}
+		for (Iterator<?> iter = table.getForeignKeyIterator(); iter.hasNext();) {
+			ForeignKey foreignKey = (ForeignKey) iter.next();
+			fingerprint.describeConstraint("foreignKey", foreignKey);
+			fingerprint.append("referencedTable", null);
+			fingerprint.describe(foreignKey.getReferencedTable());
+			fingerprint.append("referencedColumns", foreignKey.getReferencedColumns());
+		}
+		for (Iterator<?> iter = table.getUniqueKeyIterator(); iter.hasNext();) {
+			fingerprint.describeConstraint("uniqueKey", (Constraint) iter.next());
+		}
+		for (Iterator<?> iter = table.getIndexIterator(); iter.hasNext();) {
+			Index index = (Index) iter.next();
+			fingerprint.append("index", index.getName());
+			for (Iterator<?> columns = index.getColumnIterator(); columns.hasNext();) {
+				fingerprint.append("indexColumn", ((Column) columns.next()).getName());
+			}
+		}
+		return OutputManifest.hash(fingerprint.sb.toString());
+	}
+
+	/** @return a fingerprint of the files in the template paths, by their path, size and modification time */
+	static String ofTemplates(String[] templatePaths) {
+		ModelFingerprint fingerprint = new ModelFingerprint(null);
+		if(templatePaths!=null) {
+			for (int i = 0; i < templatePaths.length; i++) {
+				fingerprint.describe(new File(templatePaths[i]), templatePaths[i]);
+			}
+		}
+		return OutputManifest.hash(fingerprint.sb.toString());
+	}
+
+	private void describe(File file, String path) {
+		if(file.isDirectory()) {
+			String[] names = file.list();
+			Arrays.sort(names);
+			for (int i = 0; i < names.length; i++) {
+				describe(new File(file, names[i]), path + "/" + names[i]);
+			}
+		}
+		else if(file.exists()) {
+			append(path, file.length() + "@" + file.lastModified());
+		}
+	}
+
+	private void describe(PersistentClass pc) {
+		append("entity", pc.getEntityName());
+		append("class", pc.getClassName());
+		append("proxy", pc.getProxyInterfaceName());
+		append("abstract", pc.isAbstract());
+		append("lazy", pc.isLazy());
+		append("mutable", pc.isMutable());
+		append("where", pc.getWhere());
+		append("batch", pc.getBatchSize());
+		append("discriminatorValue", pc.getDiscriminatorValue());
+		append("cache", pc.getCacheConcurrencyStrategy());
+		append("optimisticLock", pc.getOptimisticLockStyle());
+		append("superclass", pc.getSuperclass()==null ? null : pc.getSuperclass().getEntityName());
+		describe(pc.getMetaAttributes());
+		describe(pc.getTable());
+		if(pc.getSuperclass()==null) {
+			describe("identifier", pc.getIdentifierProperty());
+			append("identifierValue", null);
+			describe(pc.getIdentifier());
+			append("identifierMapper", null);
+			describe(pc.getIdentifierMapper());
+			describe("version", pc.getVersion());
+			append("discriminator", null);
+			describe(pc.getDiscriminator());
+		}
+		else {
+			append("key", null);
+			describe(pc.getKey());
+		}
+		describeProperties(pc.getPropertyIterator());
+		for (Iterator<?> iter = pc.getJoinIterator(); iter.hasNext();) {
+			Join join = (Join) iter.next();
+			append("join", null);
+			describe(join.getTable());
+			describe(join.getKey());
+			append("optional", join.isOptional());
+			append("inverse", join.isInverse());
+			describeProperties(join.getPropertyIterator());
+		}
+		for (Iterator<?> iter = pc.getDirectSubclasses(); iter.hasNext();) {
+			append("subclass", null);
+			describe((PersistentClass) iter.next());
+		}
+		append("end", pc.getEntityName());
+	}
+
+	private void describeProperties(Iterator<?> properties) {
+		while(properties.hasNext()) {
+			describe("property", (Property) properties.next());
+		}
+	}
+
+	private void describe(String kind, Property property) {
+		if(property==null) {
+			append(kind, null);
+			return;
+		}
+		append(kind, property.getName());
+		append("cascade", property.getCascade());
+		append("accessor", property.getPropertyAccessorName());
+		append("insertable", property.isInsertable());
+		append("updateable", property.isUpdateable());
+		append("optional", property.isOptional());
+		append("lazy", property.isLazy());
+		append("naturalId", property.isNaturalIdentifier());
+		append("optimisticLocked", property.isOptimisticLocked());
+		describe(property.getMetaAttributes());
+		describe(property.getValue());
+	}
+
+	private void describe(Value value) {
+		if(value==null) {
+			append("value", null);
+			return;
+		}
+		append("value", value.getClass().getName());
+		if(value instanceof Component) {
+			Component component = (Component) value;
+			append("componentClass", component.getComponentClassName());
+			append("embedded", component.isEmbedded());
+			append("dynamic", component.isDynamic());
+			append("parent", component.getParentProperty());
+			describe(component.getMetaAttributes());
+			describeProperties(component.getPropertyIterator());
+		}
+		else if(value instanceof Collection) {
+			describeCollection((Collection) value);
+		}
+		else if(value instanceof OneToMany) {
+			OneToMany oneToMany = (OneToMany) value;
+			append("referencedEntity", oneToMany.getReferencedEntityName());
+			append("ignoreNotFound", oneToMany.isIgnoreNotFound());
+			describeReferenced(oneToMany.getReferencedEntityName());
+		}
+		else if(value instanceof SimpleValue) {
+			describeSimpleValue((SimpleValue) value);
+		}
+		append("endValue", null);
+	}
+
+	private void describeSimpleValue(SimpleValue value) {
+		append("type", value.getTypeName());
+		describe("typeParameters", value.getTypeParameters());
+		append("generator", value.getIdentifierGeneratorStrategy());
+		describe("generatorParameters", value.getIdentifierGeneratorProperties());
+		append("nullValue", value.getNullValue());
+		for (Iterator<?> iter = value.getColumnIterator(); iter.hasNext();) {
+			Object selectable = iter.next();
+			if(selectable instanceof Column) {
+				describe((Column) selectable);
+			}
+			else if(selectable instanceof Formula) {
+				append("formula", ((Formula) selectable).getFormula());
+			}
+		}
+		if(value instanceof ToOne) {
+			ToOne toOne = (ToOne) value;
+			append("referencedEntity", toOne.getReferencedEntityName());
+			append("referencedProperty", toOne.getReferencedPropertyName());
+			append("lazy", toOne.isLazy());
+			append("unwrapProxy", toOne.isUnwrapProxy());
+			append("fetch", toOne.getFetchMode());
+			describeReferenced(toOne.getReferencedEntityName());
+		}
+		if(value instanceof ManyToOne) {
+			append("logicalOneToOne", ((ManyToOne) value).isLogicalOneToOne());
+			append("ignoreNotFound", ((ManyToOne) value).isIgnoreNotFound());
+		}
+		if(value instanceof OneToOne) {
+			append("constrained", ((OneToOne) value).isConstrained());
+			append("foreignKeyType", ((OneToOne) value).getForeignKeyType());
+		}
+		if(value instanceof Any) {
+			Any any = (Any) value;
+			append("identifierType", any.getIdentifierType());
+			append("metaType", any.getMetaType());
+			if(any.getMetaValues()!=null) {
+				@SuppressWarnings("unchecked") // a raw map in the mapping model
+				Map<Object, Object> metaValues = (Map<Object, Object>) any.getMetaValues();
+				append("metaValues", new TreeMap<Object, Object>(metaValues));
+			}
+		}
+	}
+
+	// what the other side of an association contributes to this side, not the whole entity
+	private void describeReferenced(String entityName) {
+		PersistentClass target = metadata==null || entityName==null ? null : metadata.getEntityBinding(entityName);
+		if(target==null) {
+			return;
+		}
+		describeColumns("referencedKeyColumn", target.getKey());
+		for (Iterator<?> iter = target.getPropertyClosureIterator(); iter.hasNext();) {
+			Property property = (Property) iter.next();
+			Value value = property.getValue();
+			if(value instanceof ToOne) {
+				append("referencedAssociation", property.getName());
+				describeColumns("referencedAssociationColumn", value);
+			}
+			else if(value instanceof Collection) {
+				Collection collection = (Collection) value;
+				append("referencedAssociation", property.getName());
+				append("referencedOneToMany", collection.isOneToMany());
+				describeColumns("referencedAssociationColumn", collection.getKey());
+				describeColumns("referencedElementColumn", collection.getElement());
+			}
+		}
+		append("endReferenced", entityName);
+	}
+
+	private void describeColumns(String kind, Value value) {
+		if(value==null) {
+			return;
+		}
+		for (Iterator<?> iter = value.getColumnIterator(); iter.hasNext();) {
+			append(kind, ((Selectable) iter.next()).getText());
+		}
+	}
+
+	private void describeCollection(Collection collection) {
+		append("role", collection.getRole());
+		append("type", collection.getTypeName());
+		append("inverse", collection.isInverse());
+		append("lazy", collection.isLazy());
+		append("extraLazy", collection.isExtraLazy());
+		append("orderBy", collection.getOrderBy());
+		append("manyToManyOrderBy", collection.getManyToManyOrdering());
+		append("where", collection.getWhere());
+		append("manyToManyWhere", collection.getManyToManyWhere());
+		append("sorted", collection.isSorted());
+		append("comparator", collection.getComparatorClassName());
+		append("cache", collection.getCacheConcurrencyStrategy());
+		append("batch", collection.getBatchSize());
+		append("fetch", collection.getFetchMode());
+		append("mappedBy", collection.getMappedByProperty());
+		describe(collection.getCollectionTable());
+		append("key", null);
+		describe(collection.getKey());
+		append("element", null);
+		describe(collection.getElement());
+		if(collection instanceof IndexedCollection) {
+			append("index", null);
+			describe(((IndexedCollection) collection).getIndex());
+		}
+		if(collection instanceof IdentifierCollection) {
+			append("identifier", null);
+			describe(((IdentifierCollection) collection).getIdentifier());
+		}
+	}
+
+	private void describe(Table table) {
+		if(table==null) {
+			append("table", null);
+			return;
+		}
+		append("table", table.getName());
+		append("catalog", table.getCatalog());
+		append("schema", table.getSchema());
+		append("comment", table.getComment());
+		append("subselect", table.getSubselect());
+	}
+
+	private void describeConstraint(String kind, Constraint constraint) {
+		append(kind, constraint.getName());
+		for (Iterator<?> iter = constraint.getColumnIterator(); iter.hasNext();) {
+			append(kind + "Column", ((Column) iter.next()).getName());
+		}
+	}
+
+	private void describe(Column column) {
+		append("column", column.getName());
+		append("sqlType", column.getSqlType());
+		append("length", column.getLength());
+		append("precision", column.getPrecision());
+		append("scale", column.getScale());
+		append("nullable", column.isNullable());
+		append("unique", column.isUnique());
+		append("default", column.getDefaultValue());
+		append("comment", column.getComment());
+		append("check", column.getCheckConstraint());
+		append("read", column.getCustomRead());
+		append("write", column.getCustomWrite());
+	}
+
+	private void describe(Map<?, ?> metaAttributes) {
+		if(metaAttributes==null) {
+			return;
+		}
+		for (Iterator<?> iter = new TreeMap<Object, Object>(metaAttributes).values().iterator(); iter.hasNext();) {
+			MetaAttribute metaAttribute = (MetaAttribute) iter.next();
+			append("meta " + metaAttribute.getName(), metaAttribute.getValues());
+		}
+	}
+
+	private void describe(String kind, Map<Object, Object> properties) {
+		if(properties!=null && !properties.isEmpty()) {
+			for (Iterator<Entry<Object, Object>> iter = new TreeMap<Object, Object>(properties).entrySet().iterator(); iter.hasNext();) {
+				Entry<Object, Object> entry = iter.next();
+				Object value = entry.getValue();
+				// values other than text, such as the identifier normalizer of generators, are the same from run to run by class only 
+				append(kind + " " + entry.getKey(), value==null || value instanceof String || value instanceof Number || value instanceof Boolean ? value : value.getClass().getName());
+			}
+		}
+	}
+
+	private void append(String key, Object value) {
+		sb.append(key).append('=').append(value).append('\n');
+	}
+}
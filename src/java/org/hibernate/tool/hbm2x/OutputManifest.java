@@ -0,0 +1,265 @@
+package org.hibernate.tool.hbm2x;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+
+/**
+ * Remembers a hash of the content generated for each file of an exporter in the output directory,
+ * so unchanged files are not written again and files no longer generated can be found.
+ *
+ * The hashes of all exporters writing to an output directory are kept in one manifest file there,
+ * keyed by the name of the exporter and the path of the file relative to the output directory.
+ * The hash is of the generated content and how it is formatted, not of what ends up on disk after formatting; what ends up on disk
+ * is kept as well, by size, time of modification and hash, so files changed on disk since are written again.
+ * Next to it the {@link ModelFingerprint} of the model a file was generated from can be kept,
+ * and the fingerprint of the tables it was reverse engineered from.
+ */
+public class OutputManifest {
+
+	public static final String MANIFEST_FILE = ".hibernatetool-manifest.properties";
+
+	private static final String MODEL_SUFFIX = "#model";
+
+	private static final String TABLES_SUFFIX = "#tables";
+
+	private static final String DISK_SUFFIX = "#disk";
+
+	private static final Charset UTF8 = Charset.forName("UTF-8");
+
+	private final File outputDirectory;
+	private final String owner;
+	private final Properties hashes = new Properties();
+	private final Set<String> produced = new HashSet<String>();
+
+	OutputManifest(File outputDirectory, String owner) {
+		this.outputDirectory = outputDirectory;
+		this.owner = owner;
+	}
+
+	/** Read the manifest of the output directory, if there is one. */
+	static OutputManifest load(File outputDirectory, String owner) {
+		OutputManifest manifest = new OutputManifest(outputDirectory, owner);
+		File file = new File(outputDirectory, MANIFEST_FILE);
+		if(file.exists()) {
+			InputStream is = null;
+			try {
+				is = new FileInputStream(file);
+				manifest.hashes.load(is);
+			}
+			catch (IOException e) {
+				throw new ExporterException("Could not read " + file, e);
+			}
+			finally {
+				close(is);
+			}
+		}
+		return manifest;
+	}
+
+	/**
+	 * Record the content generated for the destination.
+	 *
+	 * @return true if the destination exists, the content is the same as generated last time and the destination
+	 * is still as it was written then, or if the content is the same as the destination when nothing is known about it
+	 */
+	public synchronized boolean isUnchanged(File destination, String content) {
+		return isUnchanged(destination, content, "");
+	}
+
+	/**
+	 * Record the content generated for the destination, and how it is formatted before it is written.
+	 *
+	 * @param format how the content is formatted, see {@link ArtifactCollector#getFormat(String)}, so the destination
+	 * is written again when only that changed
+	 * @see #isUnchanged(File, String)
+	 */
+	public synchronized boolean isUnchanged(File destination, String content, String format) {
+		String key = key(destination);
+		String hash = format.length()==0 ? hash(content) : hash(format + "\n" + content);
+		produced.add(key);
+		Object previous = hashes.setProperty(key, hash);
+		if(!destination.exists()) {
+			return false;
+		}
+		if(previous==null || hashes.getProperty(key + DISK_SUFFIX)==null) {
+			return hash(content).equals(hash(read(destination)));
+		}
+		return hash.equals(previous) && isOnDiskAsWritten(key, destination);
+	}
+
+	/**
+	 * Record the fingerprint of the model the destination is generated from.
+	 *
+	 * @return true if the destination exists, was generated from the same model last time and is still as it was written then;
+	 * it then counts as generated
+	 * in this run without generating it again
+	 */
+	public synchronized boolean isModelUnchanged(File destination, String fingerprint) {
+		return isFingerprintUnchanged(destination, MODEL_SUFFIX, fingerprint);
+	}
+
+	/**
+	 * Record the fingerprint of the tables the destination is reverse engineered from.
+	 *
+	 * @return true if the destination exists, was generated from the same tables last time and is still as it was written then;
+	 * it then counts as generated
+	 * in this run without generating it again
+	 * @see org.hibernate.cfg.JDBCMetaDataConfiguration#getEntityFingerprints()
+	 */
+	public synchronized boolean isTablesUnchanged(File destination, String fingerprint) {
+		return isFingerprintUnchanged(destination, TABLES_SUFFIX, fingerprint);
+	}
+
+	private boolean isFingerprintUnchanged(File destination, String suffix, String fingerprint) {
+		String key = key(destination);
+		Object previous = hashes.setProperty(key + suffix, fingerprint);
+		if(fingerprint.equals(previous) && hashes.getProperty(key)!=null && destination.exists() && isOnDiskAsWritten(key, destination)) {
+			produced.add(key);
+			return true;
+		}
+		return false;
+	}
+
+	// compares the size and time of modification first, and the content only when those changed
+	private boolean isOnDiskAsWritten(String key, File destination) {
+		String written = hashes.getProperty(key + DISK_SUFFIX);
+		if(written==null) {
+			return false;
+		}
+		String stamp = stamp(destination);
+		if(written.startsWith(stamp)) {
+			return true;
+		}
+		return written.substring(written.lastIndexOf(':') + 1).equals(hash(read(destination)));
+	}
+
+	private static String stamp(File file) {
+		return file.length() + ":" + file.lastModified() + ":";
+	}
+
+	/** @return the files generated by the owner before but not in this run */
+	public synchronized List<File> getStaleFiles() {
+		List<File> stale = new ArrayList<File>();
+		String prefix = owner + "|";
+		for (Iterator<Object> iter = hashes.keySet().iterator(); iter.hasNext();) {
+			String key = (String) iter.next();
+			if(key.startsWith(prefix) && !key.endsWith(MODEL_SUFFIX) && !key.endsWith(TABLES_SUFFIX) && !key.endsWith(DISK_SUFFIX) 
+					&& !produced.contains(key)) {
+				stale.add(new File(outputDirectory, key.substring(prefix.length())));
+			}
+		}
+		return stale;
+	}
+
+	/** Forget a stale file, after it has been deleted. */
+	public synchronized void remove(File file) {
+		hashes.remove(key(file));
+		hashes.remove(key(file) + MODEL_SUFFIX);
+		hashes.remove(key(file) + TABLES_SUFFIX);
+		hashes.remove(key(file) + DISK_SUFFIX);
+	}
+
+	/** 
+	 * Write the manifest to the output directory, with what the files generated in this run are like on disk now.
+	 * Call it after the files are formatted, if they are.
+	 */
+	public synchronized void store() {
+		String prefix = owner + "|";
+		for (Iterator<String> iter = produced.iterator(); iter.hasNext();) {
+			String key = iter.next();
+			File destination = new File(outputDirectory, key.substring(prefix.length()));
+			if(!destination.exists()) {
+				hashes.remove(key + DISK_SUFFIX);
+			}
+			else {
+				String stamp = stamp(destination);
+				String written = hashes.getProperty(key + DISK_SUFFIX);
+				if(written==null || !written.startsWith(stamp)) {
+					hashes.setProperty(key + DISK_SUFFIX, stamp + hash(read(destination)));
+				}
+			}
+		}
+		File file = new File(outputDirectory, MANIFEST_FILE);
+		OutputStream os = null;
+		try {
+			os = new FileOutputStream(file);
+			hashes.store(os, "Hashes of the generated content, used by hibernatetool to skip unchanged files");
+		}
+		catch (IOException e) {
+			throw new ExporterException("Could not write " + file, e);
+		}
+		finally {
+			close(os);
+		}
+	}
+
+	private String key(File file) {
+		String path = outputDirectory.getAbsoluteFile().toURI().normalize()
+				.relativize(file.getAbsoluteFile().toURI().normalize()).getPath();
+		return owner + "|" + path;
+	}
+
+	static String hash(String content) {
+		try {
+			byte[] digest = MessageDigest.getInstance("SHA-1").digest(content.getBytes(UTF8));
+			StringBuffer sb = new StringBuffer(digest.length * 2);
+			for (int i = 0; i < digest.length; i++) {
+				sb.append(Character.forDigit((digest[i] >> 4) & 0xf, 16));
+				sb.append(Character.forDigit(digest[i] & 0xf, 16));
+			}
+			return sb.toString();
+		}
+		catch (NoSuchAlgorithmException e) {
+			throw new ExporterException("Could not hash generated content", e);
+		}
+	}
+
+	// read as written by the template producer, in the default encoding
+	static String read(File file) {
+		Reader reader = null;
+		try {
+			reader = new InputStreamReader(new FileInputStream(file));
+			StringWriter content = new StringWriter();
+			char[] buffer = new char[4096];
+			int read;
+			while((read = reader.read(buffer))>=0) {
+				content.write(buffer, 0, read);
+			}
+			return content.toString();
+		}
+		catch (IOException e) {
+			throw new ExporterException("Could not read " + file, e);
+		}
+		finally {
+			close(reader);
+		}
+	}
+
+	private static void close(Closeable closeable) {
+		if(closeable!=null) {
+			try {
+				closeable.close();
+			}
+			catch (IOException e) {
+				// nothing to do, the content was read or written already
+			}
+		}
+	}
+}
@@ -9,12 +9,14 @@ import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
-import java.io.Reader;
 import java.io.StringReader;
 import java.io.Writer;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -26,13 +28,19 @@ import freemarker.cache.MultiTemplateLoader;
 import freemarker.cache.TemplateLoader;
 import freemarker.template.Configuration;
 import freemarker.template.ObjectWrapper;
+import freemarker.template.SimpleCollection;
 import freemarker.template.SimpleDate;
 import freemarker.template.SimpleHash;
 import freemarker.template.Template;
+import freemarker.template.TemplateCollectionModel;
 import freemarker.template.TemplateDateModel;
 import freemarker.template.TemplateException;
+import freemarker.template.TemplateHashModel;
+import freemarker.template.TemplateHashModelEx;
 import freemarker.template.TemplateModel;
 import freemarker.template.TemplateModelException;
+import freemarker.template.TemplateModelIterator;
+import freemarker.template.TemplateScalarModel;
 
 
 /**
@@ -47,22 +55,46 @@ public class TemplateHelper {
     
 	static final Logger log = LoggerFactory.getLogger(TemplateHelper.class);
 	
+	/** Default number of compiled templates kept for {@link #processString(String, Writer)} */
+	public static final int DEFAULT_TEMPLATE_CACHE_SIZE = 256;
+	
     private String templatePrefix;
 	private File outputDirectory;
 
 	protected Configuration freeMarkerEngine;
 
 	protected SimpleHash context;
+	
+	private Engine engine;
+	
+	// the model of the template being processed by the current thread, for the strings it processes
+	private final ThreadLocal<TemplateHashModel> processedModel = new ThreadLocal<TemplateHashModel>();
 
 	public TemplateHelper() {
 		
 	}
 	
     public void init(File outputDirectory, String[] templatePaths) {
+    	init(outputDirectory, templatePaths, null);
+    }
+    
+    /**
+     * @param run the run to share the template engine for the template paths with, or null for an engine of this helper only
+     */
+    public void init(File outputDirectory, String[] templatePaths, ExporterRun run) {
         this.outputDirectory = outputDirectory;
         
         context = new SimpleHash(ObjectWrapper.BEANS_WRAPPER);
-    	freeMarkerEngine = new Configuration();
+        engine = run!=null ? run.getTemplateEngine(templatePaths) : createEngine(templatePaths);
+    	freeMarkerEngine = engine.configuration;
+    }
+    
+    static Engine createEngine(String[] templatePaths) {
+    	return new Engine(createConfiguration(templatePaths));
+    }
+    
+    private static Configuration createConfiguration(String[] templatePaths) {
+    	Configuration freeMarkerEngine = new Configuration();
         
         List<TemplateLoader> loaders = new ArrayList<TemplateLoader>();
         
@@ -79,10 +111,30 @@ public class TemplateHelper {
         		log.warn("template path" + file + " either does not exist or is not a directory");
         	}
 		}
-        loaders.add(new ClassTemplateLoader(this.getClass(),"/")); // the template names are like pojo/Somewhere so have to be a rooted classpathloader
+        loaders.add(new ClassTemplateLoader(TemplateHelper.class,"/")); // the template names are like pojo/Somewhere so have to be a rooted classpathloader
         
         freeMarkerEngine.setTemplateLoader(new MultiTemplateLoader((TemplateLoader[]) loaders.toArray(new TemplateLoader[loaders.size()])));
-        
+        return freeMarkerEngine;
+    }
+    
+    /** Set the number of compiled templates kept for {@link #processString(String, Writer)}, shared with all users of the template engine. */
+    public void setTemplateCacheSize(int size) {
+    	if(size<1) {
+    		throw new IllegalArgumentException("Template cache size must be at least 1, not " + size);
+    	}
+    	engine.setMaxSize(size);
+    }
+    
+    public long getTemplateCacheHits() {
+    	return engine.getHits();
+    }
+    
+    public long getTemplateCacheMisses() {
+    	return engine.getMisses();
+    }
+    
+    public long getTemplateCacheEvictions() {
+    	return engine.getEvictions();
     }
     
     
@@ -140,6 +192,9 @@ public class TemplateHelper {
     	} 	// else make the directory and any non-existent parent directories
     	else if ( !dir.exists() ) {
     		if ( !dir.mkdirs() ) {
+    			if ( dir.isDirectory() ) { // created by another thread rendering concurrently
+    				return;
+    			}
     			if(dir.getName().equals(".")) { // Workaround that Linux/JVM apparently can't handle mkdirs of File's with current dir references.
     				if(dir.getParentFile().mkdirs()) {
     					return;
@@ -158,13 +213,17 @@ public class TemplateHelper {
 		return context;
 	}
 
+	/** 
+	 * Process the string as a template, with the context of the template being processed by the current thread 
+	 * when called while processing one, else with the shared context. 
+	 */
 	public void processString(String template, Writer output) {
 	
 	    try {
-	    	Reader r = new StringReader(template);
-			Template t = new Template("unknown", r, freeMarkerEngine);
+			Template t = engine.getStringTemplate(template);
 		    
-			t.process(getContext(), output);           
+			TemplateHashModel model = processedModel.get();
+			t.process(model==null ? getContext() : model, output);           
 	    } 
 	    catch (IOException e) {
 	        throw new ExporterException("Error while processing template string", e);
@@ -212,13 +271,31 @@ public class TemplateHelper {
     
     /** look up the template named templateName via the paths and print the content to the output */
     public void processTemplate(String templateName, Writer output, String rootContext) {
+    	processTemplate(templateName, output, rootContext, getContext());
+    }
+    
+    /**
+     * look up the template named templateName via the paths and print the content to the output.
+     * The additionalContext is layered over the shared context without modifying it, thus
+     * several threads can process templates with their own additional context at the same time.
+     */
+    public void processTemplate(String templateName, Writer output, String rootContext, Map<String, Object> additionalContext) {
+    	SimpleHash layer = new SimpleHash(additionalContext, ObjectWrapper.BEANS_WRAPPER); // a copy, the map is not modified
+    	LayeredContext model = new LayeredContext(layer, getContext());
+    	layer.put("ctx", model);
+    	processTemplate(templateName, output, rootContext, model);
+    }
+    
+    private void processTemplate(String templateName, Writer output, String rootContext, TemplateHashModel model) {
     	if(rootContext == null) {
     		rootContext = "Unknown context";
     	}
     	
+    	TemplateHashModel outerModel = processedModel.get();
+    	processedModel.set(model);
     	try {
     		Template template = freeMarkerEngine.getTemplate(templateName);
-    		template.process(getContext(), output);            
+    		template.process(model, output);            
         } 
         catch (IOException e) {
             throw new ExporterException("Error while processing " + rootContext + " with template " + templateName, e);
@@ -228,7 +305,15 @@ public class TemplateHelper {
         }        
         catch (Exception e) {
         	throw new ExporterException("Error while processing " + rootContext + " with template " + templateName, e);
-        }    	
+        }
+        finally {
+        	if(outerModel==null) {
+        		processedModel.remove();
+        	} 
+        	else {
+        		processedModel.set(outerModel);
+        	}
+        }
     }
         
     
@@ -265,4 +350,112 @@ public class TemplateHelper {
 		}
     }
 
+    /** 
+     * Looks up the keys in the layer first and then in the root, the root is never modified. 
+     * Lists the keys of both, so <code>ctx?keys</code> works as on the shared context.
+     */
+    private static class LayeredContext implements TemplateHashModelEx {
+    	
+    	private final TemplateHashModelEx layer;
+    	private final TemplateHashModelEx root;
+    	
+    	LayeredContext(TemplateHashModelEx layer, TemplateHashModelEx root) {
+    		this.layer = layer;
+    		this.root = root;
+    	}
+    	
+    	public TemplateModel get(String key) throws TemplateModelException {
+    		TemplateModel model = layer.get(key);
+    		return model==null ? root.get(key) : model;
+    	}
+    	
+    	public boolean isEmpty() throws TemplateModelException {
+    		return layer.isEmpty() && root.isEmpty();
+    	}
+    	
+    	public int size() throws TemplateModelException {
+    		return getModels().size();
+    	}
+    	
+    	public TemplateCollectionModel keys() throws TemplateModelException {
+    		return new SimpleCollection(getModels().keySet(), ObjectWrapper.BEANS_WRAPPER);
+    	}
+    	
+    	public TemplateCollectionModel values() throws TemplateModelException {
+    		return new SimpleCollection(getModels().values(), ObjectWrapper.BEANS_WRAPPER);
+    	}
+    	
+    	private Map<String, TemplateModel> getModels() throws TemplateModelException {
+    		Map<String, TemplateModel> models = new LinkedHashMap<String, TemplateModel>();
+    		putModels(models, root);
+    		putModels(models, layer);
+    		return models;
+    	}
+    	
+    	private static void putModels(Map<String, TemplateModel> models, TemplateHashModelEx hash) throws TemplateModelException {
+    		TemplateModelIterator keys = hash.keys().iterator();
+    		while(keys.hasNext()) {
+    			String key = ((TemplateScalarModel) keys.next()).getAsString();
+    			models.put(key, hash.get(key));
+    		}
+    	}
+    }
+
+    /** 
+     * The FreeMarker configuration, which caches the templates by name itself and reloads them when their source is modified,
+     * and the templates compiled from strings, least recently used first. 
+     */
+    static class Engine {
+    	
+    	private final Configuration configuration;
+    	private final Map<String, Template> stringTemplates = new LinkedHashMap<String, Template>(16, 0.75f, true);
+    	private int maxSize = DEFAULT_TEMPLATE_CACHE_SIZE;
+    	private long hits;
+    	private long misses;
+    	private long evictions;
+    	
+    	Engine(Configuration configuration) {
+    		this.configuration = configuration;
+    	}
+    	
+    	synchronized Template getStringTemplate(String source) throws IOException {
+    		Template template = stringTemplates.get(source);
+    		if(template!=null) {
+    			hits++;
+    			return template;
+    		}
+    		misses++;
+    		template = new Template("unknown", new StringReader(source), configuration);
+    		stringTemplates.put(source, template);
+    		evict();
+    		return template;
+    	}
+    	
+    	synchronized void setMaxSize(int maxSize) {
+    		this.maxSize = maxSize;
+    		evict();
+    	}
+    	
+    	private void evict() {
+    		Iterator<String> iter = stringTemplates.keySet().iterator();
+    		while(stringTemplates.size()>maxSize) {
+    			iter.next();
+    			iter.remove();
+    			evictions++;
+    		}
+    	}
+    	
+    	synchronized long getHits() {
+    		return hits;
+    	}
+    	
+    	synchronized long getMisses() {
+    		return misses;
+    	}
+    	
+    	synchronized long getEvictions() {
+    		return evictions;
+    	}
+    }
+
 }
@@ -2,12 +2,11 @@ package org.hibernate.tool.hbm2x;
 
 import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileWriter;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.StringWriter;
-import java.util.Iterator;
 import java.util.Map;
-import java.util.Map.Entry;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -32,23 +31,40 @@ public class TemplateProducer {
 			log.warn("Generated output is empty. Skipped creation for file " + destination);
 			return;
 		}
-		FileWriter fileWriter = null;
+		OutputManifest manifest = ac.getOutputManifest();
+		if(manifest!=null && manifest.isUnchanged(destination, tempResult, ac.getFormat(fileType))) {
+			ac.addUnchangedFile(destination, fileType);
+			log.debug("Unchanged " + identifier + " at " + destination.getAbsolutePath() );
+			return;
+		}
+		// formatted in memory, so the file is written only once
+		boolean formatted = ac.isFormatted(fileType);
+		byte[] content = formatted ? ac.formatContent(tempResult, fileType, destination) : null;
+		if(content==null) {
+			content = tempResult.getBytes();
+		}
+		OutputStream outputStream = null;
 		try {
 			
 			th.ensureExistence( destination );    
 	     
-			ac.addFile(destination, fileType);
+			if(formatted) {
+				ac.addFormattedFile(destination, fileType);
+			} 
+			else {
+				ac.addFile(destination, fileType);
+			}
 			log.debug("Writing " + identifier + " to " + destination.getAbsolutePath() );
-			fileWriter = new FileWriter(destination);
-            fileWriter.write(tempResult);			
+			outputStream = new FileOutputStream(destination);
+			outputStream.write(content);			
 		} 
 		catch (Exception e) {
 		    throw new ExporterException("Error while writing result to file", e);	
 		} finally {
-			if(fileWriter!=null) {
+			if(outputStream!=null) {
 				try {
-					fileWriter.flush();
-					fileWriter.close();
+					outputStream.flush();
+					outputStream.close();
 				}
 				catch (IOException e) {
 					log.warn("Exception while flushing/closing " + destination,e);
@@ -60,13 +76,10 @@ public class TemplateProducer {
 
 
 	private String produceToString(Map<String,Object> additionalContext, String templateName, String rootContext) {
-		Map<String,Object> contextForFirstPass = additionalContext;
-		putInContext( th, contextForFirstPass );		
 		StringWriter tempWriter = new StringWriter();
 		BufferedWriter bw = new BufferedWriter(tempWriter);
-		// First run - writes to in-memory string
-		th.processTemplate(templateName, bw, rootContext);
-		removeFromContext( th, contextForFirstPass );
+		// First run - writes to in-memory string, the shared template context is left untouched
+		th.processTemplate(templateName, bw, rootContext, additionalContext);
 		try {
 			bw.flush();
 		}
@@ -76,22 +89,6 @@ public class TemplateProducer {
 		return tempWriter.toString();
 	}
 
-	private void removeFromContext(TemplateHelper templateHelper, Map<String,Object> context) {
-		Iterator<Entry<String,Object>> iterator = context.entrySet().iterator();
-		while ( iterator.hasNext() ) {
-			Entry<String,Object> element = iterator.next();
-			templateHelper.removeFromContext((String) element.getKey(), element.getValue());
-		}
-	}
-
-	private void putInContext(TemplateHelper templateHelper, Map<String,Object> context) {
-		Iterator<Entry<String,Object>> iterator = context.entrySet().iterator();
-		while ( iterator.hasNext() ) {
-			Entry<String,Object> element = iterator.next();
-			templateHelper.putInContext((String) element.getKey(), element.getValue());
-		}
-	}
-
 	public void produce(Map<String,Object> additionalContext, String templateName, File outputFile, String identifier) {
 		String fileType = outputFile.getName();
 		fileType = fileType.substring(fileType.indexOf('.')+1);
@@ -0,0 +1,241 @@
+package org.hibernate.tool.hbm2x;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Indents xml in one pass without parsing it into a tree, as a fast alternative to {@link XMLPrettyPrinter}
+ * for the well-formed output of templates.
+ *
+ * Every tag, comment, processing instruction and doctype goes on a line of its own, indented by its depth;
+ * elements with only text in them stay on one line. Attributes and text are kept as they are, except that
+ * whitespace around text is dropped.
+ */
+public final class XMLIndenter {
+
+	private static final String NEWLINE = System.getProperty( "line.separator" );
+
+	private final String xml;
+	private final String indent;
+	private final StringBuffer out;
+	private final List<String> elements = new ArrayList<String>();
+	private int pos = 0;
+	// the start tag of the current element was written, but nothing after it yet
+	private boolean open = false;
+	private String text = null;
+
+	private XMLIndenter(String xml, int indentSpaces) {
+		this.xml = xml;
+		this.out = new StringBuffer( xml.length() + xml.length() / 4 );
+		StringBuffer sb = new StringBuffer();
+		for (int i = 0; i < indentSpaces; i++) {
+			sb.append( ' ' );
+		}
+		this.indent = sb.toString();
+	}
+
+	/**
+	 * @return the indented xml, or null if it is not well-formed enough to be indented
+	 */
+	public static String indent(String xml, int indentSpaces) {
+		return new XMLIndenter( xml, indentSpaces ).indent();
+	}
+
+	private String indent() {
+		while ( pos < xml.length() ) {
+			int next = xml.indexOf( '<', pos );
+			if ( next < 0 ) {
+				next = xml.length();
+			}
+			if ( next > pos ) {
+				if ( !text( xml.substring( pos, next ).trim() ) ) {
+					return null;
+				}
+				pos = next;
+				continue;
+			}
+			boolean ok;
+			if ( xml.startsWith( "<!--", pos ) ) {
+				ok = markup( "-->" );
+			}
+			else if ( xml.startsWith( "<![CDATA[", pos ) ) {
+				int end = xml.indexOf( "]]>", pos );
+				ok = end >= 0 && text( xml.substring( pos, end + 3 ) );
+				pos = end + 3;
+			}
+			else if ( xml.startsWith( "<?", pos ) ) {
+				ok = markup( "?>" );
+			}
+			else if ( xml.startsWith( "<!", pos ) ) {
+				ok = doctype();
+			}
+			else if ( xml.startsWith( "</", pos ) ) {
+				ok = endTag();
+			}
+			else {
+				ok = startTag();
+			}
+			if ( !ok ) {
+				return null;
+			}
+		}
+		if ( !elements.isEmpty() ) {
+			return null;
+		}
+		return out.append( NEWLINE ).toString();
+	}
+
+	private boolean text(String content) {
+		if ( content.length() == 0 ) {
+			return true;
+		}
+		if ( elements.isEmpty() ) {
+			return false; // text outside of the root element
+		}
+		if ( open ) {
+			text = text == null ? content : text + content;
+		}
+		else {
+			line( content, elements.size() );
+		}
+		return true;
+	}
+
+	private boolean markup(String terminator) {
+		int end = xml.indexOf( terminator, pos );
+		if ( end < 0 ) {
+			return false;
+		}
+		flushOpen();
+		line( xml.substring( pos, end + terminator.length() ), elements.size() );
+		pos = end + terminator.length();
+		return true;
+	}
+
+	private boolean doctype() {
+		int bracket = 0;
+		char quote = 0;
+		for (int i = pos + 2; i < xml.length(); i++) {
+			char c = xml.charAt( i );
+			if ( quote != 0 ) {
+				if ( c == quote ) {
+					quote = 0;
+				}
+			}
+			else if ( c == '"' || c == '\'' ) {
+				quote = c;
+			}
+			else if ( c == '[' ) {
+				bracket++;
+			}
+			else if ( c == ']' ) {
+				bracket--;
+			}
+			else if ( c == '>' && bracket == 0 ) {
+				flushOpen();
+				line( xml.substring( pos, i + 1 ), elements.size() );
+				pos = i + 1;
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private boolean startTag() {
+		int end = tagEnd();
+		if ( end < 0 ) {
+			return false;
+		}
+		String tag = xml.substring( pos, end + 1 );
+		String name = name( tag, 1 );
+		if ( name.length() == 0 ) {
+			return false;
+		}
+		flushOpen();
+		line( tag, elements.size() );
+		pos = end + 1;
+		if ( !tag.endsWith( "/>" ) ) {
+			elements.add( name );
+			open = true;
+		}
+		return true;
+	}
+
+	private boolean endTag() {
+		int end = tagEnd();
+		if ( end < 0 || elements.isEmpty() ) {
+			return false;
+		}
+		String tag = xml.substring( pos, end + 1 );
+		String name = elements.remove( elements.size() - 1 );
+		if ( !name.equals( name( tag, 2 ) ) ) {
+			return false;
+		}
+		if ( open ) {
+			if ( text != null ) {
+				out.append( text );
+			}
+			out.append( tag );
+			open = false;
+			text = null;
+		}
+		else {
+			line( tag, elements.size() );
+		}
+		pos = end + 1;
+		return true;
+	}
+
+	// a child after text in the current element; the text goes on a line of its own
+	private void flushOpen() {
+		if ( open && text != null ) {
+			line( text, elements.size() );
+		}
+		open = false;
+		text = null;
+	}
+
+	private int tagEnd() {
+		char quote = 0;
+		for (int i = pos + 1; i < xml.length(); i++) {
+			char c = xml.charAt( i );
+			if ( quote != 0 ) {
+				if ( c == quote ) {
+					quote = 0;
+				}
+			}
+			else if ( c == '"' || c == '\'' ) {
+				quote = c;
+			}
+			else if ( c == '<' ) {
+				return -1;
+			}
+			else if ( c == '>' ) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private String name(String tag, int start) {
+		int end = start;
+		while ( end < tag.length() ) {
+			char c = tag.charAt( end );
+			if ( Character.isWhitespace( c ) || c == '/' || c == '>' ) {
+				break;
+			}
+			end++;
+		}
+		return tag.substring( start, end );
+	}
+
+	private void line(String content, int depth) {
+		if ( out.length() > 0 ) {
+			out.append( NEWLINE );
+		}
+		for (int i = 0; i < depth; i++) {
+			out.append( indent );
+		}
+		out.append( content );
+	}
+}
@@ -31,6 +31,8 @@ public final class XMLPrettyPrinter {
 
 	private static final Logger log = LoggerFactory.getLogger( XMLPrettyPrinter.class );
 
+	private static Properties tidyProperties;
+
 	private XMLPrettyPrinter() {
 		// noop
 	}
@@ -59,15 +61,50 @@ public final class XMLPrettyPrinter {
 			}
 		} ) );
 
-		Properties properties = new Properties();
-
-		properties.load( XMLPrettyPrinter.class
-				.getResourceAsStream( "jtidy.properties" ) );
-
-		tidy.setConfigurationFromProps( properties );
+		tidy.setConfigurationFromProps( getTidyProperties() );
 
 		return tidy;
 	}
+	
+	private static synchronized Properties getTidyProperties() throws IOException {
+		if ( tidyProperties == null ) {
+			Properties properties = new Properties();
+			InputStream is = XMLPrettyPrinter.class.getResourceAsStream( "jtidy.properties" );
+			try {
+				properties.load( is );
+			}
+			finally {
+				is.close();
+			}
+			tidyProperties = properties;
+		}
+		return tidyProperties;
+	}
+	
+	/**
+	 * Pretty print xml in memory, with a new default Tidy.
+	 * 
+	 * @return the pretty printed bytes, or null if Tidy found errors 
+	 */
+	public static byte[] prettyPrint(byte[] xml, String name) throws IOException {
+		return prettyPrint( getDefaultTidy(), xml, name );
+	}
+
+	/**
+	 * Pretty print xml in memory. Tidy is not thread safe but can be reused, one document after the other.
+	 * 
+	 * @return the pretty printed bytes, or null if Tidy found errors 
+	 */
+	public static byte[] prettyPrint(Tidy tidy, byte[] xml, String name) throws IOException {
+		log.debug( "XMLPrettyPrinting " + name );
+		ByteArrayOutputStream bos = new ByteArrayOutputStream( xml.length + xml.length / 4 );
+		tidy.parse( new ByteArrayInputStream( xml ), bos );
+		if ( tidy.getParseErrors() > 0 ) {
+			log.warn( "Tidy was unable to process " + name + ", " + tidy.getParseErrors() + " errors found." );
+			return null;
+		}
+		return bos.toByteArray();
+	}
 
 	public static void prettyPrintFiles(Tidy tidy, File[] inputfiles,
 			File[] outputfiles, boolean silent) throws IOException {
@@ -14,6 +14,8 @@ import org.hibernate.tool.hbm2x.pojo.POJOClass;
 /**
  * Class used to manage the files created during the documentation generation
  * process. This manager is needed to manage references between files.
+ * All files are known once it is constructed, so templates rendered concurrently
+ * can share it.
  * 
  * @author Ricardo C. Moral
  * @author <a href="mailto:abhayani@jboss.org">Amit Bhayani</a>
@@ -23,114 +25,114 @@ public class DocFileManager {
     /**
      * Root Documentation Folder.
      */
-    private DocFolder rootDocFolder;
+    private final DocFolder rootDocFolder;
 
     /**
      * The main index file for the documentation.
      */
-    private DocFile mainIndexDocFile;
+    private final DocFile mainIndexDocFile;
 
     /**
      * Folder for the utility files.
      */
-    private DocFolder assetsDocFolder;
+    private final DocFolder assetsDocFolder;
 
     /**
      * The Hibernate image.
      */
-    private DocFile hibernateImageDocFile;
+    private final DocFile hibernateImageDocFile;
     
     /**
      * The extends image.
      */
-    private DocFile extendsImageDocFile;
+    private final DocFile extendsImageDocFile;
 
     /**
      * The CSS stylesheet file.
      */
-    private DocFile cssStylesDocFile;
+    private final DocFile cssStylesDocFile;
 
     /**
      * Root Folder for the Table documentation.
      */
-    private DocFolder rootTablesDocFolder;
+    private final DocFolder rootTablesDocFolder;
     
     /**
      * Root Folder for Class doccumentation
      */
-    private DocFolder rootEntitiesDocFolder;
+    private final DocFolder rootEntitiesDocFolder;
     
     /**
      * Class index DocFile
      */
-    private DocFile classIndexDocFile;
+    private final DocFile classIndexDocFile;
     
     /**
      * Class Summary DocFile
      */
-    private DocFile entitySummaryDocFile;
+    private final DocFile entitySummaryDocFile;
     
     /**
      * All packages DocFile allpackages.html
      */
-    private DocFile allPackagesDocFile;
+    private final DocFile allPackagesDocFile;
     
     /**
      * All classes DocFile allclases.html
      */
-    private DocFile allEntitiesDocFile;
+    private final DocFile allEntitiesDocFile;
 
     /**
      * Table index DocFile.
      */
-    private DocFile tableIndexDocFile;
+    private final DocFile tableIndexDocFile;
 
     /**
      * Table summary DocFile.
      */
-    private DocFile tableSummaryDocFile;
+    private final DocFile tableSummaryDocFile;
 
     /**
      * All Schemas DocFile.
      */
-    private DocFile allSchemasDocFile;
+    private final DocFile allSchemasDocFile;
 
     /**
      * All Tables DocFile.
      */
-    private DocFile allTablesDocFile;
+    private final DocFile allTablesDocFile;
 
     /**
      * Map with the doc files for the tables. The keys are the Table objects and
      * the values are the DocFile instances.
      */
-    private Map<Table, DocFile> tableDocFiles = new HashMap<Table, DocFile>();
+    private final Map<Table, DocFile> tableDocFiles = new HashMap<Table, DocFile>();
     
     /**
      * Map with the DocFile for classes. The keys are the POJOClass objects and 
      * the values are the DocFile instances.
      */
-    private Map<POJOClass, DocFile> entityDocFiles = new HashMap<POJOClass, DocFile>();
+    private final Map<POJOClass, DocFile> entityDocFiles = new HashMap<POJOClass, DocFile>();
 
     /**
      * Map with the schema summary DocFiles keyed by Schema FQN.
      */
-    private Map<String, DocFile> schemaSummaryDocFiles = new HashMap<String, DocFile>();
+    private final Map<String, DocFile> schemaSummaryDocFiles = new HashMap<String, DocFile>();
     
     /**
      * Map with the package summary DocFiles keyed by package name
      */
-    private Map<String, DocFile> packageSummaryDocFiles = new HashMap<String, DocFile>();
+    private final Map<String, DocFile> packageSummaryDocFiles = new HashMap<String, DocFile>();
 
     /**
      * Map with the schema table lists DocFiles keyed by Schema FQN.
      */
-    private Map<String, DocFile> schemaTableListDocFiles = new HashMap<String, DocFile>();
+    private final Map<String, DocFile> schemaTableListDocFiles = new HashMap<String, DocFile>();
     
     /**
      * Map with package class lists DocFiles keyed by package name
      */
-    private Map<String, DocFile> packageEntityListDocFile = new HashMap<String, DocFile>();
+    private final Map<String, DocFile> packageEntityListDocFile = new HashMap<String, DocFile>();
 
     public DocFolder getRootDocFolder() {
 		return rootDocFolder;
@@ -4,6 +4,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -32,7 +33,12 @@ import org.hibernate.type.Type;
 
 /**
  * This helper class is used expose hibernate mapping information to the
- * templates.
+ * templates. It is built completely by the constructor and not changed
+ * afterwards, so templates rendered concurrently can share it.
+ * 
+ * The lookups templates make for every table, column and class are indexed
+ * by the constructor, so they neither search nor allocate; the lists returned
+ * are shared and can not be modified.
  * 
  * @author Ricardo C. Moral
  * @author <a href="mailto:abhayani@jboss.org">Amit Bhayani</a>
@@ -68,56 +74,96 @@ public final class DocHelper {
 	/**
 	 * Hibernate Configuration.
 	 */
-	private Configuration cfg;
+	private final Configuration cfg;
 
 	/**
 	 * Map with Tables keyed by Schema FQN. The keys are Strings and the values
 	 * are Lists of Tables
 	 */
-	private Map<String, List<Table>> tablesBySchema = 
+	private final Map<String, List<Table>> tablesBySchema = 
 			new HashMap<String, List<Table>>();
 
 	/**
 	 * Map with classes keyed by package name. PackageName is String key and
 	 * values are List of POJOClass
 	 */
-	private Map<String, List<POJOClass>> classesByPackage = 
+	private final Map<String, List<POJOClass>> classesByPackage = 
 			new HashMap<String, List<POJOClass>>();
 
 	/**
 	 * Lits of all POJOClass
 	 */
-	private List<POJOClass> classes = 
+	private final List<POJOClass> classes = 
 			new ArrayList<POJOClass>();
 
 	/**
 	 * Map where the keys are column names (tableFQN.column) and the values are
 	 * lists with the Value instances where those columns referenced.
 	 */
-	private Map<String, List<Value>> valuesByColumn = 
+	private final Map<String, List<Value>> valuesByColumn = 
 			new HashMap<String, List<Value>>();
 
 	/**
 	 * Holds intances of Property keyed by Value objects.
 	 */
-	private Map<Value, List<Property>> propsByValue = 
+	private final Map<Value, List<Property>> propsByValue = 
 			new HashMap<Value, List<Property>>();
 
+	/**
+	 * Properties mapped to each column of the tables, keyed by the Column
+	 * instances of the tables.
+	 */
+	private final Map<Column, List<Property>> propsByColumn = 
+			new IdentityHashMap<Column, List<Property>>();
+
+	/**
+	 * Sorted lists of classes keyed by package name.
+	 */
+	private final Map<String, List<POJOClass>> sortedClassesByPackage = 
+			new HashMap<String, List<POJOClass>>();
+
+	/**
+	 * Sorted list of all classes.
+	 */
+	private final List<POJOClass> sortedClasses;
+
+	/**
+	 * Sorted list of package names.
+	 */
+	private final List<String> packages;
+
+	/**
+	 * Sorted list of schema names.
+	 */
+	private final List<String> schemas;
+
+	/**
+	 * The super classes of each subclass, nearest first, keyed by the mapping 
+	 * the class is made from.
+	 */
+	private final Map<Object, List<POJOClass>> inheritanceHierarchies = 
+			new IdentityHashMap<Object, List<POJOClass>>();
+
 	/**
 	 * List with all the tables.
 	 */
-	private List<Table> tables = new ArrayList<Table>();
+	private final List<Table> tables = new ArrayList<Table>();
 
 	/**
 	 * Map that holds the Schema FQN for each Table. The keys are Table
 	 * instances and the values are Strings with the Schema FQN for that table.
 	 */
-	private Map<Table, String> tableSchemaNames = new HashMap<Table, String>();
+	private final Map<Table, String> tableSchemaNames = new HashMap<Table, String>();
 
 	/**
 	 * The Dialect.
 	 */
-	private Dialect dialect;
+	private final Dialect dialect;
+
+	/**
+	 * Gives the POJOClass of the entities and components.
+	 */
+	private final Cfg2JavaTool cfg2JavaTool;
 
 	/**
 	 * Constructor.
@@ -125,8 +171,20 @@ public final class DocHelper {
 	 * @param cfg
 	 *            Hibernate configuration.
 	 */
-	@SuppressWarnings("unchecked")
 	public DocHelper(Configuration cfg, Cfg2JavaTool cfg2JavaTool) {
+		this(cfg, cfg == null ? null : MetadataHelper.getMetadata(cfg), cfg2JavaTool);
+	}
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param cfg
+	 *            Hibernate configuration.
+	 * @param metadata
+	 *            the metadata of the configuration.
+	 */
+	@SuppressWarnings("unchecked")
+	public DocHelper(Configuration cfg, Metadata metadata, Cfg2JavaTool cfg2JavaTool) {
 
 		super();
 
@@ -135,6 +193,7 @@ public final class DocHelper {
 		}
 
 		this.cfg = cfg;
+		this.cfg2JavaTool = cfg2JavaTool;
 
 		Properties properties = cfg.getProperties();
 		StandardServiceRegistryBuilder builder = new StandardServiceRegistryBuilder();
@@ -148,7 +207,6 @@ public final class DocHelper {
 			defaultSchema = DEFAULT_NO_SCHEMA_NAME;
 		}
 		
-		Metadata metadata = MetadataHelper.getMetadata(cfg);		
 		Iterator<Table> tablesIter = metadata.collectTableMappings().iterator();
 
 		while (tablesIter.hasNext()) {
@@ -227,10 +285,71 @@ public final class DocHelper {
 		Iterator<Component> iterator = components.values().iterator();
 		while (iterator.hasNext()) {
 			Component component = (Component) iterator.next();
-			ComponentPOJOClass element =
-					new ComponentPOJOClass(component, cfg2JavaTool);
+			POJOClass element = cfg2JavaTool.getPOJOClass(component);
 			this.processClass(element);
 		}
+
+		buildIndexes();
+
+		sortedClasses = sorted(classes);
+		packages = sortedKeys(classesByPackage);
+		schemas = sortedKeys(tablesBySchema);
+	}
+
+	/**
+	 * Index the properties by column, the sorted classes by package and the 
+	 * inheritance hierarchies, and make the collections unmodifiable.
+	 */
+	private void buildIndexes() {
+		Iterator<Table> tablesIter = tables.iterator();
+		while (tablesIter.hasNext()) {
+			Table table = tablesIter.next();
+			Iterator<?> columns = table.getColumnIterator();
+			while (columns.hasNext()) {
+				Column column = (Column) columns.next();
+				propsByColumn.put(column, collectProperties(table, column));
+			}
+		}
+
+		Iterator<Map.Entry<String, List<POJOClass>>> packageIter = classesByPackage.entrySet().iterator();
+		while (packageIter.hasNext()) {
+			Map.Entry<String, List<POJOClass>> entry = packageIter.next();
+			sortedClassesByPackage.put(entry.getKey(), sorted(entry.getValue()));
+			entry.setValue(Collections.unmodifiableList(entry.getValue()));
+		}
+
+		Iterator<POJOClass> classIter = classes.iterator();
+		while (classIter.hasNext()) {
+			POJOClass pc = classIter.next();
+			if (pc.isSubclass()) {
+				inheritanceHierarchies.put(pc.getDecoratedObject(), 
+						Collections.unmodifiableList(collectInheritanceHierarchy(pc)));
+			}
+		}
+
+		Iterator<Map.Entry<String, List<Table>>> schemaIter = tablesBySchema.entrySet().iterator();
+		while (schemaIter.hasNext()) {
+			Map.Entry<String, List<Table>> entry = schemaIter.next();
+			entry.setValue(Collections.unmodifiableList(entry.getValue()));
+		}
+
+		Iterator<Map.Entry<String, List<Value>>> valuesIter = valuesByColumn.entrySet().iterator();
+		while (valuesIter.hasNext()) {
+			Map.Entry<String, List<Value>> entry = valuesIter.next();
+			entry.setValue(Collections.unmodifiableList(entry.getValue()));
+		}
+	}
+
+	private static List<POJOClass> sorted(List<POJOClass> classes) {
+		List<POJOClass> orderedClasses = new ArrayList<POJOClass>(classes);
+		Collections.sort(orderedClasses, POJOCLASS_COMPARATOR);
+		return Collections.unmodifiableList(orderedClasses);
+	}
+
+	private static List<String> sortedKeys(Map<String, ?> map) {
+		List<String> keys = new ArrayList<String>(map.keySet());
+		Collections.sort(keys);
+		return Collections.unmodifiableList(keys);
 	}
 
 	/**
@@ -271,7 +390,7 @@ public final class DocHelper {
 	 * @return a Map with the tables keyed by Schema Name.
 	 */
 	public Map<String, List<Table>> getTablesBySchema() {
-		return tablesBySchema;
+		return Collections.unmodifiableMap(tablesBySchema);
 	}
 
 	/**
@@ -281,7 +400,7 @@ public final class DocHelper {
 	 * @return
 	 */
 	public Map<String, List<POJOClass>> getClassesByPackage() {
-		return classesByPackage;
+		return Collections.unmodifiableMap(classesByPackage);
 	}
 
 	/**
@@ -290,8 +409,6 @@ public final class DocHelper {
 	 * @return a list with all the schemas.
 	 */
 	public List<String> getSchemas() {
-		List<String> schemas = new ArrayList<String>(tablesBySchema.keySet());
-		Collections.sort(schemas);
 		return schemas;
 	}
 
@@ -301,8 +418,6 @@ public final class DocHelper {
 	 * @return
 	 */
 	public List<String> getPackages() {
-		List<String> packages = new ArrayList<String>(classesByPackage.keySet());
-		Collections.sort(packages);
 		return packages;
 	}
 
@@ -327,10 +442,7 @@ public final class DocHelper {
 	 * @return a sorted List of POJOClass
 	 */
 	public List<POJOClass> getClasses(String packageName) {
-		List<POJOClass> clazzes = classesByPackage.get(packageName);
-		List<POJOClass> orderedClasses = new ArrayList<POJOClass>(clazzes);
-		Collections.sort(orderedClasses, POJOCLASS_COMPARATOR);
-		return orderedClasses;
+		return sortedClassesByPackage.get(packageName);
 	}
 
 	/**
@@ -339,7 +451,7 @@ public final class DocHelper {
 	 * @return all the tables.
 	 */
 	public List<Table> getTables() {
-		return tables;
+		return Collections.unmodifiableList(tables);
 	}
 
 	/**
@@ -348,9 +460,7 @@ public final class DocHelper {
 	 * @return
 	 */
 	public List<POJOClass> getClasses() {
-		List<POJOClass> orderedClasses = new ArrayList<POJOClass>(classes);
-		Collections.sort(orderedClasses, POJOCLASS_COMPARATOR);
-		return orderedClasses;
+		return sortedClasses;
 	}
 
 	/**
@@ -450,7 +560,7 @@ public final class DocHelper {
 		if (values != null) {
 			return values;
 		} else {
-			return new ArrayList<Value>();
+			return Collections.emptyList();
 		}
 	}
 
@@ -465,7 +575,15 @@ public final class DocHelper {
 	 * @return a list of properties.
 	 */
 	public List<Property> getProperties(Table table, Column column) {
+		List<Property> properties = propsByColumn.get(column);
+		if (properties != null) {
+			return properties;
+		}
+		// not a column of the tables
+		return collectProperties(table, column);
+	}
 
+	private List<Property> collectProperties(Table table, Column column) {
 		List<Property> result = new ArrayList<Property>();
 		Iterator<Value> values = getValues(table, column).iterator();
 		while (values.hasNext()) {
@@ -475,7 +593,7 @@ public final class DocHelper {
 				result.addAll(props);
 			}
 		}
-		return result;
+		return result.isEmpty() ? Collections.<Property>emptyList() : Collections.unmodifiableList(result);
 	}
 
 	/**
@@ -484,20 +602,28 @@ public final class DocHelper {
 	 * 
 	 * @param property
 	 *            Get ComponentPOJO corresponding to this Property
-	 * @return POJOClass for Property
+	 * @return POJOClass for Property, not shared with other calls since the
+	 *         pages rendering it import the types they show into it
 	 */
 	// TODO We haven't taken into account Array?
 	public POJOClass getComponentPOJO(Property property) {
 		if (property.getValue() instanceof Component) {
 			Component comp = (Component) property.getValue();
-			ComponentPOJOClass componentPOJOClass = new ComponentPOJOClass(comp, new Cfg2JavaTool());
-			return componentPOJOClass;
+			return new ComponentPOJOClass(comp, cfg2JavaTool);
 		} else {
 			return null;
 		}
 	}
 
 	public List<POJOClass> getInheritanceHierarchy(POJOClass pc) {
+		List<POJOClass> superClasses = inheritanceHierarchies.get(pc.getDecoratedObject());
+		if (superClasses != null) {
+			return superClasses;
+		}
+		return collectInheritanceHierarchy(pc);
+	}
+
+	private List<POJOClass> collectInheritanceHierarchy(POJOClass pc) {
 		if (pc.isSubclass()) {
 			List<POJOClass> superClasses = new ArrayList<POJOClass>();
 			POJOClass superClass = pc.getSuperClass();
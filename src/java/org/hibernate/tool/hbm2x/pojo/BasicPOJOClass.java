@@ -1,6 +1,7 @@
 package org.hibernate.tool.hbm2x.pojo;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
@@ -40,6 +41,10 @@ abstract public class BasicPOJOClass implements POJOClass, MetaAttributeConstant
 	protected MetaAttributable meta;
 	protected final Cfg2JavaTool c2j;
 	
+	// derived from the mapping when first asked for
+	private List<Property> toStringProperties;
+	private List<Property> equalsHashCodeProperties;
+	
 	public BasicPOJOClass(MetaAttributable ma, Cfg2JavaTool c2j) {
 		this.meta = ma;
 		this.c2j = c2j;		
@@ -52,16 +57,25 @@ abstract public class BasicPOJOClass implements POJOClass, MetaAttributeConstant
 	
 	// called by subclasses
 	protected void init() {
-		importContext = new ImportContextImpl(getPackageName());
+		resetImportContext();
+	}
+	
+	/**
+	 * Forget the types imported so far. The class is rendered once per file it is generated into, 
+	 * each time only the types used by that file should be imported. 
+	 */
+	public void resetImportContext() {
+		ImportContext context = new ImportContextImpl(getPackageName());
 		
 		MetaAttribute metaAttribute = meta.getMetaAttribute("extra-import");
 		if(metaAttribute!=null) {
 			Iterator<?> values = metaAttribute.getValues().iterator();
 			while ( values.hasNext() ) {
 				String element = (String) values.next();
-				importContext.importType(element);				
+				context.importType(element);				
 			}
 		}	
+		importContext = context;
 	}
 	
 	protected String getPackageDeclaration(String pkgName) {
@@ -279,19 +293,8 @@ abstract public class BasicPOJOClass implements POJOClass, MetaAttributeConstant
 		return getMetaAsString( "class-code", "\n" );
 	}
 	
-	private boolean needsEqualsHashCode(Iterator<?> iter) {
-		while ( iter.hasNext() ) {
-			Property element = (Property) iter.next();
-			if ( usePropertyInEquals( element ) ) {
-				return true;
-			}
-		}
-		return false;
-	}
-
 	public boolean needsEqualsHashCode() {
-		Iterator<Property> iter = getAllPropertiesIterator();
-		return needsEqualsHashCode( iter );
+		return !getEqualsHashCodeProperties().isEmpty();
 	}
 
 	public abstract String getExtends();
@@ -476,56 +479,47 @@ abstract public class BasicPOJOClass implements POJOClass, MetaAttributeConstant
 
 
 	public Iterator<Property> getToStringPropertiesIterator() {
-		Iterator<Property> iter = getAllPropertiesIterator();
-		return getToStringPropertiesIterator( iter );
+		return getToStringProperties().iterator();
 	}
 
-	private Iterator<Property> getToStringPropertiesIterator(Iterator<Property> iter) {
-		List<Property> properties = new ArrayList<Property>();
-
-		while ( iter.hasNext() ) {
-			Property element = (Property) iter.next();
-			if ( c2j.getMetaAsBool( element, "use-in-tostring" ) ) {
-				properties.add( element );
+	private synchronized List<Property> getToStringProperties() {
+		if ( toStringProperties == null ) {
+			List<Property> properties = new ArrayList<Property>();
+			Iterator<Property> iter = getAllPropertiesIterator();
+			while ( iter.hasNext() ) {
+				Property element = (Property) iter.next();
+				if ( c2j.getMetaAsBool( element, "use-in-tostring" ) ) {
+					properties.add( element );
+				}
 			}
+			toStringProperties = Collections.unmodifiableList( properties );
 		}
-
-		return properties.iterator();
+		return toStringProperties;
 	}
 
 	public Iterator<Property> getEqualsHashCodePropertiesIterator() {
-		Iterator<Property> iter = getAllPropertiesIterator();
-		return getEqualsHashCodePropertiesIterator(iter);
+		return getEqualsHashCodeProperties().iterator();
 	}
 
-	private Iterator<Property> getEqualsHashCodePropertiesIterator(Iterator<Property> iter) {
-		List<Property> properties = new ArrayList<Property>();
-
-		while ( iter.hasNext() ) {
-			Property element = (Property) iter.next();
-			if ( usePropertyInEquals(element) ) {
-				properties.add( element );
+	private synchronized List<Property> getEqualsHashCodeProperties() {
+		if ( equalsHashCodeProperties == null ) {
+			List<Property> properties = new ArrayList<Property>();
+			Iterator<Property> iter = getAllPropertiesIterator();
+			while ( iter.hasNext() ) {
+				Property element = (Property) iter.next();
+				if ( usePropertyInEquals(element) ) {
+					properties.add( element );
+				}
 			}
+			equalsHashCodeProperties = Collections.unmodifiableList( properties );
 		}
-
-		return properties.iterator();
+		return equalsHashCodeProperties;
 	}
 
 	public boolean needsToString() {
-		Iterator<Property> iter = getAllPropertiesIterator();
-		return needsToString( iter );
+		return !getToStringProperties().isEmpty();
 	}
 	
-	private boolean needsToString(Iterator<Property> iter) {
-		while ( iter.hasNext() ) {
-			Property element = (Property) iter.next();
-			if ( c2j.getMetaAsBool( element, "use-in-tostring" ) ) {
-				return true;
-			}
-		}
-		return false;
-	}
-
 	public boolean hasMetaAttribute(MetaAttributable pc, String attribute) {
 		return pc.getMetaAttribute( attribute ) != null;
 	}
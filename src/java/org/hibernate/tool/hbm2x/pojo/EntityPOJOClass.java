@@ -2,6 +2,7 @@ package org.hibernate.tool.hbm2x.pojo;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Enumeration;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -40,6 +41,13 @@ public class EntityPOJOClass extends BasicPOJOClass {
 
 	private PersistentClass clazz;
 
+	// derived from the mapping when first asked for
+	private List<Property> allProperties;
+	private List<Property> propertiesForFullConstructor;
+	private List<Property> propertyClosureForFullConstructor;
+	private List<Property> propertiesForMinimalConstructor;
+	private List<Property> propertyClosureForMinimalConstructor;
+
 	public EntityPOJOClass(PersistentClass clazz, Cfg2JavaTool cfg) {
 		super(clazz, cfg);
 		this.clazz = clazz;
@@ -121,12 +129,30 @@ public class EntityPOJOClass extends BasicPOJOClass {
 	}
 
 	public Iterator<Property> getAllPropertiesIterator() {
-		return getAllPropertiesIterator(clazz);
+		return getAllProperties().iterator();
 	}
 
+	private synchronized List<Property> getAllProperties() {
+		if ( allProperties == null ) {
+			List<Property> properties = new ArrayList<Property>();
+			Iterator<Property> iter = collectAllProperties(clazz);
+			while ( iter.hasNext() ) {
+				properties.add( iter.next() );
+			}
+			allProperties = Collections.unmodifiableList( properties );
+		}
+		return allProperties;
+	}
 
-	@SuppressWarnings("unchecked")
 	public Iterator<Property> getAllPropertiesIterator(PersistentClass pc) {
+		if ( pc == clazz ) {
+			return getAllPropertiesIterator();
+		}
+		return collectAllProperties(pc);
+	}
+
+	@SuppressWarnings("unchecked")
+	private Iterator<Property> collectAllProperties(PersistentClass pc) {
 		List<Property> properties = new ArrayList<Property>();
 		List<Iterator<Property>> iterators = new ArrayList<Iterator<Property>>();
 		if ( pc.getSuperclass() == null ) {
@@ -759,8 +785,13 @@ public class EntityPOJOClass extends BasicPOJOClass {
 		return clazz.getSuperclass()!=null;
 	}
 
-	public List<Property> getPropertyClosureForFullConstructor() {
-		return getPropertyClosureForFullConstructor(clazz);
+	public synchronized List<Property> getPropertyClosureForFullConstructor() {
+		if ( propertyClosureForFullConstructor == null ) {
+			List<Property> l = new ArrayList<Property>(getPropertyClosureForSuperclassFullConstructor());
+			l.addAll(getPropertiesForFullConstructor());
+			propertyClosureForFullConstructor = Collections.unmodifiableList( l );
+		}
+		return propertyClosureForFullConstructor;
 	}
 
 	protected List<Property> getPropertyClosureForFullConstructor(PersistentClass pc) {
@@ -769,8 +800,11 @@ public class EntityPOJOClass extends BasicPOJOClass {
 		return l;
 	}
 
-	public List<Property> getPropertiesForFullConstructor() {
-		return getPropertiesForFullConstructor(clazz);
+	public synchronized List<Property> getPropertiesForFullConstructor() {
+		if ( propertiesForFullConstructor == null ) {
+			propertiesForFullConstructor = Collections.unmodifiableList( getPropertiesForFullConstructor(clazz) );
+		}
+		return propertiesForFullConstructor;
 	}
 
 	protected List<Property> getPropertiesForFullConstructor(PersistentClass pc) {
@@ -816,7 +850,11 @@ public class EntityPOJOClass extends BasicPOJOClass {
 	}
 
 	public List<Property> getPropertyClosureForSuperclassFullConstructor() {
-		return getPropertyClosureForSuperclassFullConstructor(clazz);
+		if ( clazz.getSuperclass() == null ) {
+			return Collections.emptyList();
+		}
+		// the superclass remembers its closure, which is the same as computed by getPropertyClosureForSuperclassFullConstructor(clazz)
+		return getSuperClass().getPropertyClosureForFullConstructor();
 	}
 
 	public List<Property> getPropertyClosureForSuperclassFullConstructor(PersistentClass pc) {
@@ -833,8 +871,13 @@ public class EntityPOJOClass extends BasicPOJOClass {
 	}
 
 
-	public List<Property> getPropertyClosureForMinimalConstructor() {
-		return getPropertyClosureForMinimalConstructor(clazz);
+	public synchronized List<Property> getPropertyClosureForMinimalConstructor() {
+		if ( propertyClosureForMinimalConstructor == null ) {
+			List<Property> l = new ArrayList<Property>(getPropertyClosureForSuperclassMinimalConstructor());
+			l.addAll(getPropertiesForMinimalConstructor());
+			propertyClosureForMinimalConstructor = Collections.unmodifiableList( l );
+		}
+		return propertyClosureForMinimalConstructor;
 	}
 
 	protected List<Property> getPropertyClosureForMinimalConstructor(PersistentClass pc) {
@@ -843,8 +886,11 @@ public class EntityPOJOClass extends BasicPOJOClass {
 		return l;
 	}
 
-	public List<Property> getPropertiesForMinimalConstructor() {
-		return getPropertiesForMinimalConstructor(clazz);
+	public synchronized List<Property> getPropertiesForMinimalConstructor() {
+		if ( propertiesForMinimalConstructor == null ) {
+			propertiesForMinimalConstructor = Collections.unmodifiableList( getPropertiesForMinimalConstructor(clazz) );
+		}
+		return propertiesForMinimalConstructor;
 	}
 
 	protected List<Property> getPropertiesForMinimalConstructor(PersistentClass pc) {
@@ -881,7 +927,10 @@ public class EntityPOJOClass extends BasicPOJOClass {
 	}
 
 	public List<Property> getPropertyClosureForSuperclassMinimalConstructor() {
-		return getPropertyClosureForSuperclassMinConstructor(clazz);
+		if ( clazz.getSuperclass() == null ) {
+			return Collections.emptyList();
+		}
+		return getSuperClass().getPropertyClosureForMinimalConstructor();
 	}
 
 	protected List<Property> getPropertyClosureForSuperclassMinConstructor(PersistentClass pc) {
@@ -900,7 +949,7 @@ public class EntityPOJOClass extends BasicPOJOClass {
 	public POJOClass getSuperClass(){
 		if (!isSubclass())
 			return null;
-		return new EntityPOJOClass(clazz.getSuperclass(),c2j);
+		return c2j.getPOJOClass(clazz.getSuperclass());
 	}
 
 
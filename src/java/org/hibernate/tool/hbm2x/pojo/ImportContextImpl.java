@@ -49,7 +49,7 @@ public class ImportContextImpl implements ImportContext {
 	 * @param fqcn
 	 * @return import string
 	 */
-	public String importType(String fqcn) {
+	public synchronized String importType(String fqcn) {
 		String result = fqcn;		
 		
 		String additionalTypePart = null;
@@ -97,7 +97,7 @@ public class ImportContextImpl implements ImportContext {
 		return result;		
 	}
 	
-	public String staticImport(String fqcn, String member) {
+	public synchronized String staticImport(String fqcn, String member) {
 		String local = fqcn + "." + member;
 		imports.add(local);
 		staticImports.add(local);
@@ -127,7 +127,7 @@ public class ImportContextImpl implements ImportContext {
 		return "java.lang".equals( StringHelper.qualifier( className ) );
 	}
 
-	public String generateImports() {
+	public synchronized String generateImports() {
 		StringBuffer buf = new StringBuffer();
 		
 		for ( Iterator<String> imps = imports.iterator(); imps.hasNext(); ) {
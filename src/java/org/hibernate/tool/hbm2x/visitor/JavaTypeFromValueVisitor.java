@@ -10,7 +10,7 @@ import org.hibernate.mapping.Set;
 import org.hibernate.mapping.SimpleValue;
 import org.hibernate.mapping.ToOne;
 import org.hibernate.mapping.Value;
-import org.hibernate.tool.hbm2x.Cfg2JavaTool;
+import org.hibernate.tool.util.TypeHelper;
 import org.hibernate.type.CompositeCustomType;
 import org.hibernate.type.CustomType;
 import org.hibernate.type.Type;
@@ -88,7 +88,7 @@ public class JavaTypeFromValueVisitor extends DefaultValueVisitor {
 		if ( preferRawTypeNames && value.isSimpleValue() ) {
 			// this logic make us use the raw typename if it is something else than an Hibernate type. So, if user wrote long we will use long...if he meant to have a Long then he should use the java.lang.Long version.
 			String typename = ( (SimpleValue) value ).getTypeName();
-			if ( !Cfg2JavaTool.isNonPrimitiveTypeName( typename ) ) {
+			if ( !TypeHelper.isNonPrimitiveTypeName( typename ) ) {
 				String val = ( (SimpleValue) value ).getTypeName();
 				if(val!=null) return val; // val can be null when type is any 
 			}
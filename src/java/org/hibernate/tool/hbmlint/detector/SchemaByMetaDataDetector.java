@@ -1,7 +1,11 @@
 package org.hibernate.tool.hbmlint.detector;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Properties;
 import java.util.Set;
@@ -19,12 +23,14 @@ import org.hibernate.cfg.reveng.DefaultDatabaseCollector;
 import org.hibernate.cfg.reveng.DefaultReverseEngineeringStrategy;
 import org.hibernate.cfg.reveng.JDBCReader;
 import org.hibernate.cfg.reveng.JDBCToHibernateTypeHelper;
+import org.hibernate.cfg.reveng.ReverseEngineeringMetrics;
 import org.hibernate.cfg.reveng.SchemaSelection;
 import org.hibernate.dialect.Dialect;
 import org.hibernate.engine.jdbc.spi.JdbcServices;
 import org.hibernate.engine.spi.Mapping;
 import org.hibernate.id.IdentifierGenerator;
 import org.hibernate.id.PersistentIdentifierGenerator;
+import org.hibernate.internal.util.config.ConfigurationHelper;
 import org.hibernate.internal.util.StringHelper;
 import org.hibernate.mapping.Collection;
 import org.hibernate.mapping.Column;
@@ -39,6 +45,12 @@ import org.hibernate.tool.util.TableNameQualifier;
 
 public class SchemaByMetaDataDetector extends RelationalModelDetector {
 
+	/** 
+	 * Read all tables used by the mapping and its identifier generators with one read of the database 
+	 * instead of one read per table and generator. Defaults to false.
+	 */
+	public static final String BATCH_VALIDATION = "hibernatetool.hbmlint.schema.batch";
+
 	public String getName() {
 		return "schema";
 	}
@@ -55,6 +67,11 @@ public class SchemaByMetaDataDetector extends RelationalModelDetector {
 	
 	/** current table as read from the database */
 	Table currentDbTable = null;
+	
+	private boolean batchValidation;
+	
+	/** the tables read from the database in batch validation, null until read */
+	private List<Table> databaseTables;
 
 	public void initialize(Metadata metadata) {
 		super.initialize( metadata);
@@ -69,7 +86,14 @@ public class SchemaByMetaDataDetector extends RelationalModelDetector {
 				Environment.getProperties(),
 				tableSelector, 
 				serviceRegistry);
+		reader.setReadKeys(false); // only the tables and their columns are checked
 		dbc = new DefaultDatabaseCollector(reader.getMetaDataDialect());
+		batchValidation = ConfigurationHelper.getBoolean(BATCH_VALIDATION, Environment.getProperties(), false);
+	}
+	
+	public void setBatchValidation(boolean batchValidation) {
+		this.batchValidation = batchValidation;
+		databaseTables = null;
 	}
 
 	public void visit(IssueCollector collector) {
@@ -114,6 +138,10 @@ public class SchemaByMetaDataDetector extends RelationalModelDetector {
 	}
 
 	private boolean isTable(Object key) throws HibernateException {
+		if(batchValidation) {
+			SchemaSelection selection = getSchemaSelection(key);
+			return selection!=null && !findDatabaseTables(selection.getMatchCatalog(), selection.getMatchSchema(), selection.getMatchTable()).isEmpty();
+		}
 		// BIG HACK - should probably utilize the table cache before going to the jdbcreader :(
 		if(key instanceof String) {
 			String[] strings = StringHelper.split(".", (String) key);
@@ -140,9 +168,14 @@ public class SchemaByMetaDataDetector extends RelationalModelDetector {
 	public void visit(Table table, IssueCollector pc) {
 
 		if ( table.isPhysicalTable() ) {
-			setSchemaSelection( table );
-
-			List<?> list = reader.readDatabaseSchema( dbc, null, null );
+			List<?> list;
+			if(batchValidation) {
+				list = findDatabaseTables( table.getCatalog(), table.getSchema(), table.getName() );
+			} 
+			else {
+				setSchemaSelection( table );
+				list = reader.readDatabaseSchema( dbc, null, null );
+			}
 
 			if ( list.isEmpty() ) {
 				pc.reportIssue( new Issue( "SCHEMA_TABLE_MISSING",
@@ -212,6 +245,109 @@ public class SchemaByMetaDataDetector extends RelationalModelDetector {
 
 	}
 
+	/**
+	 * @return the tables read from the database that match the qualified name the same way reading them with a {@link SchemaSelection} would
+	 */
+	private List<Table> findDatabaseTables(String catalog, String schema, String name) {
+		List<Table> result = new ArrayList<Table>();
+		for (Iterator<Table> iter = getDatabaseTables().iterator(); iter.hasNext();) {
+			Table element = iter.next();
+			if(matches(name, element.getName()) && (catalog==null || matches(catalog, element.getCatalog())) && (schema==null || matches(schema, element.getSchema()))) {
+				result.add(element);
+			}
+		}
+		return result;
+	}
+	
+	private boolean matches(String expected, String actual) {
+		return actual!=null && expected.equalsIgnoreCase(actual);
+	}
+	
+	/**
+	 * Read the physical tables of the mapping and the tables that may back its identifier generators, all at once. 
+	 * The tables are selected with one selection per catalog and schema, of which only the tables with the names 
+	 * looked for are kept. 
+	 */
+	private List<Table> getDatabaseTables() {
+		if(databaseTables==null) {
+			Set<List<String>> qualifiers = new LinkedHashSet<List<String>>();
+			Set<String> names = new HashSet<String>();
+			for (Iterator<Table> iter = getMetadata().collectTableMappings().iterator(); iter.hasNext();) {
+				Table table = iter.next();
+				if(table.isPhysicalTable()) {
+					qualifiers.add( Arrays.asList( table.getCatalog(), table.getSchema() ) );
+					names.add( table.getName().toLowerCase() );
+				}
+			}
+			for (Iterator<IdentifierGenerator> iter = iterateGenerators(); iter.hasNext();) {
+				SchemaSelection selection = getSchemaSelection( ((PersistentIdentifierGenerator) iter.next()).generatorKey() );
+				if(selection!=null) {
+					qualifiers.add( Arrays.asList( selection.getMatchCatalog(), selection.getMatchSchema() ) );
+					names.add( selection.getMatchTable().toLowerCase() );
+				}
+			}
+			tableSelector.clearSchemaSelections();
+			List<List<String>> selected = new ArrayList<List<String>>(qualifiers);
+			for (int i = 0; i < selected.size(); i++) {
+				if(!isCoveredByOther(i, selected)) {
+					tableSelector.addSchemaSelection( new SchemaSelection( selected.get(i).get(0), selected.get(i).get(1) ) );
+				}
+			}
+			tableSelector.setTableNames(names);
+			try {
+				databaseTables = reader.readDatabaseSchema( new DefaultDatabaseCollector(reader.getMetaDataDialect()), null, null );
+			}
+			finally {
+				tableSelector.setTableNames(null);
+			}
+		}
+		return databaseTables;
+	}
+	
+	/**
+	 * @return true if another of the catalog and schema pairs selects all tables the pair at the index selects, 
+	 * a missing catalog or schema selecting any; of pairs selecting the same tables only the first is kept
+	 */
+	private boolean isCoveredByOther(int index, List<List<String>> qualifiers) {
+		List<String> qualifier = qualifiers.get(index);
+		for (int i = 0; i < qualifiers.size(); i++) {
+			List<String> other = qualifiers.get(i);
+			if(i!=index && covers(other, qualifier) && (i<index || !covers(qualifier, other))) {
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	private boolean covers(List<String> qualifier, List<String> other) {
+		return covers(qualifier.get(0), other.get(0)) && covers(qualifier.get(1), other.get(1));
+	}
+	
+	private boolean covers(String selected, String name) {
+		return selected==null || selected.equalsIgnoreCase(name);
+	}
+	
+	/** 
+	 * Measure the reads of the database, see {@link JDBCReader#setMetrics(ReverseEngineeringMetrics)}. 
+	 */
+	public void setMetrics(ReverseEngineeringMetrics metrics) {
+		reader.setMetrics(metrics);
+	}
+	
+	private SchemaSelection getSchemaSelection(Object generatorKey) {
+		if(generatorKey instanceof String) {
+			String[] strings = StringHelper.split(".", (String) generatorKey);
+			if(strings.length==1) {
+				return new SchemaSelection(null, null, strings[0]);
+			} else if(strings.length==3) {
+				return new SchemaSelection(strings[0], strings[1], strings[2]);
+			} else if (strings.length==2) {
+				return new SchemaSelection(null, strings[0], strings[1]);
+			}
+		}
+		return null;
+	}
+
 	/**
 	 * 
 	 * @param cfg 
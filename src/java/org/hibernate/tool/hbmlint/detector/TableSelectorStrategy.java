@@ -5,15 +5,20 @@ package org.hibernate.tool.hbmlint.detector;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 import org.hibernate.cfg.reveng.DelegatingReverseEngineeringStrategy;
 import org.hibernate.cfg.reveng.ReverseEngineeringStrategy;
 import org.hibernate.cfg.reveng.SchemaSelection;
+import org.hibernate.cfg.reveng.TableIdentifier;
 
 public class TableSelectorStrategy extends DelegatingReverseEngineeringStrategy {
 	
 	List<SchemaSelection> selections = new ArrayList<SchemaSelection>();
 	
+	/** lower case names of the tables to read, null to read all selected tables */
+	Set<String> tableNames;
+	
 	public TableSelectorStrategy(ReverseEngineeringStrategy res) {
 		super(res);
 	}
@@ -29,5 +34,21 @@ public class TableSelectorStrategy extends DelegatingReverseEngineeringStrategy
 	
 	public void addSchemaSelection(SchemaSelection selection) {
 		selections.add(selection);
-	}	
+	}
+	
+	/**
+	 * Only read the tables with one of the names, ignoring case, from the tables the schema selections find.
+	 * 
+	 * @param tableNames lower case table names, or null for all tables
+	 */
+	public void setTableNames(Set<String> tableNames) {
+		this.tableNames = tableNames;
+	}
+	
+	public boolean excludeTable(TableIdentifier ti) {
+		if(tableNames!=null && !tableNames.contains(ti.getName().toLowerCase())) {
+			return true;
+		}
+		return super.excludeTable(ti);
+	}
 }
\ No newline at end of file
@@ -41,21 +41,17 @@ public class JavaFormatter {
 	 * @return
 	 */
 	public boolean formatFile(File file) throws ExporterException {
-		IDocument doc = new Document();
 		try {
 			String contents = new String(org.eclipse.jdt.internal.compiler.util.Util.getFileCharContent(file, null));
-			doc.set(contents);
-			TextEdit edit = codeFormatter.format(CodeFormatter.K_COMPILATION_UNIT, contents, 0, contents.length(), 0, null);
-			if (edit != null) {
-				edit.apply(doc);
-			} else {				
+			String formatted = format(contents);
+			if (formatted == null) {
 				return false; // most likely syntax errror
 			}
 
 			// write the file
 			final BufferedWriter out = new BufferedWriter(new FileWriter(file));
 			try {
-				out.write(doc.get());
+				out.write(formatted);
 				out.flush();
 			} finally {
 				try {
@@ -72,4 +68,21 @@ public class JavaFormatter {
 		}
 	}
 
+	/**
+	 * Formats java source in memory. 
+	 * A formatter is not thread safe; use one per thread to format concurrently.
+	 * 
+	 * @param source the contents of a compilation unit
+	 * @return the formatted source, or null if the formatting could not finish because of errors in the input
+	 */
+	public String format(String source) throws BadLocationException {
+		TextEdit edit = codeFormatter.format(CodeFormatter.K_COMPILATION_UNIT, source, 0, source.length(), 0, null);
+		if (edit == null) {
+			return null;
+		}
+		IDocument doc = new Document(source);
+		edit.apply(doc);
+		return doc.get();
+	}
+
 }
@@ -3,6 +3,7 @@ package org.hibernate.tool.util;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.util.List;
 
 import org.hibernate.boot.Metadata;
 import org.hibernate.boot.MetadataSources;
@@ -13,12 +14,20 @@ import org.hibernate.cfg.Configuration;
 public class MetadataHelper {
 	
 	public static Metadata getMetadata(Configuration configuration) {
-		Metadata result = getMetadataFromMethod(configuration);
+		Metadata result = getConfiguredMetadata(configuration);
 		if (result == null) {
-			result = getMetadataFromField(configuration);
+			result = buildMetadata(configuration, null);
 		}
+		return result;
+	}
+	
+	/**
+	 * @return the metadata the configuration holds itself, or null if it has to be built from its metadata sources
+	 */
+	public static Metadata getConfiguredMetadata(Configuration configuration) {
+		Metadata result = getMetadataFromMethod(configuration);
 		if (result == null) {
-			result = buildFromMetadataSources(configuration);
+			result = getMetadataFromField(configuration);
 		}
 		return result;
 	}
@@ -41,11 +50,18 @@ public class MetadataHelper {
 		return result;
 	}
 	
-	private static Metadata buildFromMetadataSources(Configuration configuration) {
+	/**
+	 * Build the metadata from the metadata sources of the configuration.
+	 * @param registries where to add the service registry built for the metadata, for the caller to destroy, or null
+	 */
+	public static Metadata buildMetadata(Configuration configuration, List<StandardServiceRegistry> registries) {
 		MetadataSources metadataSources = getMetadataSources(configuration);
 		StandardServiceRegistryBuilder builder = configuration.getStandardServiceRegistryBuilder();
 		builder.applySettings(configuration.getProperties());
 		StandardServiceRegistry serviceRegistry = builder.build();
+		if (registries != null) {
+			registries.add(serviceRegistry);
+		}
 		return metadataSources.buildMetadata(serviceRegistry);
 	}
 	
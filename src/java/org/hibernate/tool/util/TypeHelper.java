@@ -0,0 +1,116 @@
+package org.hibernate.tool.util;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.hibernate.type.BasicTypeRegistry;
+import org.hibernate.type.PrimitiveType;
+import org.hibernate.type.Type;
+import org.hibernate.type.TypeFactory;
+import org.hibernate.type.TypeResolver;
+
+/**
+ * Resolves Hibernate type names for code generation, with one registry of the basic types
+ * and one type resolver shared by all exporters, instead of new ones for every lookup.
+ *
+ * The basic types never change, so the registry is shared for good. The java types of type
+ * names can depend on the classes visible to a run, so they are remembered only by the caller,
+ * see {@link #getJavaTypeName(String, Map)}. All methods can be called by several threads at the same time.
+ *
+ * This does not know the types contributed by a dialect or a configuration; use the type resolver
+ * of the metadata for those.
+ */
+public final class TypeHelper {
+
+	private static final Map<String,String> PRIMITIVES =
+			new HashMap<String,String>();
+
+	static {
+		PRIMITIVES.put( "char", "Character" );
+		PRIMITIVES.put( "byte", "Byte" );
+		PRIMITIVES.put( "short", "Short" );
+		PRIMITIVES.put( "int", "Integer" );
+		PRIMITIVES.put( "long", "Long" );
+		PRIMITIVES.put( "boolean", "Boolean" );
+		PRIMITIVES.put( "float", "Float" );
+		PRIMITIVES.put( "double", "Double" );
+	}
+
+	// only read after it is built
+	private static final BasicTypeRegistry BASIC_TYPES = new BasicTypeRegistry();
+
+	private static final TypeResolver TYPE_RESOLVER = new TypeResolver( BASIC_TYPES, new TypeFactory() );
+
+	// stands for a type name without a java type in the cache, which can not hold nulls
+	private static final String UNRESOLVED = new String( "<unresolved>" );
+
+	private TypeHelper() {
+	}
+
+	/** @return true if the name is the name of a primitive java type, such as int */
+	public static boolean isPrimitive(String typeName) {
+		return PRIMITIVES.containsKey( typeName );
+	}
+
+	/** @return the simple name of the wrapper class of a primitive java type, such as Integer for int, or null if it is not one */
+	public static String getWrapperName(String primitiveName) {
+		return PRIMITIVES.get( primitiveName );
+	}
+
+	/** @return true if the name is registered for one of the basic Hibernate types */
+	public static boolean isRegisteredType(String typeName) {
+		return typeName != null && BASIC_TYPES.getRegisteredType( typeName ) != null;
+	}
+
+	/** @return true if the name is not a primitive java type but is registered for a basic Hibernate type */
+	public static boolean isNonPrimitiveTypeName(String typeName) {
+		return !isPrimitive( typeName ) && isRegisteredType( typeName );
+	}
+
+	/**
+	 * @return the type for the name of a basic type, a type class or a java class, or null if it is none of those
+	 */
+	public static Type heuristicType(String typeName) {
+		return TYPE_RESOLVER.heuristicType( typeName );
+	}
+
+	/**
+	 * @return the name of the java class of the type for the name, the primitive class for primitive types,
+	 * or null if the name does not resolve to a type
+	 */
+	public static String getJavaTypeName(String typeName) {
+		return resolveJavaTypeName( typeName );
+	}
+
+	/**
+	 * @param javaTypeNames the java type names already resolved, by type name, where the result is added to;
+	 * it must allow concurrent access when shared by several threads
+	 * @see #getJavaTypeName(String)
+	 */
+	public static String getJavaTypeName(String typeName, Map<String, String> javaTypeNames) {
+		String result = javaTypeNames.get( typeName );
+		if ( result == null ) {
+			result = resolveJavaTypeName( typeName );
+			javaTypeNames.put( typeName, result == null ? UNRESOLVED : result );
+		}
+		return result == UNRESOLVED ? null : result;
+	}
+
+	private static String resolveJavaTypeName(String typeName) {
+		Type type;
+		try {
+			type = heuristicType( typeName );
+		}
+		catch (Throwable t) {
+			return null; // e.g. a type class that can not be loaded or instantiated
+		}
+		if ( type == null ) {
+			return null;
+		}
+		if ( type instanceof PrimitiveType ) {
+			return ( (PrimitiveType<?>) type ).getPrimitiveClass().getName();
+		}
+		return type.getReturnedClass().getName();
+	}
+
+}
@@ -127,6 +127,31 @@ public class JavaFormatterTest extends BuildFileTestCase {
 	}
 	
 	
+	public void testFormatInMemory() throws Exception {
+		
+		JavaFormatter formatter = new JavaFormatter(null);
+		assertEquals("public class A {\n\tint a;\n}", formatter.format("public   class A{int    a;}"));
+		assertNull("formatting should fail on syntax errors", formatter.format("public class A { int a"));
+	}
+	
+	public void testThreads() {
+		
+		executeTarget("prepare");
+		assertTrue(getLog(), checkLogWithoutExceptions());
+		
+		File jdk5file = new File(project.getProperty( "build.dir" ), "formatting/Simple5One.java5");
+		File jdkfile = new File(project.getProperty( "build.dir" ), "formatting/SimpleOne.java");
+		long jdk5before = jdk5file.lastModified();
+		long before = jdkfile.lastModified();	
+		waitASec();
+		executeTarget("threadstest");
+		assertTrue(getLog(), checkLogWithoutExceptions());
+		assertTrue(getLog(), getLog().indexOf("Java formatting of 3 files completed in ")>=0);
+		assertTrue("only the class file should be skipped", getLog().indexOf("Skipped 1 file(s).")>=0);
+		assertTrue(jdk5before<jdk5file.lastModified());
+		assertTrue(before<jdkfile.lastModified());
+	}
+	
 	public static Test suite() {
 		return new TestSuite(JavaFormatterTest.class);
 	}
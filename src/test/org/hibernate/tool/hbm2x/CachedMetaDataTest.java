@@ -4,11 +4,18 @@
  */
 package org.hibernate.tool.hbm2x;
 
+import java.io.File;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 
+import org.hibernate.JDBCException;
 import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.JDBCBinderException;
 import org.hibernate.cfg.JDBCMetaDataConfiguration;
 import org.hibernate.cfg.JDBCReaderFactory;
 import org.hibernate.cfg.MetaDataDialectFactory;
@@ -17,8 +24,10 @@ import org.hibernate.cfg.reveng.DefaultDatabaseCollector;
 import org.hibernate.cfg.reveng.DefaultReverseEngineeringStrategy;
 import org.hibernate.cfg.reveng.JDBCReader;
 import org.hibernate.cfg.reveng.ReverseEngineeringRuntimeInfo;
+import org.hibernate.cfg.reveng.SchemaSelection;
 import org.hibernate.cfg.reveng.dialect.CachedMetaDataDialect;
 import org.hibernate.cfg.reveng.dialect.MetaDataDialect;
+import org.hibernate.cfg.reveng.dialect.MetaDataSnapshot;
 import org.hibernate.engine.jdbc.spi.JdbcServices;
 import org.hibernate.mapping.Table;
 import org.hibernate.service.ServiceRegistry;
@@ -150,6 +159,92 @@ public class CachedMetaDataTest extends JDBCMetaDataBinderTestCase {
 		
 		
 		
+	}
+
+	public void testSnapshot() {
+		
+		StandardServiceRegistryBuilder builder = new StandardServiceRegistryBuilder();
+		ServiceRegistry serviceRegistry = builder.build();
+		
+		File snapshots = new File(getOutputDir(), "snapshots");
+		Properties properties = new Properties();
+		properties.putAll(cfg.getProperties());
+		properties.setProperty(JDBCReaderFactory.METADATA_SNAPSHOT, snapshots.getPath());
+		
+		JDBCReader reader = JDBCReaderFactory.newJDBCReader( properties, new DefaultReverseEngineeringStrategy(), serviceRegistry );
+		assertTrue(reader.getMetaDataDialect() instanceof CachedMetaDataDialect);
+		DatabaseCollector dc = new DefaultDatabaseCollector(reader.getMetaDataDialect());
+		reader.readDatabaseSchema( dc, null, null );
+		validate( dc );
+		assertEquals(1, snapshots.list().length);
+
+		MetaDataDialect realMetaData = MetaDataDialectFactory.createMetaDataDialect( serviceRegistry.getService(JdbcServices.class).getDialect(), cfg.getProperties() );
+		MockedMetaDataDialect mock = new MockedMetaDataDialect(realMetaData);
+		mock.setFailOnDelegateAccess(true);
+		CachedMetaDataDialect dialect = new CachedMetaDataDialect(mock, true);
+		
+		reader = JDBCReaderFactory.newJDBCReader( properties, new DefaultReverseEngineeringStrategy(), dialect, serviceRegistry );
+		reader.setMetaDataSnapshot(new MetaDataSnapshot(
+				dialect, 
+				snapshots, 
+				properties.getProperty(AvailableSettings.URL) + " " + properties.getProperty(AvailableSettings.USER), 
+				false, 
+				true));
+		dc = new DefaultDatabaseCollector(reader.getMetaDataDialect());
+		reader.readDatabaseSchema( dc, null, null );
+		validate( dc );
+		
+		try {
+			reader.readDatabaseSchema( new DefaultDatabaseCollector(reader.getMetaDataDialect()), null, "OTHER" );
+			fail("No snapshot for another schema selection when offline");
+		} 
+		catch (JDBCBinderException e) {
+			// expected
+		}
+	}
+
+	public void testSnapshotOfLongRemarks() {
+		StandardServiceRegistryBuilder builder = new StandardServiceRegistryBuilder();
+		ServiceRegistry serviceRegistry = builder.build();
+		MetaDataDialect realMetaData = MetaDataDialectFactory.createMetaDataDialect( serviceRegistry.getService(JdbcServices.class).getDialect(), cfg.getProperties() );
+
+		StringBuffer remarks = new StringBuffer();
+		while(remarks.length() < 70000) {
+			remarks.append("Remarks of more than 64K bytes \u00e6\u00f8\u00e5. ");
+		}
+		final Map<String, Object> row = new HashMap<String, Object>();
+		row.put("TABLE_NAME", "MASTER");
+		row.put("REMARKS", remarks.toString());
+		CachedMetaDataDialect dialect = new CachedMetaDataDialect(new MockedMetaDataDialect(realMetaData) {
+			public Iterator<Map<String, Object>> getTables(String catalog, String schema, String table) {
+				return Collections.singletonList(row).iterator();
+			}
+		});
+		Iterator<Map<String, Object>> tables = dialect.getTables(null, null, "MASTER");
+		while(tables.hasNext()) {
+			tables.next();
+		}
+		dialect.close(tables);
+
+		File snapshots = new File(getOutputDir(), "remarks");
+		List<SchemaSelection> selections = Collections.emptyList();
+		new MetaDataSnapshot(dialect, snapshots, "remarks", false, false).store(null, null, selections);
+
+		MockedMetaDataDialect mock = new MockedMetaDataDialect(realMetaData);
+		mock.setFailOnDelegateAccess(true);
+		CachedMetaDataDialect offline = new CachedMetaDataDialect(mock, true);
+		assertTrue(new MetaDataSnapshot(offline, snapshots, "remarks", false, true).load(null, null, selections));
+		tables = offline.getTables(null, null, "MASTER");
+		assertEquals(remarks.toString(), tables.next().get("REMARKS"));
+		assertFalse(tables.hasNext());
+
+		try {
+			offline.getColumns(null, null, "MASTER", null);
+			fail("Columns were not cached");
+		}
+		catch (JDBCException e) {
+			// expected, and tolerated like any failing meta data read
+		}
 	}
 
 	private void validate(DatabaseCollector dc) {
@@ -1,12 +1,25 @@
 package org.hibernate.tool.hbm2x;
 
+import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
 import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Properties;
 
+import org.hibernate.mapping.Column;
+import org.hibernate.mapping.Property;
+import org.hibernate.mapping.Table;
 import org.hibernate.tool.NonReflectiveTestCase;
+import org.hibernate.tool.hbm2x.doc.DocHelper;
+import org.hibernate.tool.hbm2x.pojo.POJOClass;
+import org.hibernate.tool.util.MetadataHelper;
 import org.w3c.tidy.Tidy;
 
 public class DocExporterTest extends NonReflectiveTestCase {
@@ -118,6 +131,210 @@ public class DocExporterTest extends NonReflectiveTestCase {
 		assertNotNull("Missing inherited property", findFirstString("firstName", entityFile));
 	}
 
+	public void testDotTimeout() {
+		DocExporter exporter = new DocExporter();
+		assertEquals(0, exporter.getDotTimeout());
+		exporter.getProperties().setProperty("dot.timeout", "30");
+		assertEquals(30, exporter.getDotTimeout());
+		exporter.getProperties().setProperty("dot.timeout", "half a minute");
+		assertEquals(0, exporter.getDotTimeout());
+	}
+
+	public void testDocHelperIndex() {
+		DocHelper docHelper = new DocHelper(getCfg(), new Cfg2JavaTool());
+		
+		List<POJOClass> classes = docHelper.getClasses();
+		assertSame(classes, docHelper.getClasses());
+		for (int i = 1; i < classes.size(); i++) {
+			assertTrue(classes.get(i-1).getDeclarationName().compareTo(classes.get(i).getDeclarationName())<=0);
+		}
+		try {
+			classes.remove(0);
+			fail("the index can not be modified");
+		}
+		catch (UnsupportedOperationException e) {
+			// expected
+		}
+		assertSame(docHelper.getPackages(), docHelper.getPackages());
+		assertSame(docHelper.getSchemas(), docHelper.getSchemas());
+		
+		Table customer = null;
+		for (Iterator<Table> iter = docHelper.getTables().iterator(); iter.hasNext();) {
+			Table table = iter.next();
+			if("Customer".equals(table.getName())) {
+				customer = table;
+			}
+		}
+		Column name = customer.getColumn(new Column("name"));
+		List<Property> properties = docHelper.getProperties(customer, name);
+		assertSame(properties, docHelper.getProperties(customer, name));
+		assertEquals(1, properties.size());
+		assertEquals("name", properties.get(0).getName());
+		assertEquals(properties, docHelper.getProperties(customer, new Column("name")));
+		
+		for (Iterator<POJOClass> iter = classes.iterator(); iter.hasNext();) {
+			POJOClass pc = iter.next();
+			if("UUser".equals(pc.getDeclarationName())) {
+				List<POJOClass> hierarchy = docHelper.getInheritanceHierarchy(pc);
+				assertSame(hierarchy, docHelper.getInheritanceHierarchy(pc));
+				assertEquals("UPerson", hierarchy.get(0).getDeclarationName());
+			}
+		}
+	}
+	
+	public void testComponentPOJOPerPage() {
+		DocHelper docHelper = new DocHelper(getCfg(), new Cfg2JavaTool());
+		Property address = MetadataHelper.getMetadata(getCfg()).getEntityBinding("org.hibernate.tool.hbm2x.Customer").getProperty("addressComponent");
+		
+		POJOClass page = docHelper.getComponentPOJO(address);
+		assertEquals("Date", page.importType("java.util.Date"));
+		assertEquals("java.sql.Date", page.importType("java.sql.Date"));
+		// what one page imported does not change the type names of the next
+		assertEquals("Date", docHelper.getComponentPOJO(address).importType("java.sql.Date"));
+	}
+	
+	public void testParallelAndIncremental() throws Exception {
+		Properties properties = new Properties();
+		properties.put( "jdk5", "true");
+		properties.setProperty(ExporterSettings.RENDER_THREADS, "3");
+		properties.setProperty(ExporterSettings.SKIP_UNCHANGED_MODELS, "true");
+		File docDir = new File(getOutputDir(), "parallel");
+		DocExporter exporter = new DocExporter(getCfg(), docDir);
+		exporter.setProperties(properties);
+		ArtifactCollector collector = new ArtifactCollector();
+		exporter.setArtifactCollector(collector);
+		exporter.start();
+		
+		String[] pages = { 
+				"index.html",
+				"tables/PUBLIC.PUBLIC/Customer.html", 
+				"tables/PUBLIC.CROWN/CROWN_USERS.html",
+				"entities/org/hibernate/tool/hbm2x/Customer.html",
+				"entities/org/hibernate/tool/hbm2x/UUser.html",
+				"entities/allentities.html" };
+		for (int i = 0; i < pages.length; i++) {
+			assertEquals(pages[i], readLines(new File(getOutputDir(), pages[i])), readLines(new File(docDir, pages[i])));
+		}
+		int pageCount = collector.getFileCount("html");
+		
+		collector = new ArtifactCollector();
+		exporter = new DocExporter(getCfg(), docDir);
+		exporter.setProperties(properties);
+		exporter.setArtifactCollector(collector);
+		exporter.start();
+		assertEquals(pageCount, collector.getFileCount("html"));
+		File[] files = collector.getFiles("html");
+		for (int i = 0; i < files.length; i++) {
+			assertTrue(files[i] + " is not written again", collector.isUnchanged(files[i]));
+		}
+		Properties manifest = new Properties();
+		FileInputStream is = new FileInputStream(new File(docDir, OutputManifest.MANIFEST_FILE));
+		manifest.load(is);
+		is.close();
+		assertNotNull("the pages of tables and entities are skipped by their model", 
+				manifest.getProperty("hbm2doc|tables/PUBLIC.PUBLIC/Customer.html#model"));
+		assertNotNull(manifest.getProperty("hbm2doc|entities/org/hibernate/tool/hbm2x/UUser.html#model"));
+		assertNull(manifest.getProperty("hbm2doc|entities/allentities.html#model"));
+		assertNotNull(manifest.getProperty("hbm2doc|entities/allentities.html"));
+		for (int i = 0; i < pages.length; i++) {
+			assertEquals(pages[i], readLines(new File(getOutputDir(), pages[i])), readLines(new File(docDir, pages[i])));
+		}
+	}
+	
+	public void testEntityPageFollowsAssociatedTypes() {
+		Properties properties = new Properties();
+		properties.put( "jdk5", "true");
+		properties.setProperty(ExporterSettings.SKIP_UNCHANGED_MODELS, "true");
+		File docDir = new File(getOutputDir(), "associated");
+		DocExporter exporter = new DocExporter(getCfg(), docDir);
+		exporter.setProperties(properties);
+		exporter.start();
+		File order = new File(docDir, "entities/org/hibernate/tool/hbm2x/Order.html");
+		assertNull(findFirstString("OrderLine", order));
+		
+		ExporterRun run = new ExporterRun();
+		try {
+			// the line items of an order are shown by the class of the line items
+			run.getMetadata(getCfg()).getEntityBinding("org.hibernate.tool.hbm2x.LineItem").setClassName("org.hibernate.tool.hbm2x.OrderLine");
+			ArtifactCollector collector = new ArtifactCollector();
+			exporter = new DocExporter(getCfg(), docDir);
+			exporter.setProperties(properties);
+			exporter.setArtifactCollector(collector);
+			exporter.setExporterRun(run);
+			exporter.start();
+			assertFalse(collector.isUnchanged(order));
+			assertTrue(collector.isUnchanged(new File(docDir, "entities/org/hibernate/tool/hbm2x/Product.html")));
+		} finally {
+			run.close();
+		}
+		assertNotNull(findFirstString("OrderLine", order));
+	}
+	
+	public void testDotSinglePassAndCache() throws Exception {
+		if(File.pathSeparator.equals(";")) {
+			return; // the fake dot is a shell script
+		}
+		File dir = new File(getOutputDir(), "dot");
+		dir.mkdirs();
+		File calls = new File(dir, "calls.txt");
+		File fakeDot = new File(dir, "fakedot.sh");
+		FileWriter writer = new FileWriter(fakeDot);
+		writer.write("#!/bin/sh\n" 
+				+ "echo \"$@\" >> " + calls.getAbsolutePath() + "\n"
+				+ "while [ $# -gt 0 ]; do\n"
+				+ "  if [ \"$1\" = \"-o\" ]; then echo '<map/>' > \"$2\"; shift; fi\n"
+				+ "  shift\n"
+				+ "done\n");
+		writer.close();
+		fakeDot.setExecutable(true);
+		
+		Properties properties = new Properties();
+		properties.setProperty("dot.executable", fakeDot.getAbsolutePath());
+		properties.setProperty("dot.singlepass", "true");
+		properties.setProperty("dot.cache", "true");
+		properties.setProperty("dot.timeout", "60");
+		File docDir = new File(dir, "doc");
+		DocExporter exporter = new DocExporter(getCfg(), docDir);
+		exporter.setProperties(properties);
+		exporter.start();
+		
+		assertFileAndExists(new File(docDir, "entities/entitygraph.png"));
+		assertFileAndExists(new File(docDir, "entities/entitygraph.svg"));
+		assertFileAndExists(new File(docDir, "tables/tablegraph.cmap"));
+		List<String> lines = readLines(calls);
+		assertEquals("one dot run per graph", 2, lines.size());
+		for (Iterator<String> iter = lines.iterator(); iter.hasNext();) {
+			String line = iter.next();
+			assertTrue(line, line.indexOf("-Tpng")>=0 && line.indexOf("-Tsvg")>=0 && line.indexOf("-Tcmap")>=0);
+		}
+		
+		exporter = new DocExporter(getCfg(), docDir);
+		exporter.setProperties(properties);
+		exporter.start();
+		assertEquals("unchanged graphs are not rendered again", 2, readLines(calls).size());
+		
+		new File(docDir, "tables/tablegraph.svg").delete();
+		exporter = new DocExporter(getCfg(), docDir);
+		exporter.setProperties(properties);
+		exporter.start();
+		assertEquals(3, readLines(calls).size());
+	}
+	
+	private List<String> readLines(File file) throws IOException {
+		List<String> lines = new ArrayList<String>();
+		BufferedReader in = new BufferedReader(new FileReader(file));
+		try {
+			String line;
+			while((line = in.readLine())!=null) {
+				lines.add(line);
+			}
+		}
+		finally {
+			in.close();
+		}
+		return lines;
+	}
+
 	private void testHtml(final Tidy tidy, File dir) {
 		try {
 			tidy.parse( new FileInputStream(dir), (OutputStream)null );
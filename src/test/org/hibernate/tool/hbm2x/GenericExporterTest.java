@@ -7,11 +7,18 @@ package org.hibernate.tool.hbm2x;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
+import java.io.FileWriter;
 import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
 import java.util.Properties;
 
+import org.hibernate.boot.Metadata;
+import org.hibernate.mapping.Column;
+import org.hibernate.mapping.PersistentClass;
 import org.hibernate.tool.NonReflectiveTestCase;
 import org.hibernate.tool.Version;
+import org.hibernate.tool.util.MetadataHelper;
 
 /**
  * @author max
@@ -207,6 +214,258 @@ public class GenericExporterTest extends NonReflectiveTestCase {
 		
 	}
 	
+	public void testParallelGeneration() throws IOException {
+		GenericExporter serial = new GenericExporter();
+		serial.setConfiguration(getCfg());
+		serial.setOutputDirectory(getOutputDir());
+		serial.setTemplateName("generictemplates/pojo/generic-class.ftl");
+		serial.setFilePattern("{package-name}/generic{class-name}.txt");
+		serial.start();
+		
+		File[] files = serial.getArtifactCollector().getFiles("txt");
+		assertEquals(5, files.length);
+		String[] contents = new String[files.length];
+		for (int i = 0; i < files.length; i++) {
+			contents[i] = read(files[i]);
+			assertTrue(files[i].delete());
+		}
+		
+		GenericExporter parallel = new GenericExporter();
+		parallel.setConfiguration(getCfg());
+		parallel.setOutputDirectory(getOutputDir());
+		Properties p = new Properties();
+		p.setProperty(GenericExporter.RENDER_THREADS, "3");
+		parallel.setProperties(p);
+		parallel.setTemplateName("generictemplates/pojo/generic-class.ftl");
+		parallel.setFilePattern("{package-name}/generic{class-name}.txt");
+		parallel.start();
+		
+		assertEquals(Arrays.asList(files), Arrays.asList(parallel.getArtifactCollector().getFiles("txt")));
+		for (int i = 0; i < files.length; i++) {
+			assertEquals(contents[i], read(files[i]));
+		}
+		
+		parallel.setTemplateName("generictemplates/generic-exception.ftl");
+		parallel.setForEach("entity");
+		try {
+			parallel.start();
+			fail();
+		} catch(ExporterException e) {
+			assertTrue(e.getMessage().startsWith("Error while processing Entity:"));			
+		}
+	}
+	
+	public void testWriteChangedOnly() throws IOException {
+		Properties p = new Properties();
+		p.setProperty(ExporterSettings.WRITE_CHANGED_ONLY, "true");
+		
+		GenericExporter ge = createClassExporter(p);
+		ge.start();
+		assertEquals(5, ge.getArtifactCollector().getWrittenCount());
+		assertEquals(0, ge.getArtifactCollector().getUnchangedCount());
+		assertFileAndExists(new File(getOutputDir(), OutputManifest.MANIFEST_FILE));
+		
+		File article = new File(getOutputDir(), "org/hibernate/tool/hbm2x/genericArticle.txt");
+		assertTrue(article.setLastModified(10000));
+		ge = createClassExporter(p);
+		ge.start();
+		assertEquals(0, ge.getArtifactCollector().getWrittenCount());
+		assertEquals(5, ge.getArtifactCollector().getUnchangedCount());
+		assertEquals(5, ge.getArtifactCollector().getFileCount("txt"));
+		assertEquals(10000, article.lastModified());
+		
+		writeEdited(article);
+		ge = createClassExporter(p);
+		ge.start();
+		assertEquals(1, ge.getArtifactCollector().getWrittenCount());
+		assertEquals(4, ge.getArtifactCollector().getUnchangedCount());
+		assertFalse("edited".equals(read(article)));
+		
+		File address = new File(getOutputDir(), "genericUniversalAddress.txt");
+		ge = createClassExporter(p);
+		ge.setForEach("entity");
+		ge.start();
+		assertEquals(1, ge.getArtifactCollector().getStaleFiles().length);
+		assertFileAndExists(address);
+		
+		p.setProperty(ExporterSettings.DELETE_STALE, "true");
+		ge = createClassExporter(p);
+		ge.setForEach("entity");
+		ge.start();
+		assertEquals(address, ge.getArtifactCollector().getStaleFiles()[0]);
+		assertFalse(address.exists());
+		
+		ge = createClassExporter(p);
+		ge.setForEach("entity");
+		ge.start();
+		assertEquals(0, ge.getArtifactCollector().getStaleFiles().length);
+		assertEquals(4, ge.getArtifactCollector().getUnchangedCount());
+	}
+	
+	public void testSkipUnchangedModels() throws IOException {
+		Properties p = new Properties();
+		p.setProperty(ExporterSettings.SKIP_UNCHANGED_MODELS, "true");
+		p.setProperty("proptest", "A value");
+		
+		GenericExporter ge = createClassExporter(p);
+		ge.start();
+		assertEquals(5, ge.getArtifactCollector().getWrittenCount());
+		
+		File article = new File(getOutputDir(), "org/hibernate/tool/hbm2x/genericArticle.txt");
+		assertTrue(article.setLastModified(10000));
+		ge = createClassExporter(p);
+		ge.start();
+		assertEquals(0, ge.getArtifactCollector().getWrittenCount());
+		assertEquals(5, ge.getArtifactCollector().getUnchangedCount());
+		
+		writeEdited(article);
+		ge = createClassExporter(p);
+		ge.start();
+		assertEquals(1, ge.getArtifactCollector().getWrittenCount());
+		assertEquals(4, ge.getArtifactCollector().getUnchangedCount());
+		assertFalse("edited".equals(read(article)));
+		
+		p.setProperty("proptest", "Another value");
+		ge = createClassExporter(p);
+		ge.start();
+		assertEquals(5, ge.getArtifactCollector().getWrittenCount());
+		assertEquals("proptest=Another value", findFirstString("proptest", article));
+	}
+	
+	public void testModelFingerprint() {
+		ExporterRun run = new ExporterRun();
+		try {
+			Metadata metadata = run.getMetadata(getCfg());
+			PersistentClass article = metadata.getEntityBinding("org.hibernate.tool.hbm2x.Article");
+			Cfg2JavaTool c2j = new Cfg2JavaTool();
+			String fingerprint = ModelFingerprint.of(c2j.getPOJOClass(article), "", metadata);
+			assertEquals(fingerprint, ModelFingerprint.of(c2j.getPOJOClass(article), "", metadata));
+			assertFalse(fingerprint.equals(ModelFingerprint.of(c2j.getPOJOClass(article), "other", metadata)));
+			
+			((Column) article.getIdentifier().getColumnIterator().next()).setComment("changed");
+			assertFalse(fingerprint.equals(ModelFingerprint.of(c2j.getPOJOClass(article), "", metadata)));
+		} finally {
+			run.close();
+		}
+	}
+	
+	public void testTemplateCacheSize() {
+		Properties p = new Properties();
+		p.setProperty(ExporterSettings.TEMPLATE_CACHE_SIZE, "1");
+		GenericExporter ge = createClassExporter(p);
+		ge.start();
+		assertEquals(5, ge.getArtifactCollector().getWrittenCount());
+		
+		p.setProperty(ExporterSettings.TEMPLATE_CACHE_SIZE, "none");
+		try {
+			createClassExporter(p).start();
+			fail();
+		} catch(ExporterException e) {
+			assertTrue(e.getMessage().startsWith(ExporterSettings.TEMPLATE_CACHE_SIZE));
+		}
+	}
+	
+	public void testModelFingerprintOfInverseSide() {
+		Properties p = new Properties();
+		p.setProperty(ExporterSettings.SKIP_UNCHANGED_MODELS, "true");
+		p.setProperty("ejb3", "true");
+		p.setProperty("jdk5", "true");
+		POJOExporter exporter = new POJOExporter(getCfg(), getOutputDir());
+		exporter.setProperties(p);
+		exporter.start();
+		File author = new File(getOutputDir(), "org/hibernate/tool/hbm2x/Author.java");
+		assertEquals("@OneToMany(fetch=FetchType.LAZY, mappedBy=\"author\")", findFirstString("mappedBy", author).trim());
+		
+		exporter = new POJOExporter(getCfg(), getOutputDir());
+		exporter.setProperties(p);
+		exporter.start();
+		assertEquals(0, exporter.getArtifactCollector().getWrittenCount());
+		
+		ExporterRun run = new ExporterRun();
+		try {
+			// the articles of an author are mapped by the author property of the article
+			Metadata metadata = run.getMetadata(getCfg());
+			metadata.getEntityBinding("org.hibernate.tool.hbm2x.Article").getProperty("author").setName("writer");
+			exporter = new POJOExporter(getCfg(), getOutputDir());
+			exporter.setProperties(p);
+			exporter.setExporterRun(run);
+			exporter.start();
+		} finally {
+			run.close();
+		}
+		assertEquals("@OneToMany(fetch=FetchType.LAZY, mappedBy=\"writer\")", findFirstString("mappedBy", author).trim());
+	}
+	
+	private GenericExporter createClassExporter(Properties p) {
+		GenericExporter ge = new GenericExporter();
+		ge.setConfiguration(getCfg());
+		ge.setOutputDirectory(getOutputDir());
+		ge.setProperties(p);
+		ge.setTemplateName("generictemplates/pojo/generic-class.ftl");
+		ge.setFilePattern("{package-name}/generic{class-name}.txt");
+		return ge;
+	}
+	
+	public void testMetadataSharedInRun() {
+		assertNotSame(MetadataHelper.getMetadata(getCfg()), MetadataHelper.getMetadata(getCfg()));
+		
+		ExporterRun run = new ExporterRun();
+		try {
+			assertSame(run.getMetadata(getCfg()), run.getMetadata(getCfg()));
+			
+			GenericExporter ge = new GenericExporter();
+			ge.setConfiguration(getCfg());
+			ge.setOutputDirectory(getOutputDir());
+			ge.setTemplateName("generictemplates/pojo/generic-class.ftl");
+			ge.setFilePattern("{package-name}/generic{class-name}.txt");
+			ge.setExporterRun(run);
+			assertSame(run.getMetadata(getCfg()), ge.getMetadata());
+			ge.start();
+			assertSame(run, ge.getExporterRun());
+			
+			assertFileAndExists( new File( getOutputDir(), "org/hibernate/tool/hbm2x/genericArticle.txt" ) );
+			
+			GenericExporter unconfigured = new GenericExporter();
+			unconfigured.setExporterRun(run);
+			assertSame(unconfigured.getMetadata(), unconfigured.getMetadata());
+			assertSame(run.getMetadata(null), unconfigured.getMetadata());
+			assertTrue(unconfigured.getMetadata().getEntityBindings().isEmpty());
+		} finally {
+			run.close();
+		}
+		
+		try {
+			run.getMetadata(getCfg());
+			fail();
+		} catch(IllegalStateException e) {
+			// expected, the run is closed
+		}
+		
+		GenericExporter own = createClassExporter(new Properties());
+		own.start();
+		assertNull(own.getExporterRun()); // its own run is closed when it is done
+	}
+	
+	private void writeEdited(File file) throws IOException {
+		FileWriter writer = new FileWriter(file);
+		writer.write("edited");
+		writer.close();
+	}
+	
+	private String read(File file) throws IOException {
+		InputStream is = new FileInputStream(file);
+		try {
+			byte[] bytes = new byte[(int) file.length()];
+			int read = 0;
+			while(read<bytes.length) {
+				read += is.read(bytes, read, bytes.length - read);
+			}
+			return new String(bytes);
+		} finally {
+			is.close();
+		}
+	}
+	
 	protected String getBaseForMappings() {
 		return "org/hibernate/tool/hbm2x/";
 	}
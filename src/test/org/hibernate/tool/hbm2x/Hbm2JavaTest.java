@@ -5,11 +5,21 @@
 package org.hibernate.tool.hbm2x;
 
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Writer;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Properties;
 
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.formatter.DefaultCodeFormatterConstants;
 import org.hibernate.mapping.Component;
 import org.hibernate.mapping.MetaAttribute;
 import org.hibernate.mapping.PersistentClass;
@@ -22,6 +32,7 @@ import org.hibernate.tool.hbm2x.pojo.ImportContext;
 import org.hibernate.tool.hbm2x.pojo.ImportContextImpl;
 import org.hibernate.tool.hbm2x.pojo.NoopImportContext;
 import org.hibernate.tool.hbm2x.pojo.POJOClass;
+import org.hibernate.tool.ide.formatting.JavaFormatter;
 
 /**
  * @author max
@@ -116,6 +127,152 @@ public class Hbm2JavaTest extends NonReflectiveTestCase {
 				"LineItem.hbm.xml", "Product.hbm.xml", "HelloWorld.hbm.xml", "Train.hbm.xml", "Passenger.hbm.xml" };
 	}
 
+	public void testJavaFormat() throws Exception {
+		File formattedDir = new File( getOutputDir(), "formatted" );
+		Exporter exporter = new POJOExporter( getCfg(), formattedDir );
+		exporter.getProperties().setProperty( ExporterSettings.JAVA_FORMAT, "true" );
+		exporter.getProperties().setProperty( GenericExporter.RENDER_THREADS, "2" );
+		exporter.start();
+
+		File unformatted = new File( getOutputDir(), "org/hibernate/tool/hbm2x/Customer.java" );
+		File formatted = new File( formattedDir, "org/hibernate/tool/hbm2x/Customer.java" );
+		assertFalse( read( unformatted ).equals( read( formatted ) ) );
+		assertTrue( new JavaFormatter( null ).formatFile( unformatted ) );
+		assertEquals( withoutDate( read( unformatted ) ), withoutDate( read( formatted ) ) );
+	}
+
+	public void testJavaFormatSettings() throws Exception {
+		Properties settings = getFormatSettings();
+		File settingsFile = writeFormatSettings( settings );
+
+		File formattedDir = new File( getOutputDir(), "formatted" );
+		Exporter exporter = new POJOExporter( getCfg(), formattedDir );
+		exporter.getProperties().setProperty( ExporterSettings.JAVA_FORMAT, "true" );
+		exporter.getProperties().setProperty( ExporterSettings.JAVA_FORMAT_SETTINGS, settingsFile.getPath() );
+		exporter.start();
+
+		File unformatted = new File( getOutputDir(), "org/hibernate/tool/hbm2x/Customer.java" );
+		File formatted = new File( formattedDir, "org/hibernate/tool/hbm2x/Customer.java" );
+		assertTrue( read( formatted ).indexOf( '\t' ) < 0 );
+		assertTrue( new JavaFormatter( settings ).formatFile( unformatted ) );
+		assertEquals( withoutDate( read( unformatted ) ), withoutDate( read( formatted ) ) );
+	}
+
+	public void testJavaFormatSettingsInParallel() throws Exception {
+		File settingsFile = writeFormatSettings( getFormatSettings() );
+		File serialDir = new File( getOutputDir(), "serial" );
+		File parallelDir = new File( getOutputDir(), "parallel" );
+		File[] dirs = new File[] { serialDir, parallelDir };
+		for ( int i = 0; i < dirs.length; i++ ) {
+			Exporter exporter = new POJOExporter( getCfg(), dirs[i] );
+			exporter.getProperties().setProperty( ExporterSettings.JAVA_FORMAT, "true" );
+			exporter.getProperties().setProperty( ExporterSettings.JAVA_FORMAT_SETTINGS, settingsFile.getPath() );
+			exporter.getProperties().setProperty( GenericExporter.RENDER_THREADS, i == 0 ? "1" : "3" );
+			exporter.start();
+		}
+
+		File[] files = new File( serialDir, "org/hibernate/tool/hbm2x" ).listFiles();
+		assertTrue( files.length > 3 );
+		for ( int i = 0; i < files.length; i++ ) {
+			String serial = read( files[i] );
+			assertTrue( files[i].getName(), serial.indexOf( '\t' ) < 0 );
+			assertEquals( files[i].getName(), withoutDate( serial ),
+					withoutDate( read( new File( parallelDir, "org/hibernate/tool/hbm2x/" + files[i].getName() ) ) ) );
+		}
+	}
+
+	public void testWriteChangedOnlyFollowsFormat() throws Exception {
+		Properties settings = getFormatSettings();
+		File settingsFile = writeFormatSettings( settings );
+		File dir = new File( getOutputDir(), "changedonly" );
+		File customer = new File( dir, "org/hibernate/tool/hbm2x/Customer.java" );
+
+		GenericExporter exporter = createFormattingExporter( dir, settingsFile, "true" );
+		exporter.start();
+		assertTrue( exporter.getArtifactCollector().getWrittenCount() > 0 );
+		int count = exporter.getArtifactCollector().getFileCount( "java" );
+		assertTrue( read( customer ).indexOf( '\t' ) < 0 );
+
+		exporter = createFormattingExporter( dir, settingsFile, "true" );
+		exporter.start();
+		assertEquals( 0, exporter.getArtifactCollector().getWrittenCount() );
+
+		// only the content of the settings changed
+		settings.remove( DefaultCodeFormatterConstants.FORMATTER_TAB_CHAR );
+		writeFormatSettings( settings );
+		exporter = createFormattingExporter( dir, settingsFile, "true" );
+		exporter.start();
+		assertEquals( count, exporter.getArtifactCollector().getWrittenCount() );
+		assertTrue( read( customer ).indexOf( '\t' ) >= 0 );
+
+		exporter = createFormattingExporter( dir, settingsFile, "false" );
+		exporter.start();
+		assertEquals( count, exporter.getArtifactCollector().getWrittenCount() );
+	}
+
+	// a template without the date of generation, so the content is the same every time
+	private GenericExporter createFormattingExporter(File dir, File settingsFile, String javaFormat) throws IOException {
+		File templateDir = new File( getOutputDir(), "formattemplates" );
+		templateDir.mkdirs();
+		Writer writer = new FileWriter( new File( templateDir, "Simple.ftl" ) );
+		try {
+			writer.write( "package ${pojo.packageName};\npublic class ${pojo.declarationName} {\nint count;\n}\n" );
+		}
+		finally {
+			writer.close();
+		}
+		GenericExporter exporter = new GenericExporter( getCfg(), dir );
+		exporter.setTemplatePath( new String[] { templateDir.getPath() } );
+		exporter.setTemplateName( "Simple.ftl" );
+		exporter.setFilePattern( "{package-name}/{class-name}.java" );
+		exporter.setForEach( "entity" );
+		exporter.getProperties().setProperty( ExporterSettings.WRITE_CHANGED_ONLY, "true" );
+		exporter.getProperties().setProperty( ExporterSettings.JAVA_FORMAT, javaFormat );
+		exporter.getProperties().setProperty( ExporterSettings.JAVA_FORMAT_SETTINGS, settingsFile.getPath() );
+		return exporter;
+	}
+
+	private Properties getFormatSettings() {
+		Properties settings = new Properties();
+		settings.setProperty( JavaCore.COMPILER_SOURCE, "1.5" );
+		settings.setProperty( JavaCore.COMPILER_COMPLIANCE, "1.5" );
+		settings.setProperty( JavaCore.COMPILER_CODEGEN_TARGET_PLATFORM, "1.5" );
+		settings.setProperty( DefaultCodeFormatterConstants.FORMATTER_TAB_CHAR, JavaCore.SPACE );
+		return settings;
+	}
+
+	private File writeFormatSettings(Properties settings) throws IOException {
+		File settingsFile = new File( getOutputDir(), "formatter.properties" );
+		OutputStream os = new FileOutputStream( settingsFile );
+		try {
+			settings.store( os, null );
+		}
+		finally {
+			os.close();
+		}
+		return settingsFile;
+	}
+
+	// the files can be generated a second apart
+	private String withoutDate(String content) {
+		return content.replaceFirst( "Generated .* by Hibernate Tools", "Generated by Hibernate Tools" );
+	}
+
+	private String read(File file) throws IOException {
+		InputStream is = new FileInputStream( file );
+		try {
+			byte[] bytes = new byte[(int) file.length()];
+			int read = 0;
+			while ( read < bytes.length ) {
+				read += is.read( bytes, read, bytes.length - read );
+			}
+			return new String( bytes );
+		}
+		finally {
+			is.close();
+		}
+	}
+
 	public void testPackageName() {
 
 		Cfg2JavaTool c2j = new Cfg2JavaTool();
@@ -329,6 +486,37 @@ public class Hbm2JavaTest extends NonReflectiveTestCase {
 
 	}
 
+	public void testPOJOClassCache() {
+		Cfg2JavaTool c2j = new Cfg2JavaTool();
+
+		PersistentClass world = getMetadata().getEntityBinding( "HelloWorld" );
+		PersistentClass uni = getMetadata().getEntityBinding( "HelloUniverse" );
+		POJOClass pjc = c2j.getPOJOClass(uni);
+		assertSame( pjc, c2j.getPOJOClass(uni) );
+		assertSame( c2j.getPOJOClass(world), pjc.getSuperClass() );
+
+		List<Property> closure = pjc.getPropertyClosureForFullConstructor();
+		assertSame( closure, pjc.getPropertyClosureForFullConstructor() );
+		assertEquals( 6, closure.size() );
+		assertEquals( pjc.getSuperClass().getPropertiesForFullConstructor(), pjc.getPropertyClosureForSuperclassFullConstructor() );
+		try {
+			closure.clear();
+			fail();
+		}
+		catch (UnsupportedOperationException e) {
+			// expected, the list is shared
+		}
+
+		BasicPOJOClass basic = (BasicPOJOClass) pjc;
+		basic.importType( "java.util.Date" );
+		assertTrue( basic.generateImports().indexOf( "java.util.Date" ) >= 0 );
+		basic.resetImportContext();
+		assertEquals( -1, basic.generateImports().indexOf( "java.util.Date" ) );
+
+		c2j.clearCache();
+		assertNotSame( pjc, c2j.getPOJOClass(uni) );
+	}
+
 	public void testToString() {
 		Cfg2JavaTool c2j = new Cfg2JavaTool();
 
@@ -33,6 +33,8 @@ public class Hbm2XAllTests {
 		suite.addTestSuite(Hbm2JavaEjb3Test.class);
 		suite.addTestSuite(XMLPrettyPrinterTest.class);
 		suite.addTestSuite(GenericExporterTest.class);
+		suite.addTestSuite(TemplateHelperTest.class);
+		suite.addTestSuite(ReverseEngineeringMetricsTest.class);
 		suite.addTestSuite(Hbm2JavaTest.class);		
 		//$JUnit-END$
 		
@@ -0,0 +1,106 @@
+package org.hibernate.tool.hbm2x;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashSet;
+
+import org.hibernate.cfg.JDBCBinder;
+import org.hibernate.cfg.JDBCMetaDataConfiguration;
+import org.hibernate.tool.JDBCMetaDataBinderTestCase;
+
+public class IncrementalReverseEngineeringTest extends JDBCMetaDataBinderTestCase {
+
+	public void testOnlyChangedTablesAndTheirAssociationsAreDirty() throws Exception {
+		File fingerprints = new File(getOutputDir(), "fingerprints.properties");
+
+		JDBCMetaDataConfiguration configuration = readIncrementally(fingerprints);
+		assertEquals(new HashSet<String>(Arrays.asList("Master", "Child", "Item", "Tag")), configuration.getDirtyEntityNames());
+		assertFalse(fingerprints.exists());
+		configuration.storeTableFingerprints();
+		assertTrue(fingerprints.exists());
+
+		configuration = readIncrementally(fingerprints);
+		assertTrue(configuration.getDirtyEntityNames().isEmpty());
+
+		executeDDL(new String[] { "alter table child add column note varchar(20)" }, false);
+		configuration = readIncrementally(fingerprints);
+		assertEquals(new HashSet<String>(Arrays.asList("Master", "Child", "Item")), configuration.getDirtyEntityNames());
+
+		// not stored, so the change is reported again
+		configuration = readIncrementally(fingerprints);
+		assertEquals(new HashSet<String>(Arrays.asList("Master", "Child", "Item")), configuration.getDirtyEntityNames());
+
+		configuration.storeTableFingerprints();
+		configuration = readIncrementally(fingerprints);
+		assertTrue(configuration.getDirtyEntityNames().isEmpty());
+	}
+
+	public void testExportersRememberTheTablesOfTheirFiles() throws Exception {
+		File fingerprints = new File(getOutputDir(), "fingerprints.properties");
+		File output = new File(getOutputDir(), "pojo");
+
+		new POJOExporter(readIncrementally(fingerprints), output).start();
+		assertFileAndExists(new File(output, "Tag.java"));
+		assertFileAndExists(new File(output, "Child.java"));
+
+		// the fingerprints are not stored, the exporter remembers what it generated from
+		assertTrue(new File(output, "Tag.java").setLastModified(10000));
+		assertTrue(new File(output, "Child.java").setLastModified(10000));
+		executeDDL(new String[] { "alter table child add column note varchar(20)" }, false);
+		new POJOExporter(readIncrementally(fingerprints), output).start();
+		assertEquals(10000, new File(output, "Tag.java").lastModified());
+		assertFalse(10000==new File(output, "Child.java").lastModified());
+
+		// a file changed on disk is generated again, even from the same tables
+		write(new File(output, "Tag.java"), "edited");
+		new POJOExporter(readIncrementally(fingerprints), output).start();
+		assertNull(findFirstString("edited", new File(output, "Tag.java")));
+
+		assertTrue(new File(output, "Tag.java").delete());
+		new POJOExporter(readIncrementally(fingerprints), output).start();
+		assertFileAndExists(new File(output, "Tag.java"));
+
+		File other = new File(getOutputDir(), "other");
+		new POJOExporter(readIncrementally(fingerprints), other).start();
+		assertFileAndExists(new File(other, "Tag.java"));
+		assertFileAndExists(new File(other, "Child.java"));
+	}
+
+	public void testNotIncremental() {
+		assertNull(cfg.getDirtyEntityNames());
+	}
+
+	private void write(File file, String content) throws IOException {
+		FileWriter writer = new FileWriter(file);
+		writer.write(content);
+		writer.close();
+	}
+
+	private JDBCMetaDataConfiguration readIncrementally(File fingerprints) {
+		JDBCMetaDataConfiguration configuration = new JDBCMetaDataConfiguration();
+		configuration.setProperty(JDBCBinder.INCREMENTAL, fingerprints.getPath());
+		configuration.readFromJDBC();
+		return configuration;
+	}
+
+	protected String[] getCreateSQL() {
+		return new String[] {
+				"create table master ( id char not null, name varchar(20), primary key (id) )",
+				"create table child  ( childid char not null, masterref char, primary key (childid), foreign key (masterref) references master(id) )",
+				"create table item ( itemid integer not null, childref char not null, primary key (itemid), foreign key (childref) references child(childid) )",
+				"create table tag ( tagid integer not null, label varchar(20) not null, primary key (tagid) )",
+		};
+	}
+
+	protected String[] getDropSQL() {
+		return new String[]  {
+				"drop table item",
+				"drop table child",
+				"drop table master",
+				"drop table tag",
+		};
+	}
+
+}
@@ -0,0 +1,124 @@
+package org.hibernate.tool.hbm2x;
+
+import java.io.StringWriter;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.JDBCMetaDataConfiguration;
+import org.hibernate.cfg.JDBCReaderFactory;
+import org.hibernate.cfg.reveng.DefaultDatabaseCollector;
+import org.hibernate.cfg.reveng.DefaultReverseEngineeringStrategy;
+import org.hibernate.cfg.reveng.JDBCReader;
+import org.hibernate.cfg.reveng.ReverseEngineeringMetrics;
+import org.hibernate.cfg.reveng.ReverseEngineeringMetrics.Counters;
+import org.hibernate.cfg.reveng.ReverseEngineeringMetrics.Phase;
+import org.hibernate.cfg.reveng.dialect.JDBCMetaDataDialect;
+import org.hibernate.cfg.reveng.dialect.MetaDataDialect;
+import org.hibernate.cfg.reveng.dialect.MetaDataRecords.ColumnRecord;
+import org.hibernate.tool.JDBCMetaDataBinderTestCase;
+
+public class ReverseEngineeringMetricsTest extends JDBCMetaDataBinderTestCase {
+
+	public void testMetrics() throws Exception {
+		JDBCMetaDataConfiguration configuration = new JDBCMetaDataConfiguration();
+		configuration.setProperty(JDBCReaderFactory.METRICS, "true");
+		configuration.readFromJDBC();
+
+		ReverseEngineeringMetrics metrics = configuration.getReverseEngineeringMetrics();
+		assertNotNull(metrics);
+		Counters total = metrics.getTotal();
+		assertEquals(1, total.get(Phase.TABLES).getCalls());
+		assertEquals(3, total.get(Phase.TABLES).getRows());
+		assertEquals(4, total.get(Phase.COLUMNS).getRows());
+		assertEquals(3, total.get(Phase.FOREIGN_KEYS).getCalls());
+		assertEquals(1, total.get(Phase.FOREIGN_KEYS).getRows());
+		assertTrue(total.get(Phase.COLUMNS).getBytes()>0);
+		assertNotNull(total.get(Phase.BINDING));
+		assertNull(total.get(Phase.PREFETCH));
+
+		assertEquals(1, metrics.getSchemas().size());
+		Counters schema = metrics.getSchemas().values().iterator().next();
+		assertEquals(4, schema.get(Phase.COLUMNS).getRows());
+
+		assertEquals(3, metrics.getTables().size());
+		List<String> slowest = metrics.getSlowestTables(2);
+		assertEquals(2, slowest.size());
+		assertTrue(metrics.getTables().get(slowest.get(0)).getTotal().getTimeMillis()>=metrics.getTables().get(slowest.get(1)).getTotal().getTimeMillis());
+
+		StringWriter json = new StringWriter();
+		metrics.writeJson(json, 1);
+		assertTrue(json.toString().indexOf("\"foreign_keys\": { \"timeMillis\": ")>0);
+		assertTrue(json.toString().indexOf(slowest.get(0))>0);
+		assertTrue(json.toString().indexOf(slowest.get(1))<0);
+	}
+
+	public void testPrefetchedMetrics() {
+		JDBCMetaDataConfiguration configuration = new JDBCMetaDataConfiguration();
+		configuration.setProperty(JDBCReaderFactory.METRICS, "true");
+		configuration.setProperty(JDBCReaderFactory.PREFETCH_METADATA, "true");
+		configuration.readFromJDBC();
+
+		Counters total = configuration.getReverseEngineeringMetrics().getTotal();
+		assertTrue(total.get(Phase.PREFETCH).getCalls()>0);
+		assertTrue(total.get(Phase.PREFETCH).getRows()>=4);
+		assertTrue(total.get(Phase.PREFETCH).getBytes()>0);
+	}
+
+	public void testParallelMetrics() {
+		JDBCMetaDataConfiguration configuration = new JDBCMetaDataConfiguration();
+		configuration.setProperty(JDBCReaderFactory.METRICS, "true");
+		configuration.setProperty(JDBCReaderFactory.READER_THREADS, "2");
+		configuration.setProperty(AvailableSettings.POOL_SIZE, "3");
+		configuration.readFromJDBC();
+
+		ReverseEngineeringMetrics metrics = configuration.getReverseEngineeringMetrics();
+		assertTrue(metrics.getTotal().get(Phase.PREFETCH).getRows()>=4);
+		assertEquals(3, metrics.getTables().size());
+	}
+
+	public void testMetricsKeepTypedRead() {
+		final AtomicInteger typedReads = new AtomicInteger();
+		MetaDataDialect dialect = new JDBCMetaDataDialect() {
+			public Iterator<ColumnRecord> getColumnRecords(String catalog, String schema, String table, String column) {
+				typedReads.incrementAndGet();
+				return super.getColumnRecords(catalog, schema, table, column);
+			}
+		};
+		StandardServiceRegistry serviceRegistry = new StandardServiceRegistryBuilder().applySettings(cfg.getProperties()).build();
+		try {
+			JDBCReader reader = JDBCReaderFactory.newJDBCReader( cfg.getProperties(), new DefaultReverseEngineeringStrategy(), dialect, serviceRegistry );
+			reader.setMetrics(new ReverseEngineeringMetrics());
+			reader.readDatabaseSchema( new DefaultDatabaseCollector(dialect), null, null );
+			assertEquals(3, typedReads.get());
+			assertEquals(4, reader.getMetrics().getTotal().get(Phase.COLUMNS).getRows());
+		}
+		finally {
+			StandardServiceRegistryBuilder.destroy(serviceRegistry);
+		}
+	}
+
+	public void testNoMetrics() {
+		assertNull(cfg.getReverseEngineeringMetrics());
+	}
+
+	protected String[] getCreateSQL() {
+		return new String[] {
+				"create table master ( id char not null, primary key (id) )",
+				"create table child  ( childid char not null, masterref char, primary key (childid), foreign key (masterref) references master(id) )",
+				"create table tag ( tagid integer not null, primary key (tagid) )",
+		};
+	}
+
+	protected String[] getDropSQL() {
+		return new String[]  {
+				"drop table child",
+				"drop table master",
+				"drop table tag",
+		};
+	}
+
+}
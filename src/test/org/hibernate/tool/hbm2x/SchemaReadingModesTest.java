@@ -0,0 +1,188 @@
+package org.hibernate.tool.hbm2x;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeSet;
+
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.JDBCMetaDataConfiguration;
+import org.hibernate.cfg.JDBCReaderFactory;
+import org.hibernate.cfg.MetaDataDialectFactory;
+import org.hibernate.cfg.reveng.DatabaseCollector;
+import org.hibernate.cfg.reveng.DefaultDatabaseCollector;
+import org.hibernate.cfg.reveng.DefaultReverseEngineeringStrategy;
+import org.hibernate.cfg.reveng.JDBCReader;
+import org.hibernate.cfg.reveng.dialect.CachedMetaDataDialect;
+import org.hibernate.cfg.reveng.dialect.JDBCMetaDataDialect;
+import org.hibernate.cfg.reveng.dialect.MetaDataDialect;
+import org.hibernate.cfg.reveng.dialect.TypedMetaDataDialect;
+import org.hibernate.engine.jdbc.spi.JdbcServices;
+import org.hibernate.mapping.Column;
+import org.hibernate.mapping.ForeignKey;
+import org.hibernate.mapping.Index;
+import org.hibernate.mapping.Table;
+import org.hibernate.mapping.UniqueKey;
+import org.hibernate.tool.JDBCMetaDataBinderTestCase;
+
+public class SchemaReadingModesTest extends JDBCMetaDataBinderTestCase {
+
+	protected void configure(JDBCMetaDataConfiguration configuration) {
+		super.configure( configuration );
+	}
+
+	public void testParallelReadEqualsSerialRead() {
+		assertSameSchema(JDBCReaderFactory.READER_THREADS, "3");
+	}
+
+	public void testBatchedParallelReadEqualsSerialRead() {
+		assertSameSchema(JDBCReaderFactory.READER_THREADS, "3", JDBCReaderFactory.READER_BATCH_SIZE, "2");
+	}
+
+	public void testPrefetchedReadEqualsSerialRead() {
+		assertSameSchema(JDBCReaderFactory.PREFETCH_METADATA, "true");
+	}
+
+	public void testPrefetchedParallelReadEqualsSerialRead() {
+		assertSameSchema(JDBCReaderFactory.PREFETCH_METADATA, "true", JDBCReaderFactory.READER_THREADS, "3");
+	}
+
+	public void testMapBasedReadEqualsTypedRead() {
+		StandardServiceRegistry serviceRegistry = new StandardServiceRegistryBuilder().applySettings(cfg.getProperties()).build();
+		try {
+			JDBCReader typed = JDBCReaderFactory.newJDBCReader( cfg.getProperties(), new DefaultReverseEngineeringStrategy(), serviceRegistry );
+			assertTrue(typed.getMetaDataDialect() instanceof TypedMetaDataDialect);
+			MetaDataDialect mapBased = new CachedMetaDataDialect(MetaDataDialectFactory.createMetaDataDialect(
+					serviceRegistry.getService(JdbcServices.class).getDialect(), cfg.getProperties()));
+			assertFalse(mapBased instanceof TypedMetaDataDialect);
+			assertSameSchema(typed, JDBCReaderFactory.newJDBCReader( cfg.getProperties(), new DefaultReverseEngineeringStrategy(), mapBased, serviceRegistry ));
+		} 
+		finally {
+			StandardServiceRegistryBuilder.destroy(serviceRegistry);
+		}
+	}
+
+	public void testTypedReadKeepsCustomizedParts() {
+		StandardServiceRegistry serviceRegistry = new StandardServiceRegistryBuilder().applySettings(cfg.getProperties()).build();
+		try {
+			MetaDataDialect customized = new JDBCMetaDataDialect() {
+				protected void putTablePart(Map<String, Object> element, ResultSet tableRs) throws SQLException {
+					super.putTablePart(element, tableRs);
+					element.put("TABLE_CAT", null); // as the H2 dialect does for old versions
+				}
+			};
+			JDBCReader reader = JDBCReaderFactory.newJDBCReader( cfg.getProperties(), new DefaultReverseEngineeringStrategy(), customized, serviceRegistry );
+			List<Table> tables = reader.readDatabaseSchema( new DefaultDatabaseCollector(reader.getMetaDataDialect()), null, null );
+			assertEquals(5, tables.size());
+			for (Iterator<Table> iter = tables.iterator(); iter.hasNext();) {
+				assertNull(iter.next().getCatalog());
+			}
+		} 
+		finally {
+			StandardServiceRegistryBuilder.destroy(serviceRegistry);
+		}
+	}
+
+	private void assertSameSchema(String... settings) {
+		Properties properties = new Properties();
+		properties.putAll(cfg.getProperties());
+		properties.setProperty(AvailableSettings.POOL_SIZE, "4");
+		StandardServiceRegistry serviceRegistry = new StandardServiceRegistryBuilder().applySettings(properties).build();
+		try {
+			JDBCReader serial = JDBCReaderFactory.newJDBCReader( properties, new DefaultReverseEngineeringStrategy(), serviceRegistry );
+			for (int i = 0; i < settings.length; i += 2) {
+				properties.setProperty(settings[i], settings[i + 1]);
+			}
+			assertSameSchema(serial, JDBCReaderFactory.newJDBCReader( properties, new DefaultReverseEngineeringStrategy(), serviceRegistry ));
+		} 
+		finally {
+			StandardServiceRegistryBuilder.destroy(serviceRegistry);
+		}
+	}
+
+	private void assertSameSchema(JDBCReader expectedReader, JDBCReader actualReader) {
+		DatabaseCollector serial = new DefaultDatabaseCollector(expectedReader.getMetaDataDialect());
+		List<Table> serialTables = expectedReader.readDatabaseSchema( serial, null, null );
+
+		DatabaseCollector other = new DefaultDatabaseCollector(actualReader.getMetaDataDialect());
+		List<Table> otherTables = actualReader.readDatabaseSchema( other, null, null );
+
+		assertEquals(5, serialTables.size());
+		assertEquals(describe(serialTables), describe(otherTables));
+		assertEquals(describe(serial.getOneToManyCandidates()), describe(other.getOneToManyCandidates()));
+		for (Iterator<Table> iter = serialTables.iterator(); iter.hasNext();) {
+			Table table = iter.next();
+			assertEquals(
+					serial.getSuggestedIdentifierStrategy(table.getCatalog(), table.getSchema(), table.getName()),
+					other.getSuggestedIdentifierStrategy(table.getCatalog(), table.getSchema(), table.getName()));
+		}
+	}
+
+	private String describe(List<Table> tables) {
+		StringBuffer sb = new StringBuffer();
+		for (Iterator<Table> iter = tables.iterator(); iter.hasNext();) {
+			Table table = iter.next();
+			sb.append(table.getName()).append('[');
+			for (Iterator<?> columns = table.getColumnIterator(); columns.hasNext();) {
+				Column column = (Column) columns.next();
+				sb.append(column.getName()).append(':').append(column.getSqlTypeCode())
+					.append(':').append(column.isNullable()).append(':').append(column.isUnique()).append(',');
+			}
+			sb.append("] pk ").append(table.getPrimaryKey()==null ? null : table.getPrimaryKey().getColumns());
+			for (Iterator<Index> indexes = table.getIndexIterator(); indexes.hasNext();) {
+				Index index = indexes.next();
+				sb.append(" index ").append(index.getName()).append(index.getColumnSpan());
+			}
+			for (Iterator<UniqueKey> keys = table.getUniqueKeyIterator(); keys.hasNext();) {
+				UniqueKey key = keys.next();
+				sb.append(" unique ").append(key.getName()).append(key.getColumns());
+			}
+			for (Iterator<?> keys = table.getForeignKeyIterator(); keys.hasNext();) {
+				ForeignKey key = (ForeignKey) keys.next();
+				sb.append(" fk ").append(key.getName()).append(key.getColumns()).append("->").append(key.getReferencedTable().getName());
+			}
+			sb.append('\n');
+		}
+		return sb.toString();
+	}
+
+	private String describe(Map<String, List<ForeignKey>> candidates) {
+		StringBuffer sb = new StringBuffer();
+		for (Iterator<String> iter = new TreeSet<String>(candidates.keySet()).iterator(); iter.hasNext();) {
+			String name = iter.next();
+			sb.append(name);
+			for (Iterator<ForeignKey> keys = candidates.get(name).iterator(); keys.hasNext();) {
+				sb.append(' ').append(keys.next().getName());
+			}
+			sb.append('\n');
+		}
+		return sb.toString();
+	}
+
+	protected String[] getCreateSQL() {
+		return new String[] {
+				"create table master ( id char not null, name varchar(20), code varchar(10), primary key (id), unique (code) )",
+				"create table child  ( childid char not null, masterref char, amount numeric(10,2), primary key (childid), foreign key (masterref) references master(id) )",
+				"create table item ( itemid integer not null, childref char not null, masterref char, descr varchar(100), primary key (itemid, childref), foreign key (childref) references child(childid), foreign key (masterref) references master(id) )",
+				"create table nokey ( ref integer, label varchar(5) )",
+				"create table tag ( tagid integer not null, label varchar(20) not null, primary key (tagid) )",
+				"create index tag_label_idx on tag(label)",
+		};
+	}
+
+	protected String[] getDropSQL() {
+		return new String[]  {
+				"drop table item",
+				"drop table child",
+				"drop table master",
+				"drop table nokey",
+				"drop table tag",
+		};
+	}
+
+}
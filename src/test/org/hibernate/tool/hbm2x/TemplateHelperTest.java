@@ -0,0 +1,122 @@
+package org.hibernate.tool.hbm2x;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import junit.framework.TestCase;
+
+public class TemplateHelperTest extends TestCase {
+
+	public void testStringTemplateCache() {
+		TemplateHelper helper = new TemplateHelper();
+		helper.init(null, new String[0]);
+		helper.putInContext("name", "world");
+
+		assertEquals("Hello world", process(helper, "Hello ${name}"));
+		assertEquals("Hello world", process(helper, "Hello ${name}"));
+		assertEquals("Bye world", process(helper, "Bye ${name}"));
+		assertEquals(1, helper.getTemplateCacheHits());
+		assertEquals(2, helper.getTemplateCacheMisses());
+		assertEquals(0, helper.getTemplateCacheEvictions());
+
+		helper.setTemplateCacheSize(1);
+		assertEquals(1, helper.getTemplateCacheEvictions());
+		assertEquals("Bye world", process(helper, "Bye ${name}"));
+		assertEquals("Hello world", process(helper, "Hello ${name}"));
+		assertEquals(2, helper.getTemplateCacheHits());
+		assertEquals(3, helper.getTemplateCacheMisses());
+		assertEquals(2, helper.getTemplateCacheEvictions());
+
+		try {
+			helper.setTemplateCacheSize(0);
+			fail();
+		}
+		catch (IllegalArgumentException e) {
+			// expected
+		}
+	}
+
+	public void testSharedTemplates() {
+		ExporterRun run = new ExporterRun();
+		try {
+			TemplateHelper first = new TemplateHelper();
+			first.init(null, new String[0], run);
+			TemplateHelper second = new TemplateHelper();
+			second.init(null, new String[0], run);
+			TemplateHelper own = new TemplateHelper();
+			own.init(null, new String[0]);
+			assertSame(first.freeMarkerEngine, second.freeMarkerEngine);
+			assertNotSame(first.freeMarkerEngine, own.freeMarkerEngine);
+
+			process(first, "Shared");
+			process(second, "Shared");
+			assertEquals(1, second.getTemplateCacheHits());
+		}
+		finally {
+			run.close();
+		}
+
+		TemplateHelper first = new TemplateHelper();
+		first.init(null, new String[0], new ExporterRun());
+		TemplateHelper second = new TemplateHelper();
+		second.init(null, new String[0], new ExporterRun());
+		assertNotSame(first.freeMarkerEngine, second.freeMarkerEngine);
+	}
+
+	public void testLayeredContext() throws Exception {
+		File templates = new File(System.getProperty("java.io.tmpdir"), "layeredcontext" + System.nanoTime());
+		templates.mkdirs();
+		try {
+			FileWriter writer = new FileWriter(new File(templates, "layered.ftl"));
+			writer.write("<#list ctx?keys as key>${key};</#list>|${ctx.name}|${renderer.render()}");
+			writer.close();
+			
+			TemplateHelper helper = new TemplateHelper();
+			helper.init(null, new String[] { templates.getPath() });
+			helper.putInContext("shared", "value");
+			Map<String, Object> additionalContext = new HashMap<String, Object>();
+			additionalContext.put("name", "layer");
+			additionalContext.put("renderer", new Renderer(helper, "Hello ${name} and ${shared}"));
+			StringWriter output = new StringWriter();
+			helper.processTemplate("layered.ftl", output, null, additionalContext);
+			
+			String[] parts = output.toString().split("\\|");
+			List<String> keys = Arrays.asList(parts[0].split(";"));
+			assertTrue(keys.contains("shared"));
+			assertTrue(keys.contains("name"));
+			assertEquals("layer", parts[1]);
+			assertEquals("Hello layer and value", parts[2]);
+			assertFalse(additionalContext.containsKey("ctx"));
+			assertEquals("none and value", process(helper, "${name!\"none\"} and ${shared}"));
+		}
+		finally {
+			new File(templates, "layered.ftl").delete();
+			templates.delete();
+		}
+	}
+
+	public static class Renderer {
+		private final TemplateHelper helper;
+		private final String template;
+		
+		Renderer(TemplateHelper helper, String template) {
+			this.helper = helper;
+			this.template = template;
+		}
+		
+		public String render() {
+			return process(helper, template);
+		}
+	}
+
+	private static String process(TemplateHelper helper, String template) {
+		StringWriter output = new StringWriter();
+		helper.processString(template, output);
+		return output.toString();
+	}
+}
@@ -12,6 +12,7 @@ import junit.framework.TestCase;
 
 import org.dom4j.DocumentException;
 import org.xml.sax.SAXException;
+import org.w3c.tidy.Tidy;
 
 /**
  * @author max
@@ -63,4 +64,38 @@ public class XMLPrettyPrinterTest extends TestCase {
                 "<hibernate-mapping defaultx-lazy=\"false\" />" + lineSeparator() + lineSeparator()   
                 ,string);
     }
+
+    public void testPrettyPrintInMemory() throws IOException {
+        byte[] formatted = XMLPrettyPrinter.prettyPrint("<basic attrib='1'></basic>".getBytes(), "basic");
+        assertEquals("<basic attrib='1'></basic>" + lineSeparator(), new String(formatted));
+        
+        assertNull(XMLPrettyPrinter.prettyPrint("<basic><open></basic>".getBytes(), "broken"));
+        
+        Tidy tidy = XMLPrettyPrinter.getDefaultTidy();
+        assertNull(XMLPrettyPrinter.prettyPrint(tidy, "<basic><open></basic>".getBytes(), "broken"));
+        formatted = XMLPrettyPrinter.prettyPrint(tidy, "<basic attrib='1'></basic>".getBytes(), "basic");
+        assertEquals("<basic attrib='1'></basic>" + lineSeparator(), new String(formatted));
+    }
+    
+    public void testIndent() {
+        String input = "<?xml version=\"1.0\"?>\n<!DOCTYPE hibernate-mapping PUBLIC \"-//Hibernate/Hibernate Mapping DTD 3.0//EN\" \"x.dtd\">\n" 
+        		+ "<hibernate-mapping>\n\n<!-- a comment -->\n  <class name=\"A > B\">\n<meta attribute=\"x\">  value </meta>\n"
+        		+ "<id name='id'/>\n<sql-query><![CDATA[ select 1 ]]></sql-query>\n</class>\n</hibernate-mapping>\n";
+        String nl = lineSeparator();
+        assertEquals("<?xml version=\"1.0\"?>" + nl
+        		+ "<!DOCTYPE hibernate-mapping PUBLIC \"-//Hibernate/Hibernate Mapping DTD 3.0//EN\" \"x.dtd\">" + nl
+        		+ "<hibernate-mapping>" + nl
+        		+ "    <!-- a comment -->" + nl
+        		+ "    <class name=\"A > B\">" + nl
+        		+ "        <meta attribute=\"x\">value</meta>" + nl
+        		+ "        <id name='id'/>" + nl
+        		+ "        <sql-query><![CDATA[ select 1 ]]></sql-query>" + nl
+        		+ "    </class>" + nl
+        		+ "</hibernate-mapping>" + nl,
+        		XMLIndenter.indent(input, 4));
+        
+        assertNull(XMLIndenter.indent("<a><b></a>", 4));
+        assertNull(XMLIndenter.indent("<a>", 4));
+        assertNull(XMLIndenter.indent("<a></a>text", 4));
+    }
 }
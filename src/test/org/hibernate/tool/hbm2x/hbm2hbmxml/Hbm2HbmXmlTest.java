@@ -9,6 +9,7 @@ package org.hibernate.tool.hbm2x.hbm2hbmxml;
 
 import java.io.File;
 import java.util.List;
+import java.util.Properties;
 
 import junit.framework.Test;
 import junit.framework.TestSuite;
@@ -22,7 +23,9 @@ import org.dom4j.Node;
 import org.dom4j.XPath;
 import org.dom4j.io.SAXReader;
 import org.hibernate.tool.NonReflectiveTestCase;
+import org.hibernate.tool.hbm2x.ArtifactCollector;
 import org.hibernate.tool.hbm2x.Exporter;
+import org.hibernate.tool.hbm2x.ExporterSettings;
 import org.hibernate.tool.hbm2x.HibernateMappingExporter;
 import org.hibernate.tool.hbm2x.HibernateMappingGlobalSettings;
 
@@ -62,6 +65,24 @@ public class Hbm2HbmXmlTest extends NonReflectiveTestCase {
 		
 	}
 	
+	public void testIndentedXmlFormat() throws Exception {
+		File outputXml = new File(getOutputDir().getAbsolutePath() + "/org/hibernate/tool/hbm2x/hbm2hbmxml/Basic.hbm.xml");
+		List<?> tidied = getSAXReader().read(outputXml).selectNodes("//@*");
+		
+		Exporter exporter = new HibernateMappingExporter(getCfg(), getOutputDir() );
+		Properties properties = new Properties();
+		properties.setProperty(ExporterSettings.XML_FORMAT, ArtifactCollector.XML_FORMAT_INDENT);
+		exporter.setProperties(properties);
+		exporter.start();
+		
+		List<?> indented = getSAXReader().read(outputXml).selectNodes("//@*");
+		assertEquals(tidied.size(), indented.size());
+		for (int i = 0; i < tidied.size(); i++) {
+			assertEquals(((Attribute) tidied.get(i)).getPath() + "=" + ((Attribute) tidied.get(i)).getValue(), 
+					((Attribute) indented.get(i)).getPath() + "=" + ((Attribute) indented.get(i)).getValue());
+		}
+	}
+	
 	/**
 	 * Special test for external Global settings were generated.
 	 * Schema and Catalog settings should appear.
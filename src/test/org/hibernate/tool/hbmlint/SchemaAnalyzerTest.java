@@ -6,6 +6,9 @@ import java.util.List;
 
 import org.hibernate.boot.Metadata;
 import org.hibernate.cfg.Configuration;
+import org.hibernate.cfg.reveng.ReverseEngineeringMetrics;
+import org.hibernate.cfg.reveng.ReverseEngineeringMetrics.Counters;
+import org.hibernate.cfg.reveng.ReverseEngineeringMetrics.Phase;
 import org.hibernate.mapping.Table;
 import org.hibernate.tool.JDBCMetaDataBinderTestCase;
 import org.hibernate.tool.hbm2x.HbmLintExporter;
@@ -30,10 +33,42 @@ public class SchemaAnalyzerTest extends JDBCMetaDataBinderTestCase {
 	}
 	
 	public void testSchemaAnalyzer() {
+		assertSchemaIssues(false);
+	}
+	
+	public void testSchemaAnalyzerBatched() {
+		assertSchemaIssues(true);
+	}
+	
+	public void testSchemaAnalyzerBatchedReads() {
+		Configuration configuration = new Configuration();
+		addMappings( getMappings(), configuration );
+		SchemaByMetaDataDetector analyzer = new SchemaByMetaDataDetector();
+		analyzer.initialize( MetadataHelper.getMetadata(configuration) );
+		analyzer.setBatchValidation(true);
+		ReverseEngineeringMetrics metrics = new ReverseEngineeringMetrics();
+		analyzer.setMetrics(metrics);
+		
+		Iterator<Table> tableMappings = MetadataHelper.getMetadata(configuration).collectTableMappings().iterator();
+		while ( tableMappings.hasNext() ) {
+			analyzer.visit(tableMappings.next(), new MockCollector() );
+		}
+		analyzer.visitGenerators(new MockCollector());
+		
+		Counters total = metrics.getTotal();
+		assertEquals(1, total.get(Phase.TABLES).getCalls());
+		assertEquals(3, total.get(Phase.COLUMNS).getCalls()); // category, badtype and hilo_table
+		assertNull(total.get(Phase.PRIMARY_KEYS));
+		assertNull(total.get(Phase.INDEXES));
+		assertNull(total.get(Phase.FOREIGN_KEYS));
+	}
+	
+	private void assertSchemaIssues(boolean batchValidation) {
 		Configuration configuration = new Configuration();
 		addMappings( getMappings(), configuration );
 		SchemaByMetaDataDetector analyzer = new SchemaByMetaDataDetector();
 		analyzer.initialize( MetadataHelper.getMetadata(configuration) );
+		analyzer.setBatchValidation(batchValidation);
 		
 		Metadata metadata = MetadataHelper.getMetadata(configuration);
 		
@@ -7,6 +7,7 @@ import java.util.Properties;
 import org.hibernate.cfg.AvailableSettings;
 import org.hibernate.cfg.reveng.DefaultDatabaseCollector;
 import org.hibernate.cfg.reveng.ReverseEngineeringRuntimeInfo;
+import org.hibernate.cfg.reveng.dialect.HSQLMetaDataDialect;
 import org.hibernate.cfg.reveng.dialect.JDBCMetaDataDialect;
 import org.hibernate.cfg.reveng.dialect.MetaDataDialect;
 import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
@@ -131,5 +132,33 @@ protected String[] getCreateSQL() {
 		assertHasNext( 1,	tables );
 	}
 
+	public void testPreparedStatementCache() {
+		HSQLMetaDataDialect dialect = new HSQLMetaDataDialect();
+		ServiceRegistry serviceRegistry = getConfiguration().getServiceRegistry();
+		JdbcServices jdbcServices = serviceRegistry.getService(JdbcServices.class);
+		ConnectionProvider connectionProvider = 
+				serviceRegistry.getService(ConnectionProvider.class);
+		dialect.configure( 
+				ReverseEngineeringRuntimeInfo.createInstance(
+						connectionProvider,
+						jdbcServices.getSqlExceptionHelper().getSqlExceptionConverter(), 
+						new DefaultDatabaseCollector(dialect)));
+		try {
+			assertHasNext( 1, dialect.prefetchExportedKeys( null, null, identifier( "TAB_MASTER" ) ) );
+			assertEquals( 1, dialect.getStatementCacheMisses() );
+			assertHasNext( 0, dialect.prefetchExportedKeys( null, null, identifier( "TAB_CHILD" ) ) );
+			assertEquals( 1, dialect.getStatementCacheMisses() );
+			assertEquals( 1, dialect.getStatementCacheHits() );
+
+			dialect.setStatementCacheSize( 1 );
+			assertHasNext( 1, dialect.prefetchPrimaryKeys( null, null, identifier( "TAB_MASTER" ) ) );
+			assertHasNext( 1, dialect.prefetchExportedKeys( null, null, identifier( "TAB_MASTER" ) ) );
+			assertEquals( 3, dialect.getStatementCacheMisses() );
+			assertEquals( 1, dialect.getStatementCacheHits() );
+		}
+		finally {
+			dialect.close();
+		}
+	}
 	
 }
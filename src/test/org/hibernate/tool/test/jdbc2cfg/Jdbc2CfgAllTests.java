@@ -31,6 +31,7 @@ public class Jdbc2CfgAllTests {
 		suite.addTest(AutoQuoteTest.suite());
 		suite.addTest(KeyPropertyCompositeIdTest.suite());
 		suite.addTest(IndexTest.suite());
+		suite.addTest(ParallelBindingTest.suite());
 		suite.addTest(new TestSuite(MetaDataDialectFactoryTest.class));
 		//$JUnit-END$
 		return suite;
@@ -5,6 +5,9 @@
 package org.hibernate.tool.test.jdbc2cfg;
 
 import java.io.File;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
 
 import junit.framework.Test;
 import junit.framework.TestSuite;
@@ -13,9 +16,12 @@ import org.hibernate.MappingException;
 import org.hibernate.cfg.Configuration;
 import org.hibernate.cfg.JDBCMetaDataConfiguration;
 import org.hibernate.cfg.reveng.DefaultReverseEngineeringStrategy;
+import org.hibernate.cfg.reveng.DelegatingReverseEngineeringStrategy;
 import org.hibernate.cfg.reveng.ReverseEngineeringSettings;
 import org.hibernate.mapping.PersistentClass;
+import org.hibernate.mapping.ForeignKey;
 import org.hibernate.mapping.Property;
+import org.hibernate.mapping.Table;
 import org.hibernate.tool.JDBCMetaDataBinderTestCase;
 import org.hibernate.tool.hbm2x.HibernateMappingExporter;
 import org.hibernate.tool.util.MetadataHelper;
@@ -141,6 +147,34 @@ public class ManyToManyTest extends JDBCMetaDataBinderTestCase {
 	}
 	
 
+	public void testClassifiedOnce() {
+		final Map<Object, Integer> asked = new IdentityHashMap<Object, Integer>();
+		DelegatingReverseEngineeringStrategy counting = new DelegatingReverseEngineeringStrategy(new DefaultReverseEngineeringStrategy()) {
+			public boolean isManyToManyTable(Table table) {
+				count(table);
+				return super.isManyToManyTable(table);
+			}
+			public boolean isOneToOne(ForeignKey foreignKey) {
+				count(foreignKey);
+				return super.isOneToOne(foreignKey);
+			}
+			private void count(Object key) {
+				Integer count = asked.get(key);
+				asked.put(key, count==null ? 1 : count + 1);
+			}
+		};
+		JDBCMetaDataConfiguration configuration = new JDBCMetaDataConfiguration();
+		configuration.setReverseEngineeringStrategy(counting);
+		configuration.readFromJDBC();
+
+		assertNull(configuration.getMetadata().getEntityBinding("WorksOn"));
+		assertNotNull(configuration.getMetadata().getEntityBinding("Employee").getProperty("projects"));
+		assertFalse(asked.isEmpty());
+		for (Iterator<Integer> iter = asked.values().iterator(); iter.hasNext();) {
+			assertEquals(1, iter.next().intValue());
+		}
+	}
+
 	private void assertPropertyNotExist(PersistentClass projectClass, String prop) {
 		try {
 			projectClass.getProperty(prop);
@@ -356,6 +356,40 @@ public class OverrideBinderTest extends JDBCMetaDataBinderTestCase {
 		assertTrue(tf.exclude(new TableIdentifier("heremaxsub") ).booleanValue() );
 	}
 	
+	public void testManyTableFilters() {
+		OverrideRepository or = buildOverrideRepository();
+		or.addTableFilter(filter(".*", "EXCLUDED", "excluded", Boolean.TRUE));
+		or.addTableFilter(filter(".*", "PRE_.*", "first", Boolean.FALSE));
+		or.addTableFilter(filter(".*", "PRE_X", "second", Boolean.FALSE));
+		for (int i = 0; i < 500; i++) {
+			or.addTableFilter(filter(".*", "TABLE_" + i, "pkg" + i, Boolean.FALSE));
+		}
+		or.addTableFilter(filter(".*", ".*_SUF", "suffix", Boolean.FALSE));
+		or.addTableFilter(filter("OTHER", ".*", "other", Boolean.FALSE));
+		ReverseEngineeringStrategy repository = or.getReverseEngineeringStrategy(new DefaultReverseEngineeringStrategy());
+
+		assertEquals("first.PreX", repository.tableToClassName(new TableIdentifier("PRE_X") ) );
+		assertEquals("pkg42.Table42", repository.tableToClassName(new TableIdentifier("TABLE_42") ) );
+		assertEquals("pkg42.Table42", repository.tableToClassName(new TableIdentifier("TABLE_42") ) );
+		assertEquals("suffix.Table500Suf", repository.tableToClassName(new TableIdentifier("TABLE_500_SUF") ) );
+		assertEquals("other.Table500", repository.tableToClassName(new TableIdentifier(null, "OTHER", "TABLE_500") ) );
+		assertFalse(repository.excludeTable(new TableIdentifier("TABLE_499") ) );
+		assertTrue(repository.excludeTable(new TableIdentifier("EXCLUDED") ) );
+		assertTrue("not matched by an including filter", repository.excludeTable(new TableIdentifier("TABLE_500") ) );
+
+		or.addTableFilter(filter(".*", "TABLE_500", "late", Boolean.FALSE));
+		assertFalse(repository.excludeTable(new TableIdentifier("TABLE_500") ) );
+	}
+
+	private TableFilter filter(String schema, String name, String packageName, Boolean exclude) {
+		TableFilter tf = new TableFilter();
+		tf.setMatchSchema(schema);
+		tf.setMatchName(name);
+		tf.setPackage(packageName);
+		tf.setExclude(exclude);
+		return tf;
+	}
+	
 	public void testColumnExclude() {
 		
 		OverrideRepository or = buildOverrideRepository();
@@ -0,0 +1,145 @@
+package org.hibernate.tool.test.jdbc2cfg;
+
+import java.util.Iterator;
+import java.util.TreeMap;
+
+import junit.framework.Test;
+import junit.framework.TestSuite;
+
+import org.hibernate.cfg.JDBCBinder;
+import org.hibernate.cfg.JDBCBinderException;
+import org.hibernate.cfg.JDBCMetaDataConfiguration;
+import org.hibernate.cfg.reveng.DefaultReverseEngineeringStrategy;
+import org.hibernate.cfg.reveng.DelegatingReverseEngineeringStrategy;
+import org.hibernate.cfg.reveng.TableIdentifier;
+import org.hibernate.mapping.Collection;
+import org.hibernate.mapping.Column;
+import org.hibernate.mapping.Component;
+import org.hibernate.mapping.PersistentClass;
+import org.hibernate.mapping.Property;
+import org.hibernate.mapping.SimpleValue;
+import org.hibernate.mapping.ToOne;
+import org.hibernate.mapping.Value;
+import org.hibernate.tool.JDBCMetaDataBinderTestCase;
+
+public class ParallelBindingTest extends JDBCMetaDataBinderTestCase {
+
+	public static Test suite() {
+		return new TestSuite(ParallelBindingTest.class);
+	}
+
+	public void testParallelBindingEqualsSerialBinding() {
+		JDBCMetaDataConfiguration parallel = new JDBCMetaDataConfiguration();
+		parallel.setProperty(JDBCBinder.BINDER_THREADS, "3");
+		parallel.readFromJDBC();
+
+		assertEquals(6, cfg.getMetadata().getEntityBindings().size());
+		assertNull(cfg.getMetadata().getEntityBinding("ItemTag"));
+		assertEquals(describe(cfg), describe(parallel));
+	}
+
+	public void testParallelBindingReportsSameDuplicate() {
+		String serial = readDuplicates("1");
+		assertNotNull(serial);
+		assertEquals(serial, readDuplicates("3"));
+	}
+
+	private String readDuplicates(String threads) {
+		JDBCMetaDataConfiguration configuration = new JDBCMetaDataConfiguration();
+		configuration.setProperty(JDBCBinder.BINDER_THREADS, threads);
+		configuration.setReverseEngineeringStrategy(new DelegatingReverseEngineeringStrategy(new DefaultReverseEngineeringStrategy()) {
+			public String tableToClassName(TableIdentifier tableIdentifier) {
+				String name = super.tableToClassName(tableIdentifier);
+				return name.equals("Tag") || name.equals("Node") ? "Master" : name;
+			}
+		});
+		try {
+			configuration.readFromJDBC();
+			return null;
+		}
+		catch (JDBCBinderException e) {
+			return e.getMessage();
+		}
+	}
+
+	private String describe(JDBCMetaDataConfiguration configuration) {
+		TreeMap<String, String> entities = new TreeMap<String, String>();
+		for (Iterator<PersistentClass> iter = configuration.getMetadata().getEntityBindings().iterator(); iter.hasNext();) {
+			PersistentClass pc = iter.next();
+			StringBuffer sb = new StringBuffer();
+			sb.append(" id ").append(pc.getIdentifierProperty().getName());
+			describe(sb, pc.getIdentifier());
+			if(pc.getVersion()!=null) {
+				sb.append(" version ").append(pc.getVersion().getName());
+			}
+			for (Iterator<?> properties = pc.getPropertyIterator(); properties.hasNext();) {
+				Property property = (Property) properties.next();
+				sb.append(' ').append(property.getName());
+				describe(sb, property.getValue());
+			}
+			entities.put(pc.getEntityName(), sb.toString());
+		}
+		TreeMap<String, String> collections = new TreeMap<String, String>();
+		for (Iterator<Collection> iter = configuration.getMetadata().getCollectionBindings().iterator(); iter.hasNext();) {
+			Collection collection = iter.next();
+			StringBuffer sb = new StringBuffer();
+			sb.append(collection.isInverse()).append(" key");
+			describe(sb, collection.getKey());
+			sb.append(" element");
+			describe(sb, collection.getElement());
+			collections.put(collection.getRole(), sb.toString());
+		}
+		return entities + "\n" + collections;
+	}
+
+	private void describe(StringBuffer sb, Value value) {
+		sb.append('[').append(value.getClass().getSimpleName());
+		if(value instanceof Component) {
+			for (Iterator<?> properties = ((Component) value).getPropertyIterator(); properties.hasNext();) {
+				Property property = (Property) properties.next();
+				sb.append(' ').append(property.getName());
+				describe(sb, property.getValue());
+			}
+		}
+		else if(value instanceof ToOne) {
+			sb.append(' ').append(((ToOne) value).getReferencedEntityName());
+		}
+		else if(value instanceof SimpleValue) {
+			sb.append(' ').append(((SimpleValue) value).getTypeName());
+		}
+		for (Iterator<?> columns = value.getColumnIterator(); columns.hasNext();) {
+			Object next = columns.next();
+			if(next instanceof Column) {
+				Column column = (Column) next;
+				sb.append(' ').append(column.getName()).append(':').append(column.getSqlTypeCode())
+					.append(':').append(column.getValue().getClass().getSimpleName()).append(':').append(column.getTypeIndex());
+			}
+		}
+		sb.append(']');
+	}
+
+	protected String[] getCreateSQL() {
+		return new String[] {
+				"create table master ( id char not null, name varchar(20), version integer, primary key (id) )",
+				"create table child  ( childid char not null, masterref char, amount numeric(10,2), primary key (childid), foreign key (masterref) references master(id) )",
+				"create table item ( itemid integer not null, childref char not null, masterref char, descr varchar(100), primary key (itemid, childref), foreign key (childref) references child(childid), foreign key (masterref) references master(id) )",
+				"create table node ( nodeid integer not null, parentref integer, primary key (nodeid), foreign key (parentref) references node(nodeid) )",
+				"create table nokey ( ref integer, label varchar(5) )",
+				"create table tag ( tagid integer not null, label varchar(20) not null, primary key (tagid) )",
+				"create table item_tag ( itemref integer not null, childref char not null, tagref integer not null, primary key (itemref, childref, tagref), foreign key (itemref, childref) references item(itemid, childref), foreign key (tagref) references tag(tagid) )",
+		};
+	}
+
+	protected String[] getDropSQL() {
+		return new String[]  {
+				"drop table item_tag",
+				"drop table item",
+				"drop table child",
+				"drop table master",
+				"drop table node",
+				"drop table nokey",
+				"drop table tag",
+		};
+	}
+
+}
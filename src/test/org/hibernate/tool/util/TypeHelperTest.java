@@ -0,0 +1,34 @@
+package org.hibernate.tool.util;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import junit.framework.TestCase;
+
+public class TypeHelperTest extends TestCase {
+
+	public void testTypeNames() {
+		assertTrue(TypeHelper.isPrimitive("int"));
+		assertFalse(TypeHelper.isPrimitive("integer"));
+		assertEquals("Integer", TypeHelper.getWrapperName("int"));
+		assertTrue(TypeHelper.isNonPrimitiveTypeName("string"));
+		assertTrue(TypeHelper.isNonPrimitiveTypeName("java.lang.Long"));
+		assertFalse(TypeHelper.isNonPrimitiveTypeName("int"));
+		assertFalse(TypeHelper.isNonPrimitiveTypeName("org.example.Unknown"));
+		assertFalse(TypeHelper.isNonPrimitiveTypeName(null));
+	}
+
+	public void testJavaTypeNames() {
+		assertEquals("java.lang.String", TypeHelper.getJavaTypeName("string"));
+		assertEquals("int", TypeHelper.getJavaTypeName("int"));
+		assertEquals("long", TypeHelper.getJavaTypeName("long"));
+		assertNull(TypeHelper.getJavaTypeName("org.example.Unknown"));
+
+		Map<String, String> javaTypeNames = new HashMap<String, String>();
+		assertEquals("java.lang.String", TypeHelper.getJavaTypeName("string", javaTypeNames));
+		assertSame(TypeHelper.getJavaTypeName("string", javaTypeNames), TypeHelper.getJavaTypeName("string", javaTypeNames));
+		assertNull(TypeHelper.getJavaTypeName("org.example.Unknown", javaTypeNames));
+		assertNull(TypeHelper.getJavaTypeName("org.example.Unknown", javaTypeNames));
+		assertEquals(2, javaTypeNames.size());
+	}
+}